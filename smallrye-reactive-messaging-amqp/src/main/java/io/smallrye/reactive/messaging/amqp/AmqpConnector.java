@@ -12,6 +12,7 @@ import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.BeforeDestroyed;
 import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
@@ -29,6 +30,8 @@ import org.slf4j.LoggerFactory;
 
 import io.reactivex.Flowable;
 import io.reactivex.processors.MulticastProcessor;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
 import io.vertx.amqp.AmqpClientOptions;
 import io.vertx.amqp.AmqpReceiverOptions;
 import io.vertx.axle.amqp.AmqpClient;
@@ -52,6 +55,10 @@ public class AmqpConnector implements IncomingConnectorFactory, OutgoingConnecto
     @Inject
     private Instance<Vertx> instanceOfVertx;
 
+    @Inject
+    @Any
+    private Instance<MetricsProvider> metricsProviders;
+
     @Inject
     @ConfigProperty(name = "amqp-port", defaultValue = "5672")
     private Integer configuredPort;
@@ -184,11 +191,15 @@ public class AmqpConnector implements IncomingConnectorFactory, OutgoingConnecto
         boolean broadcast = config.getOptionalValue("broadcast", Boolean.class).orElse(false);
         boolean durable = config.getOptionalValue("durable", Boolean.class).orElse(true);
         boolean autoAck = config.getOptionalValue("auto-acknowledgement", Boolean.class).orElse(false);
-        CompletionStage<AmqpReceiver> future = getClient(config)
+        ChannelMetrics metrics = MetricsProvider.forConnector(metricsProviders, config);
+        Object span = metrics.isTraced(ChannelMetrics.Operation.CONNECT)
+                ? metrics.startSpan(ChannelMetrics.Operation.CONNECT, address)
+                : null;
+        CompletionStage<AmqpReceiver> future = traced(metrics, span, getClient(config)
                 .connect()
                 .thenCompose(connection -> connection.createReceiver(address, new AmqpReceiverOptions()
                         .setAutoAcknowledgement(autoAck)
-                        .setDurable(durable)));
+                        .setDurable(durable))));
 
         PublisherBuilder<? extends Message<?>> builder = ReactiveStreams
                 .fromCompletionStage(future)
@@ -205,6 +216,8 @@ public class AmqpConnector implements IncomingConnectorFactory, OutgoingConnecto
         String address = getAddressOrFail(config);
         boolean durable = config.getOptionalValue("durable", Boolean.class).orElse(true);
         long ttl = config.getOptionalValue("ttl", Long.class).orElse(0L);
+        ChannelMetrics metrics = MetricsProvider.forConnector(metricsProviders, config);
+        boolean traceConnections = metrics.isTraced(ChannelMetrics.Operation.CONNECT);
 
         AtomicReference<AmqpSender> sender = new AtomicReference<>();
         return ReactiveStreams.<Message<?>> builder().flatMapCompletionStage(message -> {
@@ -218,8 +231,8 @@ public class AmqpConnector implements IncomingConnectorFactory, OutgoingConnecto
                     throw new IllegalStateException("Unable to create a client, probably a config error", e);
                 }
 
-                return client
-                        .createSender(address)
+                Object span = traceConnections ? metrics.startSpan(ChannelMetrics.Operation.CONNECT, address) : null;
+                return traced(metrics, span, client.createSender(address))
                         .thenApply(s -> {
                             sender.set(s);
                             return s;
@@ -245,6 +258,16 @@ public class AmqpConnector implements IncomingConnectorFactory, OutgoingConnecto
         }).ignore();
     }
 
+    /**
+     * Ends the given span, if any, once the stage completes.
+     */
+    private static <T> CompletionStage<T> traced(ChannelMetrics metrics, Object span, CompletionStage<T> stage) {
+        if (span == null) {
+            return stage;
+        }
+        return stage.whenComplete((x, f) -> metrics.endSpan(span, f));
+    }
+
     private CompletionStage send(AmqpSender sender, Message msg, boolean durable, long ttl) {
         io.vertx.axle.amqp.AmqpMessage amqp;
 
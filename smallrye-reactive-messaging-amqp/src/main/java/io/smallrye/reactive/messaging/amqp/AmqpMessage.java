@@ -15,14 +15,17 @@ import org.apache.qpid.proton.amqp.messaging.Section;
 import org.apache.qpid.proton.message.Message;
 import org.apache.qpid.proton.message.MessageError;
 
+import io.smallrye.reactive.messaging.Lineage;
+import io.smallrye.reactive.messaging.TracedMessage;
 import io.vertx.amqp.impl.AmqpMessageImpl;
 import io.vertx.axle.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 
-public class AmqpMessage<T> implements org.eclipse.microprofile.reactive.messaging.Message<T> {
+public class AmqpMessage<T> implements TracedMessage<T> {
 
     private final io.vertx.amqp.AmqpMessage message;
     private final boolean received;
+    private Lineage lineage;
 
     public AmqpMessage(io.vertx.axle.amqp.AmqpMessage delegate) {
         this.message = delegate.getDelegate();
@@ -169,4 +172,14 @@ public class AmqpMessage<T> implements org.eclipse.microprofile.reactive.messagi
     public io.vertx.axle.amqp.AmqpMessage getAmqpMessage() {
         return new io.vertx.axle.amqp.AmqpMessage(message);
     }
+
+    @Override
+    public Lineage getLineage() {
+        return lineage;
+    }
+
+    @Override
+    public void setLineage(Lineage lineage) {
+        this.lineage = lineage;
+    }
 }
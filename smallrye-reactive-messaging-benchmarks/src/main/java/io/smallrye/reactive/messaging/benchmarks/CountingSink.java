@@ -0,0 +1,65 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Sink counting and acknowledging the messages it receives, as a connector would do once the message is written.
+ * <p>
+ * The sink either requests everything on subscription, or lets the benchmark control the demand using
+ * {@link #request(long)}.
+ */
+@SuppressWarnings("rawtypes")
+class CountingSink implements Subscriber<Message> {
+
+    private final boolean unbounded;
+    private volatile Subscription subscription;
+    private volatile long received;
+    private volatile Throwable failure;
+
+    CountingSink(boolean unbounded) {
+        this.unbounded = unbounded;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.subscription = s;
+        if (unbounded) {
+            s.request(Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onNext(Message message) {
+        message.ack();
+        // Single writer, no need for an atomic increment.
+        received = received + 1;
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        failure = t;
+    }
+
+    @Override
+    public void onComplete() {
+        // Ignored, benchmark sources never complete.
+    }
+
+    void request(long n) {
+        Subscription s = subscription;
+        if (s == null) {
+            throw new IllegalStateException("The sink has not been subscribed", failure);
+        }
+        s.request(n);
+    }
+
+    long received() {
+        Throwable t = failure;
+        if (t != null) {
+            throw new IllegalStateException("The stream has failed", t);
+        }
+        return received;
+    }
+}
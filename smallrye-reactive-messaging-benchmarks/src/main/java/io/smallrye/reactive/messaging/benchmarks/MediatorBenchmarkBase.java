@@ -0,0 +1,80 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base class of the mediator benchmarks. Each operation is a single message going through the woven mediator, so:
+ * <ul>
+ * <li>{@link #throughput()} reports messages per second,</li>
+ * <li>{@link #latency()} reports the latency distribution (p50, p99...) of a message,</li>
+ * <li>running with the GC profiler ({@code -prof gc}) reports the bytes allocated per message
+ * ({@code gc.alloc.rate.norm}).</li>
+ * </ul>
+ * Every benchmark runs once per {@link Acknowledgment.Strategy}. Combinations rejected by the validation fail during
+ * the setup and are reported as such by JMH.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class MediatorBenchmarkBase {
+
+    private static final CompletableFuture<Void> ACKED = CompletableFuture.completedFuture(null);
+    private static final Supplier<CompletionStage<Void>> ACK = () -> ACKED;
+
+    @Param
+    public Acknowledgment.Strategy acknowledgment;
+
+    MediatorHarness harness;
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput() {
+        roundTrip();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void latency() {
+        roundTrip();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (harness != null) {
+            harness.close();
+            harness = null;
+        }
+    }
+
+    /**
+     * Sends a message through the mediator and waits until it has been received on the other side.
+     */
+    abstract void roundTrip();
+
+    /**
+     * Creates a message as a connector would: with a payload and an acknowledgment callback.
+     */
+    static Message<Integer> message(int payload) {
+        return Message.of(payload, ACK);
+    }
+}
@@ -0,0 +1,211 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.enterprise.inject.se.SeContainer;
+import javax.enterprise.inject.se.SeContainerInitializer;
+import javax.enterprise.inject.spi.Bean;
+import javax.enterprise.inject.spi.BeanManager;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import io.smallrye.config.inject.ConfigProducer;
+import io.smallrye.reactive.messaging.ChannelRegistry;
+import io.smallrye.reactive.messaging.DefaultMediatorConfiguration;
+import io.smallrye.reactive.messaging.MediatorConfiguration;
+import io.smallrye.reactive.messaging.MediatorFactory;
+import io.smallrye.reactive.messaging.Shape;
+import io.smallrye.reactive.messaging.extension.MediatorManager;
+import io.smallrye.reactive.messaging.impl.InternalChannelRegistry;
+
+/**
+ * Boots a minimal Weld container containing the {@link MediatorManager} and lets a benchmark deploy a single mediator
+ * method, with a given acknowledgment strategy, between a source and a sink it controls.
+ * <p>
+ * The reactive messaging CDI extension is deliberately not installed: the benchmark beans declare several methods
+ * using the same channels, and only the method under test must be woven.
+ */
+class MediatorHarness implements AutoCloseable {
+
+    private static final long DELIVERY_TIMEOUT = TimeUnit.SECONDS.toNanos(10);
+
+    private final SeContainer container;
+    private final ChannelRegistry registry;
+    private final MediatorManager manager;
+
+    MediatorHarness(Class<?>... beans) {
+        this.container = SeContainerInitializer.newInstance()
+                .disableDiscovery()
+                .addBeanClasses(MediatorFactory.class,
+                        MediatorManager.class,
+                        InternalChannelRegistry.class,
+                        ConfigProducer.class)
+                .addBeanClasses(beans)
+                .initialize();
+        this.registry = container.select(ChannelRegistry.class).get();
+        this.manager = container.select(MediatorManager.class).get();
+    }
+
+    /**
+     * Registers the publisher feeding the given channel. Must be called before {@link #deploy}.
+     */
+    @SuppressWarnings("rawtypes")
+    void source(String channel, Publisher<? extends Message> publisher) {
+        registry.register(channel, ReactiveStreams.fromPublisher(publisher));
+    }
+
+    /**
+     * Registers the subscriber consuming the given channel. Must be called before {@link #deploy}.
+     */
+    @SuppressWarnings("rawtypes")
+    void sink(String channel, Subscriber<Message> subscriber) {
+        registry.register(channel, ReactiveStreams.fromSubscriber(subscriber));
+    }
+
+    /**
+     * Weaves the method {@code name} of {@code beanClass} using the given acknowledgment strategy.
+     */
+    void deploy(Class<?> beanClass, String name, Acknowledgment.Strategy strategy) {
+        BeanManager beanManager = container.getBeanManager();
+        Bean<?> bean = beanManager.resolve(beanManager.getBeans(beanClass));
+        Method method = findMethod(beanClass, name);
+
+        MediatorConfiguration configuration = new BenchmarkMediatorConfiguration(method, bean, strategy);
+        manager.addAnalyzed(Collections.singletonList(configuration));
+        manager.initializeAndRun();
+    }
+
+    /**
+     * Adds a chain of {@code length} mediators invoking the method {@code name} of {@code beanClass}, the i-th one
+     * consuming the channel {@code prefix + i} and producing {@code prefix + (i + 1)}. The mediators are not woven
+     * until {@link #weave()} is called.
+     *
+     * @param downstreamFirst whether the chain is declared from its end, the order requiring the most work to sort
+     */
+    void chain(Class<?> beanClass, String name, String prefix, int length, boolean downstreamFirst) {
+        BeanManager beanManager = container.getBeanManager();
+        Bean<?> bean = beanManager.resolve(beanManager.getBeans(beanClass));
+        Method method = findMethod(beanClass, name);
+
+        List<MediatorConfiguration> configurations = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            configurations.add(new ChainLinkConfiguration(method, bean, prefix + i, prefix + (i + 1)));
+        }
+        if (downstreamFirst) {
+            Collections.reverse(configurations);
+        }
+        manager.addAnalyzed(configurations);
+    }
+
+    /**
+     * Creates and connects the mediators added so far.
+     */
+    void weave() {
+        manager.initializeAndRun();
+    }
+
+    @Override
+    public void close() {
+        container.close();
+    }
+
+    /**
+     * Spins until {@code counter} reaches {@code expected}. Synchronous pipelines return on the first check.
+     */
+    static void await(LongSupplier counter, long expected) {
+        if (counter.getAsLong() >= expected) {
+            return;
+        }
+        long deadline = System.nanoTime() + DELIVERY_TIMEOUT;
+        while (counter.getAsLong() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Message " + expected + " has not been delivered - "
+                        + "check the logs, the mediator may have failed to initialize");
+            }
+        }
+    }
+
+    private static Method findMethod(Class<?> clazz, String name) {
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("No method named " + name + " in " + clazz.getName());
+    }
+
+    /**
+     * Computes the configuration from the annotations, like the extension does, but overrides the acknowledgment
+     * strategy.
+     */
+    private static class BenchmarkMediatorConfiguration extends DefaultMediatorConfiguration {
+
+        private final Acknowledgment.Strategy strategy;
+
+        BenchmarkMediatorConfiguration(Method method, Bean<?> bean, Acknowledgment.Strategy strategy) {
+            super(method, bean);
+            compute(method.getAnnotation(Incoming.class), method.getAnnotation(Outgoing.class));
+            this.strategy = strategy;
+            if (!isSupported()) {
+                throw new IllegalStateException("Unsupported combination: " + methodAsString() + " with " + strategy);
+            }
+        }
+
+        /**
+         * Mirrors the checks done by the validation when the strategy comes from the annotation.
+         */
+        private boolean isSupported() {
+            if (production() == Production.INDIVIDUAL_MESSAGE && strategy == Acknowledgment.Strategy.POST_PROCESSING) {
+                return false;
+            }
+            if (shape() == Shape.STREAM_TRANSFORMER) {
+                return strategy != Acknowledgment.Strategy.POST_PROCESSING
+                        && !(strategy == Acknowledgment.Strategy.MANUAL && consumption() == Consumption.STREAM_OF_PAYLOAD);
+            }
+            return true;
+        }
+
+        @Override
+        public Acknowledgment.Strategy getAcknowledgment() {
+            return strategy;
+        }
+    }
+
+    /**
+     * Computes the configuration from the annotations but overrides the channels, so a single method can be woven
+     * several times.
+     */
+    private static class ChainLinkConfiguration extends DefaultMediatorConfiguration {
+
+        private final String incoming;
+        private final String outgoing;
+
+        ChainLinkConfiguration(Method method, Bean<?> bean, String incoming, String outgoing) {
+            super(method, bean);
+            compute(method.getAnnotation(Incoming.class), method.getAnnotation(Outgoing.class));
+            this.incoming = incoming;
+            this.outgoing = outgoing;
+        }
+
+        @Override
+        public String getIncoming() {
+            return incoming;
+        }
+
+        @Override
+        public String getOutgoing() {
+            return outgoing;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.reactivex.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.benchmarks.beans.ProcessorBeans;
+import io.smallrye.reactive.messaging.metrics.ChannelStatistics;
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
+
+/**
+ * Measures the overhead of the channel metrics, comparing processors deployed with and without a
+ * {@link MetricsProvider}.
+ */
+public class MetricsBenchmark extends MediatorBenchmarkBase {
+
+    @Param({ "payload", "completionStageOfPayload" })
+    public String signature;
+
+    @Param({ "false", "true" })
+    public boolean metrics;
+
+    private UnicastProcessor<Message<Integer>> source;
+    private LongSupplier received;
+    private long sent;
+
+    @Setup
+    public void setup() {
+        harness = metrics ? new MediatorHarness(ProcessorBeans.class, StatisticsProvider.class)
+                : new MediatorHarness(ProcessorBeans.class);
+        source = UnicastProcessor.create();
+        CountingSink sink = new CountingSink(true);
+        received = sink::received;
+        harness.source(ProcessorBeans.IN, source);
+        harness.sink(ProcessorBeans.OUT, sink);
+        harness.deploy(ProcessorBeans.class, signature, acknowledgment);
+        // Fail fast if the pipeline does not work.
+        roundTrip();
+    }
+
+    @Override
+    void roundTrip() {
+        source.onNext(message((int) sent));
+        MediatorHarness.await(received, ++sent);
+    }
+
+    @ApplicationScoped
+    public static class StatisticsProvider implements MetricsProvider {
+        private final Map<String, ChannelStatistics> statistics = new ConcurrentHashMap<>();
+
+        @Override
+        public ChannelStatistics forChannel(String channel) {
+            return statistics.computeIfAbsent(channel, ChannelStatistics::new);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.function.LongSupplier;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.reactivex.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.benchmarks.beans.ProcessorBeans;
+
+/**
+ * Measures the 12 signatures supported by the {@code ProcessorMediator}.
+ */
+public class ProcessorBenchmark extends MediatorBenchmarkBase {
+
+    @Param({
+            "processorOfMessages",
+            "processorOfPayloads",
+            "processorBuilderOfMessages",
+            "processorBuilderOfPayloads",
+            "publisherOfMessages",
+            "publisherOfPayloads",
+            "publisherBuilderOfMessages",
+            "publisherBuilderOfPayloads",
+            "message",
+            "payload",
+            "completionStageOfPayload",
+            "completionStageOfMessage"
+    })
+    public String signature;
+
+    private UnicastProcessor<Message<Integer>> source;
+    private LongSupplier received;
+    private long sent;
+
+    @Setup
+    public void setup() {
+        harness = new MediatorHarness(ProcessorBeans.class);
+        source = UnicastProcessor.create();
+        CountingSink sink = new CountingSink(true);
+        received = sink::received;
+        harness.source(ProcessorBeans.IN, source);
+        harness.sink(ProcessorBeans.OUT, sink);
+        harness.deploy(ProcessorBeans.class, signature, acknowledgment);
+        // Fail fast if the pipeline does not work.
+        roundTrip();
+    }
+
+    @Override
+    void roundTrip() {
+        source.onNext(message((int) sent));
+        MediatorHarness.await(received, ++sent);
+    }
+}
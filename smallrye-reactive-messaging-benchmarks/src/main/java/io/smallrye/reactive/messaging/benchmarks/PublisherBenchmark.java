@@ -0,0 +1,50 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.smallrye.reactive.messaging.benchmarks.beans.PublisherBeans;
+
+/**
+ * Measures the 8 signatures supported by the {@code PublisherMediator}. The sink requests one message per operation.
+ * <p>
+ * Publishers have no incoming messages, so the acknowledgment strategy does not change what is measured, it is kept to
+ * share the reporting of the other benchmarks.
+ */
+public class PublisherBenchmark extends MediatorBenchmarkBase {
+
+    @Param({
+            "publisherOfMessages",
+            "publisherOfPayloads",
+            "publisherBuilderOfMessages",
+            "publisherBuilderOfPayloads",
+            "payload",
+            "message",
+            "completionStageOfPayload",
+            "completionStageOfMessage"
+    })
+    public String signature;
+
+    private CountingSink sink;
+    private LongSupplier received;
+    private long requested;
+
+    @Setup
+    public void setup() {
+        harness = new MediatorHarness(PublisherBeans.class);
+        sink = new CountingSink(false);
+        received = sink::received;
+        harness.sink(PublisherBeans.OUT, sink);
+        harness.deploy(PublisherBeans.class, signature, acknowledgment);
+        // Fail fast if the pipeline does not work.
+        roundTrip();
+    }
+
+    @Override
+    void roundTrip() {
+        sink.request(1);
+        MediatorHarness.await(received, ++requested);
+    }
+}
@@ -0,0 +1,67 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.reactivex.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.benchmarks.beans.ProcessorBeans;
+
+/**
+ * Measures the time spent by the {@code MediatorManager} to create and connect a chain of mediators, depending on the
+ * number of mediators and on the order in which they are declared.
+ * <p>
+ * Each operation boots a fresh container, excluded from the measurement, and weaves the whole chain once. The
+ * subscriptions are propagated recursively along the chain, hence the larger thread stack.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+
+    private static final String CHANNEL = "chain-";
+
+    @Param({ "100", "1000", "3000" })
+    public int mediators;
+
+    @Param({ "false", "true" })
+    public boolean downstreamFirst;
+
+    private MediatorHarness harness;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        harness = new MediatorHarness(ProcessorBeans.class);
+        UnicastProcessor<Message<Integer>> source = UnicastProcessor.create();
+        harness.source(CHANNEL + 0, source);
+        harness.sink(CHANNEL + mediators, new CountingSink(true));
+        harness.chain(ProcessorBeans.class, "payload", CHANNEL, mediators, downstreamFirst);
+    }
+
+    @Benchmark
+    public void weave() {
+        harness.weave();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        harness.close();
+        harness = null;
+    }
+}
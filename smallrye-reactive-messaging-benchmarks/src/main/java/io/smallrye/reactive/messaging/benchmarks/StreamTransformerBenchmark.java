@@ -0,0 +1,47 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import java.util.function.LongSupplier;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.reactivex.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.benchmarks.beans.StreamTransformerBeans;
+
+/**
+ * Measures the 4 signatures supported by the {@code StreamTransformerMediator}.
+ */
+public class StreamTransformerBenchmark extends MediatorBenchmarkBase {
+
+    @Param({
+            "publisherOfMessages",
+            "publisherOfPayloads",
+            "publisherBuilderOfMessages",
+            "publisherBuilderOfPayloads"
+    })
+    public String signature;
+
+    private UnicastProcessor<Message<Integer>> source;
+    private LongSupplier received;
+    private long sent;
+
+    @Setup
+    public void setup() {
+        harness = new MediatorHarness(StreamTransformerBeans.class);
+        source = UnicastProcessor.create();
+        CountingSink sink = new CountingSink(true);
+        received = sink::received;
+        harness.source(StreamTransformerBeans.IN, source);
+        harness.sink(StreamTransformerBeans.OUT, sink);
+        harness.deploy(StreamTransformerBeans.class, signature, acknowledgment);
+        // Fail fast if the pipeline does not work.
+        roundTrip();
+    }
+
+    @Override
+    void roundTrip() {
+        source.onNext(message((int) sent));
+        MediatorHarness.await(received, ++sent);
+    }
+}
@@ -0,0 +1,44 @@
+package io.smallrye.reactive.messaging.benchmarks;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.reactivex.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.benchmarks.beans.SubscriberBeans;
+
+/**
+ * Measures the signatures supported by the {@code SubscriberMediator}.
+ */
+public class SubscriberBenchmark extends MediatorBenchmarkBase {
+
+    @Param({
+            "subscriberOfMessages",
+            "subscriberOfPayloads",
+            "completionStageConsumingMessages",
+            "completionStageConsumingPayloads",
+            "voidConsumingPayloads"
+    })
+    public String signature;
+
+    private UnicastProcessor<Message<Integer>> source;
+    private long expected;
+
+    @Setup
+    public void setup() {
+        harness = new MediatorHarness(SubscriberBeans.class);
+        source = UnicastProcessor.create();
+        harness.source(SubscriberBeans.IN, source);
+        harness.deploy(SubscriberBeans.class, signature, acknowledgment);
+        // The counter is static, and so shared by the successive trials.
+        expected = SubscriberBeans.received();
+        // Fail fast if the pipeline does not work.
+        roundTrip();
+    }
+
+    @Override
+    void roundTrip() {
+        source.onNext(message((int) expected));
+        MediatorHarness.await(SubscriberBeans::received, ++expected);
+    }
+}
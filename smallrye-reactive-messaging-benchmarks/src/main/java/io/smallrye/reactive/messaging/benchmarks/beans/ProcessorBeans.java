@@ -0,0 +1,118 @@
+package io.smallrye.reactive.messaging.benchmarks.beans;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+
+/**
+ * One method per processor signature supported by the {@code ProcessorMediator}. Only the method under test is woven.
+ */
+@ApplicationScoped
+public class ProcessorBeans {
+
+    public static final String IN = "in";
+    public static final String OUT = "out";
+
+    // 1.  Processor<Message<I>, Message<O>> method()
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public Processor<Message<Integer>, Message<Integer>> processorOfMessages() {
+        return ReactiveStreams.<Message<Integer>> builder()
+                .map(m -> Message.of(m.getPayload() + 1, m::ack))
+                .buildRs();
+    }
+
+    // 2.  Processor<I, O> method()
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public Processor<Integer, Integer> processorOfPayloads() {
+        return ReactiveStreams.<Integer> builder()
+                .map(i -> i + 1)
+                .buildRs();
+    }
+
+    // 3.  ProcessorBuilder<Message<I>, Message<O>> method()
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public ProcessorBuilder<Message<Integer>, Message<Integer>> processorBuilderOfMessages() {
+        return ReactiveStreams.<Message<Integer>> builder()
+                .map(m -> Message.of(m.getPayload() + 1, m::ack));
+    }
+
+    // 4.  ProcessorBuilder<I, O> method()
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public ProcessorBuilder<Integer, Integer> processorBuilderOfPayloads() {
+        return ReactiveStreams.<Integer> builder()
+                .map(i -> i + 1);
+    }
+
+    // 5.  Publisher<Message<O>> method(Message<I> msg)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public Publisher<Message<Integer>> publisherOfMessages(Message<Integer> message) {
+        return Flowable.just(Message.of(message.getPayload() + 1, message::ack));
+    }
+
+    // 6.  Publisher<O> method(I payload)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public Publisher<Integer> publisherOfPayloads(Integer payload) {
+        return Flowable.just(payload + 1);
+    }
+
+    // 7.  PublisherBuilder<Message<O>> method(Message<I> msg)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public PublisherBuilder<Message<Integer>> publisherBuilderOfMessages(Message<Integer> message) {
+        return ReactiveStreams.of(Message.of(message.getPayload() + 1, message::ack));
+    }
+
+    // 8.  PublisherBuilder<O> method(I payload)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public PublisherBuilder<Integer> publisherBuilderOfPayloads(Integer payload) {
+        return ReactiveStreams.of(payload + 1);
+    }
+
+    // 9. Message<O> method(Message<I> msg)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public Message<Integer> message(Message<Integer> message) {
+        return Message.of(message.getPayload() + 1, message::ack);
+    }
+
+    // 10. O method(I payload)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public Integer payload(Integer payload) {
+        return payload + 1;
+    }
+
+    // 11. CompletionStage<O> method(I payload)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public CompletionStage<Integer> completionStageOfPayload(Integer payload) {
+        return CompletableFuture.completedFuture(payload + 1);
+    }
+
+    // 12. CompletionStage<Message<O>> method(Message<I> msg)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public CompletionStage<Message<Integer>> completionStageOfMessage(Message<Integer> message) {
+        return CompletableFuture.completedFuture(Message.of(message.getPayload() + 1, message::ack));
+    }
+
+}
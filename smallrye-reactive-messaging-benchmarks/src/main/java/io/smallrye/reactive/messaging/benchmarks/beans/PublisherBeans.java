@@ -0,0 +1,75 @@
+package io.smallrye.reactive.messaging.benchmarks.beans;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+
+/**
+ * One method per publisher signature supported by the {@code PublisherMediator}. Only the method under test is woven.
+ * The streams are infinite, the benchmark controls the demand.
+ */
+@ApplicationScoped
+public class PublisherBeans {
+
+    public static final String OUT = "out";
+
+    private int counter;
+
+    // 1. Publisher<Message<O>> method()
+    @Outgoing(OUT)
+    public Publisher<Message<Integer>> publisherOfMessages() {
+        return Flowable.generate(emitter -> emitter.onNext(Message.of(counter++)));
+    }
+
+    // 2. Publisher<O> method()
+    @Outgoing(OUT)
+    public Publisher<Integer> publisherOfPayloads() {
+        return Flowable.generate(emitter -> emitter.onNext(counter++));
+    }
+
+    // 3. PublisherBuilder<Message<O>> method()
+    @Outgoing(OUT)
+    public PublisherBuilder<Message<Integer>> publisherBuilderOfMessages() {
+        return ReactiveStreams.generate(() -> Message.of(counter++));
+    }
+
+    // 4. PublisherBuilder<O> method()
+    @Outgoing(OUT)
+    public PublisherBuilder<Integer> publisherBuilderOfPayloads() {
+        return ReactiveStreams.generate(() -> counter++);
+    }
+
+    // 5. O method() O cannot be Void
+    @Outgoing(OUT)
+    public Integer payload() {
+        return counter++;
+    }
+
+    // 6. Message<O> method()
+    @Outgoing(OUT)
+    public Message<Integer> message() {
+        return Message.of(counter++);
+    }
+
+    // 7. CompletionStage<O> method()
+    @Outgoing(OUT)
+    public CompletionStage<Integer> completionStageOfPayload() {
+        return CompletableFuture.completedFuture(counter++);
+    }
+
+    // 8. CompletionStage<Message<O>> method()
+    @Outgoing(OUT)
+    public CompletionStage<Message<Integer>> completionStageOfMessage() {
+        return CompletableFuture.completedFuture(Message.of(counter++));
+    }
+
+}
@@ -0,0 +1,53 @@
+package io.smallrye.reactive.messaging.benchmarks.beans;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+
+/**
+ * One method per stream transformer signature supported by the {@code StreamTransformerMediator}. Only the method
+ * under test is woven.
+ */
+@ApplicationScoped
+public class StreamTransformerBeans {
+
+    public static final String IN = "in";
+    public static final String OUT = "out";
+
+    // 1. Publisher<Message<O>> method(Publisher<Message<I>> publisher)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public Publisher<Message<Integer>> publisherOfMessages(Publisher<Message<Integer>> publisher) {
+        return Flowable.fromPublisher(publisher)
+                .map(m -> Message.of(m.getPayload() + 1, m::ack));
+    }
+
+    // 2. Publisher<O> method(Publisher<I> publisher)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public Publisher<Integer> publisherOfPayloads(Publisher<Integer> publisher) {
+        return Flowable.fromPublisher(publisher)
+                .map(i -> i + 1);
+    }
+
+    // 3. PublisherBuilder<Message<O>> method(PublisherBuilder<Message<I>> publisher)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public PublisherBuilder<Message<Integer>> publisherBuilderOfMessages(PublisherBuilder<Message<Integer>> publisher) {
+        return publisher.map(m -> Message.of(m.getPayload() + 1, m::ack));
+    }
+
+    // 4. PublisherBuilder<O> method(PublisherBuilder<I> publisher)
+    @Incoming(IN)
+    @Outgoing(OUT)
+    public PublisherBuilder<Integer> publisherBuilderOfPayloads(PublisherBuilder<Integer> publisher) {
+        return publisher.map(i -> i + 1);
+    }
+
+}
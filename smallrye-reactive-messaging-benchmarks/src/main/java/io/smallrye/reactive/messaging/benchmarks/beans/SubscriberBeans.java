@@ -0,0 +1,76 @@
+package io.smallrye.reactive.messaging.benchmarks.beans;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.reactivestreams.Subscriber;
+
+/**
+ * One method per subscriber signature supported by the {@code SubscriberMediator}. Only the method under test is
+ * woven.
+ * <p>
+ * The signature 5 ({@code void method(Message<I> m)}) is rejected during the validation and so is not benchmarked.
+ */
+@ApplicationScoped
+public class SubscriberBeans {
+
+    public static final String IN = "in";
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private static volatile long received;
+
+    /**
+     * @return the number of items received by the method under test.
+     */
+    public static long received() {
+        return received;
+    }
+
+    private static void increment() {
+        // Single writer, no need for an atomic increment.
+        received = received + 1;
+    }
+
+    // 1. Subscriber<Message<I>> method()
+    @Incoming(IN)
+    public Subscriber<Message<Integer>> subscriberOfMessages() {
+        return ReactiveStreams.<Message<Integer>> builder()
+                .forEach(m -> increment())
+                .build();
+    }
+
+    // 2. Subscriber<I> method()
+    @Incoming(IN)
+    public Subscriber<Integer> subscriberOfPayloads() {
+        return ReactiveStreams.<Integer> builder()
+                .forEach(i -> increment())
+                .build();
+    }
+
+    // 3. CompletionStage<?> method(Message<I> m)
+    @Incoming(IN)
+    public CompletionStage<Void> completionStageConsumingMessages(Message<Integer> message) {
+        increment();
+        return DONE;
+    }
+
+    // 4. CompletionStage<?> method(I i)
+    @Incoming(IN)
+    public CompletionStage<Void> completionStageConsumingPayloads(Integer payload) {
+        increment();
+        return DONE;
+    }
+
+    // 6. void/? method(I i)
+    @Incoming(IN)
+    public void voidConsumingPayloads(Integer payload) {
+        increment();
+    }
+
+}
@@ -0,0 +1,15 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name(AckEvent.NAME)
+@Label("Acknowledgement")
+@Description("Acknowledgement of a message of the channel, until the returned CompletionStage completes")
+@Threshold("1 ms")
+final class AckEvent extends ChannelEvent {
+
+    static final String NAME = "io.smallrye.reactive.messaging.Ack";
+}
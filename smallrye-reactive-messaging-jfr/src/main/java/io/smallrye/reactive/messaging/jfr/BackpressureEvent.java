@@ -0,0 +1,15 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name(BackpressureEvent.NAME)
+@Label("Backpressure Wait")
+@Description("Time during which the consumers of the channel have no outstanding request")
+@Threshold("1 ms")
+final class BackpressureEvent extends ChannelEvent {
+
+    static final String NAME = "io.smallrye.reactive.messaging.Backpressure";
+}
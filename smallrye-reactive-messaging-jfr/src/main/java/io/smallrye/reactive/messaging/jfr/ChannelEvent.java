@@ -0,0 +1,22 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the events of a channel.
+ */
+@Category("SmallRye Reactive Messaging")
+@StackTrace(false)
+abstract class ChannelEvent extends Event {
+
+    @Label("Channel")
+    String channel;
+
+    @Label("Failure")
+    @Description("The failure of the operation, if it has failed")
+    String failure;
+}
@@ -0,0 +1,20 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(ConnectorEvent.NAME)
+@Label("Connector Operation")
+@Description("Connection, reconnection or commit of the connector of the channel")
+final class ConnectorEvent extends ChannelEvent {
+
+    static final String NAME = "io.smallrye.reactive.messaging.Connector";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Detail")
+    @Description("The target of the operation, such as the address or the reconnection attempt")
+    String detail;
+}
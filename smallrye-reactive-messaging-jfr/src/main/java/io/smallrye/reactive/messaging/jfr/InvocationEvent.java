@@ -0,0 +1,18 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name(InvocationEvent.NAME)
+@Label("Invocation")
+@Description("Invocation of a method for a message of the channel, until the returned CompletionStage completes")
+@Threshold("1 ms")
+final class InvocationEvent extends ChannelEvent {
+
+    static final String NAME = "io.smallrye.reactive.messaging.Invocation";
+
+    @Label("Method")
+    String method;
+}
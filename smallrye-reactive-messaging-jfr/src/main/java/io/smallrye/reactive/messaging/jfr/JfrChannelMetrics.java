@@ -0,0 +1,95 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import jdk.jfr.EventType;
+
+/**
+ * Reports the spans of a channel as events. The counters are not recorded: the components do not instrument the
+ * streams for them. All the operations are traced, as a recording can be started at any time, for example with
+ * {@code jcmd JFR.start}, and the spans are only created while a recording enables their event type.
+ */
+final class JfrChannelMetrics implements ChannelMetrics {
+
+    private static final EventType INVOCATION = EventType.getEventType(InvocationEvent.class);
+    private static final EventType ACK = EventType.getEventType(AckEvent.class);
+    private static final EventType BACKPRESSURE = EventType.getEventType(BackpressureEvent.class);
+    private static final EventType CONNECTOR = EventType.getEventType(ConnectorEvent.class);
+    private static final EventType OVERFLOW = EventType.getEventType(OverflowEvent.class);
+
+    private final String channel;
+
+    JfrChannelMetrics(String channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isTraced(Operation operation) {
+        // The recordings are checked on each span, as they can start after the streams are built
+        return true;
+    }
+
+    @Override
+    public Object startSpan(Operation operation, String detail) {
+        ChannelEvent event;
+        switch (operation) {
+            case INVOCATION:
+                if (!INVOCATION.isEnabled()) {
+                    return null;
+                }
+                InvocationEvent invocation = new InvocationEvent();
+                invocation.method = detail;
+                event = invocation;
+                break;
+            case ACK:
+                if (!ACK.isEnabled()) {
+                    return null;
+                }
+                event = new AckEvent();
+                break;
+            case BACKPRESSURE:
+                if (!BACKPRESSURE.isEnabled()) {
+                    return null;
+                }
+                event = new BackpressureEvent();
+                break;
+            case OVERFLOW:
+                if (!OVERFLOW.isEnabled()) {
+                    return null;
+                }
+                OverflowEvent overflow = new OverflowEvent();
+                overflow.strategy = detail;
+                event = overflow;
+                break;
+            default:
+                if (!CONNECTOR.isEnabled()) {
+                    return null;
+                }
+                ConnectorEvent connector = new ConnectorEvent();
+                connector.operation = operation.name();
+                connector.detail = detail;
+                event = connector;
+                break;
+        }
+        event.channel = channel;
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endSpan(Object span, Throwable failure) {
+        ChannelEvent event = (ChannelEvent) span;
+        event.end();
+        // Below the threshold of the recordings, the event is discarded
+        if (event.shouldCommit()) {
+            if (failure != null) {
+                event.failure = failure.toString();
+            }
+            event.commit();
+        }
+    }
+}
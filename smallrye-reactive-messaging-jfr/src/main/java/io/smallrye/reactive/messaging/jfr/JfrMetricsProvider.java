@@ -0,0 +1,34 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
+
+/**
+ * Records the operations of the channels as JDK Flight Recorder events, in the {@code SmallRye Reactive Messaging}
+ * category:
+ * <ul>
+ * <li>{@value InvocationEvent#NAME} - the invocations of the methods consuming the channel</li>
+ * <li>{@value AckEvent#NAME} - the acknowledgements of the messages of the channel</li>
+ * <li>{@value BackpressureEvent#NAME} - the waits of the channel for the requests of its consumers</li>
+ * <li>{@value ConnectorEvent#NAME} - the connections, reconnections and commits of the connector of the channel</li>
+ * <li>{@value OverflowEvent#NAME} - the overflows of the emitters of the channel</li>
+ * </ul>
+ * The first three are high-volume events: by default, only the ones lasting more than 1 ms are recorded. The
+ * recordings can be started at any time, with the JVM or later on. While no recording enables the event type, the
+ * operations only cost a volatile read.
+ */
+@ApplicationScoped
+public class JfrMetricsProvider implements MetricsProvider {
+
+    private final ConcurrentMap<String, ChannelMetrics> channels = new ConcurrentHashMap<>();
+
+    @Override
+    public ChannelMetrics forChannel(String channel) {
+        return channels.computeIfAbsent(channel, JfrChannelMetrics::new);
+    }
+}
@@ -0,0 +1,17 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(OverflowEvent.NAME)
+@Label("Emitter Overflow")
+@Description("A message sent by an emitter of the channel has been dropped, has replaced a previous one, or has "
+        + "found the buffer full")
+final class OverflowEvent extends ChannelEvent {
+
+    static final String NAME = "io.smallrye.reactive.messaging.Overflow";
+
+    @Label("Strategy")
+    String strategy;
+}
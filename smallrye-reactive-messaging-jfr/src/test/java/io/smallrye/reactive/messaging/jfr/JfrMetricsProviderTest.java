@@ -0,0 +1,196 @@
+package io.smallrye.reactive.messaging.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.se.SeContainer;
+import javax.enterprise.inject.se.SeContainerInitializer;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.junit.After;
+import org.junit.Test;
+
+import io.smallrye.config.inject.ConfigProducer;
+import io.smallrye.reactive.messaging.MediatorFactory;
+import io.smallrye.reactive.messaging.annotations.Channel;
+import io.smallrye.reactive.messaging.annotations.Emitter;
+import io.smallrye.reactive.messaging.extension.ChannelProducer;
+import io.smallrye.reactive.messaging.extension.MediatorManager;
+import io.smallrye.reactive.messaging.extension.ReactiveMessagingExtension;
+import io.smallrye.reactive.messaging.impl.ConfiguredChannelFactory;
+import io.smallrye.reactive.messaging.impl.InternalChannelRegistry;
+import io.smallrye.reactive.messaging.impl.LegacyConfiguredChannelFactory;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class JfrMetricsProviderTest {
+
+    private Recording recording;
+    private Path file;
+    private SeContainer container;
+
+    @After
+    public void cleanup() throws IOException {
+        if (container != null) {
+            container.close();
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testNoSpanWithoutRecording() {
+        ChannelMetrics metrics = new JfrMetricsProvider().forChannel("idle");
+        assertThat(metrics.isEnabled()).isFalse();
+        for (ChannelMetrics.Operation operation : ChannelMetrics.Operation.values()) {
+            // A recording can be started later on
+            assertThat(metrics.isTraced(operation)).isTrue();
+            assertThat(metrics.startSpan(operation, "detail")).isNull();
+        }
+    }
+
+    @Test
+    public void testOnlyTheRecordedOperationsCreateSpans() {
+        ChannelMetrics metrics = new JfrMetricsProvider().forChannel("traced");
+
+        recording = new Recording();
+        recording.enable(AckEvent.class);
+        recording.enable(ConnectorEvent.class);
+        recording.disable(InvocationEvent.class);
+        recording.disable(OverflowEvent.class);
+        recording.start();
+        assertThat(metrics.startSpan(ChannelMetrics.Operation.ACK, null)).isNotNull();
+        assertThat(metrics.startSpan(ChannelMetrics.Operation.COMMIT, null)).isNotNull();
+        assertThat(metrics.startSpan(ChannelMetrics.Operation.INVOCATION, "Bean#process")).isNull();
+        assertThat(metrics.startSpan(ChannelMetrics.Operation.OVERFLOW, "DROP")).isNull();
+        recording.stop();
+        assertThat(metrics.startSpan(ChannelMetrics.Operation.ACK, null)).isNull();
+    }
+
+    @Test
+    public void testRecordingStartedAfterTheMediatorsAreWoven() throws IOException {
+        SeContainerInitializer initializer = SeContainerInitializer.newInstance();
+        initializer.addBeanClasses(MediatorFactory.class, MediatorManager.class, InternalChannelRegistry.class,
+                ChannelProducer.class, ConfiguredChannelFactory.class, LegacyConfiguredChannelFactory.class,
+                ConfigProducer.class, JfrMetricsProvider.class, EmittingBean.class);
+        initializer.disableDiscovery();
+        initializer.addExtensions(new ReactiveMessagingExtension());
+        container = initializer.initialize();
+        EmittingBean bean = container.select(EmittingBean.class).get();
+
+        recording = new Recording();
+        recording.enable(InvocationEvent.class).withoutThreshold();
+        recording.enable(AckEvent.class).withoutThreshold();
+        recording.start();
+        bean.emitter().send("a").send("b");
+        await().until(() -> bean.list().size() == 2);
+        recording.stop();
+
+        file = Files.createTempFile("messaging", ".jfr");
+        recording.dump(file);
+        List<RecordedEvent> invocations = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(InvocationEvent.NAME))
+                .collect(Collectors.toList());
+        assertThat(invocations).hasSize(2)
+                .allSatisfy(event -> assertThat(event.getString("channel")).isEqualTo("emitted"));
+    }
+
+    @Test
+    public void testEvents() throws IOException {
+        JfrMetricsProvider provider = new JfrMetricsProvider();
+        ChannelMetrics metrics = provider.forChannel("my-channel");
+        assertThat(provider.forChannel("my-channel")).isSameAs(metrics);
+
+        recording = new Recording();
+        recording.enable(InvocationEvent.class).withoutThreshold();
+        recording.enable(AckEvent.class).withoutThreshold();
+        recording.enable(BackpressureEvent.class).withoutThreshold();
+        recording.enable(ConnectorEvent.class);
+        recording.enable(OverflowEvent.class);
+        recording.start();
+
+        metrics.endSpan(metrics.startSpan(ChannelMetrics.Operation.INVOCATION, "Bean#process"), null);
+        metrics.endSpan(metrics.startSpan(ChannelMetrics.Operation.ACK, null), new Exception("boom"));
+        metrics.endSpan(metrics.startSpan(ChannelMetrics.Operation.BACKPRESSURE, null), null);
+        metrics.endSpan(metrics.startSpan(ChannelMetrics.Operation.CONNECT, "my-topic"), null);
+        metrics.endSpan(metrics.startSpan(ChannelMetrics.Operation.OVERFLOW, "DROP"), null);
+
+        recording.stop();
+        file = Files.createTempFile("messaging", ".jfr");
+        recording.dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("io.smallrye.reactive.messaging."))
+                .collect(Collectors.toList());
+
+        assertThat(events).extracting(event -> event.getEventType().getName()).containsExactlyInAnyOrder(
+                InvocationEvent.NAME, AckEvent.NAME, BackpressureEvent.NAME, ConnectorEvent.NAME, OverflowEvent.NAME);
+        assertThat(events).allSatisfy(event -> assertThat(event.getString("channel")).isEqualTo("my-channel"));
+        assertThat(find(events, InvocationEvent.NAME).getString("method")).isEqualTo("Bean#process");
+        assertThat(find(events, InvocationEvent.NAME).getString("failure")).isNull();
+        assertThat(find(events, AckEvent.NAME).getString("failure")).isEqualTo("java.lang.Exception: boom");
+        assertThat(find(events, ConnectorEvent.NAME).getString("operation")).isEqualTo("CONNECT");
+        assertThat(find(events, ConnectorEvent.NAME).getString("detail")).isEqualTo("my-topic");
+        assertThat(find(events, OverflowEvent.NAME).getString("strategy")).isEqualTo("DROP");
+    }
+
+    @Test
+    public void testThreshold() throws IOException {
+        ChannelMetrics metrics = new JfrMetricsProvider().forChannel("fast");
+
+        recording = new Recording();
+        recording.enable(InvocationEvent.class).withThreshold(Duration.ofHours(1));
+        recording.start();
+        Object span = metrics.startSpan(ChannelMetrics.Operation.INVOCATION, "Bean#process");
+        assertThat(span).isNotNull();
+        metrics.endSpan(span, null);
+        recording.stop();
+
+        file = Files.createTempFile("messaging", ".jfr");
+        recording.dump(file);
+        assertThat(RecordingFile.readAllEvents(file))
+                .noneMatch(event -> event.getEventType().getName().equals(InvocationEvent.NAME));
+    }
+
+    @ApplicationScoped
+    public static class EmittingBean {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Inject
+        @Channel("emitted")
+        Emitter<String> emitter;
+
+        @Incoming("emitted")
+        public void consume(String payload) {
+            list.add(payload);
+        }
+
+        Emitter<String> emitter() {
+            return emitter;
+        }
+
+        List<String> list() {
+            return list;
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).findFirst()
+                .orElseThrow(() -> new AssertionError("No " + name + " event"));
+    }
+}
@@ -0,0 +1,116 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
+
+/**
+ * Commits the offsets of the records received by a {@link KafkaSource} when their messages are acknowledged.
+ * <p>
+ * The strategy is selected with the {@code commit-strategy} attribute of the channel, see {@link Strategy}.
+ */
+public interface KafkaCommitHandler {
+
+    /**
+     * The commit strategies.
+     */
+    enum Strategy {
+        /**
+         * Keeps track of the acknowledged offsets per partition, and periodically commits the offset following the
+         * records acknowledged without gap. The acknowledgement of a record never commits the offsets of records that
+         * have not been acknowledged yet, even if they are acknowledged out of order.
+         */
+        THROTTLED,
+        /**
+         * Commits the offset of each record when its message is acknowledged. The commits can move backward if the
+         * messages are acknowledged out of order, and cost a round trip to the broker each.
+         */
+        LATEST,
+        /**
+         * Never commits, the offsets being committed by the Kafka client itself ({@code enable.auto.commit}) or not at
+         * all.
+         */
+        IGNORE;
+
+        /**
+         * Parses the value of the {@code commit-strategy} attribute.
+         *
+         * @param value the value, case insensitive
+         * @return the strategy
+         * @throws IllegalArgumentException if the value is not a strategy
+         */
+        public static Strategy from(String value) {
+            for (Strategy strategy : values()) {
+                if (strategy.name().equalsIgnoreCase(value)) {
+                    return strategy;
+                }
+            }
+            throw new IllegalArgumentException("Invalid commit strategy: " + value + ", must be one of "
+                    + "throttled, latest or ignore");
+        }
+    }
+
+    /**
+     * Called when a record is received, before its message is emitted downstream.
+     *
+     * @param record the record
+     */
+    default void received(KafkaConsumerRecord<?, ?> record) {
+        // Nothing to track by default
+    }
+
+    /**
+     * Called when a batch of records is received, before its message is emitted downstream.
+     *
+     * @param records the records
+     */
+    default void received(ConsumerRecords<?, ?> records) {
+        // Nothing to track by default
+    }
+
+    /**
+     * Called when the message of a record is acknowledged.
+     *
+     * @param record the record
+     * @return the completion stage of the acknowledgement
+     */
+    CompletionStage<Void> handle(KafkaConsumerRecord<?, ?> record);
+
+    /**
+     * Called when the message of a batch of records is acknowledged, as if all the records were acknowledged.
+     *
+     * @param records the records
+     * @return the completion stage of the acknowledgement
+     */
+    CompletionStage<Void> handle(ConsumerRecords<?, ?> records);
+
+    /**
+     * Called when partitions are assigned to the consumer.
+     *
+     * @param partitions the assigned partitions
+     */
+    default void partitionsAssigned(Set<TopicPartition> partitions) {
+        // Nothing to track by default
+    }
+
+    /**
+     * Called when partitions are revoked from the consumer, the records of these partitions that are acknowledged
+     * afterward are not committed.
+     *
+     * @param partitions the revoked partitions
+     */
+    default void partitionsRevoked(Set<TopicPartition> partitions) {
+        // Nothing to track by default
+    }
+
+    /**
+     * Called before the consumer is closed, to commit what can still be committed.
+     */
+    default void terminate() {
+        // Nothing to commit by default
+    }
+}
@@ -1,5 +1,6 @@
 package io.smallrye.reactive.messaging.kafka;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -7,6 +8,7 @@ import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.BeforeDestroyed;
 import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
@@ -17,8 +19,13 @@ import org.eclipse.microprofile.reactive.messaging.spi.Connector;
 import org.eclipse.microprofile.reactive.messaging.spi.IncomingConnectorFactory;
 import org.eclipse.microprofile.reactive.messaging.spi.OutgoingConnectorFactory;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.reactivestreams.Publisher;
 
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
 import io.vertx.reactivex.core.Vertx;
 
 @ApplicationScoped
@@ -30,6 +37,10 @@ public class KafkaConnector implements IncomingConnectorFactory, OutgoingConnect
     @Inject
     private Instance<Vertx> instanceOfVertx;
 
+    @Inject
+    @Any
+    private Instance<MetricsProvider> metricsProviders;
+
     @Inject
     @ConfigProperty(name = "kafka.bootstrap.servers", defaultValue = "localhost:9092")
     private String servers;
@@ -62,15 +73,33 @@ public class KafkaConnector implements IncomingConnectorFactory, OutgoingConnect
     @Override
     public PublisherBuilder<? extends Message<?>> getPublisherBuilder(Config config) {
         String s = servers;
-        KafkaSource<Object, Object> source = new KafkaSource<>(vertx, config, s);
-        sources.add(source);
-        return source.getSource();
+        ChannelMetrics metrics = MetricsProvider.forConnector(metricsProviders, config);
+        int concurrency = config.getOptionalValue("concurrency", Integer.class).orElse(1);
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Invalid concurrency: " + concurrency + ", must be strictly positive");
+        }
+        if (concurrency == 1) {
+            KafkaSource<Object, Object> source = new KafkaSource<>(vertx, config, s, metrics);
+            sources.add(source);
+            return source.getSource();
+        }
+
+        // The consumers share the group, each one being assigned a subset of the partitions. Created outside of a
+        // Vert.x thread, each consumer runs on its own event loop.
+        String group = KafkaSource.getGroup(config);
+        List<Publisher<? extends Message<?>>> publishers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            KafkaSource<Object, Object> source = new KafkaSource<>(vertx, config, s, metrics, group, i);
+            sources.add(source);
+            publishers.add(source.getSource().buildRs());
+        }
+        return ReactiveStreams.fromPublisher(Flowable.merge(publishers));
     }
 
     @Override
     public SubscriberBuilder<? extends Message<?>, Void> getSubscriberBuilder(Config config) {
         String s = servers;
-        KafkaSink sink = new KafkaSink(vertx, config, s);
+        KafkaSink sink = new KafkaSink(vertx, config, s, MetricsProvider.forConnector(metricsProviders, config));
         sinks.add(sink);
         return sink.getSink();
     }
@@ -0,0 +1,24 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
+
+/**
+ * The {@link KafkaCommitHandler.Strategy#IGNORE} strategy: the acknowledgements do not commit anything.
+ */
+final class KafkaIgnoreCommit implements KafkaCommitHandler {
+
+    @Override
+    public CompletionStage<Void> handle(KafkaConsumerRecord<?, ?> record) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletionStage<Void> handle(ConsumerRecords<?, ?> records) {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,96 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.KafkaConsumer;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
+
+/**
+ * The {@link KafkaCommitHandler.Strategy#LATEST} strategy: each acknowledgement commits the offset following the
+ * acknowledged record, without waiting for the commit to complete.
+ */
+final class KafkaLatestCommit implements KafkaCommitHandler {
+
+    private final KafkaConsumer<?, ?> consumer;
+    private final ChannelMetrics metrics;
+
+    /**
+     * @param consumer the consumer
+     * @param metrics the metrics receiving the spans of the commits, the commits being traced
+     */
+    KafkaLatestCommit(KafkaConsumer<?, ?> consumer, ChannelMetrics metrics) {
+        this.consumer = consumer;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CompletionStage<Void> handle(KafkaConsumerRecord<?, ?> record) {
+        commit(consumer, Collections.singletonMap(new TopicPartition(record.topic(), record.partition()),
+                new OffsetAndMetadata(record.offset() + 1, null)), metrics);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletionStage<Void> handle(ConsumerRecords<?, ?> records) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (org.apache.kafka.common.TopicPartition partition : records.partitions()) {
+            offsets.put(new TopicPartition(partition.topic(), partition.partition()),
+                    new OffsetAndMetadata(lastOffset(records, partition) + 1, null));
+        }
+        if (!offsets.isEmpty()) {
+            commit(consumer, offsets, metrics);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Gets the offset of the last record of a partition in a batch.
+     */
+    static long lastOffset(ConsumerRecords<?, ?> records, org.apache.kafka.common.TopicPartition partition) {
+        List<? extends ConsumerRecord<?, ?>> list = records.records(partition);
+        return list.get(list.size() - 1).offset();
+    }
+
+    /**
+     * Commits the given offsets asynchronously, the commit being reported as a {@link ChannelMetrics.Operation#COMMIT}
+     * span.
+     */
+    static void commit(KafkaConsumer<?, ?> consumer, Map<TopicPartition, OffsetAndMetadata> offsets,
+            ChannelMetrics metrics) {
+        commit(consumer, offsets, metrics, null);
+    }
+
+    /**
+     * Commits the given offsets asynchronously, the commit being reported as a {@link ChannelMetrics.Operation#COMMIT}
+     * span, and the given handler being notified of its completion.
+     */
+    static void commit(KafkaConsumer<?, ?> consumer, Map<TopicPartition, OffsetAndMetadata> offsets,
+            ChannelMetrics metrics, Handler<AsyncResult<Void>> completion) {
+        Object span = metrics.startSpan(ChannelMetrics.Operation.COMMIT, null);
+        if (span == null && completion == null) {
+            consumer.commit(offsets);
+            return;
+        }
+        consumer.commit(offsets, ar -> {
+            if (span != null) {
+                metrics.endSpan(span, ar.cause());
+            }
+            if (completion != null) {
+                completion.handle(ar.mapEmpty());
+            }
+        });
+    }
+}
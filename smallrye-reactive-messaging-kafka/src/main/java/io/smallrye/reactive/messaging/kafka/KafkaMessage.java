@@ -4,9 +4,9 @@ import java.nio.charset.Charset;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
-import org.eclipse.microprofile.reactive.messaging.Message;
+import io.smallrye.reactive.messaging.KeyedMessage;
 
-public interface KafkaMessage<K, T> extends Message<T> {
+public interface KafkaMessage<K, T> extends KeyedMessage<T> {
 
     /**
      * Creates a new outgoing kafka message.
@@ -108,6 +108,16 @@ public interface KafkaMessage<K, T> extends Message<T> {
      */
     K getKey();
 
+    /**
+     * Messages are partitioned using the record key.
+     *
+     * @return the key of the record, can be {@code null}
+     */
+    @Override
+    default Object getPartitionKey() {
+        return getKey();
+    }
+
     /**
      * Gets the Kafka topic on which the record has been sent or received.
      *
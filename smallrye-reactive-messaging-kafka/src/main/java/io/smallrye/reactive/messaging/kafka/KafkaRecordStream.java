@@ -0,0 +1,287 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumer;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecords;
+
+/**
+ * Streams the records of a consumer, one by one or as the batches returned by the polls, pausing the fetch of the
+ * assigned partitions instead of the polls when the downstream subscriber does not keep up.
+ * <p>
+ * The consumer polls continuously, so it stays in its group whatever the speed of the subscriber, and the records are
+ * buffered until they are requested. The assigned partitions are paused when the buffer reaches the high watermark, or
+ * when the demand of the subscriber is exhausted while the buffer exceeds the low watermark. They are resumed once the
+ * buffer is back to the low watermark. The buffer is bounded by the high watermark plus the records of the poll in
+ * progress when the partitions are paused ({@code max.poll.records}). The watermarks count records, even when the
+ * stream emits batches.
+ * <p>
+ * The stream supports a single subscriber at a time, the items being delivered to the last one.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @param <T> the type of the emitted items
+ */
+final class KafkaRecordStream<K, V, T> extends Flowable<T> {
+
+    private final KafkaConsumer<K, V> consumer;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final boolean batch;
+    private final ToIntFunction<T> size;
+    private final Set<TopicPartition> assigned = ConcurrentHashMap.newKeySet();
+    private final AtomicLong depth = new AtomicLong();
+    private volatile RecordSubscription<K, V, T> current;
+
+    private KafkaRecordStream(KafkaConsumer<K, V> consumer, int highWatermark, int lowWatermark, boolean batch,
+            ToIntFunction<T> size) {
+        if (highWatermark < 1 || lowWatermark < 0 || lowWatermark >= highWatermark) {
+            throw new IllegalArgumentException("Invalid high or low watermark: " + highWatermark + ", "
+                    + lowWatermark);
+        }
+        this.consumer = consumer;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.batch = batch;
+        this.size = size;
+    }
+
+    /**
+     * Creates a stream emitting the records one by one.
+     *
+     * @param consumer the consumer
+     * @param highWatermark the number of buffered records above which the partitions are paused, strictly positive
+     * @param lowWatermark the number of buffered records below which the partitions are resumed, lower than
+     *        {@code highWatermark}
+     * @return the stream
+     */
+    static <K, V> KafkaRecordStream<K, V, KafkaConsumerRecord<K, V>> records(KafkaConsumer<K, V> consumer,
+            int highWatermark, int lowWatermark) {
+        return new KafkaRecordStream<>(consumer, highWatermark, lowWatermark, false, record -> 1);
+    }
+
+    /**
+     * Creates a stream emitting the records returned by each poll as a single item.
+     *
+     * @param consumer the consumer
+     * @param highWatermark the number of buffered records above which the partitions are paused, strictly positive
+     * @param lowWatermark the number of buffered records below which the partitions are resumed, lower than
+     *        {@code highWatermark}
+     * @return the stream
+     */
+    static <K, V> KafkaRecordStream<K, V, ConsumerRecords<K, V>> batches(KafkaConsumer<K, V> consumer,
+            int highWatermark, int lowWatermark) {
+        return new KafkaRecordStream<>(consumer, highWatermark, lowWatermark, true, ConsumerRecords::count);
+    }
+
+    /**
+     * @return the number of records received and not emitted yet
+     */
+    long depth() {
+        return depth.get();
+    }
+
+    void partitionsAssigned(Set<TopicPartition> partitions) {
+        assigned.addAll(partitions);
+        RecordSubscription<K, V, T> subscription = current;
+        if (subscription != null) {
+            // The newly assigned partitions are not paused
+            subscription.rebalanced.set(true);
+            subscription.drain();
+        }
+    }
+
+    void partitionsRevoked(Set<TopicPartition> partitions) {
+        assigned.removeAll(partitions);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        RecordSubscription<K, V, T> subscription = new RecordSubscription<>(this, subscriber);
+        current = subscription;
+        subscriber.onSubscribe(subscription);
+        consumer.exceptionHandler(subscription::onError);
+        consumer.endHandler(v -> subscription.onComplete());
+        if (batch) {
+            // The consumer only polls while it has a record handler, the records being handed over by the batch handler
+            consumer.batchHandler(records -> subscription.onNext((T) unwrap(records)));
+            consumer.handler(record -> {
+            });
+        } else {
+            consumer.handler(record -> subscription.onNext((T) record));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> ConsumerRecords<K, V> unwrap(KafkaConsumerRecords<K, V> records) {
+        return records.getDelegate().records();
+    }
+
+    private static final class RecordSubscription<K, V, T> extends AtomicInteger implements Subscription {
+
+        private final KafkaRecordStream<K, V, T> stream;
+        private final Subscriber<? super T> downstream;
+        private final SpscLinkedArrayQueue<T> queue = new SpscLinkedArrayQueue<>(bufferSize());
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean rebalanced = new AtomicBoolean();
+        private volatile boolean done;
+        private Throwable failure;
+        private volatile boolean cancelled;
+
+        // Only accessed by the drain loop
+        private long emitted;
+        private boolean paused;
+
+        RecordSubscription(KafkaRecordStream<K, V, T> stream, Subscriber<? super T> downstream) {
+            this.stream = stream;
+            this.downstream = downstream;
+        }
+
+        // Called on the context of the consumer
+        void onNext(T item) {
+            if (done || cancelled) {
+                return;
+            }
+            queue.offer(item);
+            stream.depth.addAndGet(stream.size.applyAsInt(item));
+            drain();
+        }
+
+        void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            failure = throwable;
+            done = true;
+            drain();
+        }
+
+        void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                stream.consumer.handler(null);
+                drain();
+            }
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long e = emitted;
+                while (e != r) {
+                    if (cancelled) {
+                        clear();
+                        return;
+                    }
+                    boolean terminated = done;
+                    T item = queue.poll();
+                    if (item == null) {
+                        if (terminated) {
+                            terminate();
+                            return;
+                        }
+                        break;
+                    }
+                    stream.depth.addAndGet(-stream.size.applyAsInt(item));
+                    downstream.onNext(item);
+                    e++;
+                }
+                if (cancelled) {
+                    clear();
+                    return;
+                }
+                if (done && queue.isEmpty()) {
+                    terminate();
+                    return;
+                }
+                emitted = e;
+                control(requested.get() == e);
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Pauses or resumes the assigned partitions according to the depth of the buffer and the demand.
+         */
+        private void control(boolean exhausted) {
+            long buffered = stream.depth.get();
+            boolean rebalance = rebalanced.getAndSet(false);
+            if (paused && buffered <= stream.lowWatermark) {
+                resume();
+            } else if (paused ? rebalance
+                    : buffered >= stream.highWatermark || (exhausted && buffered > stream.lowWatermark)) {
+                paused = true;
+                stream.consumer.pause(new HashSet<>(stream.assigned));
+            }
+        }
+
+        private void resume() {
+            paused = false;
+            stream.consumer.resume(new HashSet<>(stream.assigned));
+        }
+
+        private void clear() {
+            T item;
+            while ((item = queue.poll()) != null) {
+                stream.depth.addAndGet(-stream.size.applyAsInt(item));
+            }
+            // The next subscriber, if any, starts with the partitions resumed
+            if (paused) {
+                resume();
+            }
+        }
+
+        private void terminate() {
+            cancelled = true;
+            if (paused) {
+                resume();
+            }
+            if (failure != null) {
+                downstream.onError(failure);
+            } else {
+                downstream.onComplete();
+            }
+        }
+    }
+}
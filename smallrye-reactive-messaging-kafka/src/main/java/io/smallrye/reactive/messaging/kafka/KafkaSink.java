@@ -1,6 +1,7 @@
 package io.smallrye.reactive.messaging.kafka;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -9,11 +10,13 @@ import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.vertx.core.AsyncResult;
-import io.vertx.core.Handler;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
 import io.vertx.core.json.JsonObject;
 import io.vertx.kafka.client.producer.KafkaWriteStream;
 import io.vertx.reactivex.core.Vertx;
@@ -24,10 +27,15 @@ class KafkaSink {
     private final int partition;
     private final String key;
     private final String topic;
-    private final boolean waitForWriteCompletion;
+    private final ChannelMetrics metrics;
     private final SubscriberBuilder<? extends Message<?>, Void> subscriber;
 
     KafkaSink(Vertx vertx, Config config, String servers) {
+        this(vertx, config, servers, ChannelMetrics.NOOP);
+    }
+
+    KafkaSink(Vertx vertx, Config config, String servers, ChannelMetrics metrics) {
+        this.metrics = metrics;
         JsonObject kafkaConfiguration = JsonHelper.asJsonObject(config);
 
         // Acks must be a string, even when "1".
@@ -52,89 +60,147 @@ class KafkaSink {
         partition = config.getOptionalValue("partition", Integer.class).orElse(-1);
         key = config.getOptionalValue("key", String.class).orElse(null);
         topic = getTopicOrNull(config);
-        waitForWriteCompletion = config.getOptionalValue("waitForWriteCompletion", Boolean.class).orElse(true);
+        boolean waitForWriteCompletion = config.getOptionalValue("waitForWriteCompletion", Boolean.class).orElse(true);
         if (topic == null) {
             LOGGER.warn("No default topic configured, only sending messages with an explicit topic set");
         }
 
-        subscriber = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(message -> {
-                    try {
-                        ProducerRecord record;
-                        if (message instanceof KafkaMessage) {
-                            KafkaMessage km = ((KafkaMessage) message);
-
-                            if (this.topic == null && km.getTopic() == null) {
-                                LOGGER.error("Ignoring message - no topic set");
-                                return CompletableFuture.completedFuture(message);
-                            }
-
-                            Integer actualPartition = null;
-                            if (this.partition != -1) {
-                                actualPartition = this.partition;
-                            }
-                            if (km.getPartition() != null) {
-                                actualPartition = km.getPartition();
-                            }
-
-                            String actualTopicToBeUSed = topic;
-                            if (km.getTopic() != null) {
-                                actualTopicToBeUSed = km.getTopic();
-                            }
-
-                            if (actualTopicToBeUSed == null) {
-                                LOGGER.error("Ignoring message - no topic set");
-                                return CompletableFuture.completedFuture(message);
-                            } else {
-                                record = new ProducerRecord<>(
-                                        actualTopicToBeUSed,
-                                        actualPartition,
-                                        km.getTimestamp(),
-                                        km.getKey() == null ? this.key : km.getKey(),
-                                        km.getPayload(),
-                                        km.getHeaders().unwrap());
-                                LOGGER.info("Sending message {} to Kafka topic '{}'", message, record.topic());
-                            }
-                        } else {
-                            if (this.topic == null) {
-                                LOGGER.error("Ignoring message - no topic set");
-                                return CompletableFuture.completedFuture(message);
-                            }
-                            if (partition == -1) {
-                                record = new ProducerRecord<>(topic, null, null, key, message.getPayload());
-                            } else {
-                                record = new ProducerRecord<>(topic, partition, null, key, message.getPayload());
-                            }
-                        }
+        // Without waiting for the writes, the writes are not limited unless a window is configured
+        int maxInflight = config.getOptionalValue("max-inflight-messages", Integer.class)
+                .orElse(waitForWriteCompletion ? 1 : 0);
+        if (maxInflight < 0) {
+            throw new IllegalArgumentException("Invalid max-inflight-messages: " + maxInflight
+                    + ", must be positive or 0");
+        }
+        long window = maxInflight > 0 ? maxInflight : Long.MAX_VALUE;
+        subscriber = ReactiveStreams.fromSubscriber(new WriteSubscriber(window));
+    }
 
-                        CompletableFuture<Message> future = new CompletableFuture<>();
-                        Handler<AsyncResult<Void>> handler = ar -> {
-                            if (ar.succeeded()) {
-                                LOGGER.info("Message {} sent successfully to Kafka topic '{}'", message, record.topic());
-                                future.complete(message);
-                            } else {
-                                LOGGER.error("Message {} was not sent to Kafka topic '{}'", message, record.topic(),
-                                        ar.cause());
-                                future.completeExceptionally(ar.cause());
-                            }
-                        };
-                        CompletableFuture<? extends Message<?>> result = future.thenCompose(x -> message.ack())
-                                .thenApply(x -> message);
-                        stream.write(record, handler);
-                        if (waitForWriteCompletion) {
-                            return result;
-                        } else {
-                            return CompletableFuture.completedFuture(message);
-                        }
+    /**
+     * Creates the record to send for the given message.
+     *
+     * @return the record, {@code null} if the message must be ignored
+     */
+    private ProducerRecord<?, ?> toRecord(Message<?> message) {
+        if (message instanceof KafkaMessage) {
+            KafkaMessage<?, ?> km = ((KafkaMessage<?, ?>) message);
+
+            Integer actualPartition = null;
+            if (this.partition != -1) {
+                actualPartition = this.partition;
+            }
+            if (km.getPartition() != null) {
+                actualPartition = km.getPartition();
+            }
+
+            String actualTopicToBeUSed = topic;
+            if (km.getTopic() != null) {
+                actualTopicToBeUSed = km.getTopic();
+            }
+
+            if (actualTopicToBeUSed == null) {
+                LOGGER.error("Ignoring message - no topic set");
+                return null;
+            }
+            return new ProducerRecord<>(
+                    actualTopicToBeUSed,
+                    actualPartition,
+                    km.getTimestamp(),
+                    km.getKey() == null ? this.key : km.getKey(),
+                    km.getPayload(),
+                    km.getHeaders().unwrap());
+        }
+        if (this.topic == null) {
+            LOGGER.error("Ignoring message - no topic set");
+            return null;
+        }
+        if (partition == -1) {
+            return new ProducerRecord<>(topic, null, null, key, message.getPayload());
+        }
+        return new ProducerRecord<>(topic, partition, null, key, message.getPayload());
+    }
+
+    /**
+     * Writes the messages as they are received, up to {@code window} writes being in flight. The messages are
+     * acknowledged as their writes complete, which is in order for the records of a same partition. A message whose
+     * write fails is not acknowledged, the failure being reported to the metrics, and the next messages are written.
+     */
+    private final class WriteSubscriber implements Subscriber<Message<?>> {
+
+        private final long window;
+        private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+        // The completed writes not replenished yet
+        private final AtomicLong completed = new AtomicLong();
+
+        private WriteSubscriber(long window) {
+            this.window = window;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (SubscriptionHelper.setOnce(upstream, subscription)) {
+                subscription.request(window);
+            }
+        }
 
-                    } catch (RuntimeException e) {
-                        LOGGER.error("Unable to send a record to Kafka ", e);
-                        return CompletableFuture.completedFuture(message);
+        @Override
+        public void onNext(Message<?> message) {
+            try {
+                ProducerRecord record = toRecord(message);
+                if (record == null) {
+                    replenish();
+                    return;
+                }
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Sending message {} to Kafka topic '{}'", message, record.topic());
+                }
+                stream.write(record, ar -> {
+                    if (ar.succeeded()) {
+                        if (LOGGER.isTraceEnabled()) {
+                            LOGGER.trace("Message {} sent successfully to Kafka topic '{}'", message, record.topic());
+                        }
+                        message.ack();
+                    } else {
+                        LOGGER.error("Message {} was not sent to Kafka topic '{}'", message, record.topic(),
+                                ar.cause());
+                        metrics.onNack(ar.cause());
                     }
-                })
-                .onError(t -> LOGGER.error("Unable to dispatch message to Kafka", t))
-                .ignore();
+                    replenish();
+                });
+            } catch (RuntimeException e) {
+                LOGGER.error("Unable to send a record to Kafka ", e);
+                metrics.onNack(e);
+                replenish();
+            }
+        }
 
+        @Override
+        public void onError(Throwable throwable) {
+            LOGGER.error("Unable to dispatch message to Kafka", throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            // The pending writes complete on their own
+        }
+
+        /**
+         * Requests a message for each completed write. The requests are serialized, as the writes complete on the
+         * context of the producer while the ignored messages complete on the caller thread.
+         */
+        private void replenish() {
+            if (window == Long.MAX_VALUE || completed.getAndIncrement() != 0) {
+                return;
+            }
+            long missed = 1;
+            for (;;) {
+                upstream.get().request(missed);
+                missed = completed.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
     }
 
     SubscriberBuilder<? extends Message<?>, Void> getSink() {
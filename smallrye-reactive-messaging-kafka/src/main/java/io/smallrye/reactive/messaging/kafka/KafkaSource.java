@@ -7,6 +7,7 @@ import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -16,6 +17,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.BroadcastHub;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.kafka.client.consumer.KafkaConsumer;
 import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
@@ -24,19 +27,36 @@ public class KafkaSource<K, V> {
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaSource.class);
     private final PublisherBuilder<? extends Message<?>> source;
     private final KafkaConsumer<K, V> consumer;
+    private final KafkaCommitHandler commitHandler;
 
     KafkaSource(Vertx vertx, Config config, String servers) {
-        Map<String, String> kafkaConfiguration = new HashMap<>();
+        this(vertx, config, servers, ChannelMetrics.NOOP);
+    }
 
-        String group = config.getOptionalValue(ConsumerConfig.GROUP_ID_CONFIG, String.class).orElseGet(() -> {
-            String s = UUID.randomUUID().toString();
-            LOGGER.warn("No `group.id` set in the configuration, generate a random id: {}", s);
-            return s;
-        });
+    KafkaSource(Vertx vertx, Config config, String servers, ChannelMetrics metrics) {
+        this(vertx, config, servers, metrics, getGroup(config), -1);
+    }
+
+    /**
+     * @param vertx the Vert.x instance
+     * @param config the configuration of the channel
+     * @param servers the default bootstrap servers
+     * @param metrics the metrics of the channel
+     * @param group the group id
+     * @param index the index of the consumer among the consumers of the channel, appended to the {@code client.id},
+     *        -1 if the channel has a single consumer
+     */
+    KafkaSource(Vertx vertx, Config config, String servers, ChannelMetrics metrics, String group, int index) {
+        Map<String, String> kafkaConfiguration = new HashMap<>();
 
         JsonHelper.asJsonObject(config).forEach(e -> kafkaConfiguration.put(e.getKey(), e.getValue().toString()));
         kafkaConfiguration.put(ConsumerConfig.GROUP_ID_CONFIG, group);
 
+        if (index >= 0 && kafkaConfiguration.containsKey(ConsumerConfig.CLIENT_ID_CONFIG)) {
+            // The client ids must be unique within the JVM
+            kafkaConfiguration.compute(ConsumerConfig.CLIENT_ID_CONFIG, (k, id) -> id + "-" + index);
+        }
+
         if (!kafkaConfiguration.containsKey(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG)) {
             LOGGER.info("Setting {} to {}", ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
             kafkaConfiguration.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
@@ -47,32 +67,142 @@ public class KafkaSource<K, V> {
             kafkaConfiguration.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
         }
 
+        KafkaCommitHandler.Strategy strategy = getCommitStrategy(config, kafkaConfiguration);
+        if (strategy != KafkaCommitHandler.Strategy.IGNORE) {
+            // The offsets are committed when the messages are acknowledged, the client must not commit them on its own
+            if (Boolean.parseBoolean(kafkaConfiguration.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG))) {
+                LOGGER.warn("Disabling `{}`, the offsets being committed with the `{}` commit strategy",
+                        ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, strategy.name().toLowerCase());
+            }
+            kafkaConfiguration.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        }
+
         this.consumer = KafkaConsumer.create(vertx, kafkaConfiguration);
         String topic = getTopicOrFail(config);
 
         Objects.requireNonNull(topic, "The topic must be set, or the name must be set");
 
-        Flowable<KafkaConsumerRecord<K, V>> flowable = consumer.toFlowable();
+        ChannelMetrics commitMetrics = metrics.isTraced(ChannelMetrics.Operation.COMMIT) ? metrics
+                : ChannelMetrics.NOOP;
+        this.commitHandler = createCommitHandler(vertx, config, strategy, commitMetrics);
+
+        // The offsets are tracked once, even if the records are broadcast
+        int high = config.getOptionalValue("high-watermark", Integer.class).orElse(1024);
+        int low = config.getOptionalValue("low-watermark", Integer.class).orElse(high / 2);
+        if (config.getOptionalValue("batch", Boolean.class).orElse(false)) {
+            consumer.pollTimeout(config.getOptionalValue("poll-timeout", Long.class).orElse(1000L));
+            Flowable<ConsumerRecords<K, V>> batches = control(KafkaRecordStream.batches(consumer, high, low), metrics)
+                    .doOnNext(commitHandler::received);
+            this.source = ReactiveStreams.fromPublisher(configure(batches, config, topic, metrics))
+                    .map(records -> new ReceivedKafkaBatchMessage<>(records, commitHandler));
+        } else {
+            Flowable<KafkaConsumerRecord<K, V>> records = control(KafkaRecordStream.records(consumer, high, low), metrics)
+                    .doOnNext(commitHandler::received);
+            this.source = ReactiveStreams.fromPublisher(configure(records, config, topic, metrics))
+                    .map(rec -> new ReceivedKafkaMessage<>(rec, commitHandler));
+        }
+    }
+
+    /**
+     * Reports the depth of the given stream, and notifies the stream and the commit handler of the rebalances.
+     */
+    private <T> Flowable<T> control(KafkaRecordStream<K, V, T> stream, ChannelMetrics metrics) {
+        metrics.registerQueue(stream::depth);
+        consumer.partitionsAssignedHandler(partitions -> {
+            commitHandler.partitionsAssigned(partitions);
+            stream.partitionsAssigned(partitions);
+        });
+        consumer.partitionsRevokedHandler(partitions -> {
+            commitHandler.partitionsRevoked(partitions);
+            stream.partitionsRevoked(partitions);
+        });
+        return stream;
+    }
 
+    /**
+     * Applies the retry and broadcast attributes to the stream of records, and subscribes to the topic on
+     * subscription.
+     */
+    private <T> Flowable<T> configure(Flowable<T> flowable, Config config, String topic, ChannelMetrics metrics) {
         if (config.getOptionalValue("retry", Boolean.class).orElse(true)) {
             Integer max = config.getOptionalValue("retry-attempts", Integer.class).orElse(5);
             flowable = flowable
                     .retryWhen(attempts -> attempts
                             .zipWith(Flowable.range(1, max), (n, i) -> i)
-                            .flatMap(i -> Flowable.timer(i, TimeUnit.SECONDS)));
+                            .flatMap(i -> reconnect(metrics, i)));
         }
 
         if (config.getOptionalValue("broadcast", Boolean.class).orElse(false)) {
-            flowable = flowable.publish().autoConnect();
+            flowable = BroadcastHub.create(flowable, config);
+        }
+
+        return flowable
+                .doOnSubscribe(s -> {
+                    // The Kafka subscription must happen on the subscription.
+                    subscribe(topic, metrics);
+                });
+    }
+
+    /**
+     * Gets the configured commit strategy. Without {@code commit-strategy}, the {@code ignore} strategy is used if
+     * {@code enable.auto.commit} is explicitly enabled, the {@code throttled} strategy otherwise.
+     */
+    private static KafkaCommitHandler.Strategy getCommitStrategy(Config config, Map<String, String> kafkaConfiguration) {
+        boolean autoCommit = Boolean.parseBoolean(kafkaConfiguration.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+        return config.getOptionalValue("commit-strategy", String.class)
+                .map(KafkaCommitHandler.Strategy::from)
+                .orElse(autoCommit ? KafkaCommitHandler.Strategy.IGNORE : KafkaCommitHandler.Strategy.THROTTLED);
+    }
+
+    private KafkaCommitHandler createCommitHandler(Vertx vertx, Config config, KafkaCommitHandler.Strategy strategy,
+            ChannelMetrics metrics) {
+        switch (strategy) {
+            case IGNORE:
+                return new KafkaIgnoreCommit();
+            case LATEST:
+                return new KafkaLatestCommit(consumer.getDelegate(), metrics);
+            default:
+                long interval = config.getOptionalValue("commit-interval", Long.class).orElse(5000L);
+                int count = config.getOptionalValue("commit-count", Integer.class).orElse(0);
+                return new KafkaThrottledCommit(consumer.getDelegate(), vertx, metrics, interval, count);
+        }
+    }
+
+    /**
+     * Gets the group id of the channel, or generates a random one.
+     */
+    static String getGroup(Config config) {
+        return config.getOptionalValue(ConsumerConfig.GROUP_ID_CONFIG, String.class).orElseGet(() -> {
+            String s = UUID.randomUUID().toString();
+            LOGGER.warn("No `group.id` set in the configuration, generate a random id: {}", s);
+            return s;
+        });
+    }
+
+    private void subscribe(String topic, ChannelMetrics metrics) {
+        Object span = metrics.isTraced(ChannelMetrics.Operation.CONNECT)
+                ? metrics.startSpan(ChannelMetrics.Operation.CONNECT, topic)
+                : null;
+        if (span == null) {
+            consumer.subscribe(topic);
+        } else {
+            consumer.subscribe(topic, ar -> metrics.endSpan(span, ar.cause()));
         }
+    }
 
-        this.source = ReactiveStreams.fromPublisher(
-                flowable
-                        .doOnSubscribe(s -> {
-                            // The Kafka subscription must happen on the subscription.
-                            this.consumer.subscribe(topic);
-                        }))
-                .map(rec -> new ReceivedKafkaMessage<>(consumer, rec));
+    /**
+     * Waits before the given retry attempt, the wait being reported as a reconnection, and the new subscription as a
+     * connection.
+     */
+    private static Flowable<Long> reconnect(ChannelMetrics metrics, int attempt) {
+        Flowable<Long> timer = Flowable.timer(attempt, TimeUnit.SECONDS);
+        Object span = metrics.isTraced(ChannelMetrics.Operation.RECONNECT)
+                ? metrics.startSpan(ChannelMetrics.Operation.RECONNECT, "attempt " + attempt)
+                : null;
+        if (span == null) {
+            return timer;
+        }
+        return timer.doFinally(() -> metrics.endSpan(span, null));
     }
 
     PublisherBuilder<? extends Message<?>> getSource() {
@@ -81,6 +211,8 @@ public class KafkaSource<K, V> {
 
     void closeQuietly() {
         try {
+            // The commits are executed before the close
+            this.commitHandler.terminate();
             this.consumer.close(ar -> {
                 if (ar.failed()) {
                     LOGGER.debug("An exception has been caught while closing the Kafka consumer", ar.cause());
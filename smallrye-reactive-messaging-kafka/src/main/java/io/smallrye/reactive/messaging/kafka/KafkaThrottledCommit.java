@@ -0,0 +1,174 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.vertx.kafka.client.common.TopicPartition;
+import io.vertx.kafka.client.consumer.KafkaConsumer;
+import io.vertx.kafka.client.consumer.OffsetAndMetadata;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
+
+/**
+ * The {@link KafkaCommitHandler.Strategy#THROTTLED} strategy: the acknowledgements are tracked per partition, and the
+ * offsets following the records acknowledged without gap are committed every {@code interval} milliseconds, or once
+ * {@code count} records have been acknowledged since the last commit.
+ * <p>
+ * The commits are asynchronous, a single commit covering all the partitions. The offsets of a failed commit are
+ * committed again by the next commit. The offsets of a partition are committed when it is revoked; the records of a
+ * revoked partition that are acknowledged afterward are not committed, and are redelivered to the consumer the
+ * partition is assigned to.
+ * <p>
+ * As the records of a batch are acknowledged together, only the last offset of each partition of a batch is tracked.
+ */
+final class KafkaThrottledCommit implements KafkaCommitHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaThrottledCommit.class);
+
+    private final KafkaConsumer<?, ?> consumer;
+    private final Vertx vertx;
+    private final ChannelMetrics metrics;
+    private final int count;
+    private final long timer;
+    private final Map<TopicPartition, PartitionOffsets> partitions = new ConcurrentHashMap<>();
+    private final AtomicInteger acknowledged = new AtomicInteger();
+
+    /**
+     * @param consumer the consumer
+     * @param vertx the Vert.x instance running the periodic commits
+     * @param metrics the metrics receiving the spans of the commits, the commits being traced
+     * @param interval the interval between the commits in milliseconds, strictly positive
+     * @param count the number of acknowledged records triggering a commit, 0 to only commit periodically
+     */
+    KafkaThrottledCommit(KafkaConsumer<?, ?> consumer, Vertx vertx, ChannelMetrics metrics, long interval,
+            int count) {
+        if (interval < 1 || count < 0) {
+            throw new IllegalArgumentException("Invalid commit interval or count: " + interval + ", " + count);
+        }
+        this.consumer = consumer;
+        this.vertx = vertx;
+        this.metrics = metrics;
+        this.count = count;
+        this.timer = vertx.setPeriodic(interval, id -> flush(partitions.keySet()));
+    }
+
+    @Override
+    public void received(KafkaConsumerRecord<?, ?> record) {
+        partitions.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                k -> new PartitionOffsets()).received(record.offset());
+    }
+
+    @Override
+    public void received(ConsumerRecords<?, ?> records) {
+        for (org.apache.kafka.common.TopicPartition partition : records.partitions()) {
+            partitions.computeIfAbsent(new TopicPartition(partition.topic(), partition.partition()),
+                    k -> new PartitionOffsets()).received(KafkaLatestCommit.lastOffset(records, partition));
+        }
+    }
+
+    @Override
+    public CompletionStage<Void> handle(KafkaConsumerRecord<?, ?> record) {
+        PartitionOffsets offsets = partitions.get(new TopicPartition(record.topic(), record.partition()));
+        // The partition may have been revoked in the meantime
+        if (offsets != null) {
+            offsets.acked(record.offset());
+            acknowledged(1);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletionStage<Void> handle(ConsumerRecords<?, ?> records) {
+        for (org.apache.kafka.common.TopicPartition partition : records.partitions()) {
+            PartitionOffsets offsets = partitions.get(new TopicPartition(partition.topic(), partition.partition()));
+            if (offsets != null) {
+                offsets.acked(KafkaLatestCommit.lastOffset(records, partition));
+            }
+        }
+        acknowledged(records.count());
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private void acknowledged(int records) {
+        if (count > 0 && acknowledged.addAndGet(records) >= count) {
+            acknowledged.set(0);
+            flush(partitions.keySet());
+        }
+    }
+
+    @Override
+    public void partitionsAssigned(Set<TopicPartition> assigned) {
+        // Records may have been received before the notification
+        assigned.forEach(partition -> partitions.putIfAbsent(partition, new PartitionOffsets()));
+    }
+
+    @Override
+    public void partitionsRevoked(Set<TopicPartition> revoked) {
+        flush(revoked, true);
+        revoked.forEach(partitions::remove);
+    }
+
+    @Override
+    public void terminate() {
+        vertx.cancelTimer(timer);
+        flush(partitions.keySet(), true);
+    }
+
+    private void flush(Collection<TopicPartition> candidates) {
+        flush(candidates, false);
+    }
+
+    /**
+     * Commits the committable offsets of the given partitions. The offsets of a failed commit are committed again by
+     * the next flush, or retried once right away if no flush follows.
+     *
+     * @param candidates the partitions
+     * @param last whether no flush follows for these partitions
+     */
+    private void flush(Collection<TopicPartition> candidates, boolean last) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        Map<TopicPartition, PartitionOffsets> trackers = new HashMap<>();
+        for (TopicPartition partition : candidates) {
+            PartitionOffsets tracker = partitions.get(partition);
+            long offset = tracker == null ? -1 : tracker.committable();
+            if (offset >= 0) {
+                offsets.put(partition, new OffsetAndMetadata(offset, null));
+                trackers.put(partition, tracker);
+            }
+        }
+        if (!offsets.isEmpty()) {
+            commit(offsets, trackers, last);
+        }
+    }
+
+    private void commit(Map<TopicPartition, OffsetAndMetadata> offsets, Map<TopicPartition, PartitionOffsets> trackers,
+            boolean retry) {
+        KafkaLatestCommit.commit(consumer, offsets, metrics, ar -> {
+            trackers.forEach((partition, tracker) -> tracker.committed(offsets.get(partition).getOffset(),
+                    ar.succeeded()));
+            if (ar.failed()) {
+                if (retry) {
+                    LOGGER.debug("Unable to commit the offsets {}, retrying", offsets, ar.cause());
+                    commit(offsets, Collections.emptyMap(), false);
+                } else if (trackers.isEmpty()) {
+                    LOGGER.warn("Unable to commit the offsets {}", offsets, ar.cause());
+                } else {
+                    LOGGER.debug("Unable to commit the offsets {}, committing them with the next commit", offsets,
+                            ar.cause());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package io.smallrye.reactive.messaging.kafka;
+
+/**
+ * Tracks the offsets of the records received from a partition, and computes the offset that can be committed: the
+ * offset following the records acknowledged without gap since the last commit.
+ * <p>
+ * The records are received in order, but can be acknowledged in any order. The offsets of the received records are
+ * kept until all the previous ones have been acknowledged, in a ring buffer searched by dichotomy, so the offsets do
+ * not need to be contiguous (compacted topics, transaction markers).
+ */
+final class PartitionOffsets {
+
+    private long[] offsets = new long[16];
+    private boolean[] acked = new boolean[16];
+    private int head;
+    private int size;
+    private long last = -1;
+    private long watermark = -1;
+    // The offset confirmed by the broker, and the offset of the commit in progress
+    private long committed = -1;
+    private long committing = -1;
+
+    /**
+     * Records the reception of a record. Records received again, after a retry for example, are ignored.
+     *
+     * @param offset the offset of the record
+     */
+    synchronized void received(long offset) {
+        if (offset <= last) {
+            return;
+        }
+        if (size == offsets.length) {
+            grow();
+        }
+        int index = (head + size) & (offsets.length - 1);
+        offsets[index] = offset;
+        acked[index] = false;
+        size++;
+        last = offset;
+    }
+
+    /**
+     * Records the acknowledgement of a record. The acknowledgements of records that have not been received, or that
+     * have already been acknowledged, are ignored.
+     *
+     * @param offset the offset of the record
+     * @return whether the offset to commit has moved forward
+     */
+    synchronized boolean acked(long offset) {
+        int index = indexOf(offset);
+        if (index < 0) {
+            return false;
+        }
+        acked[index] = true;
+        boolean moved = false;
+        while (size > 0 && acked[head]) {
+            watermark = offsets[head] + 1;
+            head = (head + 1) & (offsets.length - 1);
+            size--;
+            moved = true;
+        }
+        return moved;
+    }
+
+    /**
+     * Gets the offset to commit, and considers its commit in progress until {@link #committed(long, boolean)} is
+     * called.
+     *
+     * @return the offset following the last record acknowledged without gap, -1 if it has already been committed or
+     *         is being committed
+     */
+    synchronized long committable() {
+        if (watermark <= Math.max(committed, committing)) {
+            return -1;
+        }
+        committing = watermark;
+        return watermark;
+    }
+
+    /**
+     * Records the completion of the commit of an offset returned by {@link #committable()}. The offset of a failed
+     * commit is returned again by the next call to {@link #committable()}.
+     *
+     * @param offset the committed offset
+     * @param succeeded whether the commit succeeded
+     */
+    synchronized void committed(long offset, boolean succeeded) {
+        if (succeeded) {
+            committed = Math.max(committed, offset);
+        }
+        if (committing == offset) {
+            committing = -1;
+        }
+    }
+
+    /**
+     * @return the number of records received and not committable yet
+     */
+    synchronized int pending() {
+        return size;
+    }
+
+    private int indexOf(long offset) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = offsets[(head + middle) & (offsets.length - 1)];
+            if (value < offset) {
+                low = middle + 1;
+            } else if (value > offset) {
+                high = middle - 1;
+            } else {
+                return (head + middle) & (offsets.length - 1);
+            }
+        }
+        return -1;
+    }
+
+    private void grow() {
+        long[] newOffsets = new long[offsets.length * 2];
+        boolean[] newAcked = new boolean[acked.length * 2];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) & (offsets.length - 1);
+            newOffsets[i] = offsets[index];
+            newAcked[i] = acked[index];
+        }
+        offsets = newOffsets;
+        acked = newAcked;
+        head = 0;
+    }
+}
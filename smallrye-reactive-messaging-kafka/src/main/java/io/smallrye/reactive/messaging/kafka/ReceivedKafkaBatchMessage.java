@@ -0,0 +1,70 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+
+import io.smallrye.reactive.messaging.BatchMessage;
+import io.smallrye.reactive.messaging.Lineage;
+import io.smallrye.reactive.messaging.TracedMessage;
+
+/**
+ * A message containing the records returned by a poll of the Kafka consumer, emitted when the {@code batch} attribute
+ * is enabled. The payload is the list of the values of the records, the records themselves being available with
+ * {@link #unwrap()}.
+ * <p>
+ * Acknowledging the message commits the offsets of all its records, according to the commit strategy.
+ *
+ * @param <K> the type of the keys
+ * @param <T> the type of the values
+ */
+public class ReceivedKafkaBatchMessage<K, T> implements BatchMessage<T>, TracedMessage<List<T>> {
+
+    private final ConsumerRecords<K, T> records;
+    private final List<T> payload;
+    private final KafkaCommitHandler commitHandler;
+    private Lineage lineage;
+
+    /**
+     * @param records the records, must not be empty
+     * @param commitHandler the handler committing the offsets of the records when the message is acknowledged
+     */
+    public ReceivedKafkaBatchMessage(ConsumerRecords<K, T> records, KafkaCommitHandler commitHandler) {
+        this.records = Objects.requireNonNull(records);
+        this.commitHandler = Objects.requireNonNull(commitHandler);
+        List<T> values = new ArrayList<>(records.count());
+        for (ConsumerRecord<K, T> record : records) {
+            values.add(record.value());
+        }
+        this.payload = Collections.unmodifiableList(values);
+    }
+
+    @Override
+    public List<T> getPayload() {
+        return payload;
+    }
+
+    public ConsumerRecords<K, T> unwrap() {
+        return records;
+    }
+
+    @Override
+    public CompletionStage<Void> ack() {
+        return commitHandler.handle(records);
+    }
+
+    @Override
+    public Lineage getLineage() {
+        return lineage;
+    }
+
+    @Override
+    public void setLineage(Lineage lineage) {
+        this.lineage = lineage;
+    }
+}
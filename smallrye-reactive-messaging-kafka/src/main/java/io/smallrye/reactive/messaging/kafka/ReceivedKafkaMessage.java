@@ -1,25 +1,48 @@
 package io.smallrye.reactive.messaging.kafka;
 
 import java.util.Objects;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
+import io.smallrye.reactive.messaging.Lineage;
+import io.smallrye.reactive.messaging.TracedMessage;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
 import io.vertx.reactivex.kafka.client.consumer.KafkaConsumer;
 import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
 
-public class ReceivedKafkaMessage<K, T> implements KafkaMessage<K, T> {
+public class ReceivedKafkaMessage<K, T> implements KafkaMessage<K, T>, TracedMessage<T> {
 
     private final KafkaConsumerRecord<K, T> record;
-    private final KafkaConsumer<K, T> consumer;
-    private final MessageHeaders headers;
+    private MessageHeaders headers;
+    private final KafkaCommitHandler commitHandler;
+    private Lineage lineage;
 
     public ReceivedKafkaMessage(KafkaConsumer<K, T> consumer, KafkaConsumerRecord<K, T> record) {
+        this(consumer, record, ChannelMetrics.NOOP);
+    }
+
+    /**
+     * Creates a message committing the offset of its record when acknowledged, see
+     * {@link KafkaCommitHandler.Strategy#LATEST}.
+     *
+     * @param consumer the consumer
+     * @param record the record
+     * @param metrics the metrics receiving the spans of the commits, the commits being traced
+     */
+    public ReceivedKafkaMessage(KafkaConsumer<K, T> consumer, KafkaConsumerRecord<K, T> record,
+            ChannelMetrics metrics) {
+        this(record, new KafkaLatestCommit(consumer.getDelegate(), Objects.requireNonNull(metrics)));
+    }
+
+    /**
+     * @param record the record
+     * @param commitHandler the handler committing the offset of the record when the message is acknowledged
+     */
+    public ReceivedKafkaMessage(KafkaConsumerRecord<K, T> record, KafkaCommitHandler commitHandler) {
         this.record = Objects.requireNonNull(record);
-        this.consumer = Objects.requireNonNull(consumer);
-        this.headers = new MessageHeaders(record.getDelegate().record().headers());
+        this.commitHandler = Objects.requireNonNull(commitHandler);
     }
 
     @Override
@@ -46,6 +69,10 @@ public class ReceivedKafkaMessage<K, T> implements KafkaMessage<K, T> {
 
     @Override
     public MessageHeaders getHeaders() {
+        // Created on demand, as most messages are consumed without reading their headers
+        if (headers == null) {
+            headers = new MessageHeaders(record.getDelegate().record().headers());
+        }
         return headers;
     }
 
@@ -60,7 +87,16 @@ public class ReceivedKafkaMessage<K, T> implements KafkaMessage<K, T> {
 
     @Override
     public CompletionStage<Void> ack() {
-        consumer.commit();
-        return CompletableFuture.completedFuture(null);
+        return commitHandler.handle(record);
+    }
+
+    @Override
+    public Lineage getLineage() {
+        return lineage;
+    }
+
+    @Override
+    public void setLineage(Lineage lineage) {
+        this.lineage = lineage;
     }
 }
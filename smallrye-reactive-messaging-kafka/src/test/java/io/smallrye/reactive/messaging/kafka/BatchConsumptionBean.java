@@ -0,0 +1,29 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+
+@ApplicationScoped
+public class BatchConsumptionBean {
+
+    private List<Integer> list = new CopyOnWriteArrayList<>();
+    private List<Integer> sizes = new CopyOnWriteArrayList<>();
+
+    @Incoming("data")
+    public void consume(List<Integer> batch) {
+        sizes.add(batch.size());
+        list.addAll(batch);
+    }
+
+    public List<Integer> getResults() {
+        return list;
+    }
+
+    public List<Integer> getSizes() {
+        return sizes;
+    }
+}
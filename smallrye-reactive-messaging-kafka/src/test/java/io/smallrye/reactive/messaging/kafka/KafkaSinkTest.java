@@ -1,8 +1,11 @@
 package io.smallrye.reactive.messaging.kafka;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -21,6 +24,7 @@ import org.reactivestreams.Subscriber;
 
 import io.reactivex.Flowable;
 import io.smallrye.config.SmallRyeConfigProviderResolver;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
 
 public class KafkaSinkTest extends KafkaTestBase {
 
@@ -111,6 +115,107 @@ public class KafkaSinkTest extends KafkaTestBase {
         assertThat(expected).hasValue(10);
     }
 
+    @Test
+    public void testSinkWithInflightWindow() throws InterruptedException {
+        KafkaUsage usage = new KafkaUsage();
+        String topic = UUID.randomUUID().toString();
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger expected = new AtomicInteger(0);
+        usage.consumeIntegers(topic, 100, 10, TimeUnit.SECONDS,
+                latch::countDown,
+                (k, v) -> expected.getAndIncrement());
+
+        Map<String, Object> config = getConfig();
+        config.put("topic", topic);
+        config.put("value.serializer", IntegerSerializer.class.getName());
+        config.put("max-inflight-messages", 8);
+        KafkaSink sink = new KafkaSink(vertx, new MapBasedConfig(config), SERVERS);
+
+        List<Long> requests = new CopyOnWriteArrayList<>();
+        AtomicInteger acked = new AtomicInteger();
+        Flowable.range(0, 100)
+                .map(i -> Message.of(i, () -> {
+                    acked.incrementAndGet();
+                    return CompletableFuture.completedFuture(null);
+                }))
+                .doOnRequest(requests::add)
+                .subscribe((Subscriber) sink.getSink().build());
+
+        assertThat(latch.await(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(expected).hasValue(100);
+        await().atMost(1, TimeUnit.MINUTES).until(() -> acked.get() == 100);
+        assertThat(requests.get(0)).isEqualTo(8);
+        assertThat(requests.stream().mapToLong(Long::longValue).sum()).isEqualTo(8 + 100);
+    }
+
+    @Test
+    public void testInflightWindowWithoutWaitingForWriteCompletion() throws InterruptedException {
+        KafkaUsage usage = new KafkaUsage();
+        String topic = UUID.randomUUID().toString();
+        CountDownLatch latch = new CountDownLatch(1);
+        usage.consumeIntegers(topic, 100, 10, TimeUnit.SECONDS, latch::countDown, (k, v) -> {
+        });
+
+        Map<String, Object> config = getConfig();
+        config.put("topic", topic);
+        config.put("value.serializer", IntegerSerializer.class.getName());
+        config.put("waitForWriteCompletion", false);
+        config.put("max-inflight-messages", 4);
+        KafkaSink sink = new KafkaSink(vertx, new MapBasedConfig(config), SERVERS);
+
+        List<Long> requests = new CopyOnWriteArrayList<>();
+        Flowable.range(0, 100)
+                .map(Message::of)
+                .doOnRequest(requests::add)
+                .subscribe((Subscriber) sink.getSink().build());
+
+        assertThat(latch.await(1, TimeUnit.MINUTES)).isTrue();
+        await().atMost(1, TimeUnit.MINUTES)
+                .until(() -> requests.stream().mapToLong(Long::longValue).sum() == 4 + 100);
+        assertThat(requests.get(0)).isEqualTo(4);
+    }
+
+    @Test
+    public void testFailedWritesAreNotAcknowledged() throws InterruptedException {
+        KafkaUsage usage = new KafkaUsage();
+        String topic = UUID.randomUUID().toString();
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> received = new CopyOnWriteArrayList<>();
+        usage.consumeStrings(topic, 9, 10, TimeUnit.SECONDS,
+                latch::countDown,
+                (k, v) -> received.add(v));
+
+        Map<String, Object> config = getConfig();
+        config.put("topic", topic);
+        config.put("value.serializer", StringSerializer.class.getName());
+        config.put("partition", 0);
+        config.put("max.request.size", 1024);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        ChannelMetrics metrics = new ChannelMetrics() {
+            @Override
+            public void onNack(Throwable failure) {
+                failures.add(failure);
+            }
+        };
+        KafkaSink sink = new KafkaSink(vertx, new MapBasedConfig(config), SERVERS, metrics);
+
+        List<String> acked = new CopyOnWriteArrayList<>();
+        char[] large = new char[2048];
+        Arrays.fill(large, 'x');
+        Flowable.range(0, 10)
+                .map(i -> i == 5 ? new String(large) : Integer.toString(i))
+                .map(s -> Message.of(s, () -> {
+                    acked.add(s);
+                    return CompletableFuture.completedFuture(null);
+                }))
+                .subscribe((Subscriber) sink.getSink().build());
+
+        assertThat(latch.await(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(received).containsExactly("0", "1", "2", "3", "4", "6", "7", "8", "9");
+        await().atMost(1, TimeUnit.MINUTES).until(() -> acked.size() == 9 && failures.size() == 1);
+        assertThat(acked).containsExactly("0", "1", "2", "3", "4", "6", "7", "8", "9");
+    }
+
     private Map<String, Object> getConfig() {
         Map<String, Object> config = new HashMap<>();
         config.put("bootstrap.servers", "localhost:9092");
@@ -5,11 +5,20 @@ import static org.awaitility.Awaitility.await;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.IntegerDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.eclipse.microprofile.config.ConfigProvider;
@@ -19,7 +28,10 @@ import org.jboss.weld.environment.se.WeldContainer;
 import org.junit.After;
 import org.junit.Test;
 
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
 import io.smallrye.config.SmallRyeConfigProviderResolver;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
 
 public class KafkaSourceTest extends KafkaTestBase {
 
@@ -131,6 +143,257 @@ public class KafkaSourceTest extends KafkaTestBase {
         await().atMost(2, TimeUnit.MINUTES).until(() -> messages1.size() >= 20);
     }
 
+    @Test
+    public void testThrottledCommits() {
+        KafkaUsage usage = new KafkaUsage();
+        String topic = UUID.randomUUID().toString();
+        Map<String, Object> config = newCommonConfig();
+        config.put("topic", topic);
+        config.put("value.deserializer", IntegerDeserializer.class.getName());
+        config.put("commit-strategy", "throttled");
+        config.put("commit-interval", 100L);
+        KafkaSource<String, Integer> source = new KafkaSource<>(vertx, new MapBasedConfig(config), SERVERS);
+
+        List<Message<?>> messages = new CopyOnWriteArrayList<>();
+        source.getSource().forEach(messages::add).run();
+
+        AtomicInteger counter = new AtomicInteger();
+        new Thread(() -> usage.produceIntegers(10, null,
+                () -> new ProducerRecord<>(topic, 0, null, counter.getAndIncrement()))).start();
+
+        await().atMost(2, TimeUnit.MINUTES).until(() -> messages.size() >= 10);
+
+        Properties properties = usage.getConsumerProperties(config.get("group.id").toString(), null,
+                OffsetResetStrategy.EARLIEST);
+        TopicPartition partition = new TopicPartition(topic, 0);
+        try (KafkaConsumer<String, Integer> consumer = new KafkaConsumer<>(properties, new StringDeserializer(),
+                new IntegerDeserializer())) {
+            // The records following the unacknowledged one are not committed
+            messages.stream().filter(m -> !m.getPayload().equals(5)).forEach(Message::ack);
+            await().atMost(1, TimeUnit.MINUTES).until(() -> committed(consumer, partition) == 5);
+
+            messages.get(5).ack();
+            await().atMost(1, TimeUnit.MINUTES).until(() -> committed(consumer, partition) == 10);
+        }
+        source.closeQuietly();
+    }
+
+    @Test
+    public void testIgnoreCommitsLetTheClientCommit() {
+        KafkaUsage usage = new KafkaUsage();
+        String topic = UUID.randomUUID().toString();
+        Map<String, Object> config = newCommonConfig();
+        // The Kafka client commits the offsets itself, as enable.auto.commit is not disabled
+        config.remove("enable.auto.commit");
+        config.put("auto.commit.interval.ms", 100);
+        config.put("topic", topic);
+        config.put("value.deserializer", IntegerDeserializer.class.getName());
+        config.put("commit-strategy", "ignore");
+        KafkaSource<String, Integer> source = new KafkaSource<>(vertx, new MapBasedConfig(config), SERVERS);
+
+        List<Message<?>> messages = new CopyOnWriteArrayList<>();
+        source.getSource().forEach(messages::add).run();
+
+        AtomicInteger counter = new AtomicInteger();
+        new Thread(() -> usage.produceIntegers(10, null,
+                () -> new ProducerRecord<>(topic, 0, null, counter.getAndIncrement()))).start();
+
+        await().atMost(2, TimeUnit.MINUTES).until(() -> messages.size() >= 10);
+
+        Properties properties = usage.getConsumerProperties(config.get("group.id").toString(), null,
+                OffsetResetStrategy.EARLIEST);
+        TopicPartition partition = new TopicPartition(topic, 0);
+        try (KafkaConsumer<String, Integer> consumer = new KafkaConsumer<>(properties, new StringDeserializer(),
+                new IntegerDeserializer())) {
+            // Nothing is acknowledged
+            await().atMost(1, TimeUnit.MINUTES).until(() -> committed(consumer, partition) == 10);
+        }
+        source.closeQuietly();
+    }
+
+    @Test
+    public void testABeanConsumingWithSeveralConsumers() {
+        createTopic("concurrent", 4);
+        String prefix = "mp.messaging.incoming.data.";
+        Map<String, Object> config = new HashMap<>();
+        config.put(prefix + "connector", KafkaConnector.CONNECTOR_NAME);
+        config.put(prefix + "group.id", "my-concurrent-group");
+        config.put(prefix + "client.id", "concurrent");
+        config.put(prefix + "value.deserializer", IntegerDeserializer.class.getName());
+        config.put(prefix + "auto.offset.reset", "earliest");
+        config.put(prefix + "topic", "concurrent");
+        config.put(prefix + "concurrency", 2);
+        ConsumptionBean bean = deploy(new MapBasedConfig(config));
+        KafkaUsage usage = new KafkaUsage();
+        List<Integer> list = bean.getResults();
+        AtomicInteger counter = new AtomicInteger();
+        new Thread(() -> usage.produceIntegers(20, null, () -> {
+            int value = counter.getAndIncrement();
+            return new ProducerRecord<>("concurrent", value % 4, null, value);
+        })).start();
+
+        await().atMost(2, TimeUnit.MINUTES).until(() -> list.size() >= 20);
+        assertThat(list).containsExactlyInAnyOrder(IntStream.rangeClosed(1, 20).boxed().toArray(Integer[]::new));
+        // The records of each partition are received in order
+        for (int partition = 0; partition < 4; partition++) {
+            int p = partition;
+            List<Integer> received = list.stream().filter(v -> (v - 1) % 4 == p).collect(Collectors.toList());
+            assertThat(received).isSorted();
+        }
+    }
+
+    @Test
+    public void testPauseWhenNotRequested() throws InterruptedException {
+        KafkaUsage usage = new KafkaUsage();
+        String topic = UUID.randomUUID().toString();
+        Map<String, Object> config = newCommonConfig();
+        config.put("topic", topic);
+        config.put("value.deserializer", IntegerDeserializer.class.getName());
+        config.put("max.poll.records", 5);
+        config.put("high-watermark", 10);
+        config.put("low-watermark", 5);
+        AtomicReference<LongSupplier> depth = new AtomicReference<>();
+        ChannelMetrics metrics = new ChannelMetrics() {
+            @Override
+            public void registerQueue(LongSupplier supplier) {
+                depth.set(supplier);
+            }
+        };
+        KafkaSource<String, Integer> source = new KafkaSource<>(vertx, new MapBasedConfig(config), SERVERS, metrics);
+        assertThat(depth.get()).isNotNull();
+
+        TestSubscriber<Message<?>> subscriber = Flowable.fromPublisher(source.getSource().buildRs()).test(0);
+
+        CountDownLatch produced = new CountDownLatch(1);
+        AtomicInteger counter = new AtomicInteger();
+        new Thread(() -> usage.produceIntegers(100, produced::countDown,
+                () -> new ProducerRecord<>(topic, counter.getAndIncrement()))).start();
+        assertThat(produced.await(1, TimeUnit.MINUTES)).isTrue();
+
+        // Without demand, the partitions are paused once the buffer exceeds the low watermark, the buffer then only
+        // receives the records of the polls in progress
+        await().atMost(1, TimeUnit.MINUTES).until(() -> depth.get().getAsLong() > 5);
+        Thread.sleep(2000);
+        assertThat(depth.get().getAsLong()).isBetween(6L, 15L);
+        subscriber.assertNoValues();
+
+        subscriber.request(100);
+        await().atMost(1, TimeUnit.MINUTES).until(() -> subscriber.valueCount() == 100);
+        assertThat(subscriber.values().stream().map(m -> (Integer) m.getPayload()).collect(Collectors.toList()))
+                .isEqualTo(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+        assertThat(depth.get().getAsLong()).isZero();
+        source.closeQuietly();
+    }
+
+    @Test
+    public void testBatches() {
+        KafkaUsage usage = new KafkaUsage();
+        String topic = UUID.randomUUID().toString();
+        Map<String, Object> config = newCommonConfig();
+        config.put("topic", topic);
+        config.put("value.deserializer", IntegerDeserializer.class.getName());
+        config.put("batch", true);
+        config.put("commit-interval", 100L);
+        KafkaSource<String, Integer> source = new KafkaSource<>(vertx, new MapBasedConfig(config), SERVERS);
+
+        List<ReceivedKafkaBatchMessage<String, Integer>> batches = new CopyOnWriteArrayList<>();
+        source.getSource().forEach(m -> batches.add((ReceivedKafkaBatchMessage<String, Integer>) m)).run();
+
+        AtomicInteger counter = new AtomicInteger();
+        new Thread(() -> usage.produceIntegers(10, null,
+                () -> new ProducerRecord<>(topic, 0, null, counter.getAndIncrement()))).start();
+
+        await().atMost(2, TimeUnit.MINUTES)
+                .until(() -> batches.stream().mapToInt(b -> b.getPayload().size()).sum() >= 10);
+        assertThat(batches.stream().flatMap(b -> b.getPayload().stream()).collect(Collectors.toList()))
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(batches.stream().mapToInt(b -> b.unwrap().count()).sum()).isEqualTo(10);
+
+        Properties properties = usage.getConsumerProperties(config.get("group.id").toString(), null,
+                OffsetResetStrategy.EARLIEST);
+        TopicPartition partition = new TopicPartition(topic, 0);
+        try (KafkaConsumer<String, Integer> consumer = new KafkaConsumer<>(properties, new StringDeserializer(),
+                new IntegerDeserializer())) {
+            batches.forEach(Message::ack);
+            await().atMost(1, TimeUnit.MINUTES).until(() -> committed(consumer, partition) == 10);
+        }
+        source.closeQuietly();
+    }
+
+    @Test
+    public void testPauseBatchesWhenNotRequested() throws InterruptedException {
+        KafkaUsage usage = new KafkaUsage();
+        String topic = UUID.randomUUID().toString();
+        Map<String, Object> config = newCommonConfig();
+        config.put("topic", topic);
+        config.put("value.deserializer", IntegerDeserializer.class.getName());
+        config.put("batch", true);
+        config.put("max.poll.records", 5);
+        config.put("high-watermark", 10);
+        config.put("low-watermark", 5);
+        AtomicReference<LongSupplier> depth = new AtomicReference<>();
+        ChannelMetrics metrics = new ChannelMetrics() {
+            @Override
+            public void registerQueue(LongSupplier supplier) {
+                depth.set(supplier);
+            }
+        };
+        KafkaSource<String, Integer> source = new KafkaSource<>(vertx, new MapBasedConfig(config), SERVERS, metrics);
+        assertThat(depth.get()).isNotNull();
+
+        TestSubscriber<Message<?>> subscriber = Flowable.fromPublisher(source.getSource().buildRs()).test(0);
+
+        CountDownLatch produced = new CountDownLatch(1);
+        AtomicInteger counter = new AtomicInteger();
+        new Thread(() -> usage.produceIntegers(100, produced::countDown,
+                () -> new ProducerRecord<>(topic, counter.getAndIncrement()))).start();
+        assertThat(produced.await(1, TimeUnit.MINUTES)).isTrue();
+
+        // The consumer keeps polling without demand, the watermarks counting the buffered records
+        await().atMost(1, TimeUnit.MINUTES).until(() -> depth.get().getAsLong() > 5);
+        Thread.sleep(2000);
+        assertThat(depth.get().getAsLong()).isBetween(6L, 15L);
+        subscriber.assertNoValues();
+
+        subscriber.request(100);
+        await().atMost(1, TimeUnit.MINUTES).until(() -> subscriber.values().stream()
+                .mapToInt(m -> ((ReceivedKafkaBatchMessage<?, ?>) m).getPayload().size()).sum() == 100);
+        assertThat(subscriber.values().stream()
+                .flatMap(m -> ((ReceivedKafkaBatchMessage<?, ?>) m).getPayload().stream())
+                .collect(Collectors.toList()))
+                        .isEqualTo(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+        assertThat(depth.get().getAsLong()).isZero();
+        source.closeQuietly();
+    }
+
+    @Test
+    public void testABeanConsumingBatches() {
+        String prefix = "mp.messaging.incoming.data.";
+        Map<String, Object> config = new HashMap<>();
+        config.put(prefix + "connector", KafkaConnector.CONNECTOR_NAME);
+        config.put(prefix + "group.id", "my-batch-group");
+        config.put(prefix + "value.deserializer", IntegerDeserializer.class.getName());
+        config.put(prefix + "auto.offset.reset", "earliest");
+        config.put(prefix + "topic", "batches");
+        config.put(prefix + "batch", true);
+        BatchConsumptionBean bean = deployBatch(new MapBasedConfig(config));
+        KafkaUsage usage = new KafkaUsage();
+        List<Integer> list = bean.getResults();
+        assertThat(list).isEmpty();
+        AtomicInteger counter = new AtomicInteger();
+        new Thread(() -> usage.produceIntegers(10, null,
+                () -> new ProducerRecord<>("batches", counter.getAndIncrement()))).start();
+
+        await().atMost(2, TimeUnit.MINUTES).until(() -> list.size() >= 10);
+        assertThat(list).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(bean.getSizes().stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+    }
+
+    private static long committed(KafkaConsumer<?, ?> consumer, TopicPartition partition) {
+        OffsetAndMetadata committed = consumer.committed(partition);
+        return committed == null ? -1 : committed.offset();
+    }
+
     private Map<String, Object> newCommonConfig() {
         String randomId = UUID.randomUUID().toString();
         Map<String, Object> config = new HashMap<>();
@@ -169,6 +432,15 @@ public class KafkaSourceTest extends KafkaTestBase {
         assertThat(list).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
     }
 
+    private BatchConsumptionBean deployBatch(MapBasedConfig config) {
+        Weld weld = baseWeld();
+        addConfig(config);
+        weld.addBeanClass(BatchConsumptionBean.class);
+        weld.disableDiscovery();
+        container = weld.initialize();
+        return container.getBeanManager().createInstance().select(BatchConsumptionBean.class).get();
+    }
+
     private ConsumptionBean deploy(MapBasedConfig config) {
         Weld weld = baseWeld();
         addConfig(config);
@@ -70,6 +70,10 @@ public class KafkaTestBase {
         kafka.startup();
     }
 
+    static void createTopic(String topic, int partitions) {
+        kafka.createTopic(topic, partitions, 1);
+    }
+
     static Weld baseWeld() {
         Weld weld = new Weld();
 
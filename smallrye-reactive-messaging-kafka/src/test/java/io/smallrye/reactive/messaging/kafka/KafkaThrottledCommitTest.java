@@ -0,0 +1,73 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import static org.awaitility.Awaitility.await;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.IntegerDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.vertx.kafka.client.consumer.KafkaConsumer;
+import io.vertx.kafka.client.consumer.impl.KafkaConsumerRecordImpl;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.kafka.client.consumer.KafkaConsumerRecord;
+
+public class KafkaThrottledCommitTest {
+
+    private Vertx vertx;
+    private KafkaConsumer<String, Integer> consumer;
+
+    @Before
+    public void setup() {
+        vertx = Vertx.vertx();
+        // Without group id, the commits fail
+        Map<String, String> config = new HashMap<>();
+        config.put("bootstrap.servers", "localhost:9092");
+        config.put("key.deserializer", StringDeserializer.class.getName());
+        config.put("value.deserializer", IntegerDeserializer.class.getName());
+        config.put("enable.auto.commit", "false");
+        consumer = KafkaConsumer.create(vertx.getDelegate(), config);
+    }
+
+    @After
+    public void tearDown() {
+        consumer.close();
+        vertx.close();
+    }
+
+    @Test
+    public void testFailedCommitsAreCommittedAgain() {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        ChannelMetrics metrics = new ChannelMetrics() {
+            @Override
+            public Object startSpan(Operation operation, String detail) {
+                return operation;
+            }
+
+            @Override
+            public void endSpan(Object span, Throwable failure) {
+                if (failure != null) {
+                    failures.add(failure);
+                }
+            }
+        };
+        KafkaThrottledCommit commit = new KafkaThrottledCommit(consumer, vertx, metrics, 100L, 0);
+        KafkaConsumerRecord<String, Integer> record = new KafkaConsumerRecord<>(
+                new KafkaConsumerRecordImpl<>(new ConsumerRecord<>("topic", 0, 0L, null, 1)));
+        commit.received(record);
+        commit.handle(record);
+
+        // No other acknowledgement moves the offset forward, the periodic commits send it again
+        await().atMost(1, TimeUnit.MINUTES).until(() -> failures.size() >= 3);
+        commit.terminate();
+    }
+}
@@ -0,0 +1,111 @@
+package io.smallrye.reactive.messaging.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class PartitionOffsetsTest {
+
+    @Test
+    public void testInOrderAcknowledgements() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        assertThat(offsets.committable()).isEqualTo(-1);
+        offsets.received(0);
+        offsets.received(1);
+        assertThat(offsets.acked(0)).isTrue();
+        assertThat(offsets.committable()).isEqualTo(1);
+        assertThat(offsets.committable()).isEqualTo(-1);
+        assertThat(offsets.acked(1)).isTrue();
+        assertThat(offsets.committable()).isEqualTo(2);
+        assertThat(offsets.pending()).isZero();
+    }
+
+    @Test
+    public void testOutOfOrderAcknowledgements() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        for (int i = 0; i < 5; i++) {
+            offsets.received(i);
+        }
+        assertThat(offsets.acked(1)).isFalse();
+        assertThat(offsets.acked(3)).isFalse();
+        assertThat(offsets.committable()).isEqualTo(-1);
+        assertThat(offsets.acked(0)).isTrue();
+        assertThat(offsets.committable()).isEqualTo(2);
+        assertThat(offsets.acked(2)).isTrue();
+        assertThat(offsets.committable()).isEqualTo(4);
+        assertThat(offsets.pending()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGapsInOffsets() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        offsets.received(10);
+        offsets.received(12);
+        offsets.received(20);
+        assertThat(offsets.acked(11)).isFalse();
+        assertThat(offsets.acked(12)).isFalse();
+        assertThat(offsets.acked(10)).isTrue();
+        assertThat(offsets.committable()).isEqualTo(13);
+    }
+
+    @Test
+    public void testDuplicatesAreIgnored() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        offsets.received(0);
+        offsets.received(1);
+        offsets.received(0);
+        assertThat(offsets.pending()).isEqualTo(2);
+        assertThat(offsets.acked(0)).isTrue();
+        assertThat(offsets.acked(0)).isFalse();
+        assertThat(offsets.committable()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedCommitIsCommittedAgain() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        offsets.received(0);
+        offsets.received(1);
+        offsets.acked(0);
+        assertThat(offsets.committable()).isEqualTo(1);
+        // The commit is in progress
+        assertThat(offsets.committable()).isEqualTo(-1);
+        offsets.committed(1, false);
+        assertThat(offsets.committable()).isEqualTo(1);
+        offsets.committed(1, true);
+        assertThat(offsets.committable()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testCommitsInProgressCompletingOutOfOrder() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        offsets.received(0);
+        offsets.received(1);
+        offsets.acked(0);
+        assertThat(offsets.committable()).isEqualTo(1);
+        offsets.acked(1);
+        assertThat(offsets.committable()).isEqualTo(2);
+        offsets.committed(2, true);
+        offsets.committed(1, false);
+        assertThat(offsets.committable()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testGrowth() {
+        PartitionOffsets offsets = new PartitionOffsets();
+        // Move the head of the ring buffer before growing it
+        for (int i = 0; i < 10; i++) {
+            offsets.received(i);
+            offsets.acked(i);
+        }
+        for (int i = 10; i < 100; i++) {
+            offsets.received(i);
+        }
+        for (int i = 99; i > 10; i--) {
+            assertThat(offsets.acked(i)).isFalse();
+        }
+        assertThat(offsets.committable()).isEqualTo(10);
+        assertThat(offsets.acked(10)).isTrue();
+        assertThat(offsets.committable()).isEqualTo(100);
+        assertThat(offsets.pending()).isZero();
+    }
+}
@@ -0,0 +1,196 @@
+package io.smallrye.reactive.messaging.metrics.microprofile;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricType;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.annotation.RegistryType;
+
+import io.smallrye.reactive.messaging.metrics.ChannelStatistics;
+import io.smallrye.reactive.messaging.metrics.LatencyHistogram;
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
+
+/**
+ * Exposes the metrics of the channels in the vendor {@link MetricRegistry}, tagged with the channel name:
+ * <ul>
+ * <li>{@value #PRODUCED}, {@value #CONSUMED} - counters of the messages emitted on the channel, and of the messages
+ * delivered to its consumers</li>
+ * <li>{@value #ACKED}, {@value #NACKED} - counters of the successful and failed acknowledgements</li>
+ * <li>{@value #IN_FLIGHT} - gauge of the number of invocations in progress</li>
+ * <li>{@value #QUEUE_DEPTH} - gauge of the number of messages waiting in the emitters and merges of the channel</li>
+ * <li>{@value #ACK_TIME}, {@value #INVOCATION_TIME} - histograms of the durations of the acknowledgements and of the
+ * invocations, in nanoseconds</li>
+ * <li>{@value #LINEAGE_EGRESS_TIME}, {@value #LINEAGE_ACK_TIME} - histograms of the end-to-end latencies of the traced
+ * messages leaving the application through the channel, until they leave it and until their acknowledgement
+ * completes, in nanoseconds, also tagged with the {@value #ORIGIN_TAG} channel of the messages</li>
+ * </ul>
+ * The metrics are updated on the message path by lock-free {@link ChannelStatistics}, and only read by the registry
+ * when they are exported. The messages are traced if the {@value #LINEAGE_SAMPLING} property is set: one out of
+ * this number of messages entering the application is traced.
+ */
+@ApplicationScoped
+public class MicroProfileMetricsProvider implements MetricsProvider {
+
+    public static final String TAG = "channel";
+    public static final String PRODUCED = "messaging.produced";
+    public static final String CONSUMED = "messaging.consumed";
+    public static final String ACKED = "messaging.acked";
+    public static final String NACKED = "messaging.nacked";
+    public static final String IN_FLIGHT = "messaging.in-flight";
+    public static final String QUEUE_DEPTH = "messaging.queue-depth";
+    public static final String ACK_TIME = "messaging.ack-time";
+    public static final String INVOCATION_TIME = "messaging.invocation-time";
+    public static final String LINEAGE_EGRESS_TIME = "messaging.lineage.egress-time";
+    public static final String LINEAGE_ACK_TIME = "messaging.lineage.ack-time";
+    public static final String ORIGIN_TAG = "origin";
+    public static final String LINEAGE_SAMPLING = "smallrye.messaging.metrics.lineage-sampling";
+
+    private final MetricRegistry registry;
+    private final int lineageSampling;
+    private final ConcurrentMap<String, ChannelStatistics> channels = new ConcurrentHashMap<>();
+
+    // CDI requirement for normal scoped beans
+    MicroProfileMetricsProvider() {
+        this.registry = null;
+        this.lineageSampling = 0;
+    }
+
+    public MicroProfileMetricsProvider(MetricRegistry registry) {
+        this(registry, 0);
+    }
+
+    /**
+     * @param registry the registry
+     * @param lineageSampling one out of how many messages entering the application are traced, 0 to trace none
+     */
+    @Inject
+    public MicroProfileMetricsProvider(@RegistryType(type = MetricRegistry.Type.VENDOR) MetricRegistry registry,
+            @ConfigProperty(name = LINEAGE_SAMPLING, defaultValue = "0") int lineageSampling) {
+        this.registry = registry;
+        this.lineageSampling = lineageSampling;
+    }
+
+    @Override
+    public ChannelStatistics forChannel(String channel) {
+        return channels.computeIfAbsent(channel, this::register);
+    }
+
+    private ChannelStatistics register(String channel) {
+        Tag tag = new Tag(TAG, channel);
+        ChannelStatistics statistics = new ChannelStatistics(channel, ChannelStatistics.DEFAULT_TIMING_INTERVAL,
+                lineageSampling) {
+            @Override
+            protected void onNewLineage(LineageStatistics lineage) {
+                Tag origin = new Tag(ORIGIN_TAG, lineage.getOrigin());
+                registry.register(metadata(LINEAGE_EGRESS_TIME, MetricType.HISTOGRAM, MetricUnits.NANOSECONDS,
+                        "Time between the entrance of the traced messages in the application and their exit"),
+                        new StatisticsHistogram(lineage.getEgressTime()), tag, origin);
+                registry.register(metadata(LINEAGE_ACK_TIME, MetricType.HISTOGRAM, MetricUnits.NANOSECONDS,
+                        "Time between the entrance of the traced messages in the application and the completion of "
+                                + "their acknowledgement"),
+                        new StatisticsHistogram(lineage.getAckTime()), tag, origin);
+            }
+        };
+        registry.register(metadata(PRODUCED, MetricType.COUNTER, MetricUnits.NONE,
+                "Number of messages emitted on the channel"), new StatisticsCounter(statistics::getProduced), tag);
+        registry.register(metadata(CONSUMED, MetricType.COUNTER, MetricUnits.NONE,
+                "Number of messages delivered to the consumers of the channel"),
+                new StatisticsCounter(statistics::getConsumed), tag);
+        registry.register(metadata(ACKED, MetricType.COUNTER, MetricUnits.NONE,
+                "Number of messages of the channel successfully acknowledged by their consumers"),
+                new StatisticsCounter(statistics::getAcked), tag);
+        registry.register(metadata(NACKED, MetricType.COUNTER, MetricUnits.NONE,
+                "Number of failed acknowledgements of the messages of the channel"),
+                new StatisticsCounter(statistics::getNacked), tag);
+        registry.register(metadata(IN_FLIGHT, MetricType.GAUGE, MetricUnits.NONE,
+                "Number of invocations of the methods consuming the channel in progress"),
+                (Gauge<Long>) statistics::getInFlight, tag);
+        registry.register(metadata(QUEUE_DEPTH, MetricType.GAUGE, MetricUnits.NONE,
+                "Number of messages of the channel waiting in a queue"),
+                (Gauge<Long>) statistics::getQueueDepth, tag);
+        registry.register(metadata(ACK_TIME, MetricType.HISTOGRAM, MetricUnits.NANOSECONDS,
+                "Duration of the acknowledgements of the messages of the channel"),
+                new StatisticsHistogram(statistics.getAckTime()), tag);
+        registry.register(metadata(INVOCATION_TIME, MetricType.HISTOGRAM, MetricUnits.NANOSECONDS,
+                "Duration of the invocations of the methods consuming the channel"),
+                new StatisticsHistogram(statistics.getInvocationTime()), tag);
+        return statistics;
+    }
+
+    private static Metadata metadata(String name, MetricType type, String unit, String description) {
+        return Metadata.builder()
+                .withName(name)
+                .withType(type)
+                .withUnit(unit)
+                .withDescription(description)
+                .build();
+    }
+
+    /**
+     * Read-only counter, the counts being maintained by the {@link ChannelStatistics}.
+     */
+    private static final class StatisticsCounter implements Counter {
+        private final LongSupplier count;
+
+        private StatisticsCounter(LongSupplier count) {
+            this.count = count;
+        }
+
+        @Override
+        public void inc() {
+            throw new UnsupportedOperationException("The counter is maintained by the channel");
+        }
+
+        @Override
+        public void inc(long n) {
+            throw new UnsupportedOperationException("The counter is maintained by the channel");
+        }
+
+        @Override
+        public long getCount() {
+            return count.getAsLong();
+        }
+    }
+
+    /**
+     * Exposes a {@link LatencyHistogram}.
+     */
+    private static final class StatisticsHistogram implements org.eclipse.microprofile.metrics.Histogram {
+        private final LatencyHistogram histogram;
+
+        private StatisticsHistogram(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void update(int value) {
+            histogram.record(value);
+        }
+
+        @Override
+        public void update(long value) {
+            histogram.record(value);
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        @Override
+        public org.eclipse.microprofile.metrics.Snapshot getSnapshot() {
+            return new StatisticsSnapshot(histogram.snapshot());
+        }
+    }
+}
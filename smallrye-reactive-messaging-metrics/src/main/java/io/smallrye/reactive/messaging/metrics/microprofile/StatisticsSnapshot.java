@@ -0,0 +1,74 @@
+package io.smallrye.reactive.messaging.metrics.microprofile;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.LongStream;
+
+import org.eclipse.microprofile.metrics.Snapshot;
+
+import io.smallrye.reactive.messaging.metrics.LatencyHistogram;
+
+/**
+ * {@link Snapshot} of a {@link LatencyHistogram}. The histogram does not keep the recorded values, only their buckets:
+ * the values are represented by the upper bounds of their buckets.
+ */
+class StatisticsSnapshot extends Snapshot {
+
+    private final LatencyHistogram.Snapshot snapshot;
+
+    StatisticsSnapshot(LatencyHistogram.Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+        return snapshot.getValueAtQuantile(quantile);
+    }
+
+    /**
+     * @return the upper bounds of the non-empty buckets, in ascending order.
+     */
+    @Override
+    public long[] getValues() {
+        LongStream.Builder values = LongStream.builder();
+        snapshot.forEachBucket((bound, count) -> values.add(bound));
+        return values.build().toArray();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(snapshot.getCount(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getMax() {
+        return snapshot.getMax();
+    }
+
+    @Override
+    public double getMean() {
+        return snapshot.getMean();
+    }
+
+    @Override
+    public long getMin() {
+        return snapshot.getMin();
+    }
+
+    @Override
+    public double getStdDev() {
+        return snapshot.getStdDev();
+    }
+
+    /**
+     * Writes the upper bound and the number of values of each non-empty bucket, one per line.
+     */
+    @Override
+    public void dump(OutputStream output) {
+        PrintWriter writer = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        snapshot.forEachBucket((bound, count) -> writer.printf("%d %d%n", bound, count));
+        writer.flush();
+    }
+}
@@ -0,0 +1,112 @@
+package io.smallrye.reactive.messaging.metrics.microprofile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.eclipse.microprofile.metrics.Gauge;
+import org.eclipse.microprofile.metrics.Histogram;
+import org.eclipse.microprofile.metrics.MetricFilter;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.Snapshot;
+import org.eclipse.microprofile.metrics.Tag;
+import org.junit.After;
+import org.junit.Test;
+
+import io.smallrye.metrics.MetricRegistries;
+import io.smallrye.reactive.messaging.Lineage;
+import io.smallrye.reactive.messaging.metrics.ChannelStatistics;
+
+public class MicroProfileMetricsProviderTest {
+
+    private final MetricRegistry registry = MetricRegistries.get(MetricRegistry.Type.VENDOR);
+
+    @After
+    public void cleanup() {
+        registry.removeMatching(MetricFilter.ALL);
+    }
+
+    @Test
+    public void testRegistration() {
+        MicroProfileMetricsProvider provider = new MicroProfileMetricsProvider(registry);
+        ChannelStatistics statistics = provider.forChannel("my-channel");
+        assertThat(provider.forChannel("my-channel")).isSameAs(statistics);
+        provider.forChannel("other");
+
+        Tag tag = new Tag(MicroProfileMetricsProvider.TAG, "my-channel");
+        assertThat(registry.getCounters()).containsKeys(
+                new MetricID(MicroProfileMetricsProvider.PRODUCED, tag),
+                new MetricID(MicroProfileMetricsProvider.CONSUMED, tag),
+                new MetricID(MicroProfileMetricsProvider.ACKED, tag),
+                new MetricID(MicroProfileMetricsProvider.NACKED, tag));
+        assertThat(registry.getGauges()).containsKeys(
+                new MetricID(MicroProfileMetricsProvider.IN_FLIGHT, tag),
+                new MetricID(MicroProfileMetricsProvider.QUEUE_DEPTH, tag));
+        assertThat(registry.getHistograms()).containsKeys(
+                new MetricID(MicroProfileMetricsProvider.ACK_TIME, tag),
+                new MetricID(MicroProfileMetricsProvider.INVOCATION_TIME, tag));
+        assertThat(registry.getCounters()).hasSize(8);
+    }
+
+    @Test
+    public void testValues() {
+        MicroProfileMetricsProvider provider = new MicroProfileMetricsProvider(registry);
+        ChannelStatistics statistics = provider.forChannel("values");
+        statistics.onProduced();
+        statistics.onProduced();
+        statistics.onConsumed();
+        statistics.onInvocationStarted();
+        statistics.onInvocationStarted();
+        statistics.onInvocationCompleted(1_000);
+        statistics.onAck(100);
+        statistics.onAck(300);
+        statistics.onNack(new Exception("boom"));
+        statistics.registerQueue(() -> 5);
+
+        Tag tag = new Tag(MicroProfileMetricsProvider.TAG, "values");
+        assertThat(registry.getCounters().get(new MetricID(MicroProfileMetricsProvider.PRODUCED, tag)).getCount())
+                .isEqualTo(2);
+        assertThat(registry.getCounters().get(new MetricID(MicroProfileMetricsProvider.CONSUMED, tag)).getCount())
+                .isEqualTo(1);
+        assertThat(registry.getCounters().get(new MetricID(MicroProfileMetricsProvider.ACKED, tag)).getCount())
+                .isEqualTo(2);
+        assertThat(registry.getCounters().get(new MetricID(MicroProfileMetricsProvider.NACKED, tag)).getCount())
+                .isEqualTo(1);
+
+        Map<MetricID, Gauge> gauges = registry.getGauges();
+        assertThat(gauges.get(new MetricID(MicroProfileMetricsProvider.IN_FLIGHT, tag)).getValue()).isEqualTo(1L);
+        assertThat(gauges.get(new MetricID(MicroProfileMetricsProvider.QUEUE_DEPTH, tag)).getValue()).isEqualTo(5L);
+
+        Histogram ack = registry.getHistograms().get(new MetricID(MicroProfileMetricsProvider.ACK_TIME, tag));
+        assertThat(ack.getCount()).isEqualTo(2);
+        Snapshot snapshot = ack.getSnapshot();
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.getMax()).isEqualTo(300);
+        assertThat(snapshot.getMean()).isEqualTo(200.0);
+        assertThat(snapshot.getMin()).isBetween(100L, 100L + 100L / 16);
+        assertThat(snapshot.getValues()).hasSize(2);
+        assertThat(registry.getHistograms().get(new MetricID(MicroProfileMetricsProvider.INVOCATION_TIME, tag))
+                .getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLineage() {
+        MicroProfileMetricsProvider provider = new MicroProfileMetricsProvider(registry, 4);
+        ChannelStatistics statistics = provider.forChannel("sink");
+        assertThat(statistics.getLineageSampling()).isEqualTo(4);
+        Lineage lineage = Lineage.start("source");
+        statistics.onEgress(lineage, 1_000);
+        statistics.onEgress(lineage, 3_000);
+        statistics.onLineageAck(lineage, 5_000);
+
+        Tag channel = new Tag(MicroProfileMetricsProvider.TAG, "sink");
+        Tag origin = new Tag(MicroProfileMetricsProvider.ORIGIN_TAG, "source");
+        assertThat(registry.getHistograms()
+                .get(new MetricID(MicroProfileMetricsProvider.LINEAGE_EGRESS_TIME, channel, origin)).getCount())
+                        .isEqualTo(2);
+        assertThat(registry.getHistograms()
+                .get(new MetricID(MicroProfileMetricsProvider.LINEAGE_ACK_TIME, channel, origin)).getCount())
+                        .isEqualTo(1);
+    }
+}
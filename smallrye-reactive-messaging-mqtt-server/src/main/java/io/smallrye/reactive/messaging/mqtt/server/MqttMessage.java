@@ -3,12 +3,11 @@ package io.smallrye.reactive.messaging.mqtt.server;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
-import org.eclipse.microprofile.reactive.messaging.Message;
-
 import io.netty.handler.codec.mqtt.MqttQoS;
+import io.smallrye.reactive.messaging.KeyedMessage;
 import io.vertx.reactivex.mqtt.messages.MqttPublishMessage;
 
-public class MqttMessage implements Message<byte[]> {
+public class MqttMessage implements KeyedMessage<byte[]> {
 
     private final MqttPublishMessage message;
     private final String clientId;
@@ -54,4 +53,14 @@ public class MqttMessage implements Message<byte[]> {
     public String getClientId() {
         return clientId;
     }
+
+    /**
+     * Messages are partitioned using the topic.
+     *
+     * @return the topic
+     */
+    @Override
+    public Object getPartitionKey() {
+        return getTopic();
+    }
 }
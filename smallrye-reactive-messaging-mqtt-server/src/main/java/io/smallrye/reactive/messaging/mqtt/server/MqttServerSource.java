@@ -19,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.reactivex.processors.BehaviorProcessor;
+import io.smallrye.reactive.messaging.BroadcastHub;
 import io.vertx.mqtt.MqttServerOptions;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.mqtt.MqttServer;
@@ -131,7 +132,7 @@ class MqttServerSource {
                         .toFlowable()
                         .compose(flow -> {
                             if (broadcast) {
-                                return flow.publish().autoConnect();
+                                return BroadcastHub.create(flow, config);
                             } else {
                                 return flow;
                             }
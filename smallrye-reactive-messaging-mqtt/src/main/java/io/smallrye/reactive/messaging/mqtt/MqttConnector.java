@@ -7,6 +7,7 @@ import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.BeforeDestroyed;
 import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Any;
 import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
@@ -18,6 +19,7 @@ import org.eclipse.microprofile.reactive.messaging.spi.OutgoingConnectorFactory;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
 
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
 import io.vertx.reactivex.core.Vertx;
 
 @ApplicationScoped
@@ -29,6 +31,10 @@ public class MqttConnector implements IncomingConnectorFactory, OutgoingConnecto
     @Inject
     private Instance<Vertx> instanceOfVertx;
 
+    @Inject
+    @Any
+    private Instance<MetricsProvider> metricsProviders;
+
     private boolean internalVertxInstance = false;
     private Vertx vertx;
     private List<MqttSource> sources = new CopyOnWriteArrayList<>();
@@ -52,14 +58,14 @@ public class MqttConnector implements IncomingConnectorFactory, OutgoingConnecto
 
     @Override
     public PublisherBuilder<? extends Message<?>> getPublisherBuilder(Config config) {
-        MqttSource source = new MqttSource(vertx, config);
+        MqttSource source = new MqttSource(vertx, config, MetricsProvider.forConnector(metricsProviders, config));
         sources.add(source);
         return source.getSource();
     }
 
     @Override
     public SubscriberBuilder<? extends Message<?>, Void> getSubscriberBuilder(Config config) {
-        MqttSink sink = new MqttSink(vertx, config);
+        MqttSink sink = new MqttSink(vertx, config, MetricsProvider.forConnector(metricsProviders, config));
         sinks.add(sink);
         return sink.getSink();
     }
@@ -3,11 +3,10 @@ package io.smallrye.reactive.messaging.mqtt;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
-import org.eclipse.microprofile.reactive.messaging.Message;
-
 import io.netty.handler.codec.mqtt.MqttQoS;
+import io.smallrye.reactive.messaging.KeyedMessage;
 
-public interface MqttMessage<T> extends Message<T> {
+public interface MqttMessage<T> extends KeyedMessage<T> {
 
     static <T> MqttMessage<T> of(T payload) {
         return new SendingMqttMessage(null, payload, null, false, null);
@@ -42,4 +41,14 @@ public interface MqttMessage<T> extends Message<T> {
     boolean isRetain();
 
     String getTopic();
+
+    /**
+     * Messages are partitioned using the topic.
+     *
+     * @return the topic
+     */
+    @Override
+    default Object getPartitionKey() {
+        return getTopic();
+    }
 }
@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.handler.codec.mqtt.MqttQoS;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -35,6 +36,10 @@ public class MqttSink {
     private final AtomicBoolean connected = new AtomicBoolean();
 
     public MqttSink(Vertx vertx, Config config) {
+        this(vertx, config, ChannelMetrics.NOOP);
+    }
+
+    public MqttSink(Vertx vertx, Config config, ChannelMetrics metrics) {
         MqttClientOptions options = new MqttClientOptions();
         options.setClientId(config.getOptionalValue("client-id", String.class).orElse(null));
         options.setAutoGeneratedClientId(config.getOptionalValue("auto-generated-client-id", Boolean.class)
@@ -65,6 +70,7 @@ public class MqttSink {
         topic = getTopicOrNull(config);
         client = MqttClient.create(vertx, options);
         qos = config.getOptionalValue("qos", Integer.class).orElse(0);
+        boolean traceConnections = metrics.isTraced(ChannelMetrics.Operation.CONNECT);
 
         sink = ReactiveStreams.<Message<?>> builder()
                 .flatMapCompletionStage(msg -> {
@@ -74,7 +80,12 @@ public class MqttSink {
                         return CompletableFuture.completedFuture(msg);
                     } else {
                         CompletableFuture<Message> future = new CompletableFuture<>();
+                        Object span = traceConnections ? metrics.startSpan(ChannelMetrics.Operation.CONNECT, topic)
+                                : null;
                         client.connect(port, host, server, ar -> {
+                            if (span != null) {
+                                metrics.endSpan(span, ar.cause());
+                            }
                             if (ar.failed()) {
                                 future.completeExceptionally(ar.cause());
                             } else {
@@ -12,6 +12,9 @@ import org.slf4j.LoggerFactory;
 
 import io.reactivex.BackpressureStrategy;
 import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.smallrye.reactive.messaging.BroadcastHub;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
 import io.vertx.mqtt.MqttClientOptions;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.mqtt.MqttClient;
@@ -23,6 +26,10 @@ public class MqttSource {
     private AtomicBoolean subscribed = new AtomicBoolean();
 
     public MqttSource(Vertx vertx, Config config) {
+        this(vertx, config, ChannelMetrics.NOOP);
+    }
+
+    public MqttSource(Vertx vertx, Config config, ChannelMetrics metrics) {
         MqttClientOptions options = new MqttClientOptions();
         options.setClientId(config.getOptionalValue("client-id", String.class).orElse(null));
         options.setAutoGeneratedClientId(config.getOptionalValue("auto-generated-client-id", Boolean.class)
@@ -58,9 +65,16 @@ public class MqttSource {
         MqttClient client = MqttClient.create(vertx, options);
         int qos = config.getOptionalValue("qos", Integer.class).orElse(0);
         boolean broadcast = config.getOptionalValue("broadcast", Boolean.class).orElse(false);
+        boolean traceConnections = metrics.isTraced(ChannelMetrics.Operation.CONNECT);
 
         this.source = ReactiveStreams.fromPublisher(
-                client.rxConnect(port, host, server)
+                Single.defer(() -> {
+                    Object span = traceConnections ? metrics.startSpan(ChannelMetrics.Operation.CONNECT, topic) : null;
+                    if (span == null) {
+                        return client.rxConnect(port, host, server);
+                    }
+                    return client.rxConnect(port, host, server).doOnEvent((x, f) -> metrics.endSpan(span, f));
+                })
                         .flatMapObservable(a -> Observable.<MqttMessage<?>> create(emitter -> {
                             client.publishHandler(message -> {
                                 emitter.onNext(new ReceivingMqttMessage(message));
@@ -77,7 +91,7 @@ public class MqttSource {
                         .toFlowable(BackpressureStrategy.BUFFER)
                         .compose(f -> {
                             if (broadcast) {
-                                return f.publish().autoConnect();
+                                return BroadcastHub.create(f, config);
                             } else {
                                 return f;
                             }
@@ -1,10 +1,13 @@
 package io.smallrye.reactive.messaging.mqtt;
 
 import io.netty.handler.codec.mqtt.MqttQoS;
+import io.smallrye.reactive.messaging.Lineage;
+import io.smallrye.reactive.messaging.TracedMessage;
 import io.vertx.reactivex.mqtt.messages.MqttPublishMessage;
 
-public class ReceivingMqttMessage implements MqttMessage<byte[]> {
+public class ReceivingMqttMessage implements MqttMessage<byte[]>, TracedMessage<byte[]> {
     final MqttPublishMessage message;
+    private Lineage lineage;
 
     ReceivingMqttMessage(MqttPublishMessage message) {
         this.message = message;
@@ -34,4 +37,14 @@ public class ReceivingMqttMessage implements MqttMessage<byte[]> {
     public String getTopic() {
         return message.topicName();
     }
+
+    @Override
+    public Lineage getLineage() {
+        return lineage;
+    }
+
+    @Override
+    public void setLineage(Lineage lineage) {
+        this.lineage = lineage;
+    }
 }
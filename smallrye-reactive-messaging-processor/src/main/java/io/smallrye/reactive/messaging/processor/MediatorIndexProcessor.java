@@ -0,0 +1,251 @@
+package io.smallrye.reactive.messaging.processor;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import io.smallrye.reactive.messaging.MediatorConfigurationSupport;
+import io.smallrye.reactive.messaging.MediatorIndex;
+
+/**
+ * Annotation processor analyzing the methods annotated with {@link Incoming} or {@link Outgoing} at build time, and
+ * writing their attributes in the {@link MediatorIndex}.
+ * <p>
+ * The methods are analyzed by the {@link MediatorConfigurationSupport}, as at runtime. As the classes being compiled
+ * cannot be loaded, the types of the method are represented by the type, among the ones checked by the analysis, they
+ * are assignable to. Methods that cannot be represented, or that are invalid, are not indexed: they are analyzed, and
+ * reported, at runtime.
+ */
+@SupportedAnnotationTypes({
+        "org.eclipse.microprofile.reactive.messaging.Incoming",
+        "org.eclipse.microprofile.reactive.messaging.Outgoing"
+})
+public class MediatorIndexProcessor extends AbstractProcessor {
+
+    /**
+     * The types checked by the {@link MediatorConfigurationSupport}.
+     */
+    private static final List<Class<?>> KNOWN_TYPES = Arrays.asList(Message.class, List.class, CompletionStage.class,
+            Publisher.class, Subscriber.class, Processor.class,
+            PublisherBuilder.class, SubscriberBuilder.class, ProcessorBuilder.class);
+
+    private final Map<String, MediatorIndex.Entry> entries = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<Element> methods = new LinkedHashSet<>(roundEnv.getElementsAnnotatedWith(Incoming.class));
+        methods.addAll(roundEnv.getElementsAnnotatedWith(Outgoing.class));
+        for (Element element : methods) {
+            if (element.getKind() == ElementKind.METHOD
+                    && element.getEnclosingElement().getKind() == ElementKind.CLASS) {
+                index((ExecutableElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            write();
+        }
+        // The annotations are not claimed, other processors may handle them.
+        return false;
+    }
+
+    private void index(ExecutableElement method) {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+
+        String declaringClass = elements.getBinaryName((TypeElement) method.getEnclosingElement()).toString();
+        List<String> parameterNames = new ArrayList<>();
+        Class<?>[] parameterTypes = new Class<?>[method.getParameters().size()];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            TypeMirror type = method.getParameters().get(i).asType();
+            parameterNames.add(className(types.erasure(type)));
+            parameterTypes[i] = represent(type);
+        }
+        Class<?> returnType = represent(method.getReturnType());
+        String name = method.getSimpleName().toString();
+        String key = MediatorIndex.key(declaringClass, name, parameterNames);
+        if (returnType == null || Arrays.asList(parameterTypes).contains(null)) {
+            note(method, "its types are ambiguous");
+            return;
+        }
+
+        List<? extends VariableElement> parameters = method.getParameters();
+        MediatorConfigurationSupport support = new MediatorConfigurationSupport(declaringClass + "#" + name,
+                returnType, parameterTypes,
+                new TypeMirrorGenericTypeAssignable(processingEnv, method.getReturnType()),
+                parameters.isEmpty() ? new TypeMirrorGenericTypeAssignable(processingEnv, null)
+                        : new TypeMirrorGenericTypeAssignable(processingEnv, parameters.get(0).asType()));
+        MediatorIndex.Entry entry;
+        try {
+            entry = support.analyze(method.getAnnotation(Incoming.class), method.getAnnotation(Outgoing.class),
+                    method::getAnnotation);
+        } catch (IllegalArgumentException | TypeMirrorGenericTypeAssignable.UnsupportedTypeException e) {
+            note(method, e.getMessage());
+            return;
+        }
+        if (!entry.isIndexable()) {
+            note(method, "its channel or worker pool names contain line breaks or tabulations");
+            return;
+        }
+        entries.put(key, entry);
+    }
+
+    private void note(ExecutableElement method, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "Not indexing the mediator method, it will be analyzed at runtime: " + reason, method);
+    }
+
+    /**
+     * Finds the class representing the given type in the analysis: the most specific of the known types it is
+     * assignable to, or {@code Object} if it is not assignable to any of them.
+     *
+     * @return the class, {@code null} if the type is assignable to several unrelated known types.
+     */
+    private Class<?> represent(TypeMirror type) {
+        if (type.getKind() == TypeKind.VOID) {
+            return Void.TYPE;
+        }
+        if (type.getKind().isPrimitive()) {
+            return primitive(type.getKind());
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return Object[].class;
+        }
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror erased = types.erasure(type);
+        List<Class<?>> assignable = new ArrayList<>();
+        for (Class<?> known : KNOWN_TYPES) {
+            TypeElement element = processingEnv.getElementUtils().getTypeElement(known.getName());
+            if (element != null && types.isAssignable(erased, types.erasure(element.asType()))) {
+                assignable.add(known);
+            }
+        }
+        if (assignable.isEmpty()) {
+            return Object.class;
+        }
+        for (Class<?> candidate : assignable) {
+            if (assignable.stream().allMatch(c -> c.isAssignableFrom(candidate))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> primitive(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return Boolean.TYPE;
+            case BYTE:
+                return Byte.TYPE;
+            case SHORT:
+                return Short.TYPE;
+            case INT:
+                return Integer.TYPE;
+            case LONG:
+                return Long.TYPE;
+            case CHAR:
+                return Character.TYPE;
+            case FLOAT:
+                return Float.TYPE;
+            case DOUBLE:
+                return Double.TYPE;
+            default:
+                throw new IllegalArgumentException("Not a primitive type: " + kind);
+        }
+    }
+
+    /**
+     * @return the name of the erased type, as returned by {@link Class#getName()}.
+     */
+    private String className(TypeMirror erased) {
+        if (erased.getKind().isPrimitive()) {
+            return erased.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        if (erased.getKind() == TypeKind.ARRAY) {
+            return descriptor(erased);
+        }
+        return processingEnv.getElementUtils()
+                .getBinaryName((TypeElement) ((DeclaredType) erased).asElement()).toString();
+    }
+
+    private String descriptor(TypeMirror erased) {
+        switch (erased.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case CHAR:
+                return "C";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) erased).getComponentType());
+            default:
+                return "L" + className(erased) + ";";
+        }
+    }
+
+    private void write() {
+        try {
+            FileObject resource = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", MediatorIndex.LOCATION);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                MediatorIndex.write(writer, entries);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Unable to write the mediator index, the mediators will be analyzed at runtime: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.smallrye.reactive.messaging.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.util.Types;
+
+import io.smallrye.reactive.messaging.MediatorConfigurationSupport;
+
+/**
+ * Checks the type arguments of a type known at build time, like the reflection-based implementation does at runtime:
+ * wildcards are never assignable, and type variables are assignable if one of their bounds is.
+ */
+class TypeMirrorGenericTypeAssignable implements MediatorConfigurationSupport.GenericTypeAssignable {
+
+    private final ProcessingEnvironment environment;
+    private final TypeMirror type;
+
+    /**
+     * @param environment the processing environment
+     * @param type the type, {@code null} if there is no such type, e.g. the method has no parameter.
+     */
+    TypeMirrorGenericTypeAssignable(ProcessingEnvironment environment, TypeMirror type) {
+        this.environment = environment;
+        this.type = type;
+    }
+
+    @Override
+    public Result check(Class<?> target, int index) {
+        if (type == null) {
+            return Result.InvalidIndex;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Result.NotGeneric;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        if (declared.getTypeArguments().isEmpty()) {
+            if (declared.getEnclosingType().getKind() == TypeKind.DECLARED
+                    && !((DeclaredType) declared.getEnclosingType()).getTypeArguments().isEmpty()) {
+                // Parameterized at runtime, through its owner.
+                throw new UnsupportedTypeException("unsupported type " + type);
+            }
+            return Result.NotGeneric;
+        }
+        if (declared.getTypeArguments().size() < index + 1) {
+            return Result.InvalidIndex;
+        }
+        return isAssignable(declared.getTypeArguments().get(index), target) ? Result.Assignable
+                : Result.NotAssignable;
+    }
+
+    private boolean isAssignable(TypeMirror argument, Class<?> target) {
+        switch (argument.getKind()) {
+            case WILDCARD:
+                return false;
+            case TYPEVAR:
+                return isAssignable(((TypeVariable) argument).getUpperBound(), target);
+            case INTERSECTION:
+                return ((IntersectionType) argument).getBounds().stream().anyMatch(b -> isAssignable(b, target));
+            default:
+                Types types = environment.getTypeUtils();
+                TypeElement element = environment.getElementUtils().getTypeElement(target.getName());
+                return element != null
+                        && types.isAssignable(types.erasure(argument), types.erasure(element.asType()));
+        }
+    }
+
+    /**
+     * Thrown when the type cannot be checked as it would be at runtime.
+     */
+    static class UnsupportedTypeException extends RuntimeException {
+
+        UnsupportedTypeException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.smallrye.reactive.messaging.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.annotations.Concurrency;
+import io.smallrye.reactive.messaging.annotations.Merge;
+import io.smallrye.reactive.messaging.annotations.Partitioned;
+
+/**
+ * Mediator methods analyzed by the processor when compiling the tests. The methods are never invoked.
+ */
+public class IndexedBean {
+
+    @Outgoing("publisher-of-messages")
+    @Broadcast(value = 2, bufferSize = 16, overflow = Broadcast.Overflow.DROP_OLDEST, replay = 4)
+    public Publisher<Message<String>> publisherOfMessages() {
+        return null;
+    }
+
+    @Outgoing("flowable-of-payloads")
+    public Flowable<String> flowableOfPayloads() {
+        return null;
+    }
+
+    @Outgoing("publisher-builder")
+    public PublisherBuilder<Message<String>> publisherBuilder() {
+        return null;
+    }
+
+    @Outgoing("payload")
+    public String payload() {
+        return null;
+    }
+
+    @Outgoing("future-of-message")
+    public CompletableFuture<Message<String>> futureOfMessage() {
+        return null;
+    }
+
+    @Incoming("subscriber")
+    public Subscriber<Message<String>> subscriber() {
+        return null;
+    }
+
+    @Incoming("subscriber-builder")
+    public SubscriberBuilder<String, Void> subscriberBuilder() {
+        return null;
+    }
+
+    @Incoming("consumer")
+    @Acknowledgment(Acknowledgment.Strategy.MANUAL)
+    @Concurrency(value = 4, ordered = false)
+    @Merge(Merge.Mode.CONCAT)
+    public CompletionStage<Void> consumer(Message<String> message) {
+        return null;
+    }
+
+    @Incoming("blocking-consumer")
+    @Blocking(ordered = false)
+    public void blockingConsumer(int payload) {
+        // Never invoked.
+    }
+
+    @Incoming("processor-in")
+    @Outgoing("processor-out")
+    public Processor<Message<String>, String> processor() {
+        return null;
+    }
+
+    @Incoming("processor-builder-in")
+    @Outgoing("processor-builder-out")
+    public ProcessorBuilder<String, String> processorBuilder() {
+        return ReactiveStreams.<String> builder().map(s -> s);
+    }
+
+    @Incoming("wildcard-in")
+    @Outgoing("wildcard-out")
+    public Publisher<? extends Message<String>> wildcard(Message<String> message) {
+        return null;
+    }
+
+    @Incoming("type-variable-in")
+    @Outgoing("type-variable-out")
+    public <M extends Message<String>> PublisherBuilder<M> typeVariable(M message) {
+        return null;
+    }
+
+    @Incoming("partitioned-in")
+    @Outgoing("partitioned-out")
+    @Partitioned(3)
+    @Blocking("pool")
+    public Message<String> partitioned(Message<String> message) {
+        return message;
+    }
+
+    @Incoming("batch-in")
+    @Outgoing("batch-out")
+    @Batch(maxSize = 10, maxWait = 100)
+    public String batch(List<String> payloads) {
+        return null;
+    }
+
+    @Incoming("array-in")
+    @Outgoing("array-out")
+    public String[] array(byte[][] payload) {
+        return null;
+    }
+
+    @Incoming("transformer-in")
+    @Outgoing("transformer-out")
+    public Publisher<Message<String>> transformer(Publisher<Message<String>> upstream) {
+        return upstream;
+    }
+
+    @Incoming("transformer-builder-in")
+    @Outgoing("transformer-builder-out")
+    public PublisherBuilder<String> transformerBuilder(PublisherBuilder<String> upstream) {
+        return upstream;
+    }
+
+    /**
+     * Both a {@code List} and a {@code Message}: cannot be represented, analyzed at runtime.
+     */
+    @Incoming("ambiguous")
+    public void ambiguous(MessageList payload) {
+        // Never invoked.
+    }
+
+    /**
+     * Invalid, reported at runtime.
+     */
+    @Outgoing("invalid")
+    public void invalid() {
+        // Never invoked.
+    }
+
+    public abstract static class MessageList extends ArrayList<String> implements Message<String> {
+    }
+}
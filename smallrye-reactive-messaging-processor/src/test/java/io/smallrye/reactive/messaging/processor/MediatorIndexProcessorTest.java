@@ -0,0 +1,78 @@
+package io.smallrye.reactive.messaging.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.enterprise.inject.spi.Bean;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+
+import io.smallrye.reactive.messaging.DefaultMediatorConfiguration;
+import io.smallrye.reactive.messaging.MediatorConfiguration;
+import io.smallrye.reactive.messaging.MediatorIndex;
+
+/**
+ * Checks the index generated when compiling {@link IndexedBean} against the analysis done at runtime.
+ */
+public class MediatorIndexProcessorTest {
+
+    private final MediatorIndex index = MediatorIndex.load(getClass().getClassLoader());
+
+    @Test
+    public void testIndexedMethodsAreConfiguredAsAtRuntime() {
+        List<Method> methods = Arrays.stream(IndexedBean.class.getDeclaredMethods())
+                .filter(m -> m.isAnnotationPresent(Incoming.class) || m.isAnnotationPresent(Outgoing.class))
+                .filter(m -> !m.getName().equals("ambiguous") && !m.getName().equals("invalid"))
+                .collect(Collectors.toList());
+        assertThat(methods).hasSize(18);
+        assertThat(index.size()).isEqualTo(methods.size());
+
+        for (Method method : methods) {
+            MediatorIndex.Entry entry = index.get(method);
+            assertThat(entry).as(method.getName()).isNotNull();
+
+            DefaultMediatorConfiguration expected = new DefaultMediatorConfiguration(method, bean());
+            expected.compute(method.getAnnotation(Incoming.class), method.getAnnotation(Outgoing.class));
+            DefaultMediatorConfiguration indexed = new DefaultMediatorConfiguration(method, bean());
+            indexed.compute(entry);
+
+            assertThat(attributes(indexed)).as(method.getName()).isEqualTo(attributes(expected));
+        }
+    }
+
+    @Test
+    public void testMethodsNotIndexed() throws NoSuchMethodException {
+        Method ambiguous = IndexedBean.class.getMethod("ambiguous", IndexedBean.MessageList.class);
+        assertThat(index.get(ambiguous)).isNull();
+
+        Method invalid = IndexedBean.class.getMethod("invalid");
+        assertThat(index.get(invalid)).isNull();
+        DefaultMediatorConfiguration configuration = new DefaultMediatorConfiguration(invalid, bean());
+        assertThatThrownBy(() -> configuration.compute(null, invalid.getAnnotation(Outgoing.class)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Object> attributes(MediatorConfiguration configuration) {
+        return Arrays.asList(configuration.shape(), configuration.getIncoming(), configuration.getOutgoing(),
+                configuration.consumption(), configuration.production(), configuration.usesBuilderTypes(),
+                configuration.getAcknowledgment(), configuration.getMerge(), configuration.getBroadcast(),
+                configuration.getNumberOfSubscriberBeforeConnecting(), configuration.getBroadcastBufferSize(),
+                configuration.getBroadcastOverflow(), configuration.getBroadcastReplay(),
+                configuration.getConcurrency(), configuration.isOrdered(), configuration.getPartitions(),
+                configuration.getWorkerPoolName(), configuration.getBatchSize(), configuration.getBatchMaxWait());
+    }
+
+    private static Bean<?> bean() {
+        return (Bean<?>) Proxy.newProxyInstance(MediatorIndexProcessorTest.class.getClassLoader(),
+                new Class<?>[] { Bean.class },
+                (proxy, method, args) -> method.getName().equals("getBeanClass") ? IndexedBean.class : null);
+    }
+}
@@ -1,23 +1,70 @@
 package io.smallrye.reactive.messaging;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.reactivestreams.Processor;
 import org.slf4j.LoggerFactory;
 
 import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.schedulers.Schedulers;
+import io.smallrye.reactive.messaging.impl.WorkerPoolRegistry;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.smallrye.reactive.messaging.metrics.LineageTracker;
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
 
 public abstract class AbstractMediator {
 
+    /**
+     * Start time of the operations whose duration is not measured.
+     */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
     protected final MediatorConfiguration configuration;
     private Invoker invoker;
+    private WorkerPoolRegistry workerPoolRegistry;
+    private ChannelMetrics incomingMetrics = ChannelMetrics.NOOP;
+    private ChannelMetrics outgoingMetrics = ChannelMetrics.NOOP;
+    /**
+     * The metrics of the incoming channel, or of the outgoing one for the publishers, if the method is invoked for each
+     * message, the methods returning or transforming streams being only invoked once.
+     */
+    private ChannelMetrics invocationMetrics = ChannelMetrics.NOOP;
+    private boolean measureInvocations;
+    private boolean traceInvocations;
+    /**
+     * The method name, computed once for the invocation spans.
+     */
+    private String traceDetail;
+    private boolean measureAcks;
+    private boolean traceAcks;
+    /**
+     * Whether the messages leave the application through the mediator, which has no outgoing channel.
+     */
+    private boolean egress;
+    /**
+     * The tracker of the messages entering the application through the mediator, which has no incoming channel,
+     * {@code null} if they are not traced.
+     */
+    private LineageTracker ingress;
+    private int timingInterval = 1;
+    // Not synchronized: concurrent operations may skip or repeat a measure, which does not matter for a sample.
+    private int invocationCountdown;
+    private int ackCountdown;
 
     public AbstractMediator(MediatorConfiguration configuration) {
         this.configuration = configuration;
@@ -27,6 +74,48 @@ public abstract class AbstractMediator {
         this.invoker = invoker;
     }
 
+    public synchronized void setWorkerPoolRegistry(WorkerPoolRegistry workerPoolRegistry) {
+        this.workerPoolRegistry = workerPoolRegistry;
+    }
+
+    /**
+     * Sets the provider of the metrics of the channels of the mediator. Must be called before connecting the mediator.
+     *
+     * @param provider the provider, must not be {@code null}
+     */
+    public synchronized void setMetrics(MetricsProvider provider) {
+        String incoming = configuration.getIncoming();
+        String outgoing = configuration.getOutgoing();
+        this.incomingMetrics = incoming == null ? ChannelMetrics.NOOP : provider.forChannel(incoming);
+        this.outgoingMetrics = outgoing == null ? ChannelMetrics.NOOP : provider.forChannel(outgoing);
+        this.invocationMetrics = isInvokedPerMessage() ? (incoming == null ? outgoingMetrics : incomingMetrics)
+                : ChannelMetrics.NOOP;
+        this.traceInvocations = invocationMetrics.isTraced(ChannelMetrics.Operation.INVOCATION);
+        this.traceDetail = traceInvocations ? configuration.methodAsString() : null;
+        this.measureInvocations = invocationMetrics.isEnabled() || traceInvocations;
+        this.traceAcks = incomingMetrics.isTraced(ChannelMetrics.Operation.ACK);
+        this.measureAcks = incomingMetrics.isEnabled() || traceAcks;
+        this.egress = incoming != null && outgoing == null;
+        this.ingress = incoming == null && outgoing != null ? LineageTracker.forIngress(outgoing, outgoingMetrics)
+                : null;
+        // The spans are timed by the metrics themselves
+        ChannelMetrics timed = incoming == null ? outgoingMetrics : incomingMetrics;
+        this.timingInterval = timed.isEnabled() ? Math.max(timed.getTimingInterval(), 1) : Integer.MAX_VALUE;
+    }
+
+    private boolean isInvokedPerMessage() {
+        switch (configuration.shape()) {
+            case PUBLISHER:
+                return configuration.production() != MediatorConfiguration.Production.STREAM_OF_MESSAGE
+                        && configuration.production() != MediatorConfiguration.Production.STREAM_OF_PAYLOAD;
+            case STREAM_TRANSFORMER:
+                return false;
+            default:
+                return configuration.consumption() != MediatorConfiguration.Consumption.STREAM_OF_MESSAGE
+                        && configuration.consumption() != MediatorConfiguration.Consumption.STREAM_OF_PAYLOAD;
+        }
+    }
+
     public void run() {
         // Do nothing by default.
     }
@@ -42,6 +131,9 @@ public abstract class AbstractMediator {
     public void initialize(Object bean) {
         // Method overriding initialize MUST call super(bean).
         synchronized (this) {
+            if (this.invoker == null) {
+                this.invoker = GeneratedInvoker.create(configuration, bean);
+            }
             if (this.invoker == null) {
                 this.invoker = args -> {
                     try {
@@ -58,16 +150,134 @@ public abstract class AbstractMediator {
     protected <T> T invoke(Object... args) {
         try {
             Objects.requireNonNull(this.invoker, "Invoker not initialized");
+            if (measureInvocations) {
+                return invocationCompleted(this.invoker, args);
+            }
             return (T) this.invoker.invoke(args);
         } catch (RuntimeException e) {
-            LoggerFactory.getLogger(configuration().methodAsString())
-                    .error("The method " + configuration().methodAsString() + " has thrown an exception", e);
+            throw logFailure(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T> T invoke() {
+        try {
+            Objects.requireNonNull(this.invoker, "Invoker not initialized");
+            if (measureInvocations) {
+                return invocationCompleted(this.invoker);
+            }
+            return (T) this.invoker.invoke();
+        } catch (RuntimeException e) {
+            throw logFailure(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T> T invoke(Object arg) {
+        try {
+            Objects.requireNonNull(this.invoker, "Invoker not initialized");
+            if (measureInvocations) {
+                return invocationCompleted(this.invoker, arg);
+            }
+            return (T) this.invoker.invoke(arg);
+        } catch (RuntimeException e) {
+            throw logFailure(e);
+        }
+    }
+
+    /**
+     * Invokes the method with a single argument, recording the invocation in the metrics. Kept apart from
+     * {@link #invoke(Object)} so the latter stays small enough to be inlined.
+     */
+    private <T> T invocationCompleted(Invoker invoker, Object arg) {
+        long start = invocationStarted();
+        Object span = traceInvocations ? startInvocationSpan() : null;
+        Object result;
+        try {
+            result = invoker.invoke(arg);
+        } catch (RuntimeException e) {
+            recordInvocation(start, span, e);
             throw e;
         }
+        return invocationCompleted(result, start, span);
+    }
+
+    private <T> T invocationCompleted(Invoker invoker) {
+        long start = invocationStarted();
+        Object span = traceInvocations ? startInvocationSpan() : null;
+        Object result;
+        try {
+            result = invoker.invoke();
+        } catch (RuntimeException e) {
+            recordInvocation(start, span, e);
+            throw e;
+        }
+        return invocationCompleted(result, start, span);
+    }
+
+    private <T> T invocationCompleted(Invoker invoker, Object[] args) {
+        long start = invocationStarted();
+        Object span = traceInvocations ? startInvocationSpan() : null;
+        Object result;
+        try {
+            result = invoker.invoke(args);
+        } catch (RuntimeException e) {
+            recordInvocation(start, span, e);
+            throw e;
+        }
+        return invocationCompleted(result, start, span);
+    }
+
+    private Object startInvocationSpan() {
+        return invocationMetrics.startSpan(ChannelMetrics.Operation.INVOCATION, traceDetail);
+    }
+
+    private long invocationStarted() {
+        invocationMetrics.onInvocationStarted();
+        if (--invocationCountdown > 0) {
+            return NOT_TIMED;
+        }
+        invocationCountdown = timingInterval;
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the end of an invocation: when the returned stage completes for asynchronous methods, immediately
+     * otherwise. The result is returned as it is.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T invocationCompleted(Object result, long start, Object span) {
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete((x, f) -> recordInvocation(start, span, unwrap(f)));
+        } else {
+            recordInvocation(start, span, null);
+        }
+        return (T) result;
+    }
+
+    private void recordInvocation(long start, Object span, Throwable failure) {
+        invocationMetrics.onInvocationCompleted(elapsed(start));
+        if (span != null) {
+            invocationMetrics.endSpan(span, failure);
+        }
+    }
+
+    private static long elapsed(long start) {
+        return start == NOT_TIMED ? -1 : System.nanoTime() - start;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private RuntimeException logFailure(RuntimeException e) {
+        LoggerFactory.getLogger(configuration().methodAsString())
+                .error("The method " + configuration().methodAsString() + " has thrown an exception", e);
+        return e;
     }
 
     protected CompletionStage<Message> getAckOrCompletion(Message<?> message) {
-        CompletionStage<Void> ack = message.ack();
+        CompletionStage<Void> ack = acknowledge(message);
         if (ack != null) {
             return ack.thenApply(x -> message);
         } else {
@@ -75,6 +285,81 @@ public abstract class AbstractMediator {
         }
     }
 
+    /**
+     * Acknowledges a message of the incoming channel, recording the acknowledgement in the channel metrics.
+     *
+     * @param message the message
+     * @return the stage returned by {@link Message#ack()}, possibly {@code null}
+     */
+    protected CompletionStage<Void> acknowledge(Message<?> message) {
+        if (!measureAcks) {
+            return message.ack();
+        }
+        ChannelMetrics metrics = incomingMetrics;
+        long start = NOT_TIMED;
+        if (--ackCountdown <= 0) {
+            ackCountdown = timingInterval;
+            start = System.nanoTime();
+        }
+        Object span = traceAcks ? metrics.startSpan(ChannelMetrics.Operation.ACK, null) : null;
+        Lineage lineage = egress ? Lineage.of(message) : null;
+        CompletionStage<Void> ack;
+        try {
+            ack = message.ack();
+        } catch (RuntimeException e) {
+            recordAck(metrics, start, span, lineage, e);
+            throw e;
+        }
+        if (ack == null) {
+            recordAck(metrics, start, span, lineage, null);
+            return null;
+        }
+        if (ack instanceof CompletableFuture && ((CompletableFuture<Void>) ack).isDone()
+                && !((CompletableFuture<Void>) ack).isCompletedExceptionally()) {
+            // Fast path, no need to register a callback
+            recordAck(metrics, start, span, lineage, null);
+            return ack;
+        }
+        long started = start;
+        return ack.whenComplete((x, f) -> recordAck(metrics, started, span, lineage, unwrap(f)));
+    }
+
+    private static void recordAck(ChannelMetrics metrics, long start, Object span, Lineage lineage,
+            Throwable failure) {
+        if (failure != null) {
+            metrics.onNack(failure);
+        } else {
+            metrics.onAck(elapsed(start));
+            if (lineage != null) {
+                metrics.onLineageAck(lineage, lineage.getAge());
+            }
+        }
+        if (span != null) {
+            metrics.endSpan(span, failure);
+        }
+    }
+
+    /**
+     * Counts the messages received from the incoming channel, if the metrics are enabled. If the mediator has no
+     * outgoing channel, the traced messages are also reported as leaving the application.
+     *
+     * @param upstream the upstream
+     * @return the upstream reporting its messages, or {@code upstream} itself
+     */
+    protected PublisherBuilder<? extends Message> consumed(PublisherBuilder<? extends Message> upstream) {
+        ChannelMetrics metrics = incomingMetrics;
+        if (!metrics.isEnabled()) {
+            return upstream;
+        }
+        if (egress) {
+            return upstream.peek(message -> {
+                metrics.onConsumed();
+                LineageTracker.egress(message, metrics);
+            });
+        }
+        return upstream.peek(message -> metrics.onConsumed());
+    }
+
     public PublisherBuilder<? extends Message> getStream() {
         return null;
     }
@@ -102,18 +387,244 @@ public abstract class AbstractMediator {
         };
     }
 
+    /**
+     * Creates the stage mapping each item to the {@link CompletionStage} returned by {@code mapper}, and emitting the
+     * results. Up to {@link MediatorConfiguration#getConcurrency()} stages can be in-flight, and the results are
+     * emitted in order if {@link MediatorConfiguration#isOrdered()} returns {@code true}, as soon as they are available
+     * otherwise.
+     *
+     * @param mapper the function, generally invoking the method
+     * @param <I> the type of the incoming items
+     * @param <O> the type of the outgoing items
+     * @return the processor builder
+     */
+    protected <I, O> ProcessorBuilder<I, O> invokeConcurrently(Function<I, CompletionStage<O>> mapper) {
+        return invokeConcurrently(mapper, configuration.getConcurrency());
+    }
+
+    /**
+     * Creates the stage mapping each item using {@code mapper}, generally invoking the method. If the method is
+     * {@link MediatorConfiguration#isBlocking() blocking}, the mapper is executed on its worker pool, with up to the
+     * size of the pool invocations in-flight, and the results are emitted in order if
+     * {@link MediatorConfiguration#isOrdered()} returns {@code true}. Otherwise, the mapper is called on the caller
+     * thread.
+     *
+     * @param mapper the function, generally invoking the method
+     * @param <I> the type of the incoming items
+     * @param <O> the type of the outgoing items
+     * @return the processor builder
+     * @throws IllegalStateException if the method is blocking and no worker pool registry has been set
+     */
+    protected <I, O> ProcessorBuilder<I, O> invokeBlocking(Function<I, O> mapper) {
+        if (!configuration.isBlocking()) {
+            return ReactiveStreams.<I> builder().map(mapper);
+        }
+        WorkerPoolRegistry registry;
+        synchronized (this) {
+            registry = workerPoolRegistry;
+        }
+        if (registry == null) {
+            // The pools are owned, and shut down, by the caller of setWorkerPoolRegistry
+            throw new IllegalStateException("No worker pool registry set for the blocking method "
+                    + configuration.methodAsString());
+        }
+        String pool = configuration.getWorkerPoolName();
+        // Items can be emitted from the worker threads, when a completion triggers the emission of an item buffered
+        // upstream, so the last captured context is reused.
+        AtomicReference<Executor> lastContext = new AtomicReference<>();
+        return invokeConcurrently(item -> {
+            Executor context = WorkerPoolRegistry.captureContext();
+            if (context != null) {
+                lastContext.set(context);
+            } else {
+                context = lastContext.get();
+            }
+            return registry.executeWork(pool, context, () -> mapper.apply(item));
+        }, registry.getMaxConcurrency(pool));
+    }
+
+    /**
+     * Creates the stage acknowledging the messages if the strategy is {@code PRE_PROCESSING} and mapping them using
+     * {@code mapper}, generally invoking the method and wrapping the result.
+     * <p>
+     * Unless the method is {@link MediatorConfiguration#isBlocking() blocking}, the acknowledgement and the mapping are
+     * fused in a single synchronous operator, which only goes asynchronous while an acknowledgement is pending.
+     *
+     * @param mapper the function, must not return {@code null}
+     * @return the processor builder, which can only be built once
+     */
+    protected ProcessorBuilder<Message, Message> invokeFused(Function<Message, Message> mapper) {
+        if (configuration.isBlocking()) {
+            return ReactiveStreams.<Message> builder()
+                    .flatMapCompletionStage(managePreProcessingAck())
+                    .via(this.<Message, Message> invokeBlocking(mapper));
+        }
+        boolean acknowledgeFirst = configuration.getAcknowledgment() == Acknowledgment.Strategy.PRE_PROCESSING;
+        return ReactiveStreams.<Message> builder().via(new TransformingProcessor<Message, Message>(
+                flow -> new FlowableInvocation(flow, mapper, acknowledgeFirst ? this::acknowledge : null)));
+    }
+
+    private <I, O> ProcessorBuilder<I, O> invokeConcurrently(Function<I, CompletionStage<O>> mapper, int concurrency) {
+        if (concurrency <= 1) {
+            return ReactiveStreams.<I> builder().flatMapCompletionStage(mapper);
+        }
+        TransformingProcessor<I, O> processor;
+        if (configuration.isOrdered()) {
+            processor = new TransformingProcessor<>(
+                    flow -> flow.concatMapEager(item -> toMaybe(mapper.apply(item)).toFlowable(), concurrency, 1));
+        } else {
+            processor = new TransformingProcessor<>(
+                    flow -> flow.flatMapMaybe(item -> toMaybe(mapper.apply(item)), false, concurrency));
+        }
+        return ReactiveStreams.<I> builder().via(processor);
+    }
+
+    /**
+     * Runs the given per-message stage on {@link MediatorConfiguration#getPartitions()} lanes. Each message is
+     * dispatched to a lane according to its {@link KeyedMessage#getPartitionKey() key}, or in a round-robin fashion if
+     * it has no key. Each lane runs a copy of the stage on the {@link WorkerPoolRegistry#getLane(String, int) thread}
+     * of the lane, and the lanes are merged back. The queues between the upstream, the lanes and the downstream are
+     * bounded, so backpressure is preserved.
+     *
+     * @param stage the stage processing the messages
+     * @param <I> the type of incoming messages
+     * @param <O> the type of outgoing items
+     * @return the stage itself if the mediator is not partitioned, the partitioned stage otherwise
+     * @throws IllegalStateException if the mediator is partitioned and no worker pool registry has been set
+     */
+    protected <I extends Message, O> ProcessorBuilder<I, O> partitioned(ProcessorBuilder<I, O> stage) {
+        return partitioned(() -> stage);
+    }
+
+    /**
+     * Variant of {@link #partitioned(ProcessorBuilder)} for stages that cannot be built more than once, such as the
+     * ones returned by {@link #invokeFused(Function)}. The supplier is called once per lane.
+     *
+     * @param stage the supplier of the stage processing the messages
+     * @param <I> the type of incoming messages
+     * @param <O> the type of outgoing items
+     * @return the supplied stage if the mediator is not partitioned, the partitioned stage otherwise
+     * @throws IllegalStateException if the mediator is partitioned and no worker pool registry has been set
+     */
+    protected <I extends Message, O> ProcessorBuilder<I, O> partitioned(Supplier<ProcessorBuilder<I, O>> stage) {
+        int lanes = configuration.getPartitions();
+        if (lanes <= 1) {
+            return stage.get();
+        }
+        WorkerPoolRegistry registry;
+        synchronized (this) {
+            registry = workerPoolRegistry;
+        }
+        if (registry == null) {
+            // The lanes are owned, and shut down, by the caller of setWorkerPoolRegistry
+            throw new IllegalStateException("No worker pool registry set for the partitioned method "
+                    + configuration.methodAsString());
+        }
+        String channel = configuration.getIncoming();
+        return ReactiveStreams.<I> builder().via(new TransformingProcessor<I, O>(flow -> {
+            int[] next = new int[1];
+            return flow
+                    .groupBy(message -> {
+                        Object key = message instanceof KeyedMessage ? ((KeyedMessage) message).getPartitionKey() : null;
+                        if (key == null) {
+                            // The selector is called serially, no need for an atomic counter.
+                            next[0] = (next[0] + 1) % lanes;
+                            return next[0];
+                        }
+                        return Math.floorMod(key.hashCode(), lanes);
+                    })
+                    .flatMap(lane -> {
+                        Processor<I, O> processor = stage.get().buildRs();
+                        lane.observeOn(Schedulers.from(registry.getLane(channel, lane.getKey())))
+                                .subscribe(processor);
+                        return Flowable.fromPublisher(processor);
+                    }, lanes);
+        }));
+    }
+
+    /**
+     * Groups the messages into {@link BatchMessage batches} if the method consumes batches. A batch is emitted when it
+     * contains {@link MediatorConfiguration#getBatchSize()} messages, or when
+     * {@link MediatorConfiguration#getBatchMaxWait()} milliseconds have elapsed since the reception of its first
+     * message. The batches emitted by the upstream, generally by a connector, are passed as they are.
+     *
+     * @param upstream the upstream
+     * @return the upstream itself if the method does not consume batches, the stream of batches otherwise
+     */
+    @SuppressWarnings("unchecked")
+    protected PublisherBuilder<? extends Message> batched(PublisherBuilder<? extends Message> upstream) {
+        if (!configuration.isBatch()) {
+            return upstream;
+        }
+        int maxSize = configuration.getBatchSize();
+        long maxWait = configuration.getBatchMaxWait();
+        return ((PublisherBuilder<Message>) upstream).via(new TransformingProcessor<Message, Message>(
+                flow -> flow.publish(shared -> Flowable.merge(
+                        shared.filter(message -> message instanceof BatchMessage),
+                        new FlowableBatch<>(shared.filter(message -> !(message instanceof BatchMessage)), maxSize,
+                                maxWait, Schedulers.computation())
+                                        .map(list -> (Message) BatchMessage.of((List) list))))));
+    }
+
+    /**
+     * Requests the messages of the incoming channel in batches, if a prefetch is configured for the channel.
+     *
+     * @param upstream the incoming messages
+     * @return the prefetched messages, or {@code upstream} itself if no prefetch is configured
+     */
+    @SuppressWarnings("unchecked")
+    protected PublisherBuilder<? extends Message> prefetched(PublisherBuilder<? extends Message> upstream) {
+        if (configuration.getPrefetch() <= 0) {
+            return upstream;
+        }
+        return ReactiveStreams.fromPublisher(new FlowablePrefetch<>(((PublisherBuilder<Message>) upstream).buildRs(),
+                configuration.getPrefetch(), configuration.getPrefetchReplenish(), configuration.getPrefetchMaxBytes(),
+                FlowablePrefetch::sizeOf));
+    }
+
+    /**
+     * @return whether the method receives payloads, individually or in batches, rather than messages.
+     */
+    protected boolean consumesPayloads() {
+        return configuration.consumption() == MediatorConfiguration.Consumption.PAYLOAD
+                || configuration.consumption() == MediatorConfiguration.Consumption.BATCH_PAYLOAD;
+    }
+
+    private <T> Maybe<T> toMaybe(CompletionStage<T> stage) {
+        if (stage == null) {
+            return Maybe.error(new NullPointerException("The method " + configuration.methodAsString()
+                    + " returned `null` instead of a CompletionStage"));
+        }
+        return Maybe.create(emitter -> stage.whenComplete((result, failure) -> {
+            if (failure != null) {
+                emitter.onError(failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause()
+                        : failure);
+            } else if (result == null) {
+                emitter.onError(new NullPointerException("The CompletionStage returned by the method "
+                        + configuration.methodAsString() + " has been completed with `null`"));
+            } else {
+                emitter.onSuccess(result);
+            }
+        }));
+    }
+
     public PublisherBuilder<? extends Message> decorate(PublisherBuilder<? extends Message> input) {
         if (input == null) {
             return null;
         }
+        ChannelMetrics metrics = outgoingMetrics;
+        LineageTracker tracker = ingress;
+        if (tracker != null) {
+            input = input.peek(tracker::sample);
+        }
+        if (metrics.isEnabled()) {
+            input = input.peek(message -> metrics.onProduced());
+        }
         if (configuration.getBroadcast()) {
-            Flowable<Message> flow = Flowable.fromPublisher(input.buildRs());
-            if (configuration.getNumberOfSubscriberBeforeConnecting() != 0) {
-                return ReactiveStreams.fromPublisher(Flowable.fromPublisher(flow).publish()
-                        .autoConnect(configuration.getNumberOfSubscriberBeforeConnecting()));
-            } else {
-                return ReactiveStreams.fromPublisher(Flowable.fromPublisher(flow).publish().autoConnect());
-            }
+            return ReactiveStreams.fromPublisher(new BroadcastHub<Message>(input.buildRs(),
+                    configuration.getNumberOfSubscriberBeforeConnecting(), configuration.getBroadcastBufferSize(),
+                    configuration.getBroadcastOverflow(), configuration.getBroadcastReplay()));
         } else {
             return input;
         }
@@ -0,0 +1,134 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * The acknowledgement of a message, travelling with the messages created from it through the graph.
+ * <p>
+ * The messages created by the mediators from an incoming message share the tracker of the incoming message instead of
+ * wrapping its acknowledgement: acknowledging a message produced at the end of a pipeline directly acknowledges the
+ * message that entered it, whatever the number of stages in between.
+ * <p>
+ * When several messages are produced from a single one, the {@link FanOut} acknowledges the incoming message once all
+ * the produced messages have been acknowledged.
+ */
+@FunctionalInterface
+public interface AckTracker {
+
+    /**
+     * Acknowledges the tracked message.
+     *
+     * @return the completion stage of the acknowledgement, possibly {@code null}
+     */
+    CompletionStage<Void> ack();
+
+    /**
+     * Gets the tracker acknowledging the given message: the tracker shared by the messages it has been created from,
+     * if any, or the message itself.
+     *
+     * @param message the message, must not be {@code null}
+     * @return the tracker, {@code null} if acknowledging the message does nothing.
+     */
+    static AckTracker of(Message<?> message) {
+        if (message instanceof LineageMessage) {
+            return ((LineageMessage<?>) message).tracker();
+        }
+        return message::ack;
+    }
+
+    /**
+     * Starts a fan-out: the given message is acknowledged once all the children of the fan-out have been acknowledged
+     * and the fan-out has been {@link FanOut#complete() completed}.
+     *
+     * @param message the message, must not be {@code null}
+     * @return the fan-out
+     */
+    static FanOut fanOut(Message<?> message) {
+        return new FanOut(of(message));
+    }
+
+    /**
+     * Acknowledges a message once all its children have been acknowledged. The number of children does not need to be
+     * known in advance: the fan-out counts them as they are created, and waits for its completion before
+     * acknowledging the message. A fan-out without children acknowledges the message on completion. An
+     * {@link #abort() aborted} fan-out never acknowledges the message.
+     */
+    final class FanOut {
+
+        // Cleared when aborted
+        private volatile AckTracker parent;
+        // The children not acknowledged yet, plus one until the fan-out completes
+        private final AtomicInteger pending = new AtomicInteger(1);
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private FanOut(AckTracker parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * Creates the tracker of a new child. Acknowledging a child more than once only counts once.
+         *
+         * @return the tracker of the child
+         */
+        public AckTracker child() {
+            pending.incrementAndGet();
+            return new Child(this);
+        }
+
+        /**
+         * Indicates that no more children will be created. Completing the fan-out more than once only counts once.
+         *
+         * @return the completion stage of the acknowledgement of the message if all the children have been
+         *         acknowledged, a completed stage otherwise
+         */
+        public CompletionStage<Void> complete() {
+            if (completed.compareAndSet(false, true)) {
+                return release();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        /**
+         * Indicates that the children could not all be created, so the message must not be acknowledged. The tracker
+         * of the message is released, and the acknowledgements of the children do nothing anymore.
+         */
+        public void abort() {
+            parent = null;
+        }
+
+        private CompletionStage<Void> release() {
+            if (pending.decrementAndGet() == 0) {
+                AckTracker tracker = parent;
+                if (tracker != null) {
+                    return tracker.ack();
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        /**
+         * A child of a {@link FanOut}, only counted once.
+         */
+        private static final class Child extends AtomicBoolean implements AckTracker {
+
+            private final FanOut fanOut;
+
+            private Child(FanOut fanOut) {
+                this.fanOut = fanOut;
+            }
+
+            @Override
+            public CompletionStage<Void> ack() {
+                if (compareAndSet(false, true)) {
+                    return fanOut.release();
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * A message containing a batch of payloads, passed to the methods annotated with
+ * {@link io.smallrye.reactive.messaging.annotations.Batch}.
+ * <p>
+ * Acknowledging the batch acknowledges all the messages it contains. Connectors receiving batches natively can emit
+ * instances of this interface directly, the batches are then passed as they are to the methods instead of being
+ * split and rebuilt.
+ *
+ * @param <T> the type of the payloads
+ */
+public interface BatchMessage<T> extends Message<List<T>> {
+
+    /**
+     * Creates a batch from a list of messages. The payload is the list of the payloads of the messages, and the
+     * acknowledgement acknowledges every message.
+     *
+     * @param messages the messages, must not be {@code null}
+     * @param <T> the type of the payloads
+     * @return the batch
+     */
+    static <T> BatchMessage<T> of(List<? extends Message<T>> messages) {
+        List<T> payloads = new ArrayList<>(messages.size());
+        for (Message<T> message : messages) {
+            payloads.add(message.getPayload());
+        }
+        List<T> unmodifiable = Collections.unmodifiableList(payloads);
+        return new BatchMessage<T>() {
+            @Override
+            public List<T> getPayload() {
+                return unmodifiable;
+            }
+
+            @Override
+            public CompletionStage<Void> ack() {
+                CompletableFuture<?>[] acks = new CompletableFuture[messages.size()];
+                for (int i = 0; i < acks.length; i++) {
+                    CompletionStage<Void> ack = messages.get(i).ack();
+                    acks[i] = ack == null ? CompletableFuture.completedFuture(null) : ack.toCompletableFuture();
+                }
+                return CompletableFuture.allOf(acks);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,466 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.microprofile.config.Config;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+
+/**
+ * Fan-out stage dispatching the items of a single upstream to several subscribers.
+ * <p>
+ * The items are written once in a pre-allocated ring buffer, and each subscriber reads them using its own cursor, so
+ * dispatching an item to N subscribers costs one write and N cursor reads. When a subscriber lags more than the size
+ * of the buffer behind, the {@link Broadcast.Overflow} policy applies:
+ * <ul>
+ * <li>{@link Broadcast.Overflow#BLOCK BLOCK} - the upstream is not requested more items until the slowest subscriber
+ * catches up,</li>
+ * <li>{@link Broadcast.Overflow#DROP_OLDEST DROP_OLDEST} - the pace is set by the fastest subscriber, and the slower
+ * ones skip the items that have been overwritten,</li>
+ * <li>{@link Broadcast.Overflow#DISCONNECT DISCONNECT} - the pace is set by the fastest subscriber, and the slower ones
+ * are failed with a {@link MissingBackpressureException}.</li>
+ * </ul>
+ * The upstream is subscribed once the given number of subscribers is reached. Subscribers arriving later receive the
+ * last {@code replay} items, if still in the buffer, and then the new ones. With {@link Broadcast.Overflow#BLOCK
+ * BLOCK}, the replayed items are limited to the ones that cannot be overwritten by the items already requested from
+ * the upstream. Subscribers arriving after the termination of the upstream receive the replayed items and the terminal
+ * signal.
+ * <p>
+ * The slots of the items that every subscriber has received, and that are not to be replayed, are cleared, so the
+ * buffer does not retain the items once consumed.
+ *
+ * @param <T> the type of item
+ */
+public final class BroadcastHub<T> extends Flowable<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final HubSubscription[] EMPTY = new HubSubscription[0];
+
+    /**
+     * Cursor of the subscriptions whose starting sequence is not computed yet.
+     */
+    private static final long UNSET = -1L;
+
+    private final Publisher<? extends T> upstream;
+    private final int minSubscribers;
+    private final Broadcast.Overflow overflow;
+    private final int replay;
+
+    private final int capacity;
+    private final int mask;
+    private final int limit;
+    private final AtomicReferenceArray<T> ring;
+
+    /**
+     * Sequence of the oldest item still in the ring, updated before a slot gets overwritten.
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * Number of items written, so the sequence of the next item.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicReference<HubSubscription<T>[]> subscribers;
+    private final AtomicInteger arrivals = new AtomicInteger();
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final AtomicReference<Subscription> upstreamSubscription = new AtomicReference<>();
+    private final AtomicInteger replenishing = new AtomicInteger();
+    /**
+     * Total number of items requested from the upstream, only written by the replenish loop.
+     */
+    private volatile long requested;
+    /**
+     * Sequence up to which the slots have been cleared, only accessed by the upstream.
+     */
+    private long cleared;
+
+    private volatile boolean done;
+    private Throwable failure;
+
+    /**
+     * Creates a new hub.
+     *
+     * @param upstream the upstream, must not be {@code null}
+     * @param subscribers the number of subscribers to wait for before subscribing to the upstream, 0 or 1 to subscribe
+     *        with the first subscriber
+     * @param bufferSize the size of the ring buffer, rounded up to the next power of two, must be strictly positive
+     * @param overflow the slow consumer policy, must not be {@code null}
+     * @param replay the number of items replayed to late subscribers, between 0 and {@code bufferSize}
+     */
+    @SuppressWarnings("unchecked")
+    public BroadcastHub(Publisher<? extends T> upstream, int subscribers, int bufferSize, Broadcast.Overflow overflow,
+            int replay) {
+        this.upstream = Objects.requireNonNull(upstream, "'upstream' must be set");
+        this.overflow = Objects.requireNonNull(overflow, "'overflow' must be set");
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be strictly positive, " + bufferSize + " given");
+        }
+        if (replay < 0 || replay > bufferSize) {
+            throw new IllegalArgumentException("The number of replayed items must be between 0 and the buffer size ("
+                    + bufferSize + "), " + replay + " given");
+        }
+        this.minSubscribers = Math.max(subscribers, 1);
+        this.replay = replay;
+        this.capacity = bufferSize == 1 ? 1 : Integer.highestOneBit(bufferSize - 1) << 1;
+        this.mask = capacity - 1;
+        this.limit = Math.max(capacity - (capacity >> 2), 1);
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.subscribers = new AtomicReference<>(EMPTY);
+    }
+
+    /**
+     * Creates a hub configured from the {@code broadcast-buffer-size}, {@code broadcast-overflow} and
+     * {@code broadcast-replay} attributes of a connector configuration.
+     *
+     * @param upstream the upstream, must not be {@code null}
+     * @param config the connector configuration, must not be {@code null}
+     * @param <T> the type of item
+     * @return the hub
+     */
+    public static <T> BroadcastHub<T> create(Publisher<? extends T> upstream, Config config) {
+        return create(upstream, config, "");
+    }
+
+    /**
+     * Creates a hub configured from the {@code [prefix]broadcast-buffer-size}, {@code [prefix]broadcast-overflow} and
+     * {@code [prefix]broadcast-replay} properties.
+     *
+     * @param upstream the upstream, must not be {@code null}
+     * @param config the configuration, must not be {@code null}
+     * @param prefix the prefix of the properties, must not be {@code null}
+     * @param <T> the type of item
+     * @return the hub
+     */
+    public static <T> BroadcastHub<T> create(Publisher<? extends T> upstream, Config config, String prefix) {
+        int bufferSize = config.getOptionalValue(prefix + "broadcast-buffer-size", Integer.class)
+                .orElse(Broadcast.DEFAULT_BUFFER_SIZE);
+        Broadcast.Overflow overflow = config.getOptionalValue(prefix + "broadcast-overflow", String.class)
+                .map(Broadcast.Overflow::valueOf)
+                .orElse(Broadcast.Overflow.BLOCK);
+        int replay = config.getOptionalValue(prefix + "broadcast-replay", Integer.class).orElse(0);
+        return new BroadcastHub<>(upstream, 1, bufferSize, overflow, replay);
+    }
+
+    /**
+     * @return the number of connected subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.get().length;
+    }
+
+    /**
+     * @return the number of slots of the ring buffer referencing an item.
+     */
+    int getRetainedItemCount() {
+        int count = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (ring.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        HubSubscription<T> inner = new HubSubscription<>(this, subscriber);
+        // The starting sequence is computed by the replenish loop, which sees the items requested from the upstream
+        add(inner);
+        subscriber.onSubscribe(inner);
+        if (inner.cancelled) {
+            remove(inner);
+        }
+        if (arrivals.incrementAndGet() >= minSubscribers && connected.compareAndSet(false, true)) {
+            upstream.subscribe(new UpstreamSubscriber());
+        } else {
+            replenish(Long.MIN_VALUE);
+            inner.drain();
+        }
+    }
+
+    /**
+     * Requests the upstream so that the subscriber setting the pace can be at most {@link #capacity} items behind.
+     *
+     * @param cursor the cursor of the calling subscriber, used to skip the computation when it is not needed
+     */
+    private void replenish(long cursor) {
+        if (overflow == Broadcast.Overflow.BLOCK && cursor != Long.MIN_VALUE && cursor + capacity - requested < limit) {
+            // The calling subscriber is not ahead enough, and the slowest one is not further.
+            return;
+        }
+        if (replenishing.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            Subscription subscription = upstreamSubscription.get();
+            HubSubscription<T>[] array = subscribers.get();
+            for (HubSubscription<T> inner : array) {
+                if (inner.cursor == UNSET) {
+                    inner.cursor = start();
+                    inner.drain();
+                }
+            }
+            if (subscription != null && !done && array.length > 0) {
+                long bound = overflow == Broadcast.Overflow.BLOCK ? Long.MAX_VALUE : Long.MIN_VALUE;
+                for (HubSubscription<T> inner : array) {
+                    long c = inner.cursor;
+                    bound = overflow == Broadcast.Overflow.BLOCK ? Math.min(bound, c) : Math.max(bound, c);
+                }
+                long current = requested;
+                long n = bound + capacity - current;
+                if (n >= limit || (n > 0 && current == tail.get())) {
+                    requested = current + n;
+                    subscription.request(n);
+                }
+            }
+            missed = replenishing.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Computes the sequence of the first item of a new subscriber, only called by the replenish loop.
+     */
+    private long start() {
+        long start = Math.max(head.get(), tail.get() - replay);
+        if (overflow == Broadcast.Overflow.BLOCK && !done) {
+            // The items requested and not received yet can overwrite the oldest ones before they are read
+            start = Math.max(start, requested - capacity);
+        }
+        return start;
+    }
+
+    private void add(HubSubscription<T> inner) {
+        for (;;) {
+            HubSubscription<T>[] current = subscribers.get();
+            int n = current.length;
+            @SuppressWarnings("unchecked")
+            HubSubscription<T>[] next = new HubSubscription[n + 1];
+            System.arraycopy(current, 0, next, 0, n);
+            next[n] = inner;
+            if (subscribers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void remove(HubSubscription<T> inner) {
+        for (;;) {
+            HubSubscription<T>[] current = subscribers.get();
+            int n = current.length;
+            int index = -1;
+            for (int i = 0; i < n; i++) {
+                if (current[i] == inner) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return;
+            }
+            HubSubscription<T>[] next;
+            if (n == 1) {
+                next = EMPTY;
+            } else {
+                next = new HubSubscription[n - 1];
+                System.arraycopy(current, 0, next, 0, index);
+                System.arraycopy(current, index + 1, next, index, n - index - 1);
+            }
+            if (subscribers.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drains the subscribers.
+     *
+     * @return the sequence of the oldest item one of them has not received, {@link #UNSET} if a subscriber has not
+     *         started yet
+     */
+    private long drainAll() {
+        long oldest = Long.MAX_VALUE;
+        for (HubSubscription<T> inner : subscribers.get()) {
+            inner.drain();
+            oldest = Math.min(oldest, inner.cursor);
+        }
+        return oldest;
+    }
+
+    private final class UpstreamSubscriber implements FlowableSubscriber<T> {
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (SubscriptionHelper.setOnce(upstreamSubscription, subscription)) {
+                replenish(Long.MIN_VALUE);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            // Called serially by the upstream, so this is the only writer.
+            long sequence = tail.get();
+            if (sequence >= capacity) {
+                head.set(sequence - capacity + 1);
+            }
+            ring.set((int) sequence & mask, item);
+            tail.set(sequence + 1);
+            clear(Math.min(drainAll(), sequence + 1 - replay));
+        }
+
+        /**
+         * Clears the slots of the items before {@code bound}. Only the upstream writes to the ring, so the slots still
+         * hold these items, unless overwritten, which the head tells.
+         */
+        private void clear(long bound) {
+            for (long sequence = Math.max(cleared, head.get()); sequence < bound; sequence++) {
+                ring.lazySet((int) sequence & mask, null);
+            }
+            cleared = Math.max(cleared, bound);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+            done = true;
+            drainAll();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drainAll();
+        }
+    }
+
+    private static final class HubSubscription<T> extends AtomicInteger implements Subscription {
+
+        private final BroadcastHub<T> parent;
+        private final Subscriber<? super T> downstream;
+        private final AtomicLong requested = new AtomicLong();
+
+        /**
+         * Sequence of the next item to emit, set by the replenish loop and then only written by the drain loop.
+         */
+        volatile long cursor = UNSET;
+        volatile boolean cancelled;
+
+        HubSubscription(BroadcastHub<T> parent, Subscriber<? super T> downstream) {
+            this.parent = parent;
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                parent.remove(this);
+                parent.replenish(Long.MIN_VALUE);
+            }
+        }
+
+        void drain() {
+            // Drained by the replenish loop once started
+            if (cursor == UNSET || getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            long c = cursor;
+            for (;;) {
+                long r = requested.get();
+                long e = 0L;
+                for (;;) {
+                    if (cancelled) {
+                        return;
+                    }
+                    long oldest = parent.head.get();
+                    if (c < oldest) {
+                        if (!lagged()) {
+                            return;
+                        }
+                        c = oldest;
+                    }
+                    boolean d = parent.done;
+                    if (c == parent.tail.get()) {
+                        if (d) {
+                            terminate();
+                            return;
+                        }
+                        break;
+                    }
+                    if (e == r) {
+                        break;
+                    }
+                    T item = parent.ring.get((int) c & parent.mask);
+                    if (parent.head.get() > c) {
+                        // Overwritten while reading it.
+                        continue;
+                    }
+                    downstream.onNext(item);
+                    c++;
+                    e++;
+                }
+                if (e != 0L) {
+                    cursor = c;
+                    BackpressureHelper.produced(requested, e);
+                    parent.replenish(c);
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return whether the subscriber can continue, skipping the items it missed.
+         */
+        private boolean lagged() {
+            if (parent.overflow != Broadcast.Overflow.DISCONNECT) {
+                return true;
+            }
+            cancelled = true;
+            parent.remove(this);
+            parent.replenish(Long.MIN_VALUE);
+            downstream.onError(new MissingBackpressureException("The subscriber is more than " + parent.capacity
+                    + " items behind the fastest subscriber of the broadcast"));
+            return false;
+        }
+
+        private void terminate() {
+            cancelled = true;
+            parent.remove(this);
+            Throwable throwable = parent.failure;
+            if (throwable != null) {
+                downstream.onError(throwable);
+            } else {
+                downstream.onComplete();
+            }
+        }
+    }
+}
@@ -9,6 +9,13 @@ import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
 
 import io.smallrye.reactive.messaging.annotations.Emitter;
 
+/**
+ * Registry of the publishers, subscribers and emitters, by channel name.
+ * <p>
+ * The registry can be modified after the deployment: the registered {@link Listener}s are notified of the changes,
+ * allowing, for instance, to connect the channels added at runtime. Registries not supporting these changes keep the
+ * default implementations of the unregistration and listener methods, which do nothing.
+ */
 public interface ChannelRegistry {
 
     PublisherBuilder<? extends Message> register(String name, PublisherBuilder<? extends Message> stream);
@@ -28,4 +35,89 @@ public interface ChannelRegistry {
     Set<String> getOutgoingNames();
 
     Set<String> getEmitterNames();
+
+    /**
+     * Unregisters a publisher. The streams already consuming the publisher are not affected.
+     *
+     * @param name the channel name
+     * @param stream the publisher, as registered
+     * @return whether the publisher was registered
+     */
+    default boolean unregister(String name, PublisherBuilder<? extends Message> stream) {
+        // Not supported by default, so nothing is unregistered.
+        return false;
+    }
+
+    /**
+     * Unregisters a subscriber. The streams already connected to the subscriber are not affected.
+     *
+     * @param name the channel name
+     * @param subscriber the subscriber, as registered
+     * @return whether the subscriber was registered
+     */
+    default boolean unregister(String name, SubscriberBuilder<? extends Message, Void> subscriber) {
+        // Not supported by default, so nothing is unregistered.
+        return false;
+    }
+
+    /**
+     * Unregisters an emitter. The publisher associated with the emitter must be unregistered separately.
+     *
+     * @param name the channel name
+     * @param emitter the emitter, as registered
+     * @return whether the emitter was registered
+     */
+    default boolean unregister(String name, Emitter<?> emitter) {
+        // Not supported by default, so nothing is unregistered.
+        return false;
+    }
+
+    /**
+     * Adds a listener notified of the subsequent changes.
+     *
+     * @param listener the listener, must not be {@code null}
+     */
+    default void addListener(Listener listener) {
+        // Not supported by default, the registry not being modified after the deployment.
+    }
+
+    /**
+     * Removes a listener.
+     *
+     * @param listener the listener, must not be {@code null}
+     */
+    default void removeListener(Listener listener) {
+        // Not supported by default.
+    }
+
+    /**
+     * Listener notified of the changes of the registry, after they have been applied. The notifications are delivered
+     * on the thread modifying the registry.
+     */
+    interface Listener {
+
+        default void onPublisherRegistered(String name, PublisherBuilder<? extends Message> stream) {
+            // Do nothing by default.
+        }
+
+        default void onPublisherUnregistered(String name, PublisherBuilder<? extends Message> stream) {
+            // Do nothing by default.
+        }
+
+        default void onSubscriberRegistered(String name, SubscriberBuilder<? extends Message, Void> subscriber) {
+            // Do nothing by default.
+        }
+
+        default void onSubscriberUnregistered(String name, SubscriberBuilder<? extends Message, Void> subscriber) {
+            // Do nothing by default.
+        }
+
+        default void onEmitterRegistered(String name, Emitter<?> emitter) {
+            // Do nothing by default.
+        }
+
+        default void onEmitterUnregistered(String name, Emitter<?> emitter) {
+            // Do nothing by default.
+        }
+    }
 }
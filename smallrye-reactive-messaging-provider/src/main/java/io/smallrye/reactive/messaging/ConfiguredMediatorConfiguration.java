@@ -0,0 +1,322 @@
+package io.smallrye.reactive.messaging;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+import javax.enterprise.inject.spi.Bean;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.annotations.Merge;
+
+/**
+ * Decorates a {@link MediatorConfiguration} with the attributes configured for its incoming channel, using the
+ * {@code smallrye.messaging.channel.[incoming].[attribute]} properties. The configured values take precedence over
+ * the annotations.
+ * <p>
+ * Supported attributes:
+ * <ul>
+ * <li>{@code concurrency} - the maximum number of concurrent invocations, see
+ * {@link io.smallrye.reactive.messaging.annotations.Concurrency}, ignored for the methods not returning a
+ * {@code CompletionStage}</li>
+ * <li>{@code ordered} - whether the results of concurrent or blocking invocations are emitted in order</li>
+ * <li>{@code partitions} - the number of lanes, see {@link io.smallrye.reactive.messaging.annotations.Partitioned},
+ * ignored for the methods not consuming individual messages or payloads</li>
+ * <li>{@code batch-size} - the maximum number of messages in a batch, see
+ * {@link io.smallrye.reactive.messaging.annotations.Batch}</li>
+ * <li>{@code batch-max-wait} - the maximum time to wait for a batch to be filled, in milliseconds</li>
+ * <li>{@code merge-concurrency} - the maximum number of upstream sources consumed at the same time, see
+ * {@link Merge#maxConcurrency()}</li>
+ * <li>{@code merge-prefetch} - the number of items requested from each upstream source</li>
+ * <li>{@code merge-fair} - whether the upstream sources are consumed in turn</li>
+ * <li>{@code prefetch} - the number of messages requested upfront from the incoming channel</li>
+ * <li>{@code prefetch-replenish} - the number of messages consumed before requesting more, the threshold of the
+ * decorated configuration scaled to the configured prefetch by default, or 3/4 of the prefetch</li>
+ * <li>{@code prefetch-max-bytes} - the size of the prefetched messages above which no more messages are requested</li>
+ * </ul>
+ */
+public class ConfiguredMediatorConfiguration implements MediatorConfiguration {
+
+    public static final String PREFIX = "smallrye.messaging.channel.";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfiguredMediatorConfiguration.class);
+
+    private final MediatorConfiguration delegate;
+    private final int concurrency;
+    private final boolean ordered;
+    private final int partitions;
+    private final int batchSize;
+    private final long batchMaxWait;
+    private final int mergeConcurrency;
+    private final int mergePrefetch;
+    private final boolean mergeFair;
+    private final int prefetch;
+    private final int prefetchReplenish;
+    private final long prefetchMaxBytes;
+
+    private ConfiguredMediatorConfiguration(MediatorConfiguration delegate, int concurrency, boolean ordered,
+            int partitions, int batchSize, long batchMaxWait, int mergeConcurrency, int mergePrefetch,
+            boolean mergeFair, int prefetch, int prefetchReplenish, long prefetchMaxBytes) {
+        this.delegate = delegate;
+        this.concurrency = concurrency;
+        this.ordered = ordered;
+        this.partitions = partitions;
+        this.batchSize = batchSize;
+        this.batchMaxWait = batchMaxWait;
+        this.mergeConcurrency = mergeConcurrency;
+        this.mergePrefetch = mergePrefetch;
+        this.mergeFair = mergeFair;
+        this.prefetch = prefetch;
+        this.prefetchReplenish = prefetchReplenish;
+        this.prefetchMaxBytes = prefetchMaxBytes;
+    }
+
+    /**
+     * Applies the configuration of the incoming channel to the given mediator configuration.
+     *
+     * @param configuration the mediator configuration, must not be {@code null}
+     * @param config the config, may be {@code null}
+     * @return the decorated configuration, or {@code configuration} if nothing is configured for the channel.
+     */
+    public static MediatorConfiguration decorate(MediatorConfiguration configuration, Config config) {
+        if (config == null || configuration.getIncoming() == null) {
+            return configuration;
+        }
+        String prefix = PREFIX + configuration.getIncoming() + ".";
+        Optional<Integer> concurrency = config.getOptionalValue(prefix + "concurrency", Integer.class);
+        Optional<Boolean> ordered = config.getOptionalValue(prefix + "ordered", Boolean.class);
+        Optional<Integer> partitions = config.getOptionalValue(prefix + "partitions", Integer.class);
+        Optional<Integer> batchSize = config.getOptionalValue(prefix + "batch-size", Integer.class);
+        Optional<Long> batchMaxWait = config.getOptionalValue(prefix + "batch-max-wait", Long.class);
+        Optional<Integer> mergeConcurrency = config.getOptionalValue(prefix + "merge-concurrency", Integer.class);
+        Optional<Integer> mergePrefetch = config.getOptionalValue(prefix + "merge-prefetch", Integer.class);
+        Optional<Boolean> mergeFair = config.getOptionalValue(prefix + "merge-fair", Boolean.class);
+        Optional<Integer> prefetch = config.getOptionalValue(prefix + "prefetch", Integer.class);
+        Optional<Integer> prefetchReplenish = config.getOptionalValue(prefix + "prefetch-replenish", Integer.class);
+        Optional<Long> prefetchMaxBytes = config.getOptionalValue(prefix + "prefetch-max-bytes", Long.class);
+        if (!concurrency.isPresent() && !ordered.isPresent() && !partitions.isPresent()
+                && !batchSize.isPresent() && !batchMaxWait.isPresent() && !mergeConcurrency.isPresent()
+                && !mergePrefetch.isPresent() && !mergeFair.isPresent() && !prefetch.isPresent()
+                && !prefetchReplenish.isPresent() && !prefetchMaxBytes.isPresent()) {
+            return configuration;
+        }
+
+        MediatorConfigurationSupport support = new MediatorConfigurationSupport(configuration.methodAsString(),
+                configuration.getReturnType(), configuration.getParameterTypes(), null, null);
+        int value = configuration.getConcurrency();
+        if (concurrency.isPresent()) {
+            // The channel can be consumed by methods of different shapes, only some of them being concurrent
+            if (ClassUtils.isAssignable(configuration.getReturnType(), CompletionStage.class)) {
+                value = support.processConcurrency(configuration.getIncoming(), concurrency::get);
+            } else {
+                LOGGER.warn("Ignoring the concurrency configured for the channel '{}' on {}, the method does not "
+                        + "return a CompletionStage", configuration.getIncoming(), configuration.methodAsString());
+            }
+        }
+        int lanes = configuration.getPartitions();
+        if (partitions.isPresent()) {
+            // The channel can be consumed by methods of different shapes, only some of them being partitionable
+            if (configuration.consumption() == Consumption.MESSAGE
+                    || configuration.consumption() == Consumption.PAYLOAD) {
+                lanes = support.processPartitions(configuration.getIncoming(), configuration.consumption(),
+                        partitions::get);
+            } else {
+                LOGGER.warn("Ignoring the partitions configured for the channel '{}' on {}, the method does not "
+                        + "consume individual messages or payloads", configuration.getIncoming(),
+                        configuration.methodAsString());
+            }
+        }
+        int size = batchSize.isPresent() ? support.processBatchSize(batchSize.get()) : configuration.getBatchSize();
+        long maxWait = batchMaxWait.isPresent() ? support.processBatchMaxWait(batchMaxWait.get())
+                : configuration.getBatchMaxWait();
+        int sources = mergeConcurrency.isPresent() ? support.processMergeConcurrency(mergeConcurrency.get())
+                : configuration.getMergeConcurrency();
+        int perSource = mergePrefetch.isPresent() ? support.processMergePrefetch(mergePrefetch.get())
+                : configuration.getMergePrefetch();
+        int requested = prefetch.isPresent() ? support.processPrefetch(prefetch.get()) : configuration.getPrefetch();
+        int replenish = configuration.getPrefetchReplenish();
+        if (prefetchReplenish.isPresent()) {
+            replenish = support.processPrefetchReplenish(prefetchReplenish.get(), requested);
+        } else if (prefetch.isPresent()) {
+            replenish = rescale(replenish, configuration.getPrefetch(), requested);
+        }
+        long maxBytes = prefetchMaxBytes.isPresent() ? support.processPrefetchMaxBytes(prefetchMaxBytes.get())
+                : configuration.getPrefetchMaxBytes();
+        return new ConfiguredMediatorConfiguration(configuration, value, ordered.orElse(configuration.isOrdered()),
+                lanes, size, maxWait, sources, perSource, mergeFair.orElse(configuration.isMergeFair()),
+                requested, replenish, maxBytes);
+    }
+
+    /**
+     * Scales the replenish threshold of the decorated configuration to the configured prefetch, 3/4 of the prefetch if
+     * the decorated configuration does not prefetch.
+     */
+    private static int rescale(int replenish, int previous, int prefetch) {
+        if (previous < 1) {
+            return prefetch - (prefetch >> 2);
+        }
+        long scaled = (long) replenish * prefetch / previous;
+        return (int) Math.max(1, Math.min(prefetch, scaled));
+    }
+
+    @Override
+    public Shape shape() {
+        return delegate.shape();
+    }
+
+    @Override
+    public String getOutgoing() {
+        return delegate.getOutgoing();
+    }
+
+    @Override
+    public String getIncoming() {
+        return delegate.getIncoming();
+    }
+
+    @Override
+    public String methodAsString() {
+        return delegate.methodAsString();
+    }
+
+    @Override
+    public Method getMethod() {
+        return delegate.getMethod();
+    }
+
+    @Override
+    public Class<?> getReturnType() {
+        return delegate.getReturnType();
+    }
+
+    @Override
+    public Class<?>[] getParameterTypes() {
+        return delegate.getParameterTypes();
+    }
+
+    @Override
+    public Consumption consumption() {
+        return delegate.consumption();
+    }
+
+    @Override
+    public Production production() {
+        return delegate.production();
+    }
+
+    @Override
+    public boolean usesBuilderTypes() {
+        return delegate.usesBuilderTypes();
+    }
+
+    @Override
+    public Acknowledgment.Strategy getAcknowledgment() {
+        return delegate.getAcknowledgment();
+    }
+
+    @Override
+    public Merge.Mode getMerge() {
+        return delegate.getMerge();
+    }
+
+    @Override
+    public int getMergeConcurrency() {
+        return mergeConcurrency;
+    }
+
+    @Override
+    public int getMergePrefetch() {
+        return mergePrefetch;
+    }
+
+    @Override
+    public boolean isMergeFair() {
+        return mergeFair;
+    }
+
+    @Override
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    @Override
+    public int getPrefetchReplenish() {
+        return prefetchReplenish;
+    }
+
+    @Override
+    public long getPrefetchMaxBytes() {
+        return prefetchMaxBytes;
+    }
+
+    @Override
+    public boolean getBroadcast() {
+        return delegate.getBroadcast();
+    }
+
+    @Override
+    public int getBroadcastBufferSize() {
+        return delegate.getBroadcastBufferSize();
+    }
+
+    @Override
+    public Broadcast.Overflow getBroadcastOverflow() {
+        return delegate.getBroadcastOverflow();
+    }
+
+    @Override
+    public int getBroadcastReplay() {
+        return delegate.getBroadcastReplay();
+    }
+
+    @Override
+    public Bean<?> getBean() {
+        return delegate.getBean();
+    }
+
+    @Override
+    public int getNumberOfSubscriberBeforeConnecting() {
+        return delegate.getNumberOfSubscriberBeforeConnecting();
+    }
+
+    @Override
+    public Class<? extends Invoker> getInvokerClass() {
+        return delegate.getInvokerClass();
+    }
+
+    @Override
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    @Override
+    public int getPartitions() {
+        return partitions;
+    }
+
+    @Override
+    public String getWorkerPoolName() {
+        return delegate.getWorkerPoolName();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public long getBatchMaxWait() {
+        return batchMaxWait;
+    }
+}
@@ -7,12 +7,12 @@ import java.util.Objects;
 
 import javax.enterprise.inject.spi.Bean;
 
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.TypeUtils;
 import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Outgoing;
 
+import io.smallrye.reactive.messaging.annotations.Batch;
 import io.smallrye.reactive.messaging.annotations.Broadcast;
 import io.smallrye.reactive.messaging.annotations.Merge;
 
@@ -36,6 +36,12 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
 
     private Integer broadcastValue = null;
 
+    private int broadcastBufferSize = Broadcast.DEFAULT_BUFFER_SIZE;
+
+    private Broadcast.Overflow broadcastOverflow = Broadcast.Overflow.BLOCK;
+
+    private int broadcastReplay;
+
     /**
      * What does the mediator products and how is it produced
      */
@@ -55,6 +61,51 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
      */
     private Merge.Mode mergePolicy;
 
+    /**
+     * The maximum number of upstream sources consumed at the same time.
+     */
+    private int mergeConcurrency = Integer.MAX_VALUE;
+
+    /**
+     * The number of items requested from each upstream source.
+     */
+    private int mergePrefetch = Merge.DEFAULT_PREFETCH;
+
+    /**
+     * Whether the upstream sources are consumed in turn.
+     */
+    private boolean mergeFair;
+
+    /**
+     * The maximum number of concurrent invocations.
+     */
+    private int concurrency = 1;
+
+    /**
+     * Whether the results of concurrent invocations are emitted in order.
+     */
+    private boolean ordered = true;
+
+    /**
+     * The number of lanes.
+     */
+    private int partitions = 1;
+
+    /**
+     * The maximum size of the batches.
+     */
+    private int batchSize = Batch.DEFAULT_MAX_SIZE;
+
+    /**
+     * The maximum time to wait for a batch to be filled, in milliseconds.
+     */
+    private long batchMaxWait = Batch.DEFAULT_MAX_WAIT;
+
+    /**
+     * The worker pool used for blocking methods, {@code null} if the method is not blocking.
+     */
+    private String workerPoolName;
+
     private MediatorConfigurationSupport mediatorConfigurationSupport;
 
     public DefaultMediatorConfiguration(Method method, Bean<?> bean) {
@@ -62,56 +113,57 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
         this.returnType = method.getReturnType();
         this.parameterTypes = method.getParameterTypes();
         this.mediatorBean = Objects.requireNonNull(bean, "'bean' must be set");
-
-        this.mediatorConfigurationSupport = new MediatorConfigurationSupport(methodAsString(), this.returnType,
-                this.parameterTypes,
-                new ReturnTypeGenericTypeAssignable(method),
-                this.parameterTypes.length == 0 ? new AlwaysInvalidIndexGenericTypeAssignable()
-                        : new MethodParamGenericTypeAssignable(method, 0));
     }
 
     public void compute(Incoming incoming, Outgoing outgoing) {
+        apply(getMediatorConfigurationSupport().analyze(incoming, outgoing, method::getAnnotation));
+    }
 
-        if (incoming != null && StringUtils.isBlank(incoming.value())) {
-            throw getIncomingError("value is blank or null");
-        }
-
-        if (outgoing != null && StringUtils.isBlank(outgoing.value())) {
-            throw getOutgoingError("value is blank or null");
-        }
-
-        this.shape = this.mediatorConfigurationSupport.determineShape(incoming, outgoing);
-
-        this.acknowledgment = this.mediatorConfigurationSupport.processSuppliedAcknowledgement(incoming, () -> {
-            Acknowledgment annotation = method.getAnnotation(Acknowledgment.class);
-            return annotation != null ? annotation.value() : null;
-        });
+    /**
+     * Configures the mediator from the attributes computed at build time, without analyzing the method.
+     *
+     * @param entry the entry of the method in the {@link MediatorIndex}
+     */
+    public void compute(MediatorIndex.Entry entry) {
+        apply(entry);
+    }
 
-        if (incoming != null) {
-            this.incomingValue = incoming.value();
-        }
-        if (outgoing != null) {
-            this.outgoingValue = outgoing.value();
-        }
+    private void apply(MediatorIndex.Entry entry) {
+        this.shape = entry.getShape();
+        this.incomingValue = entry.getIncoming();
+        this.outgoingValue = entry.getOutgoing();
+        this.acknowledgment = entry.getAcknowledgment();
+        this.production = entry.getProduction();
+        this.consumption = entry.getConsumption();
+        this.useBuilderTypes = entry.usesBuilderTypes();
+        this.mergePolicy = entry.getMerge();
+        this.mergeConcurrency = entry.getMergeConcurrency();
+        this.mergePrefetch = entry.getMergePrefetch();
+        this.mergeFair = entry.isMergeFair();
+        this.broadcastValue = entry.getBroadcast();
+        this.broadcastBufferSize = entry.getBroadcastBufferSize();
+        this.broadcastOverflow = entry.getBroadcastOverflow();
+        this.broadcastReplay = entry.getBroadcastReplay();
+        this.concurrency = entry.getConcurrency();
+        this.ordered = entry.isOrdered();
+        this.partitions = entry.getPartitions();
+        this.workerPoolName = entry.getWorkerPoolName();
+        this.batchSize = entry.getBatchSize();
+        this.batchMaxWait = entry.getBatchMaxWait();
+    }
 
-        MediatorConfigurationSupport.ValidationOutput validationOutput = this.mediatorConfigurationSupport.validate(this.shape,
-                this.acknowledgment);
-        this.production = validationOutput.getProduction();
-        this.consumption = validationOutput.getConsumption();
-        if (validationOutput.getUseBuilderTypes() != null) {
-            this.useBuilderTypes = validationOutput.getUseBuilderTypes();
-        }
-        if (this.acknowledgment == null) {
-            this.acknowledgment = this.mediatorConfigurationSupport.processDefaultAcknowledgement(this.shape, this.consumption);
+    /**
+     * Created lazily, as analyzing the generic types is not needed for indexed methods.
+     */
+    private MediatorConfigurationSupport getMediatorConfigurationSupport() {
+        if (mediatorConfigurationSupport == null) {
+            mediatorConfigurationSupport = new MediatorConfigurationSupport(methodAsString(), this.returnType,
+                    this.parameterTypes,
+                    new ReturnTypeGenericTypeAssignable(method),
+                    this.parameterTypes.length == 0 ? new AlwaysInvalidIndexGenericTypeAssignable()
+                            : new MethodParamGenericTypeAssignable(method, 0));
         }
-        this.mergePolicy = this.mediatorConfigurationSupport.processMerge(incoming, () -> {
-            Merge annotation = method.getAnnotation(Merge.class);
-            return annotation != null ? annotation.value() : null;
-        });
-        this.broadcastValue = this.mediatorConfigurationSupport.processBroadcast(outgoing, () -> {
-            Broadcast annotation = method.getAnnotation(Broadcast.class);
-            return annotation != null ? annotation.value() : null;
-        });
+        return mediatorConfigurationSupport;
     }
 
     @Override
@@ -194,11 +246,41 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
         return mergePolicy;
     }
 
+    @Override
+    public int getMergeConcurrency() {
+        return mergeConcurrency;
+    }
+
+    @Override
+    public int getMergePrefetch() {
+        return mergePrefetch;
+    }
+
+    @Override
+    public boolean isMergeFair() {
+        return mergeFair;
+    }
+
     @Override
     public boolean getBroadcast() {
         return broadcastValue != null;
     }
 
+    @Override
+    public int getBroadcastBufferSize() {
+        return broadcastBufferSize;
+    }
+
+    @Override
+    public Broadcast.Overflow getBroadcastOverflow() {
+        return broadcastOverflow;
+    }
+
+    @Override
+    public int getBroadcastReplay() {
+        return broadcastReplay;
+    }
+
     @Override
     public Bean<?> getBean() {
         return mediatorBean;
@@ -218,6 +300,36 @@ public class DefaultMediatorConfiguration implements MediatorConfiguration {
         return null;
     }
 
+    @Override
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    @Override
+    public int getPartitions() {
+        return partitions;
+    }
+
+    @Override
+    public String getWorkerPoolName() {
+        return workerPoolName;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public long getBatchMaxWait() {
+        return batchMaxWait;
+    }
+
     static class ReflectionGenericTypeAssignable implements MediatorConfigurationSupport.GenericTypeAssignable {
 
         private final Type type;
@@ -0,0 +1,205 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.internal.util.BackpressureHelper;
+
+/**
+ * Groups the items into lists, emitted when they reach {@code maxSize} items or {@code maxWait} milliseconds after
+ * their first item.
+ * <p>
+ * Unlike the time-bounded {@code buffer} operator of RxJava, it honors the downstream requests: it requests
+ * {@code maxSize} items upfront, and only requests more once a batch has been emitted. So, no more than
+ * {@code maxSize} items are held, and a slow consumer slows down the upstream.
+ *
+ * @param <T> the type of items
+ */
+class FlowableBatch<T> extends Flowable<List<T>> {
+
+    private final Publisher<T> source;
+    private final int maxSize;
+    private final long maxWait;
+    private final Scheduler scheduler;
+
+    FlowableBatch(Publisher<T> source, int maxSize, long maxWait, Scheduler scheduler) {
+        this.source = source;
+        this.maxSize = maxSize;
+        this.maxWait = maxWait;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super List<T>> subscriber) {
+        source.subscribe(new BatchSubscriber<>(subscriber, maxSize, maxWait, scheduler.createWorker()));
+    }
+
+    private static final class BatchSubscriber<T> implements Subscriber<T>, Subscription {
+
+        private final Subscriber<? super List<T>> downstream;
+        private final int maxSize;
+        private final long maxWait;
+        private final Scheduler.Worker worker;
+        private final AtomicInteger wip = new AtomicInteger();
+
+        // Guarded by this
+        private final Queue<List<T>> ready = new ArrayDeque<>();
+        private List<T> current;
+        private long batch;
+        private Disposable timer;
+        private long requested;
+        private boolean done;
+        private Throwable failure;
+
+        private volatile boolean cancelled;
+        private Subscription upstream;
+
+        BatchSubscriber(Subscriber<? super List<T>> downstream, int maxSize, long maxWait, Scheduler.Worker worker) {
+            this.downstream = downstream;
+            this.maxSize = maxSize;
+            this.maxWait = maxWait;
+            this.worker = worker;
+            this.current = new ArrayList<>(maxSize);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(this);
+            subscription.request(maxSize);
+        }
+
+        @Override
+        public void onNext(T item) {
+            synchronized (this) {
+                current.add(item);
+                if (current.size() == 1 && maxWait > 0) {
+                    long id = batch;
+                    timer = worker.schedule(() -> onTimeout(id), maxWait, TimeUnit.MILLISECONDS);
+                }
+                if (current.size() >= maxSize) {
+                    close();
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                done = true;
+                failure = throwable;
+            }
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                done = true;
+                if (!current.isEmpty()) {
+                    close();
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                downstream.onError(new IllegalArgumentException("Invalid request: " + n + ", must be strictly positive"));
+                return;
+            }
+            synchronized (this) {
+                requested = BackpressureHelper.addCap(requested, n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+            worker.dispose();
+        }
+
+        private void onTimeout(long id) {
+            synchronized (this) {
+                if (id != batch || current.isEmpty()) {
+                    return;
+                }
+                close();
+            }
+            drain();
+        }
+
+        /**
+         * Closes the current batch. Must be called while holding the lock.
+         */
+        private void close() {
+            ready.add(current);
+            current = new ArrayList<>(maxSize);
+            batch++;
+            if (timer != null) {
+                timer.dispose();
+                timer = null;
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (true) {
+                    if (cancelled) {
+                        return;
+                    }
+                    List<T> next;
+                    boolean terminated;
+                    Throwable error;
+                    synchronized (this) {
+                        error = failure;
+                        next = error == null && requested > 0 ? ready.poll() : null;
+                        if (next != null && requested != Long.MAX_VALUE) {
+                            requested--;
+                        }
+                        terminated = done && ready.isEmpty() && current.isEmpty();
+                    }
+                    if (error != null) {
+                        worker.dispose();
+                        downstream.onError(error);
+                        cancelled = true;
+                        return;
+                    }
+                    if (next == null) {
+                        if (terminated) {
+                            worker.dispose();
+                            downstream.onComplete();
+                            cancelled = true;
+                            return;
+                        }
+                        break;
+                    }
+                    downstream.onNext(next);
+                    // Replenish what has been consumed.
+                    upstream.request(next.size());
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.subscriptions.EmptySubscription;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.reactivex.plugins.RxJavaPlugins;
+
+/**
+ * Merges several publishers, choosing which one to take the next item from instead of emitting the items as they
+ * come.
+ * <p>
+ * Each source is requested {@code prefetch} items, buffered in its own queue, and is only requested more once a part of
+ * its queue has been consumed. The items are taken in round-robin, one item of each source with pending items in turn,
+ * so a fast source cannot starve the others. At most {@code maxConcurrency} sources are subscribed at the same time,
+ * the next ones being subscribed when one completes. The first failure cancels the other sources and is propagated
+ * downstream.
+ *
+ * @param <T> the type of items
+ */
+public final class FlowableFairMerge<T> extends Flowable<T> {
+
+    private final List<? extends Publisher<? extends T>> sources;
+    private final int maxConcurrency;
+    private final int prefetch;
+
+    /**
+     * Creates a new merge.
+     *
+     * @param sources the sources
+     * @param maxConcurrency the maximum number of sources subscribed at the same time, strictly positive
+     * @param prefetch the number of items requested from each source, strictly positive
+     */
+    public FlowableFairMerge(List<? extends Publisher<? extends T>> sources, int maxConcurrency, int prefetch) {
+        if (maxConcurrency < 1 || prefetch < 1) {
+            throw new IllegalArgumentException("The concurrency and the prefetch must be strictly positive, "
+                    + maxConcurrency + " and " + prefetch + " given");
+        }
+        this.sources = new ArrayList<>(sources);
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        if (sources.isEmpty()) {
+            EmptySubscription.complete(subscriber);
+            return;
+        }
+        MergeSubscription<T> parent = new MergeSubscription<>(subscriber, sources, maxConcurrency, prefetch);
+        subscriber.onSubscribe(parent);
+        parent.drain();
+    }
+
+    private static final class MergeSubscription<T> extends AtomicInteger implements Subscription {
+
+        private final Subscriber<? super T> downstream;
+        private final List<? extends Publisher<? extends T>> sources;
+        private final int maxConcurrency;
+        private final int prefetch;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        // Only accessed by the drain loop
+        private final List<InnerSubscriber<T>> active = new ArrayList<>();
+        private int next;
+        private int cursor;
+        private long emitted;
+
+        MergeSubscription(Subscriber<? super T> downstream, List<? extends Publisher<? extends T>> sources,
+                int maxConcurrency, int prefetch) {
+            this.downstream = downstream;
+            this.sources = sources;
+            this.maxConcurrency = maxConcurrency;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        void onInnerError(Throwable throwable) {
+            if (failure.compareAndSet(null, throwable)) {
+                drain();
+            } else {
+                RxJavaPlugins.onError(throwable);
+            }
+        }
+
+        void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                while (!cancelled && active.size() < maxConcurrency && next < sources.size()) {
+                    InnerSubscriber<T> inner = new InnerSubscriber<>(this, prefetch);
+                    active.add(inner);
+                    // May emit synchronously, the items are queued until the loop polls them
+                    sources.get(next++).subscribe(inner);
+                }
+
+                long r = requested.get();
+                long e = emitted;
+                while (e != r) {
+                    if (terminateIfNeeded()) {
+                        return;
+                    }
+                    InnerSubscriber<T> from = null;
+                    T item = null;
+                    int n = active.size();
+                    int start = n == 0 ? 0 : cursor % n;
+                    for (int i = 0; i < n; i++) {
+                        int index = (start + i) % n;
+                        InnerSubscriber<T> inner = active.get(index);
+                        item = inner.queue.poll();
+                        if (item != null) {
+                            from = inner;
+                            cursor = index + 1;
+                            break;
+                        }
+                    }
+                    if (item == null) {
+                        break;
+                    }
+                    downstream.onNext(item);
+                    from.consumed();
+                    e++;
+                }
+                emitted = e;
+
+                if (terminateIfNeeded()) {
+                    return;
+                }
+                boolean removed = false;
+                Iterator<InnerSubscriber<T>> iterator = active.iterator();
+                while (iterator.hasNext()) {
+                    InnerSubscriber<T> inner = iterator.next();
+                    if (inner.done && inner.queue.isEmpty()) {
+                        iterator.remove();
+                        removed = true;
+                    }
+                }
+                if (active.isEmpty() && next == sources.size()) {
+                    cancelled = true;
+                    downstream.onComplete();
+                    return;
+                }
+                if (removed) {
+                    // Subscribe the next sources, and emit the items of the remaining ones
+                    continue;
+                }
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private boolean terminateIfNeeded() {
+            if (cancelled) {
+                cancelAll();
+                return true;
+            }
+            Throwable throwable = failure.get();
+            if (throwable != null) {
+                cancelled = true;
+                cancelAll();
+                downstream.onError(throwable);
+                return true;
+            }
+            return false;
+        }
+
+        private void cancelAll() {
+            for (InnerSubscriber<T> inner : active) {
+                inner.cancel();
+                inner.queue.clear();
+            }
+            active.clear();
+        }
+    }
+
+    private static final class InnerSubscriber<T> extends AtomicReference<Subscription> implements FlowableSubscriber<T> {
+
+        private final MergeSubscription<T> parent;
+        private final SpscArrayQueue<T> queue;
+        private final int prefetch;
+        private final int limit;
+        private int consumed;
+        private volatile boolean done;
+
+        InnerSubscriber(MergeSubscription<T> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+            this.limit = Math.max(prefetch - (prefetch >> 2), 1);
+            this.queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (SubscriptionHelper.setOnce(this, subscription)) {
+                subscription.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (!queue.offer(item)) {
+                SubscriptionHelper.cancel(this);
+                onError(new MissingBackpressureException("Queue full?!"));
+                return;
+            }
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done = true;
+            parent.onInnerError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            parent.drain();
+        }
+
+        /**
+         * Called by the drain loop for each emitted item, to replenish the queue.
+         */
+        void consumed() {
+            if (++consumed == limit) {
+                consumed = 0;
+                get().request(limit);
+            }
+        }
+
+        void cancel() {
+            SubscriptionHelper.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.queue.SpscLinkedArrayQueue;
+
+/**
+ * Fuses the pre-processing acknowledgement, the invocation of the method and the wrapping of the result in a single
+ * operator, emitting one result per message.
+ * <p>
+ * The messages are processed synchronously, on the caller thread, without allocating a stage per message. The operator
+ * only switches to the asynchronous path when the acknowledgement returns a stage that is not yet completed: the
+ * following messages are then queued, and processed once the acknowledgement completes, so the order is preserved.
+ * The requests are forwarded as they are to the upstream, so the queue never holds more than the requested messages.
+ */
+@SuppressWarnings("rawtypes")
+class FlowableInvocation extends Flowable<Message> {
+
+    private final Publisher<? extends Message> source;
+    private final Function<Message, Message> function;
+    private final Function<Message, CompletionStage<?>> acknowledgement;
+
+    /**
+     * @param source the upstream
+     * @param function the function invoking the method and wrapping its result, must not return {@code null}
+     * @param acknowledgeFirst whether the messages are acknowledged before the invocation
+     */
+    FlowableInvocation(Publisher<? extends Message> source, Function<Message, Message> function,
+            boolean acknowledgeFirst) {
+        this(source, function, acknowledgeFirst ? Message::ack : null);
+    }
+
+    /**
+     * @param source the upstream
+     * @param function the function invoking the method and wrapping its result, must not return {@code null}
+     * @param acknowledgement the function acknowledging the messages before the invocation, generally calling
+     *        {@link Message#ack()}, {@code null} if the messages are not acknowledged before the invocation
+     */
+    FlowableInvocation(Publisher<? extends Message> source, Function<Message, Message> function,
+            Function<Message, CompletionStage<?>> acknowledgement) {
+        this.source = source;
+        this.function = function;
+        this.acknowledgement = acknowledgement;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super Message> subscriber) {
+        source.subscribe(new InvocationSubscriber(subscriber, function, acknowledgement));
+    }
+
+    private static final class InvocationSubscriber implements Subscriber<Message>, Subscription {
+
+        private final Subscriber<? super Message> downstream;
+        private final Function<Message, Message> function;
+        private final Function<Message, CompletionStage<?>> acknowledgement;
+        /**
+         * Counts the pending drain requests. The thread incrementing it from 0 owns the emission, until it decrements it
+         * back to 0. A pending acknowledgement keeps the ownership, and hands it over to the completing thread.
+         */
+        private final AtomicInteger wip = new AtomicInteger();
+        private final SpscLinkedArrayQueue<Message> queue = new SpscLinkedArrayQueue<>(16);
+
+        private Subscription upstream;
+        private volatile boolean done;
+        private volatile Throwable failure;
+        private volatile boolean cancelled;
+
+        InvocationSubscriber(Subscriber<? super Message> downstream, Function<Message, Message> function,
+                Function<Message, CompletionStage<?>> acknowledgement) {
+            this.downstream = downstream;
+            this.function = function;
+            this.acknowledgement = acknowledgement;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(Message message) {
+            if (wip.get() == 0 && wip.compareAndSet(0, 1)) {
+                // Fast path: nothing is queued or pending, process the message right away.
+                if (!process(message) || wip.compareAndSet(1, 0)) {
+                    return;
+                }
+            } else {
+                queue.offer(message);
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+            done = true;
+            if (wip.getAndIncrement() == 0) {
+                drain();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            if (wip.getAndIncrement() == 0) {
+                drain();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+        }
+
+        /**
+         * Processes the given message. Must be called by the owner of the emission.
+         *
+         * @return {@code true} if the message has been processed, {@code false} if it waits for its acknowledgement.
+         */
+        private boolean process(Message message) {
+            if (acknowledgement != null) {
+                CompletionStage<?> ack = acknowledgement.apply(message);
+                if (ack != null) {
+                    CompletableFuture<?> future = ack.toCompletableFuture();
+                    if (!future.isDone()) {
+                        future.whenComplete((x, f) -> {
+                            if (f != null) {
+                                fail(f instanceof CompletionException && f.getCause() != null ? f.getCause() : f);
+                            } else if (invoke(message)) {
+                                drain();
+                            }
+                        });
+                        return false;
+                    }
+                    if (future.isCompletedExceptionally()) {
+                        try {
+                            future.join();
+                        } catch (CompletionException e) {
+                            fail(e.getCause() != null ? e.getCause() : e);
+                        }
+                        return false;
+                    }
+                }
+            }
+            return invoke(message);
+        }
+
+        private boolean invoke(Message message) {
+            if (cancelled) {
+                return false;
+            }
+            Message result;
+            try {
+                result = function.apply(message);
+            } catch (Throwable e) {
+                fail(e);
+                return false;
+            }
+            if (result == null) {
+                fail(new NullPointerException("The mediator produced a `null` message"));
+                return false;
+            }
+            downstream.onNext(result);
+            return true;
+        }
+
+        private void fail(Throwable throwable) {
+            cancelled = true;
+            upstream.cancel();
+            queue.clear();
+            downstream.onError(throwable);
+        }
+
+        /**
+         * Processes the queued messages and the terminal event. Must be called by the owner of the emission.
+         */
+        private void drain() {
+            int missed = 1;
+            for (;;) {
+                if (cancelled) {
+                    queue.clear();
+                    return;
+                }
+                boolean terminated = done;
+                Message message = queue.poll();
+                if (message != null) {
+                    if (!process(message)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (terminated) {
+                    cancelled = true;
+                    Throwable throwable = failure;
+                    if (throwable != null) {
+                        downstream.onError(throwable);
+                    } else {
+                        downstream.onComplete();
+                    }
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
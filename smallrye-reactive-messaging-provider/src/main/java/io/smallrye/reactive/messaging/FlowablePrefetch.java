@@ -0,0 +1,247 @@
+package io.smallrye.reactive.messaging;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.internal.queue.SpscArrayQueue;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+
+/**
+ * Requests the items of a publisher in batches, whatever the demand of the downstream subscriber.
+ * <p>
+ * The upstream publisher is requested {@code prefetch} items, buffered until the downstream subscriber requests them.
+ * Once {@code replenish} of them have been emitted downstream, the same number of items is requested upstream. When a
+ * size limit is set, the replenishment is delayed while the size of the buffered items reaches the limit, so the
+ * memory held by the buffer is bounded by size as well as by count.
+ * <p>
+ * The completion and the failure of the upstream publisher are propagated once the buffered items have been emitted.
+ *
+ * @param <T> the type of items
+ */
+public final class FlowablePrefetch<T> extends Flowable<T> {
+
+    private final Publisher<T> source;
+    private final int prefetch;
+    private final int replenish;
+    private final long maxSize;
+    private final ToLongFunction<? super T> sizer;
+
+    /**
+     * Creates a new prefetching publisher.
+     *
+     * @param source the upstream publisher
+     * @param prefetch the number of items requested upfront, strictly positive
+     * @param replenish the number of items emitted downstream before requesting more, between 1 and {@code prefetch}
+     * @param maxSize the maximum size of the buffered items before delaying the replenishment, 0 for no limit
+     * @param sizer computes the size of an item, only used with a size limit
+     */
+    public FlowablePrefetch(Publisher<T> source, int prefetch, int replenish, long maxSize,
+            ToLongFunction<? super T> sizer) {
+        if (prefetch < 1 || replenish < 1 || replenish > prefetch || maxSize < 0) {
+            throw new IllegalArgumentException("Invalid prefetch, replenish or maximum size: " + prefetch + ", "
+                    + replenish + ", " + maxSize);
+        }
+        this.source = source;
+        this.prefetch = prefetch;
+        this.replenish = replenish;
+        this.maxSize = maxSize;
+        this.sizer = sizer;
+    }
+
+    /**
+     * Computes the size of the payload of a message: the length of {@code byte[]} and {@link CharSequence} payloads, or
+     * the remaining bytes of {@link ByteBuffer} payloads. The payloads of other types are not counted.
+     *
+     * @param message the message
+     * @return the size, 0 if unknown
+     */
+    public static long sizeOf(Message<?> message) {
+        Object payload = message.getPayload();
+        if (payload instanceof byte[]) {
+            return ((byte[]) payload).length;
+        }
+        if (payload instanceof CharSequence) {
+            return ((CharSequence) payload).length();
+        }
+        if (payload instanceof ByteBuffer) {
+            return ((ByteBuffer) payload).remaining();
+        }
+        return 0;
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        source.subscribe(new PrefetchSubscriber<>(subscriber, prefetch, replenish, maxSize, sizer));
+    }
+
+    private static final class PrefetchSubscriber<T> extends AtomicInteger
+            implements FlowableSubscriber<T>, Subscription {
+
+        private final Subscriber<? super T> downstream;
+        private final int prefetch;
+        private final int replenish;
+        private final long maxSize;
+        private final ToLongFunction<? super T> sizer;
+        private final SpscArrayQueue<T> queue;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicLong size = new AtomicLong();
+        private Subscription upstream;
+        private volatile boolean done;
+        private Throwable failure;
+        private volatile boolean cancelled;
+
+        // Only accessed by the drain loop
+        private long emitted;
+        private int consumed;
+
+        PrefetchSubscriber(Subscriber<? super T> downstream, int prefetch, int replenish, long maxSize,
+                ToLongFunction<? super T> sizer) {
+            this.downstream = downstream;
+            this.prefetch = prefetch;
+            this.replenish = replenish;
+            this.maxSize = maxSize;
+            this.sizer = sizer;
+            this.queue = new SpscArrayQueue<>(prefetch);
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (SubscriptionHelper.validate(this.upstream, subscription)) {
+                this.upstream = subscription;
+                downstream.onSubscribe(this);
+                subscription.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            if (maxSize > 0) {
+                size.addAndGet(sizer.applyAsLong(item));
+            }
+            if (!queue.offer(item)) {
+                upstream.cancel();
+                onError(new MissingBackpressureException("Queue full?!"));
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            failure = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(requested, n);
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                upstream.cancel();
+                if (getAndIncrement() == 0) {
+                    queue.clear();
+                }
+            }
+        }
+
+        private void drain() {
+            if (getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            for (;;) {
+                long r = requested.get();
+                long e = emitted;
+                while (e != r) {
+                    if (cancelled) {
+                        queue.clear();
+                        return;
+                    }
+                    boolean terminated = done;
+                    T item = queue.poll();
+                    if (item == null) {
+                        if (terminated) {
+                            terminate();
+                            return;
+                        }
+                        break;
+                    }
+                    downstream.onNext(item);
+                    e++;
+                    if (maxSize > 0) {
+                        size.addAndGet(-sizer.applyAsLong(item));
+                    }
+                    consumed++;
+                    replenishIfNeeded();
+                }
+                if (e == r) {
+                    if (cancelled) {
+                        queue.clear();
+                        return;
+                    }
+                    if (done && queue.isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                }
+                emitted = e;
+                missed = addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private void replenishIfNeeded() {
+            // The items not replenished yet, possibly more than `replenish` while the buffer was too large
+            if (consumed >= replenish && (maxSize == 0 || size.get() < maxSize)) {
+                int n = consumed;
+                consumed = 0;
+                upstream.request(n);
+            }
+        }
+
+        private void terminate() {
+            cancelled = true;
+            if (failure != null) {
+                downstream.onError(failure);
+            } else {
+                downstream.onComplete();
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package io.smallrye.reactive.messaging;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Invoker} generated at deployment time to call the mediator method without reflection.
+ * <p>
+ * When the method is accessible and its types are visible from this class loader, the invoker delegates to a
+ * functional interface implemented by the {@link LambdaMetafactory}, so the JIT sees a direct call site. Otherwise it
+ * uses a {@link MethodHandle} bound to the bean instance.
+ * <p>
+ * Mediator methods take at most one parameter, so the invoker provides arity-specialized entry points, avoiding the
+ * allocation of the varargs array.
+ */
+public abstract class GeneratedInvoker implements Invoker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedInvoker.class);
+
+    private final String method;
+
+    private GeneratedInvoker(String method) {
+        this.method = method;
+    }
+
+    /**
+     * Generates the invoker calling the method of the given configuration on the given bean instance.
+     *
+     * @param configuration the mediator configuration
+     * @param bean the bean instance, generally a client proxy
+     * @return the invoker, {@code null} if the method cannot be invoked without reflection.
+     */
+    public static GeneratedInvoker create(MediatorConfiguration configuration, Object bean) {
+        return create(configuration.getMethod(), configuration.methodAsString(), bean);
+    }
+
+    static GeneratedInvoker create(Method method, String name, Object bean) {
+        int arity = method.getParameterCount();
+        if (arity > 1) {
+            return null;
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            LOGGER.debug("Method {} is not accessible, using reflection to invoke it", name);
+            return null;
+        }
+
+        if (!Modifier.isStatic(method.getModifiers()) && isVisible(method)) {
+            try {
+                return createLambdaInvoker(lookup, handle, name, bean, arity);
+            } catch (Throwable e) {
+                LOGGER.debug("Unable to generate the invoker of {}, using a method handle", name, e);
+            }
+        }
+
+        if (!Modifier.isStatic(method.getModifiers())) {
+            handle = handle.bindTo(bean);
+        }
+        return new MethodHandleInvoker(name, handle.asType(MethodType.genericMethodType(arity)));
+    }
+
+    @Override
+    public Object invoke(Object... args) {
+        switch (args.length) {
+            case 0:
+                return invoke();
+            case 1:
+                return invoke(args[0]);
+            default:
+                throw new IllegalArgumentException("Unexpected number of arguments for " + method + ": " + args.length);
+        }
+    }
+
+    @Override
+    public abstract Object invoke();
+
+    @Override
+    public abstract Object invoke(Object arg);
+
+    ProcessingException failure(Throwable cause) {
+        return new ProcessingException(method, cause);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GeneratedInvoker createLambdaInvoker(MethodHandles.Lookup lookup, MethodHandle handle, String name,
+            Object bean, int arity) throws Throwable {
+        MethodType instantiated = handle.type().wrap();
+        boolean isVoid = handle.type().returnType() == void.class;
+        if (isVoid) {
+            instantiated = instantiated.changeReturnType(void.class);
+        }
+        Class<?> itf;
+        if (arity == 0) {
+            itf = isVoid ? Consumer.class : Function.class;
+        } else {
+            itf = isVoid ? BiConsumer.class : BiFunction.class;
+        }
+        String sam = isVoid ? "accept" : "apply";
+        MethodType samType = MethodType.genericMethodType(arity + 1);
+        if (isVoid) {
+            samType = samType.changeReturnType(void.class);
+        }
+        Object function = LambdaMetafactory
+                .metafactory(lookup, sam, MethodType.methodType(itf), samType, handle, instantiated)
+                .getTarget()
+                .invoke();
+
+        if (arity == 0) {
+            if (isVoid) {
+                return new ConsumerInvoker(name, bean, (Consumer<Object>) function);
+            }
+            return new FunctionInvoker(name, bean, (Function<Object, Object>) function);
+        }
+        if (isVoid) {
+            return new BiConsumerInvoker(name, bean, (BiConsumer<Object, Object>) function);
+        }
+        return new BiFunctionInvoker(name, bean, (BiFunction<Object, Object, Object>) function);
+    }
+
+    /**
+     * The generated class is linked by the class loader of this class, so the types of the method signature must be
+     * visible from it.
+     */
+    private static boolean isVisible(Method method) {
+        if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (!isVisible(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        if (clazz.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, GeneratedInvoker.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static final class FunctionInvoker extends GeneratedInvoker {
+        private final Object bean;
+        private final Function<Object, Object> function;
+
+        FunctionInvoker(String method, Object bean, Function<Object, Object> function) {
+            super(method);
+            this.bean = bean;
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke() {
+            try {
+                return function.apply(bean);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        public Object invoke(Object arg) {
+            throw new IllegalArgumentException("Unexpected argument, the method does not have parameters");
+        }
+    }
+
+    private static final class ConsumerInvoker extends GeneratedInvoker {
+        private final Object bean;
+        private final Consumer<Object> consumer;
+
+        ConsumerInvoker(String method, Object bean, Consumer<Object> consumer) {
+            super(method);
+            this.bean = bean;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Object invoke() {
+            try {
+                consumer.accept(bean);
+                return null;
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        public Object invoke(Object arg) {
+            throw new IllegalArgumentException("Unexpected argument, the method does not have parameters");
+        }
+    }
+
+    private static final class BiFunctionInvoker extends GeneratedInvoker {
+        private final Object bean;
+        private final BiFunction<Object, Object, Object> function;
+
+        BiFunctionInvoker(String method, Object bean, BiFunction<Object, Object, Object> function) {
+            super(method);
+            this.bean = bean;
+            this.function = function;
+        }
+
+        @Override
+        public Object invoke() {
+            throw new IllegalArgumentException("Missing argument, the method expects a parameter");
+        }
+
+        @Override
+        public Object invoke(Object arg) {
+            try {
+                return function.apply(bean, arg);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+    }
+
+    private static final class BiConsumerInvoker extends GeneratedInvoker {
+        private final Object bean;
+        private final BiConsumer<Object, Object> consumer;
+
+        BiConsumerInvoker(String method, Object bean, BiConsumer<Object, Object> consumer) {
+            super(method);
+            this.bean = bean;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public Object invoke() {
+            throw new IllegalArgumentException("Missing argument, the method expects a parameter");
+        }
+
+        @Override
+        public Object invoke(Object arg) {
+            try {
+                consumer.accept(bean, arg);
+                return null;
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+    }
+
+    private static final class MethodHandleInvoker extends GeneratedInvoker {
+        private final MethodHandle handle;
+        private final int arity;
+
+        MethodHandleInvoker(String method, MethodHandle handle) {
+            super(method);
+            this.handle = handle;
+            this.arity = handle.type().parameterCount();
+        }
+
+        @Override
+        public Object invoke() {
+            if (arity != 0) {
+                throw new IllegalArgumentException("Missing argument, the method expects a parameter");
+            }
+            try {
+                return (Object) handle.invokeExact();
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+
+        @Override
+        public Object invoke(Object arg) {
+            if (arity != 1) {
+                throw new IllegalArgumentException("Unexpected argument, the method does not have parameters");
+            }
+            try {
+                return (Object) handle.invokeExact(arg);
+            } catch (Throwable e) {
+                throw failure(e);
+            }
+        }
+    }
+}
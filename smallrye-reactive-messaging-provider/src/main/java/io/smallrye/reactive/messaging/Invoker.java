@@ -4,4 +4,18 @@ public interface Invoker {
 
     Object invoke(Object... args);
 
+    /**
+     * Invokes a method without parameters. Implementations should override it to avoid the varargs array.
+     */
+    default Object invoke() {
+        return invoke(new Object[0]);
+    }
+
+    /**
+     * Invokes a method with a single parameter. Implementations should override it to avoid the varargs array.
+     */
+    default Object invoke(Object arg) {
+        return invoke(new Object[] { arg });
+    }
+
 }
@@ -0,0 +1,18 @@
+package io.smallrye.reactive.messaging;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * A message carrying a key, used to dispatch the message to a lane when the receiving method is
+ * {@link io.smallrye.reactive.messaging.annotations.Partitioned}. Messages with the same key are processed in order.
+ *
+ * @param <T> the type of payload
+ */
+public interface KeyedMessage<T> extends Message<T> {
+
+    /**
+     * @return the key, can be {@code null}
+     */
+    Object getPartitionKey();
+
+}
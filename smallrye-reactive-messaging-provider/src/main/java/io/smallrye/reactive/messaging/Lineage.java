@@ -0,0 +1,65 @@
+package io.smallrye.reactive.messaging;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * The origin of a message: the channel through which it has entered the application, and when.
+ * <p>
+ * The lineage is attached to a sample of the messages received from a connector, sent by an emitter or produced by a
+ * method without incoming channel, and is carried by the {@link TracedMessage}s the mediators create from them. It
+ * is read when the messages leave the application, to measure their end-to-end latency.
+ */
+public final class Lineage {
+
+    private final String origin;
+    private final long ingestionTime;
+
+    private Lineage(String origin, long ingestionTime) {
+        this.origin = origin;
+        this.ingestionTime = ingestionTime;
+    }
+
+    /**
+     * Starts the lineage of a message entering the application now.
+     *
+     * @param origin the channel through which the message enters the application
+     * @return the lineage
+     */
+    public static Lineage start(String origin) {
+        return new Lineage(origin, System.nanoTime());
+    }
+
+    /**
+     * @param message the message
+     * @return the lineage of the message, {@code null} if it is not traced.
+     */
+    public static Lineage of(Message<?> message) {
+        return message instanceof TracedMessage ? ((TracedMessage<?>) message).getLineage() : null;
+    }
+
+    /**
+     * @return the channel through which the message has entered the application.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} when the message has entered the application.
+     */
+    public long getIngestionTime() {
+        return ingestionTime;
+    }
+
+    /**
+     * @return the time elapsed since the message has entered the application, in nanoseconds.
+     */
+    public long getAge() {
+        return System.nanoTime() - ingestionTime;
+    }
+
+    @Override
+    public String toString() {
+        return "Lineage{origin=" + origin + ", age=" + getAge() + "ns}";
+    }
+}
@@ -0,0 +1,91 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * The {@link TracedMessage} created by the mediators and the emitters: a payload acknowledged either by a supplier, or
+ * by acknowledging the message it has been created from. In the latter case, the message shares the {@link AckTracker}
+ * of the message it has been created from, so acknowledging it does not go through the intermediate messages.
+ *
+ * @param <T> the type of payload
+ */
+public final class LineageMessage<T> implements TracedMessage<T> {
+
+    private final T payload;
+    private final AckTracker tracker;
+    private Lineage lineage;
+
+    /**
+     * Creates a message acknowledged by the given supplier.
+     *
+     * @param payload the payload
+     * @param ack the acknowledgement action, {@code null} to acknowledge without doing anything
+     */
+    public LineageMessage(T payload, Supplier<CompletionStage<Void>> ack) {
+        this.payload = payload;
+        this.tracker = ack == null ? null : ack::get;
+    }
+
+    /**
+     * Creates a message from another one: it carries the lineage of the given message, and acknowledging it
+     * acknowledges the given message.
+     *
+     * @param payload the payload
+     * @param input the message the new message is created from, must not be {@code null}
+     */
+    public LineageMessage(T payload, Message<?> input) {
+        this(payload, AckTracker.of(input), Lineage.of(input));
+    }
+
+    /**
+     * Creates a message acknowledged by the given tracker.
+     *
+     * @param payload the payload
+     * @param tracker the tracker, {@code null} to acknowledge without doing anything
+     * @param lineage the lineage, {@code null} if the message is not traced
+     */
+    public LineageMessage(T payload, AckTracker tracker, Lineage lineage) {
+        this.payload = payload;
+        this.tracker = tracker;
+        this.lineage = lineage;
+    }
+
+    @Override
+    public T getPayload() {
+        return payload;
+    }
+
+    @Override
+    public CompletionStage<Void> ack() {
+        if (tracker != null) {
+            return tracker.ack();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    AckTracker tracker() {
+        return tracker;
+    }
+
+    @Override
+    public Lineage getLineage() {
+        return lineage;
+    }
+
+    @Override
+    public void setLineage(Lineage lineage) {
+        this.lineage = lineage;
+    }
+
+    /**
+     * @param ack the acknowledgement action of the new message, typically acknowledging this message
+     * @return a message with the same payload and lineage, acknowledged by the given action
+     */
+    public LineageMessage<T> withAck(Supplier<CompletionStage<Void>> ack) {
+        return new LineageMessage<>(payload, ack == null ? null : ack::get, lineage);
+    }
+}
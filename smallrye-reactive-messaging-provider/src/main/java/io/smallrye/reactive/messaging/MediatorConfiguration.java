@@ -6,6 +6,8 @@ import javax.enterprise.inject.spi.Bean;
 
 import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
 import io.smallrye.reactive.messaging.annotations.Merge;
 
 public interface MediatorConfiguration {
@@ -47,6 +49,137 @@ public interface MediatorConfiguration {
      */
     Class<? extends Invoker> getInvokerClass();
 
+    /**
+     * @return the maximum number of concurrent invocations of a method returning a {@code CompletionStage}, 1 by
+     *         default.
+     */
+    default int getConcurrency() {
+        return 1;
+    }
+
+    /**
+     * @return whether the results of concurrent or blocking invocations are emitted in the order of the incoming messages,
+     *         {@code true} by default.
+     */
+    default boolean isOrdered() {
+        return true;
+    }
+
+    /**
+     * @return the number of lanes processing the messages in parallel, 1 by default.
+     */
+    default int getPartitions() {
+        return 1;
+    }
+
+    /**
+     * @return the maximum number of messages in a batch, only used when the method consumes batches.
+     */
+    default int getBatchSize() {
+        return Batch.DEFAULT_MAX_SIZE;
+    }
+
+    /**
+     * @return the maximum time, in milliseconds, to wait for the batch to be filled, only used when the method
+     *         consumes batches. 0 means no limit.
+     */
+    default long getBatchMaxWait() {
+        return Batch.DEFAULT_MAX_WAIT;
+    }
+
+    /**
+     * @return the maximum number of upstream sources consumed at the same time, only used with the {@code MERGE} merge
+     *         policy.
+     */
+    default int getMergeConcurrency() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the number of items requested from each upstream source, only used with the {@code MERGE} merge
+     *         policy.
+     */
+    default int getMergePrefetch() {
+        return Merge.DEFAULT_PREFETCH;
+    }
+
+    /**
+     * @return whether the {@code MERGE} merge policy takes the items of the upstream sources in turn, {@code false} by
+     *         default.
+     */
+    default boolean isMergeFair() {
+        return false;
+    }
+
+    /**
+     * @return the number of messages requested upfront from the incoming channel, 0 to let the method request them as
+     *         it consumes them, the default.
+     */
+    default int getPrefetch() {
+        return 0;
+    }
+
+    /**
+     * @return the number of messages consumed before requesting the same number of messages from the incoming
+     *         channel, 3/4 of the prefetch by default. Only used when {@link #getPrefetch()} is strictly positive.
+     */
+    default int getPrefetchReplenish() {
+        return getPrefetch() - (getPrefetch() >> 2);
+    }
+
+    /**
+     * @return the size of the prefetched messages, in bytes, above which no more messages are requested, 0 for no
+     *         limit, the default. Only used when {@link #getPrefetch()} is strictly positive.
+     */
+    default long getPrefetchMaxBytes() {
+        return 0;
+    }
+
+    /**
+     * @return whether the method consumes batches of messages.
+     */
+    default boolean isBatch() {
+        return consumption() == Consumption.BATCH_MESSAGE || consumption() == Consumption.BATCH_PAYLOAD;
+    }
+
+    /**
+     * @return the size of the buffer used to broadcast the messages, only used when {@link #getBroadcast()} is
+     *         {@code true}.
+     */
+    default int getBroadcastBufferSize() {
+        return Broadcast.DEFAULT_BUFFER_SIZE;
+    }
+
+    /**
+     * @return the policy applied to the slow subscribers of a broadcast, only used when {@link #getBroadcast()} is
+     *         {@code true}.
+     */
+    default Broadcast.Overflow getBroadcastOverflow() {
+        return Broadcast.Overflow.BLOCK;
+    }
+
+    /**
+     * @return the number of messages replayed to the late subscribers of a broadcast, only used when
+     *         {@link #getBroadcast()} is {@code true}.
+     */
+    default int getBroadcastReplay() {
+        return 0;
+    }
+
+    /**
+     * @return the name of the worker pool on which the method is invoked, {@code null} if the method is not blocking.
+     */
+    default String getWorkerPoolName() {
+        return null;
+    }
+
+    /**
+     * @return whether the method is invoked on a worker pool.
+     */
+    default boolean isBlocking() {
+        return getWorkerPoolName() != null;
+    }
+
     enum Production {
         STREAM_OF_MESSAGE,
         STREAM_OF_PAYLOAD,
@@ -66,6 +199,9 @@ public interface MediatorConfiguration {
         MESSAGE,
         PAYLOAD,
 
+        BATCH_MESSAGE,
+        BATCH_PAYLOAD,
+
         NONE
     }
 }
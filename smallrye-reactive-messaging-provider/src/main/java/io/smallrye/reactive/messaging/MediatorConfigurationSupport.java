@@ -1,11 +1,16 @@
 package io.smallrye.reactive.messaging;
 
+import java.lang.annotation.Annotation;
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 
 import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
 import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
@@ -13,7 +18,12 @@ import org.reactivestreams.Processor;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.annotations.Concurrency;
 import io.smallrye.reactive.messaging.annotations.Merge;
+import io.smallrye.reactive.messaging.annotations.Partitioned;
 
 public class MediatorConfigurationSupport {
 
@@ -32,6 +42,93 @@ public class MediatorConfigurationSupport {
         this.firstMethodParamTypeAssignable = firstMethodParamTypeAssignable;
     }
 
+    /**
+     * Analyzes the method: validates its signature and its annotations, and computes its attributes.
+     *
+     * @param incoming the {@code @Incoming} annotation, {@code null} if the method does not consume messages
+     * @param outgoing the {@code @Outgoing} annotation, {@code null} if the method does not produce messages
+     * @param annotations gives access to the other annotations of the method
+     * @return the attributes of the method
+     * @throws IllegalArgumentException if the method is not a valid mediator method
+     */
+    public MediatorIndex.Entry analyze(Incoming incoming, Outgoing outgoing, AnnotationLookup annotations) {
+        if (incoming != null && StringUtils.isBlank(incoming.value())) {
+            throw getIncomingError("value is blank or null");
+        }
+        if (outgoing != null && StringUtils.isBlank(outgoing.value())) {
+            throw getOutgoingError("value is blank or null");
+        }
+
+        MediatorIndex.Entry entry = new MediatorIndex.Entry();
+        entry.shape = determineShape(incoming, outgoing);
+
+        entry.acknowledgment = processSuppliedAcknowledgement(incoming, () -> {
+            Acknowledgment annotation = annotations.get(Acknowledgment.class);
+            return annotation != null ? annotation.value() : null;
+        });
+
+        if (incoming != null) {
+            entry.incoming = incoming.value();
+        }
+        if (outgoing != null) {
+            entry.outgoing = outgoing.value();
+        }
+
+        Batch batch = annotations.get(Batch.class);
+        ValidationOutput validationOutput = validate(entry.shape, entry.acknowledgment, batch != null);
+        entry.production = validationOutput.getProduction();
+        entry.consumption = validationOutput.getConsumption();
+        if (validationOutput.getUseBuilderTypes() != null) {
+            entry.useBuilderTypes = validationOutput.getUseBuilderTypes();
+        }
+        if (entry.acknowledgment == null) {
+            entry.acknowledgment = processDefaultAcknowledgement(entry.shape, entry.consumption);
+        }
+        Merge merge = annotations.get(Merge.class);
+        entry.merge = processMerge(incoming, () -> merge != null ? merge.value() : null);
+        if (entry.merge != null) {
+            entry.mergeConcurrency = processMergeConcurrency(merge.maxConcurrency());
+            entry.mergePrefetch = processMergePrefetch(merge.prefetch());
+            entry.mergeFair = merge.fair();
+        }
+        Broadcast broadcast = annotations.get(Broadcast.class);
+        entry.broadcast = processBroadcast(outgoing, () -> broadcast != null ? broadcast.value() : null);
+        if (entry.broadcast != null) {
+            entry.broadcastBufferSize = processBroadcastBufferSize(broadcast.bufferSize(), broadcast.replay());
+            entry.broadcastOverflow = broadcast.overflow();
+            entry.broadcastReplay = broadcast.replay();
+        }
+        Concurrency concurrency = annotations.get(Concurrency.class);
+        Integer concurrencyValue = processConcurrency(incoming,
+                () -> concurrency != null ? concurrency.value() : null);
+        if (concurrencyValue != null) {
+            entry.concurrency = concurrencyValue;
+            entry.ordered = concurrency.ordered();
+        }
+        Integer partitions = processPartitions(incoming, entry.consumption, () -> {
+            Partitioned annotation = annotations.get(Partitioned.class);
+            return annotation != null ? annotation.value() : null;
+        });
+        if (partitions != null) {
+            entry.partitions = partitions;
+        }
+        Blocking blocking = annotations.get(Blocking.class);
+        entry.workerPoolName = processBlocking(incoming, entry.consumption, entry.production, () -> {
+            if (blocking == null) {
+                return null;
+            }
+            return blocking.value().isEmpty() && incoming != null ? incoming.value() : blocking.value();
+        });
+        if (entry.workerPoolName != null) {
+            entry.ordered = blocking.ordered();
+        }
+        if (batch != null) {
+            entry.batchSize = processBatchSize(batch.maxSize());
+            entry.batchMaxWait = processBatchMaxWait(batch.maxWait());
+        }
+        return entry;
+    }
+
     public Shape determineShape(Object incomingValue, Object outgoingValue) {
         if (incomingValue != null && outgoingValue != null) {
             if (isPublisherOrPublisherBuilder(returnType)
@@ -72,6 +169,22 @@ public class MediatorConfigurationSupport {
     }
 
     public ValidationOutput validate(Shape shape, Acknowledgment.Strategy acknowledgment) {
+        return validate(shape, acknowledgment, false);
+    }
+
+    /**
+     * Validates the signature of the method.
+     *
+     * @param shape the shape of the mediator
+     * @param acknowledgment the acknowledgment strategy set on the method, {@code null} if not set
+     * @param batch whether the method consumes batches, i.e. is annotated with
+     *        {@link io.smallrye.reactive.messaging.annotations.Batch}
+     * @return the validation output
+     */
+    public ValidationOutput validate(Shape shape, Acknowledgment.Strategy acknowledgment, boolean batch) {
+        if (batch) {
+            return validateBatch(validate(shape, acknowledgment, false));
+        }
         switch (shape) {
             case SUBSCRIBER:
                 return validateSubscriber();
@@ -327,6 +440,30 @@ public class MediatorConfigurationSupport {
         return new ValidationOutput(production, consumption, useBuilderTypes);
     }
 
+    private ValidationOutput validateBatch(ValidationOutput output) {
+        // Supported consumptions, for subscribers and processors consuming individual items:
+        // 1. method(List<I> payloads)
+        // 2. method(Message<List<I>> batch)
+        MediatorConfiguration.Consumption consumption;
+        if (output.getConsumption() == MediatorConfiguration.Consumption.PAYLOAD) {
+            if (!ClassUtils.isAssignable(parameterTypes[0], List.class)) {
+                throw getIncomingError("a method consuming batches must receive a `List` or a `Message<List>`");
+            }
+            consumption = MediatorConfiguration.Consumption.BATCH_PAYLOAD;
+        } else if (output.getConsumption() == MediatorConfiguration.Consumption.MESSAGE) {
+            if (firstMethodParamTypeAssignable.check(List.class, 0) != GenericTypeAssignable.Result.Assignable) {
+                throw getIncomingError("a method consuming batches must receive a `List` or a `Message<List>`");
+            }
+            consumption = MediatorConfiguration.Consumption.BATCH_MESSAGE;
+        } else if (output.getConsumption() == MediatorConfiguration.Consumption.NONE) {
+            throw getOutgoingError(
+                    "The @Batch annotation is only supported for method annotated with @Incoming: " + methodAsString);
+        } else {
+            throw getIncomingError("Only methods consuming individual messages or payloads can consume batches");
+        }
+        return new ValidationOutput(output.getProduction(), consumption, output.getUseBuilderTypes());
+    }
+
     private ValidationOutput validateStreamTransformer(Acknowledgment.Strategy acknowledgment) {
         // 1.  Publisher<Message<O>> method(Publisher<Message<I>> publisher)
         // 2. Publisher<O> method(Publisher<I> publisher) - Dropped
@@ -398,7 +535,8 @@ public class MediatorConfigurationSupport {
     public Acknowledgment.Strategy processDefaultAcknowledgement(Shape shape, MediatorConfiguration.Consumption consumption) {
         if (shape == Shape.STREAM_TRANSFORMER) {
             return Acknowledgment.Strategy.PRE_PROCESSING;
-        } else if (shape == Shape.PROCESSOR && consumption != MediatorConfiguration.Consumption.PAYLOAD) {
+        } else if (shape == Shape.PROCESSOR && consumption != MediatorConfiguration.Consumption.PAYLOAD
+                && consumption != MediatorConfiguration.Consumption.BATCH_PAYLOAD) {
             return Acknowledgment.Strategy.PRE_PROCESSING;
         } else if (shape == Shape.SUBSCRIBER
                 && (consumption == MediatorConfiguration.Consumption.STREAM_OF_PAYLOAD
@@ -420,6 +558,20 @@ public class MediatorConfigurationSupport {
         return null;
     }
 
+    public int processMergeConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw getIncomingError("The merge concurrency must be strictly positive, " + maxConcurrency + " given");
+        }
+        return maxConcurrency;
+    }
+
+    public int processMergePrefetch(int prefetch) {
+        if (prefetch < 1) {
+            throw getIncomingError("The merge prefetch must be strictly positive, " + prefetch + " given");
+        }
+        return prefetch;
+    }
+
     public Integer processBroadcast(Object outgoing, Supplier<Integer> supplier) {
         Integer result = supplier.get();
         if (outgoing != null) {
@@ -431,6 +583,114 @@ public class MediatorConfigurationSupport {
         return null;
     }
 
+    public int processBroadcastBufferSize(int bufferSize, int replay) {
+        if (bufferSize < 1) {
+            throw getOutgoingError("The broadcast buffer size must be strictly positive, " + bufferSize + " given");
+        }
+        if (replay < 0 || replay > bufferSize) {
+            throw getOutgoingError("The number of replayed messages must be between 0 and the broadcast buffer size ("
+                    + bufferSize + "), " + replay + " given");
+        }
+        return bufferSize;
+    }
+
+    public Integer processConcurrency(Object incoming, Supplier<Integer> supplier) {
+        Integer result = supplier.get();
+        if (result == null) {
+            return null;
+        }
+        if (incoming == null) {
+            throw getOutgoingError(
+                    "The @Concurrency annotation is only supported for method annotated with @Incoming: " + methodAsString);
+        }
+        if (!ClassUtils.isAssignable(returnType, CompletionStage.class)) {
+            throw getIncomingError("The concurrency can only be configured for methods returning a CompletionStage");
+        }
+        if (result < 1) {
+            throw getIncomingError("The concurrency must be strictly positive, " + result + " given");
+        }
+        return result;
+    }
+
+    public Integer processPartitions(Object incoming, MediatorConfiguration.Consumption consumption,
+            Supplier<Integer> supplier) {
+        Integer result = supplier.get();
+        if (result == null) {
+            return null;
+        }
+        if (incoming == null) {
+            throw getOutgoingError(
+                    "The @Partitioned annotation is only supported for method annotated with @Incoming: " + methodAsString);
+        }
+        if (consumption != MediatorConfiguration.Consumption.MESSAGE
+                && consumption != MediatorConfiguration.Consumption.PAYLOAD) {
+            throw getIncomingError("Only methods consuming individual messages or payloads can be partitioned");
+        }
+        if (result < 1) {
+            throw getIncomingError("The number of partitions must be strictly positive, " + result + " given");
+        }
+        return result;
+    }
+
+    public String processBlocking(Object incoming, MediatorConfiguration.Consumption consumption,
+            MediatorConfiguration.Production production, Supplier<String> supplier) {
+        String result = supplier.get();
+        if (result == null) {
+            return null;
+        }
+        if (incoming == null) {
+            throw getOutgoingError(
+                    "The @Blocking annotation is only supported for method annotated with @Incoming: " + methodAsString);
+        }
+        if (consumption == MediatorConfiguration.Consumption.STREAM_OF_MESSAGE
+                || consumption == MediatorConfiguration.Consumption.STREAM_OF_PAYLOAD
+                || ClassUtils.isAssignable(returnType, CompletionStage.class)
+                || (production != MediatorConfiguration.Production.INDIVIDUAL_MESSAGE
+                        && production != MediatorConfiguration.Production.INDIVIDUAL_PAYLOAD
+                        && production != MediatorConfiguration.Production.NONE)) {
+            throw getIncomingError("Only methods consuming individual items and not returning a CompletionStage or a "
+                    + "stream can be blocking");
+        }
+        return result;
+    }
+
+    public int processBatchSize(int maxSize) {
+        if (maxSize < 1) {
+            throw getIncomingError("The maximum size of the batches must be strictly positive, " + maxSize + " given");
+        }
+        return maxSize;
+    }
+
+    public long processBatchMaxWait(long maxWait) {
+        if (maxWait < 0) {
+            throw getIncomingError("The maximum wait of the batches must be positive or zero, " + maxWait + " given");
+        }
+        return maxWait;
+    }
+
+    public int processPrefetch(int prefetch) {
+        if (prefetch < 1) {
+            throw getIncomingError("The prefetch must be strictly positive, " + prefetch + " given");
+        }
+        return prefetch;
+    }
+
+    public int processPrefetchReplenish(int replenish, int prefetch) {
+        if (replenish < 1 || replenish > prefetch) {
+            throw getIncomingError("The prefetch replenish threshold must be between 1 and the prefetch (" + prefetch
+                    + "), " + replenish + " given");
+        }
+        return replenish;
+    }
+
+    public long processPrefetchMaxBytes(long maxBytes) {
+        if (maxBytes < 0) {
+            throw getIncomingError("The maximum size of the prefetched messages must be positive or zero, " + maxBytes
+                    + " given");
+        }
+        return maxBytes;
+    }
+
     private IllegalArgumentException getOutgoingError(String message) {
         return new IllegalArgumentException("Invalid method annotated with @Outgoing: " + methodAsString + " - " + message);
     }
@@ -473,6 +733,15 @@ public class MediatorConfigurationSupport {
         }
     }
 
+    /**
+     * Gives access to the annotations of the method, e.g. using {@link java.lang.reflect.Method#getAnnotation(Class)}
+     * at runtime, or {@code javax.lang.model.element.Element#getAnnotation(Class)} at build time.
+     */
+    public interface AnnotationLookup {
+
+        <A extends Annotation> A get(Class<A> type);
+    }
+
     public interface GenericTypeAssignable {
 
         Result check(Class<?> target, int index);
@@ -0,0 +1,390 @@
+package io.smallrye.reactive.messaging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.smallrye.reactive.messaging.annotations.Batch;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.annotations.Merge;
+
+/**
+ * Index of the mediator methods analyzed at build time, generated by the annotation processor provided by the
+ * {@code smallrye-reactive-messaging-processor} artifact.
+ * <p>
+ * The index is stored in the {@link #LOCATION} resource of each archive, one line per method. Methods found in the
+ * index are configured from their {@link Entry}, without analyzing their signature and annotations again. The other
+ * methods are analyzed at runtime, as usual.
+ */
+public class MediatorIndex {
+
+    public static final String LOCATION = "META-INF/smallrye-reactive-messaging/mediators.idx";
+
+    private static final String HEADER = "# SmallRye Reactive Messaging mediator index - version 2";
+    private static final String SEPARATOR = "\t";
+    private static final int FIELDS = 22;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MediatorIndex.class);
+
+    private static final MediatorIndex EMPTY = new MediatorIndex(Collections.emptyMap());
+
+    private final Map<String, Entry> entries;
+
+    private MediatorIndex(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * @return an index containing no method.
+     */
+    public static MediatorIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Reads the indexes of all the archives visible from the given class loader. Unreadable indexes are ignored, the
+     * corresponding methods being analyzed at runtime.
+     *
+     * @param loader the class loader, must not be {@code null}
+     * @return the index
+     */
+    public static MediatorIndex load(ClassLoader loader) {
+        Map<String, Entry> entries = new HashMap<>();
+        Enumeration<URL> resources;
+        try {
+            resources = loader.getResources(LOCATION);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to look up the mediator indexes", e);
+            return EMPTY;
+        }
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            try {
+                read(url, entries);
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Ignoring the mediator index {}", url, e);
+            }
+        }
+        if (entries.isEmpty()) {
+            return EMPTY;
+        }
+        LOGGER.debug("{} mediator method(s) found in the indexes", entries.size());
+        return new MediatorIndex(entries);
+    }
+
+    private static void read(URL url, Map<String, Entry> entries) throws IOException {
+        Map<String, Entry> read = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IllegalArgumentException("Unsupported index format: " + line);
+            }
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    String[] fields = line.split(SEPARATOR, -1);
+                    read.put(fields[0], Entry.parse(fields));
+                }
+            }
+        }
+        // Only merged once the whole index has been read.
+        entries.putAll(read);
+    }
+
+    /**
+     * Writes an index.
+     *
+     * @param writer the writer, not closed by this method
+     * @param entries the entries, by key, see {@link #key(String, String, List)}
+     * @throws IOException if the index cannot be written
+     */
+    public static void write(Writer writer, Map<String, Entry> entries) throws IOException {
+        writer.write(HEADER);
+        writer.write('\n');
+        for (Map.Entry<String, Entry> entry : new TreeMap<>(entries).entrySet()) {
+            if (!entry.getValue().isIndexable()) {
+                throw new IllegalArgumentException("The method " + entry.getKey() + " cannot be indexed");
+            }
+            writer.write(entry.getKey());
+            writer.write(SEPARATOR);
+            writer.write(entry.getValue().format());
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Computes the key identifying a method in the index.
+     *
+     * @param declaringClass the binary name of the class declaring the method
+     * @param name the method name
+     * @param parameterTypes the names of the erased parameter types, as returned by {@link Class#getName()}
+     * @return the key
+     */
+    public static String key(String declaringClass, String name, List<String> parameterTypes) {
+        return declaringClass + "#" + name + "(" + String.join(",", parameterTypes) + ")";
+    }
+
+    private static String key(Method method) {
+        StringBuilder key = new StringBuilder(method.getDeclaringClass().getName())
+                .append('#').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                key.append(',');
+            }
+            key.append(parameterTypes[i].getName());
+        }
+        return key.append(')').toString();
+    }
+
+    /**
+     * @param method the method
+     * @return the entry describing the method, {@code null} if the method is not indexed.
+     */
+    public Entry get(Method method) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        return entries.get(key(method));
+    }
+
+    /**
+     * @return the number of indexed methods.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * The attributes of a mediator method, computed from its signature and annotations by
+     * {@link MediatorConfigurationSupport#analyze(org.eclipse.microprofile.reactive.messaging.Incoming,
+     * org.eclipse.microprofile.reactive.messaging.Outgoing, MediatorConfigurationSupport.AnnotationLookup)}.
+     */
+    public static class Entry {
+
+        String incoming;
+        String outgoing;
+        Shape shape;
+        MediatorConfiguration.Consumption consumption;
+        MediatorConfiguration.Production production;
+        boolean useBuilderTypes;
+        Acknowledgment.Strategy acknowledgment;
+        Merge.Mode merge;
+        int mergeConcurrency = Integer.MAX_VALUE;
+        int mergePrefetch = Merge.DEFAULT_PREFETCH;
+        boolean mergeFair;
+        Integer broadcast;
+        int broadcastBufferSize = Broadcast.DEFAULT_BUFFER_SIZE;
+        Broadcast.Overflow broadcastOverflow = Broadcast.Overflow.BLOCK;
+        int broadcastReplay;
+        int concurrency = 1;
+        boolean ordered = true;
+        int partitions = 1;
+        String workerPoolName;
+        int batchSize = Batch.DEFAULT_MAX_SIZE;
+        long batchMaxWait = Batch.DEFAULT_MAX_WAIT;
+
+        Entry() {
+            // Filled by MediatorConfigurationSupport or parsed.
+        }
+
+        public String getIncoming() {
+            return incoming;
+        }
+
+        public String getOutgoing() {
+            return outgoing;
+        }
+
+        public Shape getShape() {
+            return shape;
+        }
+
+        public MediatorConfiguration.Consumption getConsumption() {
+            return consumption;
+        }
+
+        public MediatorConfiguration.Production getProduction() {
+            return production;
+        }
+
+        public boolean usesBuilderTypes() {
+            return useBuilderTypes;
+        }
+
+        public Acknowledgment.Strategy getAcknowledgment() {
+            return acknowledgment;
+        }
+
+        public Merge.Mode getMerge() {
+            return merge;
+        }
+
+        public int getMergeConcurrency() {
+            return mergeConcurrency;
+        }
+
+        public int getMergePrefetch() {
+            return mergePrefetch;
+        }
+
+        public boolean isMergeFair() {
+            return mergeFair;
+        }
+
+        /**
+         * @return the number of subscribers expected by the broadcast, {@code null} if the method does not broadcast.
+         */
+        public Integer getBroadcast() {
+            return broadcast;
+        }
+
+        public int getBroadcastBufferSize() {
+            return broadcastBufferSize;
+        }
+
+        public Broadcast.Overflow getBroadcastOverflow() {
+            return broadcastOverflow;
+        }
+
+        public int getBroadcastReplay() {
+            return broadcastReplay;
+        }
+
+        public int getConcurrency() {
+            return concurrency;
+        }
+
+        public boolean isOrdered() {
+            return ordered;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public String getWorkerPoolName() {
+            return workerPoolName;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public long getBatchMaxWait() {
+            return batchMaxWait;
+        }
+
+        /**
+         * @return whether the entry can be written in an index: the channel and worker pool names must not contain
+         *         line breaks or tabulations.
+         */
+        public boolean isIndexable() {
+            return isIndexable(incoming) && isIndexable(outgoing) && isIndexable(workerPoolName);
+        }
+
+        private static boolean isIndexable(String value) {
+            return value == null
+                    || (value.indexOf('\t') == -1 && value.indexOf('\n') == -1 && value.indexOf('\r') == -1);
+        }
+
+        private String format() {
+            return String.join(SEPARATOR,
+                    toString(incoming),
+                    toString(outgoing),
+                    toString(shape),
+                    toString(consumption),
+                    toString(production),
+                    Boolean.toString(useBuilderTypes),
+                    toString(acknowledgment),
+                    toString(merge),
+                    toString(broadcast),
+                    Integer.toString(broadcastBufferSize),
+                    toString(broadcastOverflow),
+                    Integer.toString(broadcastReplay),
+                    Integer.toString(concurrency),
+                    Boolean.toString(ordered),
+                    Integer.toString(partitions),
+                    toString(workerPoolName),
+                    Integer.toString(batchSize),
+                    Long.toString(batchMaxWait),
+                    Integer.toString(mergeConcurrency),
+                    Integer.toString(mergePrefetch),
+                    Boolean.toString(mergeFair));
+        }
+
+        private static String toString(Object value) {
+            // Blank names are rejected during the analysis, so the empty string means null.
+            return value == null ? "" : value.toString();
+        }
+
+        private static Entry parse(String[] fields) {
+            if (fields.length != FIELDS) {
+                throw new IllegalArgumentException("Invalid index entry: " + String.join(SEPARATOR, fields));
+            }
+            Entry entry = new Entry();
+            entry.incoming = string(fields[1]);
+            entry.outgoing = string(fields[2]);
+            entry.shape = Shape.valueOf(fields[3]);
+            entry.consumption = MediatorConfiguration.Consumption.valueOf(fields[4]);
+            entry.production = MediatorConfiguration.Production.valueOf(fields[5]);
+            entry.useBuilderTypes = Boolean.parseBoolean(fields[6]);
+            entry.acknowledgment = fields[7].isEmpty() ? null : Acknowledgment.Strategy.valueOf(fields[7]);
+            entry.merge = fields[8].isEmpty() ? null : Merge.Mode.valueOf(fields[8]);
+            entry.broadcast = fields[9].isEmpty() ? null : Integer.valueOf(fields[9]);
+            entry.broadcastBufferSize = Integer.parseInt(fields[10]);
+            entry.broadcastOverflow = Broadcast.Overflow.valueOf(fields[11]);
+            entry.broadcastReplay = Integer.parseInt(fields[12]);
+            entry.concurrency = Integer.parseInt(fields[13]);
+            entry.ordered = Boolean.parseBoolean(fields[14]);
+            entry.partitions = Integer.parseInt(fields[15]);
+            entry.workerPoolName = string(fields[16]);
+            entry.batchSize = Integer.parseInt(fields[17]);
+            entry.batchMaxWait = Long.parseLong(fields[18]);
+            entry.mergeConcurrency = Integer.parseInt(fields[19]);
+            entry.mergePrefetch = Integer.parseInt(fields[20]);
+            entry.mergeFair = Boolean.parseBoolean(fields[21]);
+            return entry;
+        }
+
+        private static String string(String field) {
+            return field.isEmpty() ? null : field;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return format().equals(((Entry) o).format());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(incoming, outgoing, shape, consumption, production);
+        }
+
+        @Override
+        public String toString() {
+            return format();
+        }
+    }
+}
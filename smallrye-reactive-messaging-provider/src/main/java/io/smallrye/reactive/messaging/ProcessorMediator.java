@@ -14,6 +14,8 @@ import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.reactivestreams.Processor;
 import org.reactivestreams.Publisher;
 
+import io.reactivex.Flowable;
+
 public class ProcessorMediator extends AbstractMediator {
 
     private Processor<Message, Message> processor;
@@ -28,7 +30,7 @@ public class ProcessorMediator extends AbstractMediator {
 
     public void connectToUpstream(PublisherBuilder<? extends Message> publisher) {
         assert processor != null;
-        this.publisher = decorate(publisher.via(processor));
+        this.publisher = decorate(batched(consumed(prefetched(publisher))).via(processor));
     }
 
     @Override
@@ -131,18 +133,18 @@ public class ProcessorMediator extends AbstractMediator {
     }
 
     private void processMethodReturningAPublisherBuilderOfMessageAndConsumingMessages() {
-        this.processor = ReactiveStreams.<Message> builder()
+        this.processor = partitioned(ReactiveStreams.<Message> builder()
                 .flatMapCompletionStage(managePreProcessingAck())
                 .map(msg -> (PublisherBuilder<Message>) invoke(msg))
-                .flatMap(Function.identity())
+                .flatMap(Function.identity()))
                 .buildRs();
     }
 
     private void processMethodReturningAPublisherOfMessageAndConsumingMessages() {
-        this.processor = ReactiveStreams.<Message> builder()
+        this.processor = partitioned(ReactiveStreams.<Message> builder()
                 .flatMapCompletionStage(managePreProcessingAck())
                 .map(msg -> (Publisher<Message>) invoke(msg))
-                .flatMapRsPublisher(Function.identity())
+                .flatMapRsPublisher(Function.identity()))
                 .buildRs();
     }
 
@@ -162,7 +164,7 @@ public class ProcessorMediator extends AbstractMediator {
         this.processor = ReactiveStreams.<Message> builder()
                 .<Message> flatMapCompletionStage(msg -> {
                     if (configuration.getAcknowledgment() == Acknowledgment.Strategy.PRE_PROCESSING) {
-                        return msg.ack().thenApply((x -> msg));
+                        return acknowledge(msg).thenApply((x -> msg));
                     } else {
                         return CompletableFuture.completedFuture(msg);
                     }
@@ -196,92 +198,111 @@ public class ProcessorMediator extends AbstractMediator {
     }
 
     private void processMethodReturningAPublisherBuilderOfPayloadsAndConsumingPayloads() {
-        this.processor = ReactiveStreams.<Message> builder()
+        boolean postAck = configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING;
+        this.processor = partitioned(ReactiveStreams.<Message> builder()
                 .flatMapCompletionStage(managePreProcessingAck())
-                .flatMap(message -> invoke(message.getPayload()))
-                .map(p -> (Message) Message.of(p))
+                .flatMapRsPublisher(message -> outputs(
+                        this.<PublisherBuilder<Object>> invoke(message.getPayload()).buildRs(), message, postAck)))
                 .buildRs();
     }
 
     private void processMethodReturningAPublisherOfPayloadsAndConsumingPayloads() {
-        this.processor = ReactiveStreams.<Message> builder()
+        boolean postAck = configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING;
+        this.processor = partitioned(ReactiveStreams.<Message> builder()
                 .flatMapCompletionStage(managePreProcessingAck())
-                .flatMapRsPublisher(message -> invoke(message.getPayload()))
-                .map(p -> (Message) Message.of(p))
+                .flatMapRsPublisher(message -> outputs(
+                        this.<Publisher<Object>> invoke(message.getPayload()), message, postAck)))
                 .buildRs();
     }
 
     private void processMethodReturningIndividualMessageAndConsumingIndividualItem() {
         // Item can be message or payload
-        if (configuration.consumption() == MediatorConfiguration.Consumption.PAYLOAD) {
-            this.processor = ReactiveStreams.<Message> builder()
-                    .flatMapCompletionStage(managePreProcessingAck())
-                    .map(input -> (Message) invoke(input.getPayload()))
+        if (consumesPayloads()) {
+            this.processor = partitioned(() -> invokeFused(input -> withLineage(input, invoke(input.getPayload()))))
                     .buildRs();
         } else {
-            this.processor = ReactiveStreams.<Message> builder()
-                    .flatMapCompletionStage(managePreProcessingAck())
-                    .map(input -> (Message) invoke(input))
-                    .buildRs();
+            this.processor = partitioned(() -> invokeFused(input -> withLineage(input, invoke(input)))).buildRs();
         }
     }
 
     private void processMethodReturningIndividualPayloadAndConsumingIndividualItem() {
         // Item can be message or payload.
-        if (configuration.consumption() == MediatorConfiguration.Consumption.PAYLOAD) {
-            this.processor = ReactiveStreams.<Message> builder()
-                    .flatMapCompletionStage(managePreProcessingAck())
-                    .map(input -> {
-                        Object result = invoke(input.getPayload());
-                        if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
-                            return Message.of(result, () -> input.ack());
-                        } else {
-                            return Message.of(result);
-                        }
-                    })
+        boolean postAck = configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING;
+        if (consumesPayloads()) {
+            this.processor = partitioned(() -> invokeFused(input -> output(invoke(input.getPayload()), input, postAck)))
                     .buildRs();
         } else {
-            this.processor = ReactiveStreams.<Message> builder()
-                    .flatMapCompletionStage(managePreProcessingAck())
-                    .map(input -> {
-                        Object result = invoke(input);
-                        if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
-                            return Message.of(result, () -> input.ack());
-                        } else {
-                            return Message.of(result);
-                        }
-                    })
-                    .buildRs();
+            this.processor = partitioned(() -> invokeFused(input -> output(invoke(input), input, postAck))).buildRs();
         }
     }
 
     private void processMethodReturningACompletionStageOfMessageAndConsumingIndividualMessage() {
-        this.processor = ReactiveStreams.<Message> builder()
+        this.processor = partitioned(ReactiveStreams.<Message> builder()
                 .flatMapCompletionStage(managePreProcessingAck())
-                .flatMapCompletionStage(input -> {
+                .via(this.<Message, Message> invokeConcurrently(input -> {
                     CompletionStage<Message> cs = invoke(input);
-                    return cs;
-                })
+                    if (Lineage.of(input) == null) {
+                        return cs;
+                    }
+                    return cs.thenApply(output -> withLineage(input, output));
+                })))
                 .buildRs();
     }
 
     private void processMethodReturningACompletionStageOfPayloadAndConsumingIndividualPayload() {
-        this.processor = ReactiveStreams.<Message> builder()
+        boolean postAck = configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING;
+        this.processor = partitioned(ReactiveStreams.<Message> builder()
                 .flatMapCompletionStage(managePreProcessingAck())
-                .<Message> flatMapCompletionStage(input -> {
+                .via(this.<Message, Message> invokeConcurrently(input -> {
                     CompletionStage<Object> cs = invoke(input.getPayload());
-                    return cs
-                            .thenApply(res -> Message.of(res, () -> {
-                                if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
-                                    return input.ack();
-                                } else {
-                                    return CompletableFuture.<Void> completedFuture(null);
-                                }
-                            }));
-                })
+                    return cs.thenApply(res -> output(res, input, postAck));
+                })))
                 .buildRs();
     }
 
+    /**
+     * Creates the message wrapping a result, carrying the lineage of the incoming message and, with the
+     * post-processing acknowledgement, acknowledging it when acknowledged.
+     */
+    private static Message<Object> output(Object result, Message<?> input, boolean postAck) {
+        if (postAck) {
+            return new LineageMessage<>(result, input);
+        }
+        return withLineage(input, TracedMessage.of(result));
+    }
+
+    /**
+     * Creates the messages wrapping the results produced for an incoming message, carrying its lineage. With the
+     * post-processing acknowledgement, the incoming message is acknowledged once all of them have been acknowledged,
+     * and the stream of results has completed or has been cancelled. As there is no negative acknowledgement, the
+     * incoming message is never acknowledged if the stream of results fails.
+     */
+    private static Publisher<Message> outputs(Publisher<Object> results, Message<?> input, boolean postAck) {
+        if (!postAck) {
+            return Flowable.fromPublisher(results).map(result -> withLineage(input, TracedMessage.of(result)));
+        }
+        AckTracker.FanOut fanOut = AckTracker.fanOut(input);
+        Lineage lineage = Lineage.of(input);
+        return Flowable.fromPublisher(results)
+                .<Message> map(result -> new LineageMessage<>(result, fanOut.child(), lineage))
+                .doOnComplete(fanOut::complete)
+                .doOnError(failure -> fanOut.abort())
+                // The messages produced before the cancellation are all the ones produced from the incoming message
+                .doOnCancel(fanOut::complete);
+    }
+
+    /**
+     * Carries the lineage of a traced incoming message to the outgoing message, if the outgoing message can carry
+     * one and has none yet. The lineage of the other messages ends here.
+     */
+    private static <T> Message<T> withLineage(Message<?> input, Message<T> output) {
+        Lineage lineage = Lineage.of(input);
+        if (lineage != null && output instanceof TracedMessage && ((TracedMessage<T>) output).getLineage() == null) {
+            ((TracedMessage<T>) output).setLineage(lineage);
+        }
+        return output;
+    }
+
     private boolean isReturningAPublisherOrAPublisherBuilder() {
         Class<?> returnType = configuration.getReturnType();
         return ClassUtils.isAssignable(returnType, Publisher.class)
@@ -8,6 +8,7 @@ import java.util.function.Function;
 import org.apache.commons.lang3.ClassUtils;
 import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
@@ -50,6 +51,8 @@ public class SubscriberMediator extends AbstractMediator {
                 break;
             case MESSAGE: // 3  (5 being dropped)
             case PAYLOAD: // 4 or 6
+            case BATCH_MESSAGE: // 3 receiving a Message<List<I>>
+            case BATCH_PAYLOAD: // 4 or 6 receiving a List<I>
                 if (ClassUtils.isAssignable(configuration.getReturnType(), CompletionStage.class)) {
                     // Case 3, 4
                     processMethodReturningACompletionStage();
@@ -77,7 +80,7 @@ public class SubscriberMediator extends AbstractMediator {
 
     @Override
     public void connectToUpstream(PublisherBuilder<? extends Message> publisher) {
-        this.source = (PublisherBuilder) publisher;
+        this.source = (PublisherBuilder) batched(consumed(prefetched(publisher)));
     }
 
     @SuppressWarnings("unchecked")
@@ -122,52 +125,48 @@ public class SubscriberMediator extends AbstractMediator {
     }
 
     private void processMethodReturningVoid() {
-        this.subscriber = ReactiveStreams.<Message<?>> builder()
-                .flatMapCompletionStage(managePreProcessingAck())
-                .map(message -> {
-                    invoke(message.getPayload());
-                    return message;
-                })
-                .flatMapCompletionStage(x -> {
-                    if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
-                        return getAckOrCompletion(x);
-                    } else {
-                        return CompletableFuture.completedFuture(x);
-                    }
-                })
-                .ignore();
+        this.subscriber = partitioned(() -> {
+            ProcessorBuilder<Message, Message> stage = invokeFused(message -> {
+                invoke(message.getPayload());
+                return message;
+            });
+            if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
+                stage = stage.flatMapCompletionStage(this::getAckOrCompletion);
+            }
+            return stage;
+        }).ignore();
     }
 
     private void processMethodReturningACompletionStage() {
-        if (configuration.consumption() == MediatorConfiguration.Consumption.PAYLOAD) {
-            this.subscriber = ReactiveStreams.<Message<?>> builder()
+        if (consumesPayloads()) {
+            this.subscriber = partitioned(ReactiveStreams.<Message<?>> builder()
                     .flatMapCompletionStage(managePreProcessingAck())
-                    .flatMapCompletionStage(message -> {
+                    .via(this.<Message, Message> invokeConcurrently(message -> {
                         CompletionStage<?> stage = invoke(message.getPayload());
                         return stage.thenApply(x -> message);
-                    })
+                    }))
                     .flatMapCompletionStage(x -> {
                         if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
                             return getAckOrCompletion(x);
                         } else {
                             return CompletableFuture.completedFuture(x);
                         }
-                    })
+                    }))
                     .ignore();
         } else {
-            this.subscriber = ReactiveStreams.<Message<?>> builder()
+            this.subscriber = partitioned(ReactiveStreams.<Message<?>> builder()
                     .flatMapCompletionStage(managePreProcessingAck())
-                    .flatMapCompletionStage(message -> {
+                    .via(this.<Message, Message> invokeConcurrently(message -> {
                         CompletionStage<?> completion = invoke(message);
                         return completion.thenApply(x -> message);
-                    })
+                    }))
                     .flatMapCompletionStage(x -> {
                         if (configuration.getAcknowledgment() == Acknowledgment.Strategy.POST_PROCESSING) {
                             return getAckOrCompletion(x);
                         } else {
                             return CompletableFuture.completedFuture(x);
                         }
-                    })
+                    }))
                     .ignore();
         }
     }
@@ -0,0 +1,55 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+/**
+ * A message able to carry its {@link Lineage}, used to measure the end-to-end latency of the application.
+ * <p>
+ * The messages created by the mediators and the emitters from payloads are traced messages, they inherit the lineage
+ * of the message they are created from. Connectors can implement this interface so their messages are traced from the
+ * channel they are received on. The other messages, such as the messages created by the methods, are only traced if
+ * they implement this interface.
+ *
+ * @param <T> the type of payload
+ */
+public interface TracedMessage<T> extends Message<T> {
+
+    /**
+     * @return the lineage, {@code null} if the message is not traced.
+     */
+    Lineage getLineage();
+
+    /**
+     * Attaches the lineage, when the message enters the application or when it is created from a traced message. The
+     * lineage is attached before the message is emitted, it does not need to be published safely.
+     *
+     * @param lineage the lineage
+     */
+    void setLineage(Lineage lineage);
+
+    /**
+     * Creates a traced message acknowledged without doing anything, as {@link Message#of(Object)}.
+     *
+     * @param payload the payload
+     * @param <T> the type of payload
+     * @return the message, not traced until a lineage is attached
+     */
+    static <T> TracedMessage<T> of(T payload) {
+        return new LineageMessage<>(payload, (Supplier<CompletionStage<Void>>) null);
+    }
+
+    /**
+     * Creates a traced message, as {@link Message#of(Object, Supplier)}.
+     *
+     * @param payload the payload
+     * @param ack the acknowledgement action
+     * @param <T> the type of payload
+     * @return the message, not traced until a lineage is attached
+     */
+    static <T> TracedMessage<T> of(T payload, Supplier<CompletionStage<Void>> ack) {
+        return new LineageMessage<>(payload, ack);
+    }
+}
@@ -0,0 +1,140 @@
+package io.smallrye.reactive.messaging;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.reactivestreams.Processor;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.internal.subscriptions.EmptySubscription;
+
+/**
+ * A {@link Processor} applying a function to the upstream {@link Flowable}. It allows using RxJava operators that
+ * have no equivalent in the MicroProfile Reactive Streams Operators in a {@code ProcessorBuilder}.
+ * <p>
+ * The processor supports a single upstream and a single downstream. The upstream subscription is handed over to the
+ * flowable passed to the function, so requests and cancellations go straight to the upstream.
+ *
+ * @param <I> the type of incoming items
+ * @param <O> the type of outgoing items
+ */
+public class TransformingProcessor<I, O> implements Processor<I, O> {
+
+    private final Function<Flowable<I>, Publisher<O>> function;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private Subscription upstream;
+    private volatile Subscriber<? super I> inner;
+    private boolean connecting;
+    private boolean connected;
+    private boolean done;
+    private Throwable failure;
+
+    public TransformingProcessor(Function<Flowable<I>, Publisher<O>> function) {
+        this.function = Objects.requireNonNull(function, "'function' must be set");
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super O> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!subscribed.compareAndSet(false, true)) {
+            EmptySubscription.error(new IllegalStateException("This processor only supports a single subscriber"),
+                    subscriber);
+            return;
+        }
+        Flowable<I> source = new Flowable<I>() {
+            @Override
+            protected void subscribeActual(Subscriber<? super I> s) {
+                connect(s);
+            }
+        };
+        function.apply(source).subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        synchronized (this) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+        }
+        tryConnect();
+    }
+
+    @Override
+    public void onNext(I item) {
+        // Items are only emitted once requested, so after the connection.
+        inner.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        synchronized (this) {
+            if (!connected) {
+                done = true;
+                failure = throwable;
+                return;
+            }
+        }
+        inner.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if (!connected) {
+                done = true;
+                return;
+            }
+        }
+        inner.onComplete();
+    }
+
+    private void connect(Subscriber<? super I> subscriber) {
+        synchronized (this) {
+            if (inner != null) {
+                EmptySubscription.error(new IllegalStateException("The upstream can only be consumed once"),
+                        subscriber);
+                return;
+            }
+            inner = subscriber;
+        }
+        tryConnect();
+    }
+
+    private void tryConnect() {
+        Subscriber<? super I> subscriber;
+        Subscription subscription;
+        synchronized (this) {
+            if (connecting || inner == null || upstream == null) {
+                return;
+            }
+            connecting = true;
+            subscriber = inner;
+            subscription = upstream;
+        }
+        subscriber.onSubscribe(subscription);
+        boolean terminated;
+        Throwable error;
+        synchronized (this) {
+            connected = true;
+            terminated = done;
+            error = failure;
+        }
+        if (terminated) {
+            if (error != null) {
+                subscriber.onError(error);
+            } else {
+                subscriber.onComplete();
+            }
+        }
+    }
+}
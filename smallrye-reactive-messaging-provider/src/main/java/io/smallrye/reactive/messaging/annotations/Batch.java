@@ -0,0 +1,38 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Configure a method annotated with {@code @Incoming} to receive the messages in batches.
+ * <p>
+ * The method receives either a {@code List} of payloads or a {@code Message<List>}. A batch is passed to the method
+ * when it contains {@link #maxSize()} messages, or when {@link #maxWait()} milliseconds have elapsed since the
+ * reception of its first message. Acknowledging the batch acknowledges all the messages it contains. By default, the
+ * batch is acknowledged once processed. Connectors receiving batches natively can emit
+ * {@link io.smallrye.reactive.messaging.BatchMessage} instances, passed as they are to the method.
+ * <p>
+ * The values can be overridden using the {@code smallrye.messaging.channel.[incoming].batch-size} and
+ * {@code smallrye.messaging.channel.[incoming].batch-max-wait} configuration properties.
+ *
+ * Experimental !
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Batch {
+
+    int DEFAULT_MAX_SIZE = 100;
+
+    long DEFAULT_MAX_WAIT = 1000;
+
+    /**
+     * @return the maximum number of messages in a batch, must be strictly positive.
+     */
+    int maxSize() default DEFAULT_MAX_SIZE;
+
+    /**
+     * @return the maximum time, in milliseconds, to wait for a batch to be filled. 0 disables the time limit, so the
+     *         batches are only emitted when full or when the stream completes.
+     */
+    long maxWait() default DEFAULT_MAX_WAIT;
+
+}
@@ -0,0 +1,35 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Configure a method annotated with {@code @Incoming} to be invoked on a worker thread instead of the thread emitting
+ * the messages, generally an event loop. Use it for methods executing blocking code, such as a JDBC call.
+ * <p>
+ * The method is invoked on the worker pool named {@link #value()}, or on the pool named after the incoming channel if
+ * not set. The pools are configured using the {@code smallrye.messaging.worker.[pool].max-concurrency} (20 by default)
+ * and {@code smallrye.messaging.worker.[pool].virtual-threads} (uses virtual threads when supported by the JVM)
+ * configuration properties. When the messages are emitted on a Vert.x context, the results are emitted on this context.
+ * <p>
+ * Only methods consuming individual messages, payloads or batches and not returning a {@code CompletionStage} or a
+ * stream can be blocking. Whether the results are emitted in order can be overridden using the
+ * {@code smallrye.messaging.channel.[incoming].ordered} configuration property.
+ *
+ * Experimental !
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Blocking {
+
+    /**
+     * @return the name of the worker pool, the incoming channel name if empty.
+     */
+    String value() default "";
+
+    /**
+     * @return whether the results are emitted in the order of the incoming messages. If {@code false}, the results are
+     *         emitted as soon as they are available.
+     */
+    boolean ordered() default true;
+
+}
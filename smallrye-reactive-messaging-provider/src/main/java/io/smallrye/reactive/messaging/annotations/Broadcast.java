@@ -5,6 +5,10 @@ import java.lang.annotation.RetentionPolicy;
 
 /**
  * Configure if the annotated publisher should dispatch the messages to several subscribers.
+ * <p>
+ * The messages are written in a ring buffer of {@link #bufferSize()} items, read by each subscriber at its own pace.
+ * The {@link #overflow()} policy indicates what happens when a subscriber falls more than the size of the buffer
+ * behind.
  *
  * Experimental !
  *
@@ -12,11 +16,51 @@ import java.lang.annotation.RetentionPolicy;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Broadcast {
 
+    /**
+     * The default size of the buffer.
+     */
+    int DEFAULT_BUFFER_SIZE = 128;
+
     /**
      * Indicates the number of subscribers required before dispatching the items.
-     * 
+     *
      * @return the value, 0 indicates immediate.
      */
     int value() default 0;
 
+    /**
+     * @return the size of the buffer shared by the subscribers, rounded up to the next power of two.
+     */
+    int bufferSize() default DEFAULT_BUFFER_SIZE;
+
+    /**
+     * @return the policy applied to the subscribers that cannot keep up.
+     */
+    Overflow overflow() default Overflow.BLOCK;
+
+    /**
+     * @return the number of items replayed to the subscribers arriving late, at most {@link #bufferSize()}.
+     */
+    int replay() default 0;
+
+    /**
+     * The policies applied to slow subscribers.
+     */
+    enum Overflow {
+        /**
+         * The slowest subscriber sets the pace: no more messages are requested until it catches up.
+         */
+        BLOCK,
+
+        /**
+         * The fastest subscriber sets the pace: the slower ones skip the oldest messages they did not consume.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The fastest subscriber sets the pace: the slower ones are disconnected with a failure.
+         */
+        DISCONNECT
+    }
+
 }
@@ -0,0 +1,34 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Configure the number of concurrent invocations of a method annotated with {@code @Incoming} and returning a
+ * {@link java.util.concurrent.CompletionStage}.
+ * <p>
+ * By default, the next message is only passed to the method once the {@code CompletionStage} returned for the
+ * previous one has been completed. With this annotation, up to {@link #value()} invocations can be in-flight.
+ * <p>
+ * The value can be overridden using the {@code smallrye.messaging.channel.[incoming].concurrency} and
+ * {@code smallrye.messaging.channel.[incoming].ordered} configuration properties.
+ *
+ * Experimental !
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Concurrency {
+
+    /**
+     * @return the maximum number of in-flight invocations, must be strictly positive.
+     */
+    int value();
+
+    /**
+     * Whether the results are emitted (and the messages acknowledged) in the order of the incoming messages, or as
+     * soon as they are available.
+     *
+     * @return {@code true} to preserve the order (default).
+     */
+    boolean ordered() default true;
+
+}
@@ -1,5 +1,11 @@
 package io.smallrye.reactive.messaging.annotations;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
 /**
  * Interface used to feed a stream from an <em>imperative</em> piece of code.
  * <p>
@@ -32,6 +38,85 @@ public interface Emitter<T> {
      */
     Emitter<T> send(T msg);
 
+    /**
+     * Sends a payload or a message to the stream, and returns a {@link CompletionStage} completed when the message is
+     * acknowledged. If {@code msg} is a {@link org.eclipse.microprofile.reactive.messaging.Message Message}, its own
+     * acknowledgement is called first.
+     * <p>
+     * The returned stage is completed exceptionally if the acknowledgement fails, or if the stream is cancelled before
+     * the message is dispatched. It is never completed if the message is dropped by the overflow strategy.
+     * <p>
+     * The default implementation sends, using {@link #send(Object)}, a
+     * {@link org.eclipse.microprofile.reactive.messaging.Message Message} wrapping the payload, so the emitter must
+     * accept messages, as the emitters injected by the container do.
+     * <p>
+     * Experimental !
+     *
+     * @param msg the <em>thing</em> to send, must not be {@code null}
+     * @return the stage completed when the message is acknowledged
+     * @throws IllegalStateException if the stream does not have any pending requests, or if the stream has been
+     *         cancelled or terminated.
+     */
+    @SuppressWarnings("unchecked")
+    default CompletionStage<Void> sendWithAck(T msg) {
+        if (msg == null) {
+            throw new IllegalArgumentException("`null` is not a valid value");
+        }
+        CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+        Message<?> message;
+        if (msg instanceof Message) {
+            Message<?> delegate = (Message<?>) msg;
+            message = Message.of(delegate.getPayload(), () -> {
+                CompletionStage<Void> stage = delegate.ack();
+                if (stage == null) {
+                    acknowledged.complete(null);
+                    return acknowledged;
+                }
+                return stage.whenComplete((x, failure) -> {
+                    if (failure != null) {
+                        acknowledged.completeExceptionally(failure);
+                    } else {
+                        acknowledged.complete(null);
+                    }
+                });
+            });
+        } else {
+            message = Message.of(msg, () -> {
+                acknowledged.complete(null);
+                return acknowledged;
+            });
+        }
+        send((T) message);
+        return acknowledged;
+    }
+
+    /**
+     * Sends several payloads or messages to the stream, in the iteration order of the collection.
+     * <p>
+     * The items are checked before being sent, so if one of them is {@code null}, none of them is sent. The
+     * implementation provided by the emitters injected by the container enqueues the items in one operation, which is
+     * cheaper than calling {@link #send(Object)} for each of them.
+     *
+     * @param msgs the <em>things</em> to send, must not be {@code null} and must not contain {@code null}
+     * @return the current emitter
+     * @throws IllegalStateException if the stream does not have any pending requests, or if the stream has been
+     *         cancelled or terminated.
+     */
+    default Emitter<T> sendAll(Collection<? extends T> msgs) {
+        if (msgs == null) {
+            throw new IllegalArgumentException("`null` is not a valid collection");
+        }
+        for (T msg : msgs) {
+            if (msg == null) {
+                throw new IllegalArgumentException("`null` is not a valid value");
+            }
+        }
+        for (T msg : msgs) {
+            send(msg);
+        }
+        return this;
+    }
+
     /**
      * Completes the stream.
      * This method sends the completion signal, no messages can be sent once this method is called.
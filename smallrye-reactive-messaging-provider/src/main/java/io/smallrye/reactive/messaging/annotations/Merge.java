@@ -8,10 +8,18 @@ import java.lang.annotation.RetentionPolicy;
  * <p>
  * Indicate the an {@code @Incoming} is connected to several upstream sources and merge the content according to the given
  * policy.
+ * <p>
+ * With the {@link Mode#MERGE MERGE} policy, each source is requested
+ * {@link #prefetch()} items, and at most {@link #maxConcurrency()} sources are consumed at the same time.
  */
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Merge {
 
+    /**
+     * The default number of items requested from each source.
+     */
+    int DEFAULT_PREFETCH = 128;
+
     enum Mode {
         /**
          * Pick the first source and use only this one.
@@ -29,4 +37,20 @@ public @interface Merge {
 
     Mode value() default Mode.MERGE;
 
+    /**
+     * @return the maximum number of sources consumed at the same time, the next ones being consumed when one completes.
+     */
+    int maxConcurrency() default Integer.MAX_VALUE;
+
+    /**
+     * @return the number of items requested from each source, and so buffered per source.
+     */
+    int prefetch() default DEFAULT_PREFETCH;
+
+    /**
+     * @return whether the {@link Mode#MERGE MERGE} policy takes the items of the sources in turn (round-robin), instead
+     *         of as they come, so a fast source does not starve the others.
+     */
+    boolean fair() default false;
+
 }
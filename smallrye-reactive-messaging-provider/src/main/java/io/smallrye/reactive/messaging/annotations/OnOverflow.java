@@ -52,7 +52,16 @@ public @interface OnOverflow {
          * The values are propagated without any back pressure strategy. It's the responsibility from the downstream to
          * implement a strategy to deal with overflow.
          */
-        NONE
+        NONE,
+
+        /**
+         * The values wait in the emitter, without blocking the caller, until the downstream requests them. Nothing is
+         * dropped and no failure is propagated, the {@link #bufferSize()} is ignored. Combine it with
+         * {@link Emitter#sendWithAck(Object)} to bound the number of in-flight values.
+         * <p>
+         * Experimental !
+         */
+        WAIT
     }
 
     /**
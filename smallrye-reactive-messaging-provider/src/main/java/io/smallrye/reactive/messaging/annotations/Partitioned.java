@@ -0,0 +1,27 @@
+package io.smallrye.reactive.messaging.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Configure a method annotated with {@code @Incoming} to process the messages on several lanes in parallel.
+ * <p>
+ * Each message is dispatched to a lane using the key returned by
+ * {@link io.smallrye.reactive.messaging.KeyedMessage#getPartitionKey()}, so messages with the same key are processed
+ * in order, on the same lane. Messages without key are dispatched in a round-robin fashion. Each lane runs on its own
+ * worker thread, and the results of the different lanes are merged into the outgoing channel.
+ * <p>
+ * Only methods consuming individual messages or payloads can be partitioned. The value can be overridden using the
+ * {@code smallrye.messaging.channel.[incoming].partitions} configuration property.
+ *
+ * Experimental !
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Partitioned {
+
+    /**
+     * @return the number of lanes, must be strictly positive.
+     */
+    int value();
+
+}
@@ -3,32 +3,94 @@ package io.smallrye.reactive.messaging.extension;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
 import javax.inject.Inject;
 
 import org.apache.commons.lang3.reflect.TypeUtils;
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
 import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.reactivex.Flowable;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.smallrye.reactive.messaging.BroadcastHub;
 import io.smallrye.reactive.messaging.ChannelRegistry;
+import io.smallrye.reactive.messaging.ConfiguredMediatorConfiguration;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
 import io.smallrye.reactive.messaging.annotations.Channel;
 import io.smallrye.reactive.messaging.annotations.Emitter;
+import io.smallrye.reactive.messaging.annotations.Merge;
 import io.smallrye.reactive.messaging.annotations.Stream;
 
+/**
+ * Produces the injected channels and emitters.
+ * <p>
+ * The injection points of a channel share a single subscription to its publishers, through a {@link BroadcastHub}
+ * configured using the {@code smallrye.messaging.channel.[channel].broadcast-buffer-size},
+ * {@code broadcast-overflow} and {@code broadcast-replay} properties. When several publishers feed the channel, they are
+ * combined according to the {@link Merge} annotation of the injection point, the first one being used otherwise. Only
+ * the injection points combining the publishers the same way, i.e. with the same {@link Merge} attributes, share a
+ * subscription. The shared subscription is cancelled when its last subscriber cancels, and is released when the
+ * publishers terminate. The next subscriptions, including the ones of the previously injected publishers, then
+ * subscribe again. The publishers registered later on are only used by the subscriptions created after their
+ * registration.
+ */
 @ApplicationScoped
 public class ChannelProducer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChannelProducer.class);
+
     @Inject
     ChannelRegistry channelRegistry;
 
+    @Inject
+    Instance<Config> config;
+
+    /**
+     * The shared channels, by channel name and merge attributes (policy, concurrency, prefetch and fairness).
+     */
+    private final ConcurrentMap<String, ConcurrentMap<List<Object>, SharedChannel>> shared = new ConcurrentHashMap<>();
+
+    private final ChannelRegistry.Listener listener = new ChannelRegistry.Listener() {
+        @Override
+        public void onPublisherRegistered(String name, PublisherBuilder<? extends Message> stream) {
+            shared.remove(name);
+        }
+
+        @Override
+        public void onPublisherUnregistered(String name, PublisherBuilder<? extends Message> stream) {
+            shared.remove(name);
+        }
+    };
+
+    @PostConstruct
+    void init() {
+        channelRegistry.addListener(listener);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        channelRegistry.removeListener(listener);
+    }
+
     @Produces
     @Channel("") // Stream name is ignored during type-safe resolution
     <T> Flowable<T> producePublisher(InjectionPoint injectionPoint) {
@@ -81,13 +143,95 @@ public class ChannelProducer {
     @SuppressWarnings("rawtypes")
     private Publisher<? extends Message> getPublisher(InjectionPoint injectionPoint) {
         String name = getChannelName(injectionPoint);
+        // Fail at injection time when the channel does not exist
+        getPublishers(name);
+        Merge merge = injectionPoint.getAnnotated() == null ? null
+                : injectionPoint.getAnnotated().getAnnotation(Merge.class);
+        Merge.Mode mode = merge == null ? Merge.Mode.ONE : merge.value();
+        int maxConcurrency = merge == null ? Integer.MAX_VALUE : merge.maxConcurrency();
+        int prefetch = merge == null ? Merge.DEFAULT_PREFETCH : merge.prefetch();
+        boolean fair = merge != null && merge.fair();
+        // The injection points only share the channel when they combine the publishers the same way
+        List<Object> key = Arrays.asList(mode, maxConcurrency, prefetch, fair);
+        // The shared channel is looked up on subscription, as the injected publisher outlives the released ones
+        return Flowable.defer(() -> {
+            for (;;) {
+                ConcurrentMap<List<Object>, SharedChannel> map = shared.computeIfAbsent(name,
+                        k -> new ConcurrentHashMap<>());
+                SharedChannel channel = map.computeIfAbsent(key, k -> new SharedChannel(name, k,
+                        LazySource.aggregate(name, mode, maxConcurrency, prefetch, fair, getPublishers(name), LOGGER)));
+                if (channel.acquire()) {
+                    return channel.hub.doFinally(channel::release);
+                }
+                // Released concurrently, the next lookup creates a new one
+                map.remove(key, channel);
+            }
+        });
+    }
+
+    @SuppressWarnings("rawtypes")
+    private List<PublisherBuilder<? extends Message>> getPublishers(String name) {
         List<PublisherBuilder<? extends Message>> list = channelRegistry.getPublishers(name);
         if (list.isEmpty()) {
             throw new IllegalStateException("Unable to find a stream with the name " + name + ", available streams are: "
                     + channelRegistry.getIncomingNames());
         }
-        // TODO Manage merge.
-        return list.get(0).buildRs();
+        return list;
+    }
+
+    /**
+     * The subscription shared by the injection points of a channel using the same merge attributes. The upstream
+     * subscription is cancelled, and the shared channel evicted, when its last subscriber goes away.
+     */
+    @SuppressWarnings("rawtypes")
+    private final class SharedChannel {
+
+        private final String name;
+        private final List<Object> key;
+        private final BroadcastHub<? extends Message> hub;
+        /**
+         * The number of subscribers, -1 once released.
+         */
+        private final AtomicInteger subscribers = new AtomicInteger();
+        private final AtomicReference<Subscription> upstream = new AtomicReference<>();
+
+        private SharedChannel(String name, List<Object> key, PublisherBuilder<? extends Message> aggregated) {
+            this.name = name;
+            this.key = key;
+            Flowable<? extends Message> source = Flowable.fromPublisher(aggregated.buildRs())
+                    .doOnSubscribe(s -> SubscriptionHelper.setOnce(upstream, s))
+                    // Let the next injection points subscribe again
+                    .doFinally(this::evict);
+            this.hub = config.isUnsatisfied()
+                    ? new BroadcastHub<>(source, 1, Broadcast.DEFAULT_BUFFER_SIZE, Broadcast.Overflow.BLOCK, 0)
+                    : BroadcastHub.create(source, config.get(), ConfiguredMediatorConfiguration.PREFIX + name + ".");
+        }
+
+        private boolean acquire() {
+            for (;;) {
+                int current = subscribers.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (subscribers.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            if (subscribers.decrementAndGet() == 0 && subscribers.compareAndSet(0, -1)) {
+                evict();
+                SubscriptionHelper.cancel(upstream);
+            }
+        }
+
+        private void evict() {
+            ConcurrentMap<List<Object>, SharedChannel> map = shared.get(name);
+            if (map != null) {
+                map.remove(key, this);
+            }
+        }
     }
 
     @SuppressWarnings("rawtypes")
@@ -12,21 +12,40 @@ import org.eclipse.microprofile.reactive.messaging.Outgoing;
 
 import io.smallrye.reactive.messaging.DefaultMediatorConfiguration;
 import io.smallrye.reactive.messaging.MediatorConfiguration;
+import io.smallrye.reactive.messaging.MediatorIndex;
 
 class CollectedMediatorMetadata {
 
     private final List<MediatorConfiguration> mediators = new ArrayList<>();
 
+    /**
+     * The methods analyzed at build time, loaded when the first method is added.
+     */
+    private MediatorIndex index;
+
     void add(Method method, Bean<?> bean) {
         mediators.add(createMediatorConfiguration(method, bean));
     }
 
     private MediatorConfiguration createMediatorConfiguration(Method met, Bean<?> bean) {
         DefaultMediatorConfiguration configuration = new DefaultMediatorConfiguration(met, bean);
-        configuration.compute(met.getAnnotation(Incoming.class), met.getAnnotation(Outgoing.class));
+        MediatorIndex.Entry entry = index().get(met);
+        if (entry != null) {
+            configuration.compute(entry);
+        } else {
+            configuration.compute(met.getAnnotation(Incoming.class), met.getAnnotation(Outgoing.class));
+        }
         return configuration;
     }
 
+    private MediatorIndex index() {
+        if (index == null) {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            index = MediatorIndex.load(loader != null ? loader : CollectedMediatorMetadata.class.getClassLoader());
+        }
+        return index;
+    }
+
     void addAll(Collection<? extends MediatorConfiguration> mediators) {
         this.mediators.addAll(mediators);
     }
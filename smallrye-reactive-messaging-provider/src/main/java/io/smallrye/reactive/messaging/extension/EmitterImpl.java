@@ -1,6 +1,12 @@
 package io.smallrye.reactive.messaging.extension;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.reactivestreams.Publisher;
@@ -8,25 +14,103 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.reactivex.*;
+import io.reactivex.internal.fuseable.SimplePlainQueue;
+import io.reactivex.internal.queue.MpscLinkedQueue;
+import io.reactivex.internal.util.BackpressureHelper;
+import io.smallrye.reactive.messaging.TracedMessage;
 import io.smallrye.reactive.messaging.annotations.Emitter;
 import io.smallrye.reactive.messaging.annotations.OnOverflow;
+import io.smallrye.reactive.messaging.metrics.BackpressureMonitor;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.smallrye.reactive.messaging.metrics.LineageTracker;
 
+/**
+ * {@link Emitter} implementation feeding a {@link Flowable}.
+ * <p>
+ * The emitter can be used concurrently without blocking the callers: the messages are enqueued in a lock-free
+ * multi-producer queue, and a single drain loop, run by one of the producers, forwards them to the
+ * {@link FlowableEmitter}, which is not thread-safe. The overflow strategy is applied by the {@link Flowable}, except
+ * {@link OnOverflow.Strategy#WAIT}, for which the drain loop only forwards messages while there is demand.
+ * <p>
+ * The producers sending concurrently with the termination are ordered using {@link #producers}: a send either enqueues
+ * its messages before the terminal signal is forwarded, or is rejected.
+ */
 public class EmitterImpl<T> implements Emitter<T> {
 
+    /**
+     * Terminal signal recorded when the emitter completes.
+     */
+    private static final Throwable COMPLETED = new Throwable("completed", null, false, false) {
+    };
+
+    /**
+     * Bit of {@link #producers} set once the emitter is terminated.
+     */
+    private static final long TERMINATED = Long.MIN_VALUE;
+
     private final AtomicReference<FlowableEmitter<Message<? extends T>>> internal = new AtomicReference<>();
+    private final SimplePlainQueue<Message<? extends T>> queue = new MpscLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicReference<Throwable> terminal = new AtomicReference<>();
+    /**
+     * Number of sends enqueuing messages, with the {@link #TERMINATED} bit set once no more sends are accepted. The
+     * terminal signal is only forwarded once the sends in progress are done.
+     */
+    private final AtomicLong producers = new AtomicLong();
+    /**
+     * Whether the terminal signal has been forwarded, only accessed by the drain loop.
+     */
+    private boolean terminated;
+    /**
+     * Outstanding demand, only used with the {@link OnOverflow.Strategy#WAIT} strategy.
+     */
+    private final AtomicLong requested = new AtomicLong();
+    private final boolean waitForDemand;
     private final Flowable<Message<? extends T>> publisher;
+    private final ChannelMetrics metrics;
+    /**
+     * Number of queued messages, {@code null} if the metrics are disabled, as the queue cannot be sized.
+     */
+    private final LongAdder pending;
+    /**
+     * The strategy dropping or rejecting the messages emitted without demand, {@code null} if the overflows are not
+     * traced or are detected by a buffer.
+     */
+    private final OnOverflow.Strategy overflowWithoutDemand;
+    /**
+     * The tracker of the messages entering the application through the emitter, {@code null} if they are not traced.
+     */
+    private final LineageTracker ingress;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EmitterImpl.class);
 
-    EmitterImpl(String name, String overFlowStrategy, long bufferSize, long defaultBufferSize) {
+    EmitterImpl(String name, String overFlowStrategy, long bufferSize, long defaultBufferSize,
+            ChannelMetrics metrics) {
+        this.metrics = metrics;
+        if (metrics.isEnabled()) {
+            this.pending = new LongAdder();
+            metrics.registerQueue(pending::sum);
+        } else {
+            this.pending = null;
+        }
+        this.overflowWithoutDemand = overflowWithoutDemand(overFlowStrategy, metrics);
+        this.ingress = LineageTracker.forIngress(name, metrics);
+        this.waitForDemand = overFlowStrategy != null
+                && OnOverflow.Strategy.valueOf(overFlowStrategy) == OnOverflow.Strategy.WAIT;
         FlowableOnSubscribe<Message<? extends T>> deferred = fe -> {
             if (!internal.compareAndSet(null, fe)) {
                 fe.onError(new Exception("Emitter already created"));
+            } else {
+                // The queued messages are released on cancellation, even if nothing is sent anymore.
+                fe.setCancellable(this::drain);
+                // Requests may have been received before the connection.
+                drain();
             }
         };
+        Flowable<Message<? extends T>> flowable;
         if (overFlowStrategy == null) {
-            publisher = Flowable.create(deferred, BackpressureStrategy.BUFFER)
-                    .onBackpressureBuffer(defaultBufferSize, () -> LOGGER.error("Buffer full for emitter {}", name),
+            flowable = Flowable.create(deferred, BackpressureStrategy.BUFFER)
+                    .onBackpressureBuffer(defaultBufferSize, () -> onBufferFull(name, OnOverflow.Strategy.BUFFER),
                             BackpressureOverflowStrategy.ERROR);
         } else {
             OnOverflow.Strategy strategy = OnOverflow.Strategy.valueOf(overFlowStrategy);
@@ -34,28 +118,58 @@ public class EmitterImpl<T> implements Emitter<T> {
                 case BUFFER:
                     Flowable<Message<? extends T>> p = Flowable.create(deferred, BackpressureStrategy.BUFFER);
                     if (bufferSize > 0) {
-                        publisher = p.onBackpressureBuffer(bufferSize,
-                                () -> LOGGER.error("Buffer full for emitter {}", name), BackpressureOverflowStrategy.ERROR);
+                        flowable = p.onBackpressureBuffer(bufferSize,
+                                () -> onBufferFull(name, strategy), BackpressureOverflowStrategy.ERROR);
                     } else {
-                        publisher = p;
+                        flowable = p;
                     }
                     break;
                 case DROP:
-                    publisher = Flowable.create(deferred, BackpressureStrategy.DROP);
+                    flowable = Flowable.create(deferred, BackpressureStrategy.DROP);
                     break;
                 case FAIL:
-                    publisher = Flowable.create(deferred, BackpressureStrategy.ERROR);
+                    flowable = Flowable.create(deferred, BackpressureStrategy.ERROR);
                     break;
                 case LATEST:
-                    publisher = Flowable.create(deferred, BackpressureStrategy.LATEST);
+                    flowable = Flowable.create(deferred, BackpressureStrategy.LATEST);
                     break;
                 case NONE:
-                    publisher = Flowable.create(deferred, BackpressureStrategy.MISSING);
+                    flowable = Flowable.create(deferred, BackpressureStrategy.MISSING);
+                    break;
+                case WAIT:
+                    // The requests are tracked here, and the queue is only drained while there is demand.
+                    flowable = Flowable.create(deferred, BackpressureStrategy.MISSING)
+                            .doOnRequest(this::onRequest);
                     break;
                 default:
                     throw new IllegalArgumentException("Invalid back pressure strategy: " + overFlowStrategy);
             }
         }
+        this.publisher = BackpressureMonitor.monitor(flowable, metrics);
+    }
+
+    private static OnOverflow.Strategy overflowWithoutDemand(String overFlowStrategy, ChannelMetrics metrics) {
+        if (overFlowStrategy == null || !metrics.isTraced(ChannelMetrics.Operation.OVERFLOW)) {
+            return null;
+        }
+        OnOverflow.Strategy strategy = OnOverflow.Strategy.valueOf(overFlowStrategy);
+        if (strategy == OnOverflow.Strategy.DROP || strategy == OnOverflow.Strategy.LATEST
+                || strategy == OnOverflow.Strategy.FAIL) {
+            return strategy;
+        }
+        return null;
+    }
+
+    private void onBufferFull(String name, OnOverflow.Strategy strategy) {
+        LOGGER.error("Buffer full for emitter {}", name);
+        overflow(strategy);
+    }
+
+    private void overflow(OnOverflow.Strategy strategy) {
+        Object span = metrics.startSpan(ChannelMetrics.Operation.OVERFLOW, strategy.name());
+        if (span != null) {
+            metrics.endSpan(span, null);
+        }
     }
 
     public Publisher<Message<? extends T>> getPublisher() {
@@ -67,48 +181,210 @@ public class EmitterImpl<T> implements Emitter<T> {
     }
 
     @Override
-    public synchronized Emitter<T> send(T msg) {
+    public Emitter<T> send(T msg) {
         if (msg == null) {
             throw new IllegalArgumentException("`null` is not a valid value");
         }
-        FlowableEmitter<Message<? extends T>> emitter = verify();
-        if (msg instanceof Message) {
-            //noinspection unchecked
-            emitter.onNext((Message) msg);
-        } else {
-            emitter.onNext(Message.of(msg));
+        verify();
+        acquire();
+        try {
+            enqueue(wrap(msg));
+        } finally {
+            producers.decrementAndGet();
         }
+        drain();
         return this;
     }
 
-    private synchronized FlowableEmitter<Message<? extends T>> verify() {
+    @Override
+    public CompletionStage<Void> sendWithAck(T msg) {
+        if (msg == null) {
+            throw new IllegalArgumentException("`null` is not a valid value");
+        }
+        verify();
+        AcknowledgedMessage<T> message = new AcknowledgedMessage<>(wrap(msg));
+        acquire();
+        try {
+            enqueue(message);
+        } finally {
+            producers.decrementAndGet();
+        }
+        drain();
+        return message.acknowledged;
+    }
+
+    @Override
+    public Emitter<T> sendAll(Collection<? extends T> msgs) {
+        if (msgs == null) {
+            throw new IllegalArgumentException("`null` is not a valid collection");
+        }
+        for (T msg : msgs) {
+            if (msg == null) {
+                throw new IllegalArgumentException("`null` is not a valid value");
+            }
+        }
+        verify();
+        acquire();
+        try {
+            for (T msg : msgs) {
+                enqueue(wrap(msg));
+            }
+        } finally {
+            producers.decrementAndGet();
+        }
+        drain();
+        return this;
+    }
+
+    /**
+     * Registers a send in progress, which must be followed by a decrement of {@link #producers} once the messages are
+     * enqueued.
+     *
+     * @throws IllegalStateException if the emitter has been terminated
+     */
+    private void acquire() {
+        for (;;) {
+            long current = producers.get();
+            if ((current & TERMINATED) != 0) {
+                throw new IllegalStateException("Stream has been terminated");
+            }
+            if (producers.compareAndSet(current, current + 1)) {
+                return;
+            }
+        }
+    }
+
+    private void enqueue(Message<? extends T> message) {
+        if (pending != null) {
+            pending.increment();
+        }
+        queue.offer(message);
+    }
+
+    private Message<? extends T> dequeue() {
+        Message<? extends T> message = queue.poll();
+        if (message != null && pending != null) {
+            pending.decrement();
+        }
+        return message;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Message<? extends T> wrap(T msg) {
+        if (msg instanceof Message) {
+            return (Message<? extends T>) msg;
+        }
+        return TracedMessage.of(msg);
+    }
+
+    private void verify() {
         FlowableEmitter<Message<? extends T>> emitter = internal.get();
         if (emitter == null) {
             throw new IllegalStateException("Stream not yet connected");
         }
-        if (emitter.isCancelled()) {
+        if (terminal.get() != null || emitter.isCancelled()) {
             throw new IllegalStateException("Stream has been terminated");
         }
-        return emitter;
     }
 
     @Override
-    public synchronized void complete() {
-        verify().onComplete();
+    public void complete() {
+        terminate(COMPLETED);
     }
 
     @Override
-    public synchronized void error(Exception e) {
+    public void error(Exception e) {
         if (e == null) {
             throw new IllegalArgumentException("`null` is not a valid exception");
         }
-        verify().onError(e);
+        terminate(e);
+    }
+
+    private void terminate(Throwable signal) {
+        verify();
+        if (!terminal.compareAndSet(null, signal)) {
+            throw new IllegalStateException("Stream has been terminated");
+        }
+        // Rejects the next sends, the messages of the sends in progress being forwarded before the signal
+        producers.getAndUpdate(current -> current | TERMINATED);
+        drain();
+    }
+
+    /**
+     * Emits the queued messages, and then the terminal signal, to the {@link FlowableEmitter}. Only one thread drains
+     * at a time: a producer finding the loop already running just leaves its items in the queue, and the running loop
+     * picks them up before exiting.
+     */
+    private void drain() {
+        FlowableEmitter<Message<? extends T>> emitter = internal.get();
+        if (emitter == null || wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            if (emitter.isCancelled()) {
+                clear();
+            } else {
+                for (;;) {
+                    Throwable signal = terminal.get();
+                    if (waitForDemand && requested.get() == 0L && !queue.isEmpty()) {
+                        break;
+                    }
+                    Message<? extends T> message = dequeue();
+                    if (message == null) {
+                        if (signal != null && !terminated && producers.get() == TERMINATED) {
+                            // No send is in progress anymore, but one may have completed since the poll
+                            if (!queue.isEmpty()) {
+                                continue;
+                            }
+                            terminated = true;
+                            if (signal == COMPLETED) {
+                                emitter.onComplete();
+                            } else {
+                                emitter.onError(signal);
+                            }
+                        }
+                        break;
+                    }
+                    if (waitForDemand) {
+                        BackpressureHelper.produced(requested, 1);
+                    }
+                    if (overflowWithoutDemand != null && emitter.requested() == 0L) {
+                        overflow(overflowWithoutDemand);
+                    }
+                    if (ingress != null) {
+                        ingress.sample(message);
+                    }
+                    metrics.onProduced();
+                    emitter.onNext(message);
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private void onRequest(long n) {
+        BackpressureHelper.add(requested, n);
+        drain();
+    }
+
+    private void clear() {
+        Message<? extends T> message;
+        while ((message = dequeue()) != null) {
+            if (message instanceof AcknowledgedMessage) {
+                ((AcknowledgedMessage<?>) message).acknowledged
+                        .completeExceptionally(new IllegalStateException("Stream has been cancelled"));
+            }
+        }
     }
 
     @Override
-    public synchronized boolean isCancelled() {
+    public boolean isCancelled() {
         FlowableEmitter<Message<? extends T>> emitter = internal.get();
-        return emitter == null || emitter.isCancelled();
+        return emitter == null || terminal.get() != null || emitter.isCancelled();
     }
 
     @Override
@@ -116,4 +392,37 @@ public class EmitterImpl<T> implements Emitter<T> {
         FlowableEmitter<Message<? extends T>> emitter = internal.get();
         return !isCancelled() && emitter.requested() > 0;
     }
+
+    /**
+     * Message completing {@link #acknowledged} once the wrapped message is acknowledged.
+     */
+    private static final class AcknowledgedMessage<T> implements Message<T> {
+        private final Message<? extends T> delegate;
+        private final CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+
+        AcknowledgedMessage(Message<? extends T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T getPayload() {
+            return delegate.getPayload();
+        }
+
+        @Override
+        public CompletionStage<Void> ack() {
+            CompletionStage<Void> stage = delegate.ack();
+            if (stage == null) {
+                acknowledged.complete(null);
+                return acknowledged;
+            }
+            return stage.whenComplete((x, f) -> {
+                if (f != null) {
+                    acknowledged.completeExceptionally(f);
+                } else {
+                    acknowledged.complete(null);
+                }
+            });
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package io.smallrye.reactive.messaging.extension;
 
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -12,56 +13,97 @@ import org.slf4j.Logger;
 
 import io.reactivex.Flowable;
 import io.smallrye.reactive.messaging.ChannelRegistry;
+import io.smallrye.reactive.messaging.FlowableFairMerge;
 import io.smallrye.reactive.messaging.annotations.Merge;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
 
+/**
+ * Publisher combining the publishers of a channel according to a merge policy, resolved once the weaving is done.
+ */
 class LazySource implements Publisher<Message> {
-    private PublisherBuilder<? extends Message> delegate;
-    private String source;
-    private Merge.Mode mode;
+    private Publisher<? extends Message> delegate;
+    private final String source;
+    private final Merge.Mode mode;
+    private final int maxConcurrency;
+    private final int prefetch;
+    private final boolean fair;
+    /**
+     * Number of messages received from the publishers and not yet emitted, {@code null} if the metrics are disabled.
+     */
+    private final LongAdder buffered;
 
-    LazySource(String source, Merge.Mode mode) {
+    LazySource(String source, Merge.Mode mode, int maxConcurrency, int prefetch, boolean fair,
+            ChannelMetrics metrics) {
         this.source = source;
         this.mode = mode;
+        this.maxConcurrency = maxConcurrency;
+        this.prefetch = prefetch;
+        this.fair = fair;
+        if (metrics.isEnabled()) {
+            this.buffered = new LongAdder();
+            metrics.registerQueue(buffered::sum);
+        } else {
+            this.buffered = null;
+        }
     }
 
     public void configure(ChannelRegistry registry, Logger logger) {
         List<PublisherBuilder<? extends Message>> list = registry.getPublishers(source);
         if (!list.isEmpty()) {
-            switch (mode) {
-                case MERGE:
-                    merge(list);
-                    break;
-                case ONE:
-                    this.delegate = list.get(0);
-                    if (list.size() > 1) {
-                        logger.warn("Multiple publisher found for {}, using the merge policy `ONE` takes the first found",
-                                source);
-                    }
-                    break;
-
-                case CONCAT:
-                    concat(list);
-                    break;
-                default:
-                    throw new IllegalArgumentException("Unknown merge policy for " + source + ": " + mode);
+            // Built once, and not on each subscription
+            if (buffered != null && list.size() > 1) {
+                // Only the merges buffer the messages of their publishers
+                List<PublisherBuilder<? extends Message>> counted = list.stream()
+                        .<PublisherBuilder<? extends Message>> map(p -> p.peek(m -> buffered.increment()))
+                        .collect(Collectors.toList());
+                this.delegate = aggregate(source, mode, maxConcurrency, prefetch, fair, counted, logger)
+                        .peek(m -> buffered.decrement())
+                        .buildRs();
+            } else {
+                this.delegate = aggregate(source, mode, maxConcurrency, prefetch, fair, list, logger).buildRs();
             }
         }
     }
 
-    private void merge(List<PublisherBuilder<? extends Message>> list) {
-        this.delegate = ReactiveStreams.fromPublisher(
-                Flowable.merge(list.stream().map(PublisherBuilder::buildRs).map(Flowable::fromPublisher)
-                        .collect(Collectors.toList())));
+    /**
+     * Combines the publishers of a channel according to the given merge policy.
+     *
+     * @param source the channel name
+     * @param mode the merge policy
+     * @param maxConcurrency the maximum number of publishers consumed at the same time, with the {@code MERGE} policy
+     * @param prefetch the number of items requested from each publisher, with the {@code MERGE} policy
+     * @param fair whether the {@code MERGE} policy takes the items of the publishers in turn
+     * @param list the publishers, must not be empty
+     * @param logger the logger used to report ignored publishers
+     * @return the combined publisher
+     */
+    static PublisherBuilder<? extends Message> aggregate(String source, Merge.Mode mode, int maxConcurrency,
+            int prefetch, boolean fair, List<PublisherBuilder<? extends Message>> list, Logger logger) {
+        if (list.size() == 1) {
+            return list.get(0);
+        }
+        switch (mode) {
+            case MERGE:
+                return fair ? ReactiveStreams.fromPublisher(new FlowableFairMerge<>(build(list), maxConcurrency,
+                        prefetch))
+                        : ReactiveStreams.fromPublisher(Flowable.merge(build(list), maxConcurrency, prefetch));
+            case ONE:
+                logger.warn("Multiple publisher found for {}, using the merge policy `ONE` takes the first found",
+                        source);
+                return list.get(0);
+            case CONCAT:
+                return ReactiveStreams.fromPublisher(Flowable.concat(build(list)));
+            default:
+                throw new IllegalArgumentException("Unknown merge policy for " + source + ": " + mode);
+        }
     }
 
-    private void concat(List<PublisherBuilder<? extends Message>> list) {
-        this.delegate = ReactiveStreams.fromPublisher(
-                Flowable.concat(list.stream().map(PublisherBuilder::buildRs).map(Flowable::fromPublisher)
-                        .collect(Collectors.toList())));
+    private static List<Publisher<? extends Message>> build(List<PublisherBuilder<? extends Message>> list) {
+        return list.stream().map(PublisherBuilder::buildRs).collect(Collectors.toList());
     }
 
     @Override
     public void subscribe(Subscriber<? super Message> s) {
-        delegate.to(s).run();
+        delegate.subscribe(s);
     }
 }
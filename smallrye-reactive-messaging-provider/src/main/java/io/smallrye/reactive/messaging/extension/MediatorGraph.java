@@ -0,0 +1,191 @@
+package io.smallrye.reactive.messaging.extension;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import io.smallrye.reactive.messaging.AbstractMediator;
+
+/**
+ * Dependency graph between the mediators, indexed by channel.
+ * <p>
+ * A mediator consuming a channel depends on the not yet connected mediators producing that channel. The graph keeps,
+ * for each channel, the mediators waiting for it and the number of producers still to be connected, so the weaving
+ * can connect the mediators in topological order, in a single pass.
+ */
+class MediatorGraph {
+
+    /**
+     * Not yet connected mediators, by incoming channel.
+     */
+    private final Map<String, List<AbstractMediator>> consumers = new LinkedHashMap<>();
+
+    /**
+     * Number of not yet resolved mediators producing each channel.
+     */
+    private final Map<String, Integer> pendingProducers = new HashMap<>();
+
+    /**
+     * All the mediators, by lower-cased outgoing channel.
+     */
+    private final Map<String, List<AbstractMediator>> producers = new HashMap<>();
+
+    MediatorGraph(List<AbstractMediator> mediators) {
+        for (AbstractMediator mediator : mediators) {
+            String incoming = mediator.configuration().getIncoming();
+            String outgoing = mediator.configuration().getOutgoing();
+            if (outgoing != null) {
+                producers.computeIfAbsent(outgoing.toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(mediator);
+            }
+            if (incoming == null || mediator.isConnected()) {
+                continue;
+            }
+            consumers.computeIfAbsent(incoming, k -> new ArrayList<>()).add(mediator);
+            if (outgoing != null) {
+                pendingProducers.merge(outgoing, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * @return the channels consumed by mediators and not produced by any not yet connected mediator.
+     */
+    Deque<String> getReadyChannels() {
+        Deque<String> ready = new ArrayDeque<>();
+        for (String channel : consumers.keySet()) {
+            if (!pendingProducers.containsKey(channel)) {
+                ready.add(channel);
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Removes and returns the mediators waiting for the given channel.
+     *
+     * @param channel the channel
+     * @return the mediators, empty if none
+     */
+    List<AbstractMediator> takeConsumersOf(String channel) {
+        List<AbstractMediator> list = consumers.remove(channel);
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    /**
+     * Marks the given mediator as woven, whether it got connected or not. When it was the last pending producer of its
+     * outgoing channel, the channel is passed to {@code onReady}.
+     *
+     * @param mediator the mediator
+     * @param onReady the callback receiving the channels whose producers are all resolved
+     */
+    void markResolved(AbstractMediator mediator, Consumer<String> onReady) {
+        String outgoing = mediator.configuration().getOutgoing();
+        if (outgoing == null) {
+            return;
+        }
+        Integer pending = pendingProducers.get(outgoing);
+        if (pending == null) {
+            return;
+        }
+        if (pending == 1) {
+            pendingProducers.remove(outgoing);
+            if (consumers.containsKey(outgoing)) {
+                onReady.accept(outgoing);
+            }
+        } else {
+            pendingProducers.put(outgoing, pending - 1);
+        }
+    }
+
+    /**
+     * @return the channels still awaited by some mediators.
+     */
+    Set<String> getAwaitedChannels() {
+        return new LinkedHashSet<>(consumers.keySet());
+    }
+
+    /**
+     * @param name the channel name, case insensitive
+     * @return the mediators producing the given channel
+     */
+    List<AbstractMediator> getProducersOf(String name) {
+        return producers.getOrDefault(name.toLowerCase(Locale.ROOT), Collections.emptyList());
+    }
+
+    /**
+     * Finds the cycles among the mediators still waiting for a channel, using Tarjan's algorithm on the graph whose
+     * edges go from a mediator to the mediators consuming its outgoing channel.
+     *
+     * @return the cycles, each one listing its mediators and their outgoing channels
+     */
+    List<String> describeCycles() {
+        List<AbstractMediator> remaining = consumers.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+        Tarjan tarjan = new Tarjan();
+        for (AbstractMediator mediator : remaining) {
+            if (!tarjan.index.containsKey(mediator)) {
+                tarjan.visit(mediator);
+            }
+        }
+        return tarjan.cycles;
+    }
+
+    private List<AbstractMediator> successors(AbstractMediator mediator) {
+        String outgoing = mediator.configuration().getOutgoing();
+        if (outgoing == null) {
+            return Collections.emptyList();
+        }
+        return consumers.getOrDefault(outgoing, Collections.emptyList());
+    }
+
+    private class Tarjan {
+        private final Map<AbstractMediator, Integer> index = new IdentityHashMap<>();
+        private final Map<AbstractMediator, Integer> lowLink = new IdentityHashMap<>();
+        private final Deque<AbstractMediator> stack = new ArrayDeque<>();
+        private final Set<AbstractMediator> onStack = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<String> cycles = new ArrayList<>();
+
+        private void visit(AbstractMediator mediator) {
+            int i = index.size();
+            index.put(mediator, i);
+            lowLink.put(mediator, i);
+            stack.push(mediator);
+            onStack.add(mediator);
+            for (AbstractMediator successor : successors(mediator)) {
+                if (!index.containsKey(successor)) {
+                    visit(successor);
+                    lowLink.put(mediator, Math.min(lowLink.get(mediator), lowLink.get(successor)));
+                } else if (onStack.contains(successor)) {
+                    lowLink.put(mediator, Math.min(lowLink.get(mediator), index.get(successor)));
+                }
+            }
+            if (lowLink.get(mediator).equals(index.get(mediator))) {
+                List<AbstractMediator> component = new ArrayList<>();
+                AbstractMediator member;
+                do {
+                    member = stack.pop();
+                    onStack.remove(member);
+                    component.add(member);
+                } while (member != mediator);
+                if (component.size() > 1 || successors(mediator).contains(mediator)) {
+                    Collections.reverse(component);
+                    cycles.add(component.stream()
+                            .map(m -> m.getMethodAsString() + " -> `" + m.configuration().getOutgoing() + "`")
+                            .collect(Collectors.joining(" -> ")));
+                }
+            }
+        }
+    }
+}
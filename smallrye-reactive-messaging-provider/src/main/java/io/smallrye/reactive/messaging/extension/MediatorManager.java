@@ -1,9 +1,16 @@
 package io.smallrye.reactive.messaging.extension;
 
 import java.lang.reflect.Constructor;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +29,7 @@ import javax.enterprise.inject.spi.BeanManager;
 import javax.enterprise.inject.spi.DeploymentException;
 import javax.inject.Inject;
 
+import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -37,6 +45,7 @@ import org.slf4j.LoggerFactory;
 import io.smallrye.reactive.messaging.AbstractMediator;
 import io.smallrye.reactive.messaging.ChannelRegistar;
 import io.smallrye.reactive.messaging.ChannelRegistry;
+import io.smallrye.reactive.messaging.ConfiguredMediatorConfiguration;
 import io.smallrye.reactive.messaging.Invoker;
 import io.smallrye.reactive.messaging.MediatorConfiguration;
 import io.smallrye.reactive.messaging.MediatorFactory;
@@ -44,6 +53,8 @@ import io.smallrye.reactive.messaging.Shape;
 import io.smallrye.reactive.messaging.WeavingException;
 import io.smallrye.reactive.messaging.annotations.Merge;
 import io.smallrye.reactive.messaging.annotations.OnOverflow;
+import io.smallrye.reactive.messaging.impl.WorkerPoolRegistry;
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
 
 /**
  * Class responsible for managing mediators
@@ -62,6 +73,26 @@ public class MediatorManager {
 
     private final List<AbstractMediator> mediators = new ArrayList<>();
 
+    /**
+     * The mediators not connected by the weaving, by incoming channel. They are connected when a publisher for their
+     * channel is registered.
+     */
+    private final Map<String, List<AbstractMediator>> waiting = new LinkedHashMap<>();
+
+    /**
+     * The subscribers registered by the mediators, the other ones being connected to the publishers of their channel.
+     */
+    private final Set<SubscriberBuilder<? extends Message, Void>> managedSubscribers = Collections
+            .newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * The pairs of publisher and subscriber connected to each other after the weaving. When both sides of a pair are
+     * registered concurrently, both registrations are notified with the other side already registered.
+     */
+    private final Set<Map.Entry<?, ?>> connections = new HashSet<>();
+
+    private final ChannelRegistry.Listener listener = new RuntimeWeaver();
+
     @Inject
     @ConfigProperty(name = "smallrye.messaging.emitter.default-buffer-size", defaultValue = "127")
     long defaultBufferSize;
@@ -70,9 +101,16 @@ public class MediatorManager {
     @Any
     Instance<ChannelRegistar> streamRegistars;
 
+    @Inject
+    @Any
+    Instance<MetricsProvider> metricsProviders;
+
     @Inject
     MediatorFactory mediatorFactory;
 
+    @Inject
+    Instance<Config> config;
+
     @Inject
     ChannelRegistry channelRegistry;
 
@@ -81,6 +119,10 @@ public class MediatorManager {
 
     private boolean initialized;
 
+    private WorkerPoolRegistry workerPoolRegistry;
+
+    private MetricsProvider metrics;
+
     public MediatorManager() {
         strictMode = Boolean.parseBoolean(System.getProperty(STRICT_MODE_PROPERTY, "false"));
         if (strictMode) {
@@ -118,9 +160,15 @@ public class MediatorManager {
 
     @PreDestroy
     void shutdown() {
+        if (initialized) {
+            channelRegistry.removeListener(listener);
+        }
         LOGGER.info("Cancel subscriptions");
         subscriptions.forEach(Subscription::cancel);
         subscriptions.clear();
+        if (workerPoolRegistry != null) {
+            workerPoolRegistry.shutdown();
+        }
     }
 
     public void initializeAndRun() {
@@ -132,10 +180,15 @@ public class MediatorManager {
         streamRegistars.stream().forEach(ChannelRegistar::initialize);
         Set<String> unmanagedSubscribers = channelRegistry.getOutgoingNames();
         LOGGER.info("Initializing mediators");
+        Config config = this.config.isUnsatisfied() ? null : this.config.get();
+        workerPoolRegistry = new WorkerPoolRegistry(config);
         collected.mediators()
-                .forEach(configuration -> {
+                .forEach(analyzed -> {
 
+                    MediatorConfiguration configuration = ConfiguredMediatorConfiguration.decorate(analyzed, config);
                     AbstractMediator mediator = createMediator(configuration);
+                    mediator.setWorkerPoolRegistry(workerPoolRegistry);
+                    mediator.setMetrics(metrics());
 
                     LOGGER.debug("Initializing {}", mediator.getMethodAsString());
 
@@ -180,6 +233,7 @@ public class MediatorManager {
                                 .methodAsString(),
                                 mediator.getConfiguration()
                                         .getIncoming());
+                        managedSubscribers.add(mediator.getComputedSubscriber());
                         channelRegistry.register(mediator.getConfiguration().getIncoming(), mediator.getComputedSubscriber());
                     }
                 });
@@ -194,52 +248,61 @@ public class MediatorManager {
     private void weaving(Set<String> unmanagedSubscribers) {
         // At that point all the publishers have been registered in the registry
         LOGGER.info("Connecting mediators");
-        List<AbstractMediator> unsatisfied = getAllNonSatisfiedMediators();
-
-        // This list contains the names of the streams that have bean connected and
+        MediatorGraph graph = new MediatorGraph(mediators);
         List<LazySource> lazy = new ArrayList<>();
-        while (!unsatisfied.isEmpty()) {
-            int numberOfUnsatisfiedBeforeLoop = unsatisfied.size();
-
-            unsatisfied.forEach(mediator -> {
-                LOGGER.info("Attempt to resolve {}", mediator.getMethodAsString());
-                List<PublisherBuilder<? extends Message>> sources = channelRegistry
-                        .getPublishers(mediator.configuration().getIncoming());
-                Optional<PublisherBuilder<? extends Message>> maybeSource = getAggregatedSource(sources, mediator, lazy);
-                maybeSource.ifPresent(publisher -> {
-                    mediator.connectToUpstream(publisher);
-                    LOGGER.info("Connecting {} to `{}` ({})", mediator.getMethodAsString(), mediator.configuration()
-                            .getIncoming(), publisher);
-                    if (mediator.configuration()
-                            .getOutgoing() != null) {
-                        channelRegistry.register(mediator.getConfiguration().getOutgoing(), mediator.getStream());
+        Map<AbstractMediator, String> unsatisfied = new LinkedHashMap<>();
+
+        // Connect the consumers of a channel once all the mediators producing it are connected
+        Deque<String> ready = graph.getReadyChannels();
+        while (!ready.isEmpty()) {
+            String channel = ready.poll();
+            for (AbstractMediator mediator : graph.takeConsumersOf(channel)) {
+                if (!connect(mediator, lazy)) {
+                    unsatisfied.put(mediator, "no publisher for `" + channel + "`");
+                }
+                graph.markResolved(mediator, ready::add);
+            }
+        }
+
+        Set<String> awaited = graph.getAwaitedChannels();
+        if (!awaited.isEmpty()) {
+            // The remaining mediators depend on each other. Connect them as soon as one publisher is available.
+            List<String> cycles = graph.describeCycles();
+            LOGGER.warn("Cycles detected between mediators: {}", cycles);
+            Deque<String> available = awaited.stream()
+                    .filter(channel -> !channelRegistry.getPublishers(channel).isEmpty())
+                    .collect(Collectors.toCollection(ArrayDeque::new));
+            while (!available.isEmpty()) {
+                for (AbstractMediator mediator : graph.takeConsumersOf(available.poll())) {
+                    if (connect(mediator, lazy) && mediator.configuration().getOutgoing() != null) {
+                        available.add(mediator.configuration().getOutgoing());
                     }
-                });
-            });
-
-            unsatisfied = getAllNonSatisfiedMediators();
-            int numberOfUnsatisfiedAfterLoop = unsatisfied.size();
-
-            if (numberOfUnsatisfiedAfterLoop == numberOfUnsatisfiedBeforeLoop) {
-                // Stale!
-                if (strictMode) {
-                    throw new WeavingException("Impossible to bind mediators, some mediators are not connected: "
-                            + unsatisfied.stream()
-                                    .map(m -> m.configuration()
-                                            .methodAsString())
-                                    .collect(Collectors.toList())
-                            + ", available publishers:" + channelRegistry.getIncomingNames() + ", "
-                            + "available emitters: " + channelRegistry.getEmitterNames());
-                } else {
-                    LOGGER.warn("Impossible to bind mediators, some mediators are not connected: {}", unsatisfied.stream()
-                            .map(m -> m.configuration()
-                                    .methodAsString())
-                            .collect(Collectors.toList()));
-                    LOGGER.warn("Available publishers: {}", channelRegistry.getIncomingNames());
-                    LOGGER.warn("Available emitters: {}", channelRegistry.getEmitterNames());
                 }
-                break;
             }
+            for (String channel : graph.getAwaitedChannels()) {
+                for (AbstractMediator mediator : graph.takeConsumersOf(channel)) {
+                    unsatisfied.put(mediator, "waiting for `" + channel + "`, part of or downstream of a cycle "
+                            + cycles);
+                }
+            }
+        }
+
+        if (!unsatisfied.isEmpty()) {
+            List<String> details = unsatisfied.entrySet().stream()
+                    .map(e -> e.getKey().getMethodAsString() + " (" + e.getValue() + ")")
+                    .collect(Collectors.toList());
+            if (strictMode) {
+                throw new WeavingException("Impossible to bind mediators, some mediators are not connected: "
+                        + details
+                        + ", available publishers:" + channelRegistry.getIncomingNames() + ", "
+                        + "available emitters: " + channelRegistry.getEmitterNames());
+            } else {
+                LOGGER.warn("Impossible to bind mediators, some mediators are not connected: {}", details);
+                LOGGER.warn("Available publishers: {}", channelRegistry.getIncomingNames());
+                LOGGER.warn("Available emitters: {}", channelRegistry.getEmitterNames());
+            }
+            unsatisfied.keySet().forEach(mediator -> waiting
+                    .computeIfAbsent(mediator.configuration().getIncoming(), k -> new ArrayList<>()).add(mediator));
         }
 
         // Inject lazy sources
@@ -254,7 +317,7 @@ public class MediatorManager {
 
         // We also need to connect mediator and emitter to un-managed subscribers
         for (String name : unmanagedSubscribers) {
-            List<AbstractMediator> list = lookupForMediatorsWithMatchingDownstream(name);
+            List<AbstractMediator> list = graph.getProducersOf(name);
             EmitterImpl emitter = (EmitterImpl) channelRegistry.getEmitter(name);
             List<SubscriberBuilder<? extends Message, Void>> subscribers = channelRegistry.getSubscribers(name);
             for (AbstractMediator mediator : list) {
@@ -284,22 +347,111 @@ public class MediatorManager {
         }
 
         initialized = true;
+        channelRegistry.addListener(listener);
     }
 
-    private List<AbstractMediator> lookupForMediatorsWithMatchingDownstream(String name) {
-        return mediators.stream()
-                .filter(m -> m.configuration()
-                        .getOutgoing() != null)
-                .filter(m -> m.configuration()
-                        .getOutgoing()
-                        .equalsIgnoreCase(name))
-                .collect(Collectors.toList());
+    /**
+     * Connects the mediator to the publishers of its incoming channel, and registers its outgoing stream.
+     *
+     * @return whether the mediator has been connected, {@code false} if there are no publisher for its channel
+     */
+    private boolean connect(AbstractMediator mediator, List<LazySource> lazy) {
+        LOGGER.info("Attempt to resolve {}", mediator.getMethodAsString());
+        List<PublisherBuilder<? extends Message>> sources = channelRegistry
+                .getPublishers(mediator.configuration().getIncoming());
+        Optional<PublisherBuilder<? extends Message>> maybeSource = getAggregatedSource(sources, mediator, lazy);
+        maybeSource.ifPresent(publisher -> {
+            mediator.connectToUpstream(publisher);
+            LOGGER.info("Connecting {} to `{}` ({})", mediator.getMethodAsString(), mediator.configuration()
+                    .getIncoming(), publisher);
+            if (mediator.configuration()
+                    .getOutgoing() != null) {
+                channelRegistry.register(mediator.getConfiguration().getOutgoing(), mediator.getStream());
+            }
+        });
+        return maybeSource.isPresent();
     }
 
-    private List<AbstractMediator> getAllNonSatisfiedMediators() {
-        return mediators.stream()
-                .filter(mediator -> !mediator.isConnected())
-                .collect(Collectors.toList());
+    /**
+     * Connects the channels registered after the weaving: the mediators waiting for a new publisher are connected to it,
+     * and the new publishers and subscribers not managed by a mediator are connected to each other. The streams already
+     * running are not modified: unregistering a channel, or registering an additional publisher for a channel already
+     * consumed, only affects the subsequent lookups.
+     */
+    private class RuntimeWeaver implements ChannelRegistry.Listener {
+
+        @Override
+        public void onPublisherRegistered(String name, PublisherBuilder<? extends Message> stream) {
+            synchronized (MediatorManager.this) {
+                List<AbstractMediator> list = waiting.remove(name);
+                if (list != null) {
+                    List<LazySource> lazy = new ArrayList<>();
+                    List<AbstractMediator> connected = new ArrayList<>();
+                    for (AbstractMediator mediator : list) {
+                        // Registering the outgoing stream of the mediator connects its own consumers
+                        if (connect(mediator, lazy)) {
+                            connected.add(mediator);
+                        } else {
+                            waiting.computeIfAbsent(name, k -> new ArrayList<>()).add(mediator);
+                        }
+                    }
+                    lazy.forEach(l -> l.configure(channelRegistry, LOGGER));
+                    connected.stream()
+                            .filter(m -> m.configuration().shape() == Shape.SUBSCRIBER)
+                            .forEach(AbstractMediator::run);
+                }
+                for (SubscriberBuilder<? extends Message, Void> subscriber : channelRegistry.getSubscribers(name)) {
+                    if (!managedSubscribers.contains(subscriber)) {
+                        wire(name, stream, subscriber);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onPublisherUnregistered(String name, PublisherBuilder<? extends Message> stream) {
+            synchronized (MediatorManager.this) {
+                // A new registration is connected again
+                connections.removeIf(pair -> pair.getKey() == stream);
+            }
+        }
+
+        @Override
+        public void onSubscriberRegistered(String name, SubscriberBuilder<? extends Message, Void> subscriber) {
+            synchronized (MediatorManager.this) {
+                if (managedSubscribers.contains(subscriber)) {
+                    return;
+                }
+                for (PublisherBuilder<? extends Message> stream : channelRegistry.getPublishers(name)) {
+                    wire(name, stream, subscriber);
+                }
+            }
+        }
+
+        @Override
+        public void onSubscriberUnregistered(String name, SubscriberBuilder<? extends Message, Void> subscriber) {
+            synchronized (MediatorManager.this) {
+                connections.removeIf(pair -> pair.getValue() == subscriber);
+            }
+        }
+
+        private void wire(String name, PublisherBuilder<? extends Message> stream,
+                SubscriberBuilder<? extends Message, Void> subscriber) {
+            if (connections.add(new AbstractMap.SimpleImmutableEntry<>(stream, subscriber))) {
+                LOGGER.info("Connecting publisher of `{}` to sink {}", name, subscriber);
+                stream.to((SubscriberBuilder) subscriber).run();
+            }
+        }
+    }
+
+    /**
+     * @return the provider combining the {@link MetricsProvider} beans, looked up on first use.
+     */
+    private synchronized MetricsProvider metrics() {
+        if (metrics == null) {
+            metrics = MetricsProvider.of(metricsProviders);
+        }
+        return metrics;
     }
 
     private AbstractMediator createMediator(MediatorConfiguration configuration) {
@@ -320,8 +472,10 @@ public class MediatorManager {
         Merge.Mode merge = mediator.getConfiguration()
                 .getMerge();
         if (merge != null) {
-            LazySource lazySource = new LazySource(mediator.configuration()
-                    .getIncoming(), merge);
+            LazySource lazySource = new LazySource(mediator.configuration().getIncoming(), merge,
+                    mediator.configuration().getMergeConcurrency(), mediator.configuration().getMergePrefetch(),
+                    mediator.configuration().isMergeFair(),
+                    metrics().forChannel(mediator.configuration().getIncoming()));
             lazy.add(lazySource);
             return Optional.of(ReactiveStreams.fromPublisher(lazySource));
         }
@@ -345,7 +499,8 @@ public class MediatorManager {
     }
 
     public void initializeEmitter(String name, String overFlowStrategy, long bufferSize, long defaultBufferSize) {
-        EmitterImpl<?> emitter = new EmitterImpl<>(name, overFlowStrategy, bufferSize, defaultBufferSize);
+        EmitterImpl<?> emitter = new EmitterImpl<>(name, overFlowStrategy, bufferSize, defaultBufferSize,
+                metrics().forChannel(name));
         Publisher<? extends Message<?>> publisher = emitter.getPublisher();
         channelRegistry.register(name, ReactiveStreams.fromPublisher(publisher));
         channelRegistry.register(name, emitter);
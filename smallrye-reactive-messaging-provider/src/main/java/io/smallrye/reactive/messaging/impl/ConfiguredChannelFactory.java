@@ -3,6 +3,7 @@ package io.smallrye.reactive.messaging.impl;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -17,12 +18,18 @@ import org.eclipse.microprofile.config.ConfigProvider;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.spi.*;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.smallrye.reactive.messaging.ChannelRegistar;
 import io.smallrye.reactive.messaging.ChannelRegistry;
+import io.smallrye.reactive.messaging.FlowablePrefetch;
+import io.smallrye.reactive.messaging.metrics.BackpressureMonitor;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+import io.smallrye.reactive.messaging.metrics.LineageTracker;
+import io.smallrye.reactive.messaging.metrics.MetricsProvider;
 
 /**
  * Look for stream factories and get instances.
@@ -38,6 +45,10 @@ public class ConfiguredChannelFactory implements ChannelRegistar {
     protected final Config config;
     protected final ChannelRegistry registry;
 
+    @Inject
+    @Any
+    Instance<MetricsProvider> metricsProviders;
+
     // CDI requirement for normal scoped beans
     ConfiguredChannelFactory() {
         this.incomingConnectorFactories = null;
@@ -119,15 +130,81 @@ public class ConfiguredChannelFactory implements ChannelRegistar {
     }
 
     void register(Map<String, ConnectorConfig> sourceConfiguration, Map<String, ConnectorConfig> sinkConfiguration) {
+        MetricsProvider metrics = metricsProviders == null ? MetricsProvider.NOOP
+                : MetricsProvider.of(metricsProviders);
         try {
-            sourceConfiguration.forEach((name, conf) -> registry.register(name, createPublisherBuilder(name, conf)));
-            sinkConfiguration.forEach((name, conf) -> registry.register(name, createSubscriberBuilder(name, conf)));
+            sourceConfiguration.forEach((name, conf) -> registry.register(name,
+                    produced(name, prefetched(name, createPublisherBuilder(name, conf), conf),
+                            metrics.forChannel(name))));
+            sinkConfiguration.forEach((name, conf) -> registry.register(name,
+                    consumed(createSubscriberBuilder(name, conf), metrics.forChannel(name))));
         } catch (RuntimeException e) {
             LOGGER.error("Unable to create the publisher or subscriber during initialization", e);
             throw e;
         }
     }
 
+    /**
+     * Requests the messages of a connector in batches, if the {@code prefetch} attribute of the channel is set. The
+     * {@code prefetch-replenish} attribute sets the number of messages consumed before requesting more, 3/4 of the
+     * prefetch by default, and the {@code prefetch-max-bytes} attribute the size of the prefetched messages above
+     * which no more messages are requested.
+     */
+    @SuppressWarnings("unchecked")
+    private static PublisherBuilder<? extends Message> prefetched(String name,
+            PublisherBuilder<? extends Message> source, Config config) {
+        Optional<Integer> prefetch = config.getOptionalValue("prefetch", Integer.class);
+        if (!prefetch.isPresent()) {
+            return source;
+        }
+        int requested = prefetch.get();
+        int replenish = config.getOptionalValue("prefetch-replenish", Integer.class)
+                .orElse(requested - (requested >> 2));
+        long maxBytes = config.getOptionalValue("prefetch-max-bytes", Long.class).orElse(0L);
+        try {
+            return ReactiveStreams.fromPublisher(new FlowablePrefetch<>(((PublisherBuilder<Message>) source).buildRs(),
+                    requested, replenish, maxBytes, FlowablePrefetch::sizeOf));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid prefetch configuration for the channel " + name, e);
+        }
+    }
+
+    /**
+     * Counts the messages emitted by a connector, if the metrics of the channel are enabled, and reports the
+     * backpressure waits of the channel, if they are traced. A sample of the messages is traced from the channel, if
+     * the metrics trace the lineage of the messages.
+     */
+    private static PublisherBuilder<? extends Message> produced(String name, PublisherBuilder<? extends Message> source,
+            ChannelMetrics metrics) {
+        LineageTracker tracker = LineageTracker.forIngress(name, metrics);
+        PublisherBuilder<? extends Message> traced = tracker == null ? source : source.peek(tracker::sample);
+        PublisherBuilder<? extends Message> counted = metrics.isEnabled()
+                ? traced.peek(message -> metrics.onProduced())
+                : traced;
+        if (!metrics.isTraced(ChannelMetrics.Operation.BACKPRESSURE)) {
+            return counted;
+        }
+        return ReactiveStreams.fromPublisher(BackpressureMonitor.monitor(counted.buildRs(), metrics));
+    }
+
+    /**
+     * Counts the messages received by a connector, if the metrics of the channel are enabled, and reports the traced
+     * messages as leaving the application.
+     */
+    @SuppressWarnings("unchecked")
+    private static SubscriberBuilder<? extends Message, Void> consumed(SubscriberBuilder<? extends Message, Void> sink,
+            ChannelMetrics metrics) {
+        if (!metrics.isEnabled()) {
+            return sink;
+        }
+        return ReactiveStreams.<Message> builder()
+                .map(message -> {
+                    metrics.onConsumed();
+                    return (Message) LineageTracker.egressToConnector(message, metrics);
+                })
+                .to((SubscriberBuilder<Message, Void>) sink);
+    }
+
     private static String getConnectorAttribute(Config config) {
         // This method looks for connector and type.
         // The availability has been checked when the config object has been created
@@ -1,84 +1,200 @@
 package io.smallrye.reactive.messaging.impl;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import javax.enterprise.context.ApplicationScoped;
 
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.smallrye.reactive.messaging.ChannelRegistry;
 import io.smallrye.reactive.messaging.annotations.Emitter;
 
+/**
+ * Default {@link ChannelRegistry}.
+ * <p>
+ * Lookups do not lock: the registry holds immutable lists of publishers and subscribers per channel, and immutable
+ * snapshots of the channel names. Modifications replace these lists and snapshots, and are serialized. The listeners
+ * are notified once the modification is visible.
+ */
 @ApplicationScoped
 public class InternalChannelRegistry implements ChannelRegistry {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(InternalChannelRegistry.class);
+
     private static final String NAME_MUST_BE_SET = "'name' must be set";
-    private final Map<String, List<PublisherBuilder<? extends Message>>> publishers = new HashMap<>();
-    private final Map<String, List<SubscriberBuilder<? extends Message, Void>>> subscribers = new HashMap<>();
-    private final Map<String, Emitter<?>> emitters = new HashMap<>();
+    private final ConcurrentMap<String, List<PublisherBuilder<? extends Message>>> publishers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<SubscriberBuilder<? extends Message, Void>>> subscribers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Emitter<?>> emitters = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Set<String> incomingNames = Collections.emptySet();
+    private volatile Set<String> outgoingNames = Collections.emptySet();
+    private volatile Set<String> emitterNames = Collections.emptySet();
 
     @Override
-    public synchronized PublisherBuilder<? extends Message> register(String name, PublisherBuilder<? extends Message> stream) {
+    public PublisherBuilder<? extends Message> register(String name, PublisherBuilder<? extends Message> stream) {
         Objects.requireNonNull(name, NAME_MUST_BE_SET);
         Objects.requireNonNull(stream, "'stream' must be set");
-        register(publishers, name, stream);
+        synchronized (this) {
+            add(publishers, name, stream);
+            incomingNames = snapshot(publishers);
+        }
+        fire(l -> l.onPublisherRegistered(name, stream));
         return stream;
     }
 
     @Override
-    public synchronized SubscriberBuilder<? extends Message, Void> register(String name,
+    public SubscriberBuilder<? extends Message, Void> register(String name,
             SubscriberBuilder<? extends Message, Void> subscriber) {
         Objects.requireNonNull(name, NAME_MUST_BE_SET);
         Objects.requireNonNull(subscriber, "'subscriber' must be set");
-        register(subscribers, name, subscriber);
+        synchronized (this) {
+            add(subscribers, name, subscriber);
+            outgoingNames = snapshot(subscribers);
+        }
+        fire(l -> l.onSubscriberRegistered(name, subscriber));
         return subscriber;
     }
 
     @Override
-    public synchronized void register(String name, Emitter<?> emitter) {
+    public void register(String name, Emitter<?> emitter) {
         Objects.requireNonNull(name, NAME_MUST_BE_SET);
         Objects.requireNonNull(emitter, "'emitter' must be set");
-        emitters.put(name, emitter);
+        synchronized (this) {
+            emitters.put(name, emitter);
+            emitterNames = snapshot(emitters);
+        }
+        fire(l -> l.onEmitterRegistered(name, emitter));
+    }
+
+    @Override
+    public boolean unregister(String name, PublisherBuilder<? extends Message> stream) {
+        Objects.requireNonNull(name, NAME_MUST_BE_SET);
+        Objects.requireNonNull(stream, "'stream' must be set");
+        synchronized (this) {
+            if (!remove(publishers, name, stream)) {
+                return false;
+            }
+            incomingNames = snapshot(publishers);
+        }
+        fire(l -> l.onPublisherUnregistered(name, stream));
+        return true;
     }
 
     @Override
-    public synchronized List<PublisherBuilder<? extends Message>> getPublishers(String name) {
+    public boolean unregister(String name, SubscriberBuilder<? extends Message, Void> subscriber) {
+        Objects.requireNonNull(name, NAME_MUST_BE_SET);
+        Objects.requireNonNull(subscriber, "'subscriber' must be set");
+        synchronized (this) {
+            if (!remove(subscribers, name, subscriber)) {
+                return false;
+            }
+            outgoingNames = snapshot(subscribers);
+        }
+        fire(l -> l.onSubscriberUnregistered(name, subscriber));
+        return true;
+    }
+
+    @Override
+    public boolean unregister(String name, Emitter<?> emitter) {
+        Objects.requireNonNull(name, NAME_MUST_BE_SET);
+        Objects.requireNonNull(emitter, "'emitter' must be set");
+        synchronized (this) {
+            if (!emitters.remove(name, emitter)) {
+                return false;
+            }
+            emitterNames = snapshot(emitters);
+        }
+        fire(l -> l.onEmitterUnregistered(name, emitter));
+        return true;
+    }
+
+    @Override
+    public void addListener(Listener listener) {
+        listeners.add(Objects.requireNonNull(listener, "'listener' must be set"));
+    }
+
+    @Override
+    public void removeListener(Listener listener) {
+        listeners.remove(Objects.requireNonNull(listener, "'listener' must be set"));
+    }
+
+    @Override
+    public List<PublisherBuilder<? extends Message>> getPublishers(String name) {
         Objects.requireNonNull(name, NAME_MUST_BE_SET);
         return publishers.getOrDefault(name, Collections.emptyList());
     }
 
     @Override
-    public synchronized Emitter<?> getEmitter(String name) {
+    public Emitter<?> getEmitter(String name) {
         Objects.requireNonNull(name, NAME_MUST_BE_SET);
         return emitters.get(name);
     }
 
     @Override
-    public synchronized List<SubscriberBuilder<? extends Message, Void>> getSubscribers(String name) {
+    public List<SubscriberBuilder<? extends Message, Void>> getSubscribers(String name) {
         Objects.requireNonNull(name, NAME_MUST_BE_SET);
         return subscribers.getOrDefault(name, Collections.emptyList());
     }
 
-    private <T> void register(Map<String, List<T>> multimap, String name, T item) {
-        List<T> list = multimap.computeIfAbsent(name, key -> new ArrayList<>());
-        list.add(item);
+    private <T> void add(ConcurrentMap<String, List<T>> multimap, String name, T item) {
+        multimap.compute(name, (key, list) -> {
+            List<T> copy = list == null ? new ArrayList<>(1) : new ArrayList<>(list);
+            copy.add(item);
+            return Collections.unmodifiableList(copy);
+        });
+    }
+
+    private <T> boolean remove(ConcurrentMap<String, List<T>> multimap, String name, T item) {
+        List<T> list = multimap.get(name);
+        if (list == null || !list.contains(item)) {
+            return false;
+        }
+        List<T> copy = new ArrayList<>(list);
+        copy.remove(item);
+        if (copy.isEmpty()) {
+            multimap.remove(name);
+        } else {
+            multimap.put(name, Collections.unmodifiableList(copy));
+        }
+        return true;
+    }
+
+    private static Set<String> snapshot(Map<String, ?> map) {
+        return Collections.unmodifiableSet(new HashSet<>(map.keySet()));
+    }
+
+    private void fire(Consumer<Listener> notification) {
+        for (Listener listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                LOGGER.error("A channel registry listener failed", e);
+            }
+        }
     }
 
     @Override
-    public synchronized Set<String> getIncomingNames() {
-        return new HashSet<>(publishers.keySet());
+    public Set<String> getIncomingNames() {
+        return incomingNames;
     }
 
     @Override
-    public synchronized Set<String> getOutgoingNames() {
-        return new HashSet<>(subscribers.keySet());
+    public Set<String> getOutgoingNames() {
+        return outgoingNames;
     }
 
     @Override
-    public synchronized Set<String> getEmitterNames() {
-        return new HashSet<>(emitters.keySet());
+    public Set<String> getEmitterNames() {
+        return emitterNames;
     }
 
 }
@@ -0,0 +1,29 @@
+package io.smallrye.reactive.messaging.impl;
+
+import java.util.concurrent.Executor;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+/**
+ * Captures the Vert.x context of the caller. Isolated in its own class as Vert.x is an optional dependency, so it must
+ * only be loaded once its presence has been checked.
+ */
+final class VertxContexts {
+
+    private VertxContexts() {
+        // Avoid direct instantiation.
+    }
+
+    /**
+     * @return an executor running the tasks on the context of the caller, {@code null} if the caller does not run on
+     *         a Vert.x context or runs on a worker context.
+     */
+    static Executor current() {
+        Context context = Vertx.currentContext();
+        if (context == null || !Context.isOnEventLoopThread()) {
+            return null;
+        }
+        return task -> context.runOnContext(x -> task.run());
+    }
+}
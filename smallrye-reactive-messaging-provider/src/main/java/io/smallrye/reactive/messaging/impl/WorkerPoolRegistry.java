@@ -0,0 +1,224 @@
+package io.smallrye.reactive.messaging.impl;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Manages the named worker pools executing the methods annotated with
+ * {@link io.smallrye.reactive.messaging.annotations.Blocking}.
+ * <p>
+ * Each pool is created on first use, with the following configuration:
+ * <ul>
+ * <li>{@code smallrye.messaging.worker.[pool].max-concurrency} - the maximum number of threads, and so of concurrent
+ * invocations, 20 by default</li>
+ * <li>{@code smallrye.messaging.worker.[pool].virtual-threads} - whether the pool creates a virtual thread per
+ * invocation, {@code false} by default. Ignored, with a warning, if the JVM does not support virtual threads</li>
+ * </ul>
+ * The completion of the work is signaled on the context of the caller if it runs on a Vert.x context, and on the
+ * worker thread otherwise.
+ * <p>
+ * The registry also manages the lanes of the partitioned channels, see {@link #getLane(String, int)}.
+ */
+public class WorkerPoolRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerPoolRegistry.class);
+
+    public static final String PREFIX = "smallrye.messaging.worker.";
+    public static final int DEFAULT_MAX_CONCURRENCY = 20;
+
+    private static final boolean VERTX_PRESENT = isPresent("io.vertx.core.Vertx");
+
+    private final Config config;
+    private final Map<String, WorkerPool> pools = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorService> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * @param config the config, may be {@code null}, the pools use the defaults then.
+     */
+    public WorkerPoolRegistry(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * @param pool the pool name
+     * @return the maximum number of concurrent invocations on the pool.
+     */
+    public int getMaxConcurrency(String pool) {
+        return get(pool).maxConcurrency;
+    }
+
+    /**
+     * Executes the given work on the given pool.
+     *
+     * @param pool the pool name, must not be {@code null}
+     * @param work the work, must not be {@code null}
+     * @param <T> the type of result
+     * @return a stage completed with the result of the work, on the caller context if any.
+     */
+    public <T> CompletionStage<T> executeWork(String pool, Supplier<T> work) {
+        return executeWork(pool, captureContext(), work);
+    }
+
+    /**
+     * Executes the given work on the given pool, and completes the returned stage using the given context.
+     *
+     * @param pool the pool name, must not be {@code null}
+     * @param context the context, generally returned by {@link #captureContext()}, {@code null} to complete the stage
+     *        on the worker thread
+     * @param work the work, must not be {@code null}
+     * @param <T> the type of result
+     * @return a stage completed with the result of the work.
+     */
+    public <T> CompletionStage<T> executeWork(String pool, Executor context, Supplier<T> work) {
+        Objects.requireNonNull(work, "'work' must be set");
+        CompletableFuture<T> future = new CompletableFuture<>();
+        get(pool).executor.execute(() -> {
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = work.get();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            if (context == null) {
+                complete(future, result, failure);
+            } else {
+                T r = result;
+                Throwable f = failure;
+                context.execute(() -> complete(future, r, f));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Returns the executor of a lane of a partitioned channel. Each lane is backed by a single thread named
+     * {@code [channel]-lane-[lane]}, created on first use and released when idle. The executor is shared by all the
+     * subscriptions to the channel, so the number of threads is bounded by the number of lanes, and the tasks submitted
+     * to a lane are executed sequentially.
+     *
+     * @param channel the name of the partitioned channel, must not be {@code null}
+     * @param lane the lane index
+     * @return the executor of the lane, shut down with the registry.
+     */
+    public Executor getLane(String channel, int lane) {
+        Objects.requireNonNull(channel, "'channel' must be set");
+        return lanes.computeIfAbsent(channel + "-lane-" + lane, name -> {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    /**
+     * @return an executor running the tasks on the Vert.x context of the caller, {@code null} if the caller does not
+     *         run on an event loop.
+     */
+    public static Executor captureContext() {
+        return VERTX_PRESENT ? VertxContexts.current() : null;
+    }
+
+    /**
+     * Shuts down the pools and the lanes. The work in progress is not interrupted.
+     */
+    public void shutdown() {
+        pools.values().forEach(pool -> pool.executor.shutdown());
+        pools.clear();
+        lanes.values().forEach(ExecutorService::shutdown);
+        lanes.clear();
+    }
+
+    private WorkerPool get(String pool) {
+        Objects.requireNonNull(pool, "'pool' must be set");
+        return pools.computeIfAbsent(pool, this::create);
+    }
+
+    private WorkerPool create(String name) {
+        int maxConcurrency = getValue(name, "max-concurrency", Integer.class, DEFAULT_MAX_CONCURRENCY);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Invalid worker pool " + name
+                    + " - the max-concurrency must be strictly positive, " + maxConcurrency + " given");
+        }
+        if (getValue(name, "virtual-threads", Boolean.class, false)) {
+            ExecutorService executor = createVirtualThreadExecutor();
+            if (executor != null) {
+                LOGGER.debug("Worker pool {} uses virtual threads", name);
+                return new WorkerPool(executor, maxConcurrency);
+            }
+            LOGGER.warn("Virtual threads are not supported by this JVM, the worker pool {} uses platform threads", name);
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-worker-" + count.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return new WorkerPool(executor, maxConcurrency);
+    }
+
+    private <T> T getValue(String pool, String attribute, Class<T> type, T defaultValue) {
+        if (config == null) {
+            return defaultValue;
+        }
+        return config.getOptionalValue(PREFIX + pool + "." + attribute, type).orElse(defaultValue);
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, T result, Throwable failure) {
+        if (failure != null) {
+            future.completeExceptionally(failure);
+        } else {
+            future.complete(result);
+        }
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static boolean isPresent(String className) {
+        try {
+            Class.forName(className, false, WorkerPoolRegistry.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static class WorkerPool {
+        private final ExecutorService executor;
+        private final int maxConcurrency;
+
+        WorkerPool(ExecutorService executor, int maxConcurrency) {
+            this.executor = executor;
+            this.maxConcurrency = maxConcurrency;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.reactivex.Flowable;
+import io.reactivex.FlowableSubscriber;
+import io.reactivex.internal.subscriptions.SubscriptionHelper;
+import io.reactivex.internal.util.BackpressureHelper;
+
+/**
+ * Reports the backpressure waits of a stream as {@link ChannelMetrics.Operation#BACKPRESSURE} spans: a span starts
+ * when an item consumes the last outstanding request of the subscriber, and ends when the subscriber requests more
+ * items, or cancels. The waits before the first request are not reported.
+ * <p>
+ * The items and the signals are forwarded as they are.
+ *
+ * @param <T> the type of items
+ */
+public final class BackpressureMonitor<T> extends Flowable<T> {
+
+    private final Publisher<T> source;
+    private final ChannelMetrics metrics;
+
+    private BackpressureMonitor(Publisher<T> source, ChannelMetrics metrics) {
+        this.source = source;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Monitors the given publisher, if the metrics trace the backpressure waits.
+     *
+     * @param source the publisher
+     * @param metrics the metrics of the channel
+     * @param <T> the type of items
+     * @return the monitored publisher, or {@code source} itself if it is a {@link Flowable}
+     */
+    public static <T> Flowable<T> monitor(Publisher<T> source, ChannelMetrics metrics) {
+        if (!metrics.isTraced(ChannelMetrics.Operation.BACKPRESSURE)) {
+            return Flowable.fromPublisher(source);
+        }
+        return new BackpressureMonitor<>(source, metrics);
+    }
+
+    @Override
+    protected void subscribeActual(Subscriber<? super T> subscriber) {
+        source.subscribe(new MonitorSubscriber<>(subscriber, metrics));
+    }
+
+    private static final class MonitorSubscriber<T> implements FlowableSubscriber<T>, Subscription {
+
+        private final Subscriber<? super T> downstream;
+        private final ChannelMetrics metrics;
+        private final AtomicLong outstanding = new AtomicLong();
+        private final AtomicReference<Object> wait = new AtomicReference<>();
+        private Subscription upstream;
+
+        MonitorSubscriber(Subscriber<? super T> downstream, ChannelMetrics metrics) {
+            this.downstream = downstream;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (SubscriptionHelper.validate(this.upstream, subscription)) {
+                this.upstream = subscription;
+                downstream.onSubscribe(this);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            // Unbounded requests are never decremented
+            if (outstanding.get() != Long.MAX_VALUE && outstanding.decrementAndGet() == 0) {
+                Object span = metrics.startSpan(ChannelMetrics.Operation.BACKPRESSURE, null);
+                if (span != null) {
+                    wait.set(span);
+                    // A request may have been received while the span was being started
+                    if (outstanding.get() != 0) {
+                        endWait();
+                    }
+                }
+            }
+            downstream.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            endWait();
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            endWait();
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (SubscriptionHelper.validate(n)) {
+                BackpressureHelper.add(outstanding, n);
+                endWait();
+                upstream.request(n);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            endWait();
+            upstream.cancel();
+        }
+
+        private void endWait() {
+            Object span = wait.getAndSet(null);
+            if (span != null) {
+                metrics.endSpan(span, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.function.LongSupplier;
+
+import io.smallrye.reactive.messaging.Lineage;
+
+/**
+ * Receives the events of a channel: the mediators, emitters and connectors of the channel report through it.
+ * <p>
+ * The methods are called on the message path, possibly concurrently: implementations must be thread-safe and cheap,
+ * typically updating lock-free counters. The components check {@link #isEnabled()} once, when the streams are built,
+ * so the disabled metrics do not cost anything per message. Reading the clock being the most expensive part, only one
+ * duration out of {@link #getTimingInterval()} is measured.
+ * <p>
+ * Event recorders, such as the flight recorder, can also follow each {@link Operation} individually, as a span
+ * started by {@link #startSpan(Operation, String)} and ended by {@link #endSpan(Object, Throwable)}. The spans are
+ * only reported for the operations accepted by {@link #isTraced(Operation)}, whether the other events are enabled or
+ * not.
+ * <p>
+ * The end-to-end latency is measured on a sample of the messages, carrying their {@link Lineage}: one out of
+ * {@link #getLineageSampling()} messages entering the application through a channel is traced, and reported by the
+ * channel through which it leaves the application.
+ */
+public interface ChannelMetrics {
+
+    /**
+     * The operations reported as spans.
+     */
+    enum Operation {
+        /**
+         * The invocation of a method for a message of the channel, until the returned {@code CompletionStage}
+         * completes for asynchronous methods.
+         */
+        INVOCATION,
+        /**
+         * The acknowledgement of a message of the channel, until the returned {@code CompletionStage} completes.
+         */
+        ACK,
+        /**
+         * A backpressure wait: the time during which the consumers of the channel have no outstanding request.
+         */
+        BACKPRESSURE,
+        /**
+         * The connection of a connector to its broker.
+         */
+        CONNECT,
+        /**
+         * The reconnection of a connector after a failure, including the delay before the new attempt.
+         */
+        RECONNECT,
+        /**
+         * The commit of the position of a connector, such as the Kafka offsets.
+         */
+        COMMIT,
+        /**
+         * An overflow of an emitter of the channel: a message has been dropped, or has replaced a previous one, or the
+         * buffer is full. The span is ended as soon as it is started, its detail is the overflow strategy.
+         */
+        OVERFLOW
+    }
+
+    /**
+     * Metrics ignoring all the events.
+     */
+    ChannelMetrics NOOP = new ChannelMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * @return whether the events are recorded, {@code true} by default. The spans only depend on
+     *         {@link #isTraced(Operation)}.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * @return the number of invocations, and of acknowledgements, between two measured durations, 1 to measure them
+     *         all.
+     */
+    default int getTimingInterval() {
+        return 1;
+    }
+
+    /**
+     * @return one out of how many messages entering the application through the channel are traced, 0 to trace none.
+     *         By default, the messages are not traced.
+     */
+    default int getLineageSampling() {
+        return 0;
+    }
+
+    /**
+     * A message has been emitted on the channel, by a method, an emitter or a connector.
+     */
+    default void onProduced() {
+        // Do nothing by default.
+    }
+
+    /**
+     * A message of the channel has been delivered to a method or a connector.
+     */
+    default void onConsumed() {
+        // Do nothing by default.
+    }
+
+    /**
+     * A method consuming the channel has been invoked.
+     */
+    default void onInvocationStarted() {
+        // Do nothing by default.
+    }
+
+    /**
+     * An invocation has completed. For methods returning a {@code CompletionStage}, when the stage completes.
+     *
+     * @param durationNanos the duration of the invocation, in nanoseconds, negative if it has not been measured
+     */
+    default void onInvocationCompleted(long durationNanos) {
+        // Do nothing by default.
+    }
+
+    /**
+     * The acknowledgement of a message of the channel has completed successfully.
+     *
+     * @param durationNanos the time between the acknowledgement request and its completion, in nanoseconds, negative
+     *        if it has not been measured
+     */
+    default void onAck(long durationNanos) {
+        // Do nothing by default.
+    }
+
+    /**
+     * The acknowledgement of a message of the channel has failed.
+     *
+     * @param failure the failure
+     */
+    default void onNack(Throwable failure) {
+        // Do nothing by default.
+    }
+
+    /**
+     * A traced message has left the application through the channel: it has been sent to a connector, or consumed by
+     * a method without outgoing channel.
+     *
+     * @param lineage the lineage of the message
+     * @param latencyNanos the time elapsed since the message has entered the application, in nanoseconds
+     */
+    default void onEgress(Lineage lineage, long latencyNanos) {
+        // Do nothing by default.
+    }
+
+    /**
+     * The acknowledgement of a traced message, which has left the application through the channel, has completed
+     * successfully.
+     *
+     * @param lineage the lineage of the message
+     * @param latencyNanos the time elapsed between the entrance of the message in the application and the completion
+     *        of its acknowledgement, in nanoseconds
+     */
+    default void onLineageAck(Lineage lineage, long latencyNanos) {
+        // Do nothing by default.
+    }
+
+    /**
+     * Registers a queue holding messages of the channel, such as the buffer of an emitter. The depth of the channel is
+     * the sum of the depths of its queues.
+     *
+     * @param depth the supplier of the number of messages in the queue, called when the metrics are read
+     */
+    default void registerQueue(LongSupplier depth) {
+        // Do nothing by default.
+    }
+
+    /**
+     * Checked once, when the streams are built, so the operations that are not traced do not cost anything. Providers
+     * whose recordings can start at any time should accept the operations they may record, and return {@code null}
+     * from {@link #startSpan(Operation, String)} while they are not recording.
+     *
+     * @param operation the operation
+     * @return whether the spans of the given operation are reported, {@code false} by default.
+     */
+    default boolean isTraced(Operation operation) {
+        return false;
+    }
+
+    /**
+     * An operation of the channel has started. Unlike the other events, the spans are reported for all the
+     * operations, whatever the {@linkplain #getTimingInterval() timing interval}. Implementations should return
+     * {@code null} while they are not recording, so nothing is retained.
+     *
+     * @param operation the operation
+     * @param detail the details of the operation, such as the invoked method, may be {@code null}
+     * @return the handle passed to {@link #endSpan(Object, Throwable)}, {@code null} if the span is not recorded
+     */
+    default Object startSpan(Operation operation, String detail) {
+        return null;
+    }
+
+    /**
+     * An operation started by {@link #startSpan(Operation, String)} has completed, possibly on another thread.
+     *
+     * @param span the handle returned by {@link #startSpan(Operation, String)}, never {@code null}
+     * @param failure the failure, {@code null} if the operation succeeded
+     */
+    default void endSpan(Object span, Throwable failure) {
+        // Do nothing by default.
+    }
+}
@@ -0,0 +1,254 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import io.smallrye.reactive.messaging.Lineage;
+
+/**
+ * {@link ChannelMetrics} recording the events in lock-free counters and histograms, which can be read at any time,
+ * for instance to be exposed by a metrics library.
+ * <p>
+ * The counters are exact, while the histograms only record the sampled durations, one out of
+ * {@link #getTimingInterval()}. The end-to-end latencies of the traced messages leaving the application through the
+ * channel are recorded by origin, see {@link #getLineages()}.
+ */
+public class ChannelStatistics implements ChannelMetrics {
+
+    /**
+     * The default number of invocations, and of acknowledgements, between two measured durations.
+     */
+    public static final int DEFAULT_TIMING_INTERVAL = 16;
+
+    private final String channel;
+    private final int timingInterval;
+    private final int lineageSampling;
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder consumed = new LongAdder();
+    private final LongAdder acked = new LongAdder();
+    private final LongAdder nacked = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram ackTime = new LatencyHistogram();
+    private final LatencyHistogram invocationTime = new LatencyHistogram();
+    private final List<LongSupplier> queues = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<String, LineageStatistics> lineages = new ConcurrentHashMap<>();
+
+    public ChannelStatistics(String channel) {
+        this(channel, DEFAULT_TIMING_INTERVAL);
+    }
+
+    /**
+     * @param channel the channel name
+     * @param timingInterval the number of invocations, and of acknowledgements, between two measured durations, 1 to
+     *        measure them all
+     */
+    public ChannelStatistics(String channel, int timingInterval) {
+        this(channel, timingInterval, 0);
+    }
+
+    /**
+     * @param channel the channel name
+     * @param timingInterval the number of invocations, and of acknowledgements, between two measured durations, 1 to
+     *        measure them all
+     * @param lineageSampling one out of how many messages entering the application through the channel are traced, 0
+     *        to trace none
+     */
+    public ChannelStatistics(String channel, int timingInterval, int lineageSampling) {
+        if (timingInterval < 1) {
+            throw new IllegalArgumentException("The timing interval must be strictly positive, " + timingInterval
+                    + " given");
+        }
+        if (lineageSampling < 0) {
+            throw new IllegalArgumentException("The lineage sampling must be positive, " + lineageSampling
+                    + " given");
+        }
+        this.channel = channel;
+        this.timingInterval = timingInterval;
+        this.lineageSampling = lineageSampling;
+    }
+
+    @Override
+    public int getTimingInterval() {
+        return timingInterval;
+    }
+
+    @Override
+    public int getLineageSampling() {
+        return lineageSampling;
+    }
+
+    @Override
+    public void onProduced() {
+        produced.increment();
+    }
+
+    @Override
+    public void onConsumed() {
+        consumed.increment();
+    }
+
+    @Override
+    public void onInvocationStarted() {
+        inFlight.increment();
+    }
+
+    @Override
+    public void onInvocationCompleted(long durationNanos) {
+        inFlight.decrement();
+        if (durationNanos >= 0) {
+            invocationTime.record(durationNanos);
+        }
+    }
+
+    @Override
+    public void onAck(long durationNanos) {
+        acked.increment();
+        if (durationNanos >= 0) {
+            ackTime.record(durationNanos);
+        }
+    }
+
+    @Override
+    public void onNack(Throwable failure) {
+        nacked.increment();
+    }
+
+    @Override
+    public void onEgress(Lineage lineage, long latencyNanos) {
+        lineage(lineage.getOrigin()).egressTime.record(latencyNanos);
+    }
+
+    @Override
+    public void onLineageAck(Lineage lineage, long latencyNanos) {
+        lineage(lineage.getOrigin()).ackTime.record(latencyNanos);
+    }
+
+    private LineageStatistics lineage(String origin) {
+        LineageStatistics statistics = lineages.get(origin);
+        if (statistics != null) {
+            return statistics;
+        }
+        LineageStatistics created = new LineageStatistics(origin);
+        statistics = lineages.putIfAbsent(origin, created);
+        if (statistics != null) {
+            return statistics;
+        }
+        onNewLineage(created);
+        return created;
+    }
+
+    /**
+     * Called the first time a traced message coming from a new origin leaves the application through the channel,
+     * for instance to register the corresponding metrics. Does nothing by default.
+     *
+     * @param statistics the statistics of the messages coming from the origin
+     */
+    protected void onNewLineage(LineageStatistics statistics) {
+        // Do nothing by default.
+    }
+
+    @Override
+    public void registerQueue(LongSupplier depth) {
+        queues.add(depth);
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public long getProduced() {
+        return produced.sum();
+    }
+
+    public long getConsumed() {
+        return consumed.sum();
+    }
+
+    public long getAcked() {
+        return acked.sum();
+    }
+
+    public long getNacked() {
+        return nacked.sum();
+    }
+
+    /**
+     * @return the number of invocations in progress.
+     */
+    public long getInFlight() {
+        return Math.max(inFlight.sum(), 0L);
+    }
+
+    /**
+     * @return the number of messages waiting in the queues of the channel.
+     */
+    public long getQueueDepth() {
+        long depth = 0;
+        for (LongSupplier queue : queues) {
+            depth += queue.getAsLong();
+        }
+        return Math.max(depth, 0L);
+    }
+
+    /**
+     * @return the sampled durations of the acknowledgements, in nanoseconds.
+     */
+    public LatencyHistogram getAckTime() {
+        return ackTime;
+    }
+
+    /**
+     * @return the sampled durations of the invocations, in nanoseconds.
+     */
+    public LatencyHistogram getInvocationTime() {
+        return invocationTime;
+    }
+
+    /**
+     * @return the statistics of the traced messages which have left the application through the channel, by origin.
+     */
+    public Map<String, LineageStatistics> getLineages() {
+        return Collections.unmodifiableMap(lineages);
+    }
+
+    /**
+     * The end-to-end latencies of the traced messages going from an origin channel to the channel of the statistics.
+     */
+    public static final class LineageStatistics {
+        private final String origin;
+        private final LatencyHistogram egressTime = new LatencyHistogram();
+        private final LatencyHistogram ackTime = new LatencyHistogram();
+
+        private LineageStatistics(String origin) {
+            this.origin = origin;
+        }
+
+        /**
+         * @return the channel through which the messages have entered the application.
+         */
+        public String getOrigin() {
+            return origin;
+        }
+
+        /**
+         * @return the time between the entrance of the messages in the application and their exit, in nanoseconds.
+         */
+        public LatencyHistogram getEgressTime() {
+            return egressTime;
+        }
+
+        /**
+         * @return the time between the entrance of the messages in the application and the completion of their
+         *         acknowledgement, in nanoseconds.
+         */
+        public LatencyHistogram getAckTime() {
+            return ackTime;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+import io.smallrye.reactive.messaging.Lineage;
+
+/**
+ * Forwards the events to several {@link ChannelMetrics}.
+ */
+class CompositeChannelMetrics implements ChannelMetrics {
+
+    private final ChannelMetrics[] delegates;
+    private final boolean enabled;
+    private final int timingInterval;
+    private final int lineageSampling;
+
+    private CompositeChannelMetrics(ChannelMetrics[] delegates) {
+        this.delegates = delegates;
+        boolean any = false;
+        int interval = Integer.MAX_VALUE;
+        int sampling = Integer.MAX_VALUE;
+        for (ChannelMetrics delegate : delegates) {
+            if (delegate.isEnabled()) {
+                any = true;
+                interval = Math.min(interval, delegate.getTimingInterval());
+                if (delegate.getLineageSampling() > 0) {
+                    sampling = Math.min(sampling, delegate.getLineageSampling());
+                }
+            }
+        }
+        this.enabled = any;
+        this.timingInterval = any ? interval : 1;
+        this.lineageSampling = sampling == Integer.MAX_VALUE ? 0 : sampling;
+    }
+
+    static ChannelMetrics of(String channel, List<MetricsProvider> providers) {
+        List<ChannelMetrics> enabled = providers.stream()
+                .map(provider -> provider.forChannel(channel))
+                .filter(metrics -> metrics.isEnabled() || isTraced(metrics))
+                .collect(Collectors.toList());
+        if (enabled.isEmpty()) {
+            return NOOP;
+        }
+        if (enabled.size() == 1) {
+            return enabled.get(0);
+        }
+        return new CompositeChannelMetrics(enabled.toArray(new ChannelMetrics[0]));
+    }
+
+    private static boolean isTraced(ChannelMetrics metrics) {
+        for (Operation operation : Operation.values()) {
+            if (metrics.isTraced(operation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public int getTimingInterval() {
+        return timingInterval;
+    }
+
+    @Override
+    public int getLineageSampling() {
+        return lineageSampling;
+    }
+
+    @Override
+    public void onProduced() {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.onProduced();
+        }
+    }
+
+    @Override
+    public void onConsumed() {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.onConsumed();
+        }
+    }
+
+    @Override
+    public void onInvocationStarted() {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.onInvocationStarted();
+        }
+    }
+
+    @Override
+    public void onInvocationCompleted(long durationNanos) {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.onInvocationCompleted(durationNanos);
+        }
+    }
+
+    @Override
+    public void onAck(long durationNanos) {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.onAck(durationNanos);
+        }
+    }
+
+    @Override
+    public void onNack(Throwable failure) {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.onNack(failure);
+        }
+    }
+
+    @Override
+    public void registerQueue(LongSupplier depth) {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.registerQueue(depth);
+        }
+    }
+
+    @Override
+    public void onEgress(Lineage lineage, long latencyNanos) {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.onEgress(lineage, latencyNanos);
+        }
+    }
+
+    @Override
+    public void onLineageAck(Lineage lineage, long latencyNanos) {
+        for (ChannelMetrics delegate : delegates) {
+            delegate.onLineageAck(lineage, latencyNanos);
+        }
+    }
+
+    @Override
+    public boolean isTraced(Operation operation) {
+        for (ChannelMetrics delegate : delegates) {
+            if (delegate.isTraced(operation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the handles of the delegates, by index, {@code null} if none of them records the span.
+     */
+    @Override
+    public Object startSpan(Operation operation, String detail) {
+        Object[] spans = null;
+        for (int i = 0; i < delegates.length; i++) {
+            Object span = delegates[i].startSpan(operation, detail);
+            if (span != null) {
+                if (spans == null) {
+                    spans = new Object[delegates.length];
+                }
+                spans[i] = span;
+            }
+        }
+        return spans;
+    }
+
+    @Override
+    public void endSpan(Object span, Throwable failure) {
+        Object[] spans = (Object[]) span;
+        for (int i = 0; i < delegates.length; i++) {
+            if (spans[i] != null) {
+                delegates[i].endSpan(spans[i], failure);
+            }
+        }
+    }
+}
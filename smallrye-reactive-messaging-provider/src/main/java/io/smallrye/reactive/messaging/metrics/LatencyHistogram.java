@@ -0,0 +1,226 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations, in nanoseconds.
+ * <p>
+ * As in HDR histograms, the values are counted in buckets whose width grows with the magnitude: each power of two is
+ * divided in {@value #SUB_BUCKETS} buckets, so the values are recorded with a relative precision of 1/{@value
+ * #SUB_BUCKETS} (6.25%), whatever their magnitude. Recording a value increments one slot of a pre-allocated array,
+ * without allocation nor lock. The values reported by {@link #getValueAtQuantile(double)} are the upper bounds of the
+ * buckets.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value the value, in nanoseconds
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0L);
+        counts.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+        long current = max.get();
+        while (v > current && !max.compareAndSet(current, v)) {
+            current = max.get();
+        }
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & SUB_BUCKET_MASK);
+    }
+
+    /**
+     * @return the highest value of the given bucket.
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lower = ((long) (SUB_BUCKETS + (index & SUB_BUCKET_MASK))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the highest recorded value, 0 if none.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if none.
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Computes the value below which the given fraction of the recorded values fall.
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @return the value, 0 if there are no recorded values
+     * @see Snapshot#getValueAtQuantile(double)
+     */
+    public long getValueAtQuantile(double quantile) {
+        return snapshot().getValueAtQuantile(quantile);
+    }
+
+    /**
+     * Copies the buckets. They are read one by one while values are being recorded, so the snapshot is approximate
+     * under load.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        return new Snapshot(snapshot, total, sum.sum(), max.get());
+    }
+
+    /**
+     * Immutable copy of the buckets of a histogram.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * @return the number of values in the snapshot.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the highest recorded value, 0 if none.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the upper bound of the bucket of the lowest recorded value, 0 if none.
+         */
+        public long getMin() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return the mean of the recorded values, 0 if none.
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @return the standard deviation of the recorded values, approximated from their buckets, 0 if none.
+         */
+        public double getStdDev() {
+            if (count == 0) {
+                return 0;
+            }
+            double mean = getMean();
+            double variance = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    double delta = Math.min(upperBound(i), max) - mean;
+                    variance += delta * delta * counts[i];
+                }
+            }
+            return Math.sqrt(variance / count);
+        }
+
+        /**
+         * Computes the value below which the given fraction of the recorded values fall: the upper bound of the
+         * bucket containing the value of that rank.
+         *
+         * @param quantile the quantile, between 0 and 1
+         * @return the value, 0 if there are no recorded values
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (quantile < 0 || quantile > 1 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException("The quantile must be between 0 and 1, " + quantile + " given");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max((long) Math.ceil(quantile * count), 1L);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Visits the non-empty buckets, in ascending order.
+         *
+         * @param visitor the visitor, receiving the upper bound of each bucket and its number of values
+         */
+        public void forEachBucket(BucketVisitor visitor) {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    visitor.visit(Math.min(upperBound(i), max), counts[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives the buckets of a {@link Snapshot}.
+     */
+    @FunctionalInterface
+    public interface BucketVisitor {
+        void visit(long upperBound, long count);
+    }
+}
@@ -0,0 +1,117 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.concurrent.CompletionStage;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+
+import io.smallrye.reactive.messaging.Lineage;
+import io.smallrye.reactive.messaging.LineageMessage;
+import io.smallrye.reactive.messaging.TracedMessage;
+
+/**
+ * Attaches a {@link Lineage} to a sample of the messages entering the application through a channel, and reports the
+ * latency of the traced messages leaving it.
+ * <p>
+ * One {@link TracedMessage} out of {@link ChannelMetrics#getLineageSampling()} is traced, the other messages cannot
+ * carry a lineage. Like the timings of the {@link ChannelMetrics}, the sampling is not synchronized: concurrent
+ * emissions may trace a few more or fewer messages, which does not matter for a sample.
+ */
+public final class LineageTracker {
+
+    private final String channel;
+    private final int sampling;
+    private int countdown;
+
+    private LineageTracker(String channel, int sampling) {
+        this.channel = channel;
+        this.sampling = sampling;
+    }
+
+    /**
+     * Creates the tracker of a channel through which messages enter the application.
+     *
+     * @param channel the channel
+     * @param metrics the metrics of the channel
+     * @return the tracker, {@code null} if the metrics do not trace the messages of the channel
+     */
+    public static LineageTracker forIngress(String channel, ChannelMetrics metrics) {
+        if (!metrics.isEnabled() || metrics.getLineageSampling() < 1) {
+            return null;
+        }
+        return new LineageTracker(channel, metrics.getLineageSampling());
+    }
+
+    /**
+     * Attaches a lineage to the given message if it is sampled. Must be called when the message enters the
+     * application, before it is emitted.
+     *
+     * @param message the message
+     */
+    public void sample(Message<?> message) {
+        if (!(message instanceof TracedMessage)) {
+            return;
+        }
+        if (--countdown > 0) {
+            return;
+        }
+        countdown = sampling;
+        TracedMessage<?> traced = (TracedMessage<?>) message;
+        if (traced.getLineage() == null) {
+            traced.setLineage(Lineage.start(channel));
+        }
+    }
+
+    /**
+     * Reports a message leaving the application through the channel of the given metrics, consumed by a method
+     * without outgoing channel.
+     *
+     * @param message the message
+     * @param metrics the metrics of the channel
+     * @return the lineage of the message, {@code null} if it is not traced
+     */
+    public static Lineage egress(Message<?> message, ChannelMetrics metrics) {
+        Lineage lineage = Lineage.of(message);
+        if (lineage != null) {
+            metrics.onEgress(lineage, lineage.getAge());
+        }
+        return lineage;
+    }
+
+    /**
+     * Reports a message leaving the application through the channel of the given metrics, sent to a connector. If the
+     * message has been created by a mediator or an emitter, it is replaced by a message reporting the completion of
+     * its acknowledgement. The other messages are returned as they are, so the connector receives its own types.
+     *
+     * @param message the message
+     * @param metrics the metrics of the channel
+     * @return the message to send to the connector
+     */
+    public static Message<?> egressToConnector(Message<?> message, ChannelMetrics metrics) {
+        Lineage lineage = egress(message, metrics);
+        if (lineage == null || !(message instanceof LineageMessage)) {
+            return message;
+        }
+        return ((LineageMessage<?>) message).withAck(() -> acknowledged(lineage, metrics, message.ack()));
+    }
+
+    /**
+     * Reports the completion of the acknowledgement of a message that has left the application.
+     *
+     * @param lineage the lineage of the message
+     * @param metrics the metrics of the channel through which the message has left the application
+     * @param ack the acknowledgement, may be {@code null}
+     * @return the acknowledgement, completed once reported, {@code null} if {@code ack} is {@code null}
+     */
+    public static CompletionStage<Void> acknowledged(Lineage lineage, ChannelMetrics metrics,
+            CompletionStage<Void> ack) {
+        if (ack == null) {
+            metrics.onLineageAck(lineage, lineage.getAge());
+            return null;
+        }
+        return ack.whenComplete((x, failure) -> {
+            if (failure == null) {
+                metrics.onLineageAck(lineage, lineage.getAge());
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.reactive.messaging.spi.ConnectorFactory;
+
+/**
+ * Provides the {@link ChannelMetrics} of each channel. Implementations are exposed as CDI beans, the metrics being
+ * disabled when there are none.
+ */
+public interface MetricsProvider {
+
+    /**
+     * Provider disabling the metrics.
+     */
+    MetricsProvider NOOP = channel -> ChannelMetrics.NOOP;
+
+    /**
+     * Gets the metrics of a channel. This method is called while the streams are built, possibly several times for the
+     * same channel: implementations should return the same instance for a given channel.
+     *
+     * @param channel the channel name
+     * @return the metrics, {@link ChannelMetrics#NOOP} to disable the metrics of the channel
+     */
+    ChannelMetrics forChannel(String channel);
+
+    /**
+     * Combines several providers.
+     *
+     * @param providers the providers
+     * @return a provider reporting to all the given providers, {@link #NOOP} if there are none
+     */
+    static MetricsProvider of(Iterable<? extends MetricsProvider> providers) {
+        List<MetricsProvider> list = new ArrayList<>();
+        providers.forEach(list::add);
+        if (list.isEmpty()) {
+            return NOOP;
+        }
+        if (list.size() == 1) {
+            return list.get(0);
+        }
+        return channel -> CompositeChannelMetrics.of(channel, list);
+    }
+
+    /**
+     * Gets the metrics of the channel of a connector. Connectors look up the providers by injecting an
+     * {@code @Any Instance<MetricsProvider>}.
+     *
+     * @param providers the providers, may be {@code null}
+     * @param config the configuration of the connector
+     * @return the metrics of the channel, {@link ChannelMetrics#NOOP} if there are no providers
+     */
+    static ChannelMetrics forConnector(Iterable<? extends MetricsProvider> providers, Config config) {
+        if (providers == null) {
+            return ChannelMetrics.NOOP;
+        }
+        return config.getOptionalValue(ConnectorFactory.CHANNEL_NAME_ATTRIBUTE, String.class)
+                .map(of(providers)::forChannel)
+                .orElse(ChannelMetrics.NOOP);
+    }
+}
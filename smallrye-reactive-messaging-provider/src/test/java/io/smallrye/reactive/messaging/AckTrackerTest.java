@@ -0,0 +1,114 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.Test;
+
+public class AckTrackerTest {
+
+    private final AtomicInteger acks = new AtomicInteger();
+
+    private final Message<String> origin = Message.of("origin", () -> {
+        acks.incrementAndGet();
+        return CompletableFuture.completedFuture(null);
+    });
+
+    @Test
+    public void testPipelineSharesTheTrackerOfTheOrigin() {
+        Message<?> message = origin;
+        AckTracker tracker = null;
+        for (int i = 0; i < 6; i++) {
+            message = new LineageMessage<>(i, message);
+            if (tracker == null) {
+                tracker = AckTracker.of(message);
+            }
+            assertThat(AckTracker.of(message)).isSameAs(tracker);
+        }
+        message.ack().toCompletableFuture().join();
+        assertThat(acks).hasValue(1);
+    }
+
+    @Test
+    public void testMessagesAcknowledgedWithoutAction() {
+        TracedMessage<String> message = TracedMessage.of("hello");
+        assertThat(AckTracker.of(message)).isNull();
+        Message<?> derived = new LineageMessage<>("derived", message);
+        assertThat(derived.ack().toCompletableFuture().isDone()).isTrue();
+    }
+
+    @Test
+    public void testFanOut() {
+        AckTracker.FanOut fanOut = AckTracker.fanOut(new LineageMessage<>("processed", origin));
+        AckTracker first = fanOut.child();
+        AckTracker second = fanOut.child();
+
+        first.ack();
+        // Acknowledging a child twice only counts once
+        first.ack();
+        assertThat(acks).hasValue(0);
+        second.ack();
+        // More children may come
+        assertThat(acks).hasValue(0);
+        AckTracker third = fanOut.child();
+        fanOut.complete();
+        assertThat(acks).hasValue(0);
+        CompletionStage<Void> last = third.ack();
+        assertThat(last.toCompletableFuture().isDone()).isTrue();
+        assertThat(acks).hasValue(1);
+    }
+
+    @Test
+    public void testFanOutCompletedAfterTheChildren() {
+        AckTracker.FanOut fanOut = AckTracker.fanOut(origin);
+        fanOut.child().ack();
+        fanOut.child().ack();
+        assertThat(acks).hasValue(0);
+        fanOut.complete();
+        assertThat(acks).hasValue(1);
+    }
+
+    @Test
+    public void testFanOutWithoutChildren() {
+        AckTracker.fanOut(origin).complete();
+        assertThat(acks).hasValue(1);
+    }
+
+    @Test
+    public void testFanOutCompletedTwice() {
+        AckTracker.FanOut fanOut = AckTracker.fanOut(origin);
+        AckTracker child = fanOut.child();
+        fanOut.complete();
+        fanOut.complete();
+        assertThat(acks).hasValue(0);
+        child.ack();
+        assertThat(acks).hasValue(1);
+    }
+
+    @Test
+    public void testAbortedFanOut() {
+        AckTracker.FanOut fanOut = AckTracker.fanOut(origin);
+        AckTracker child = fanOut.child();
+        fanOut.abort();
+        fanOut.complete();
+        assertThat(child.ack().toCompletableFuture().isDone()).isTrue();
+        assertThat(acks).hasValue(0);
+    }
+
+    @Test
+    public void testNestedFanOuts() {
+        AckTracker.FanOut fanOut = AckTracker.fanOut(origin);
+        Message<String> child = new LineageMessage<>("child", fanOut.child(), null);
+        fanOut.complete();
+        AckTracker.FanOut nested = AckTracker.fanOut(new LineageMessage<>("processed", child));
+        AckTracker grandChild = nested.child();
+        nested.complete();
+        assertThat(acks).hasValue(0);
+        grandChild.ack();
+        assertThat(acks).hasValue(1);
+    }
+}
@@ -0,0 +1,168 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+
+public class BroadcastHubTest {
+
+    @Test
+    public void testItemsAreDispatchedToAllSubscribers() {
+        BroadcastHub<Integer> hub = new BroadcastHub<>(Flowable.range(0, 1000), 2, 16, Broadcast.Overflow.BLOCK, 0);
+        TestSubscriber<Integer> first = hub.test();
+        first.assertNoValues();
+        TestSubscriber<Integer> second = hub.test();
+
+        first.assertValueCount(1000).assertComplete();
+        second.assertValueCount(1000).assertComplete();
+        assertThat(first.values()).isEqualTo(second.values()).isSorted();
+        assertThat(hub.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    public void testSlowestSubscriberSetsThePaceWhenBlocking() {
+        AtomicLong requested = new AtomicLong();
+        Flowable<Integer> upstream = Flowable.range(0, 1000).doOnRequest(n -> requested.addAndGet(n));
+        BroadcastHub<Integer> hub = new BroadcastHub<>(upstream, 2, 16, Broadcast.Overflow.BLOCK, 0);
+        TestSubscriber<Integer> fast = hub.test();
+        TestSubscriber<Integer> slow = hub.test(5);
+
+        slow.assertValueCount(5).assertNotComplete();
+        fast.assertValueCount(5 + 16).assertNotComplete();
+        assertThat(requested).hasValue(5 + 16);
+
+        slow.requestMore(Long.MAX_VALUE);
+        slow.assertValueCount(1000).assertComplete();
+        fast.assertValueCount(1000).assertComplete();
+    }
+
+    @Test
+    public void testSlowSubscribersSkipTheOldestItems() {
+        PublishProcessor<Integer> upstream = PublishProcessor.create();
+        BroadcastHub<Integer> hub = new BroadcastHub<>(upstream, 2, 4, Broadcast.Overflow.DROP_OLDEST, 0);
+        TestSubscriber<Integer> fast = hub.test();
+        TestSubscriber<Integer> slow = hub.test(1);
+
+        for (int i = 0; i < 10; i++) {
+            upstream.onNext(i);
+        }
+        upstream.onComplete();
+
+        fast.assertValueCount(10).assertComplete();
+        slow.assertValues(0);
+        slow.requestMore(Long.MAX_VALUE);
+        // Only the last 4 items are still in the buffer.
+        slow.assertValues(0, 6, 7, 8, 9).assertComplete();
+    }
+
+    @Test
+    public void testSlowSubscribersAreDisconnected() {
+        PublishProcessor<Integer> upstream = PublishProcessor.create();
+        BroadcastHub<Integer> hub = new BroadcastHub<>(upstream, 2, 4, Broadcast.Overflow.DISCONNECT, 0);
+        TestSubscriber<Integer> fast = hub.test();
+        TestSubscriber<Integer> slow = hub.test(1);
+
+        for (int i = 0; i < 10; i++) {
+            upstream.onNext(i);
+        }
+
+        slow.assertValues(0).assertError(MissingBackpressureException.class);
+        fast.assertValueCount(10).assertNotTerminated();
+        assertThat(hub.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLateSubscribersReceiveTheReplayedItems() {
+        PublishProcessor<Integer> upstream = PublishProcessor.create();
+        BroadcastHub<Integer> hub = new BroadcastHub<>(upstream, 1, 8, Broadcast.Overflow.BLOCK, 3);
+        TestSubscriber<Integer> first = hub.test();
+        for (int i = 0; i < 5; i++) {
+            upstream.onNext(i);
+        }
+
+        TestSubscriber<Integer> late = hub.test();
+        late.assertValues(2, 3, 4);
+        upstream.onNext(5);
+        upstream.onComplete();
+
+        first.assertValues(0, 1, 2, 3, 4, 5).assertComplete();
+        late.assertValues(2, 3, 4, 5).assertComplete();
+        // Subscribers arriving after the completion receive the replayed items and the completion.
+        hub.test().assertValues(3, 4, 5).assertComplete();
+    }
+
+    @Test
+    public void testLateSubscribersAreNotOverwrittenWhenBlocking() {
+        PublishProcessor<Integer> upstream = PublishProcessor.create();
+        AtomicLong requested = new AtomicLong();
+        BroadcastHub<Integer> hub = new BroadcastHub<>(upstream.doOnRequest(requested::addAndGet), 1, 16,
+                Broadcast.Overflow.BLOCK, 16);
+        TestSubscriber<Integer> first = hub.test();
+        for (int i = 0; i < 16; i++) {
+            upstream.onNext(i);
+        }
+        assertThat(requested.get()).isGreaterThan(16);
+
+        // The items requested from the upstream overwrite the oldest ones, so they are not replayed
+        TestSubscriber<Integer> late = hub.test(2);
+        int start = (int) requested.get() - 16;
+        late.assertValues(start, start + 1);
+        int end = 16;
+        while (end < requested.get()) {
+            upstream.onNext(end++);
+        }
+        late.requestMore(Long.MAX_VALUE);
+        assertThat(late.values()).containsExactlyElementsOf(Flowable.range(start, end - start).toList().blockingGet());
+        first.assertValueCount(end);
+    }
+
+    @Test
+    public void testConsumedItemsAreNotRetained() {
+        BroadcastHub<Integer> hub = new BroadcastHub<>(Flowable.range(0, 100), 2, 16, Broadcast.Overflow.BLOCK, 0);
+        hub.test();
+        hub.test().assertValueCount(100).assertComplete();
+        assertThat(hub.getRetainedItemCount()).isZero();
+
+        BroadcastHub<Integer> replaying = new BroadcastHub<>(Flowable.range(0, 100), 1, 16, Broadcast.Overflow.BLOCK,
+                3);
+        replaying.test().assertValueCount(100).assertComplete();
+        assertThat(replaying.getRetainedItemCount()).isEqualTo(3);
+        replaying.test().assertValues(97, 98, 99).assertComplete();
+    }
+
+    @Test
+    public void testFailuresAreDispatched() {
+        BroadcastHub<Integer> hub = new BroadcastHub<>(
+                Flowable.range(0, 3).concatWith(Flowable.error(new IllegalStateException("boom"))),
+                2, 16, Broadcast.Overflow.BLOCK, 0);
+        TestSubscriber<Integer> first = hub.test();
+        TestSubscriber<Integer> second = hub.test();
+
+        first.assertValues(0, 1, 2).assertError(IllegalStateException.class);
+        second.assertValues(0, 1, 2).assertError(IllegalStateException.class);
+    }
+
+    @Test
+    public void testCancellationReleasesTheUpstream() {
+        BroadcastHub<Integer> hub = new BroadcastHub<>(Flowable.range(0, 100), 2, 4, Broadcast.Overflow.BLOCK, 0);
+        TestSubscriber<Integer> first = hub.test();
+        TestSubscriber<Integer> stuck = hub.test(0);
+        first.assertValueCount(4);
+
+        stuck.cancel();
+        first.assertValueCount(100).assertComplete();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplayCannotExceedTheBufferSize() {
+        new BroadcastHub<>(Flowable.empty(), 1, 4, Broadcast.Overflow.BLOCK, 5);
+    }
+}
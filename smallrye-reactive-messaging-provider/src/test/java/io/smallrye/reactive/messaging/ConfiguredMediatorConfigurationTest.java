@@ -0,0 +1,196 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import javax.enterprise.inject.spi.Bean;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.junit.Test;
+
+import io.smallrye.reactive.messaging.annotations.Merge;
+
+public class ConfiguredMediatorConfigurationTest {
+
+    private static final String PREFIX = ConfiguredMediatorConfiguration.PREFIX + "data.";
+
+    @Test
+    public void testConfiguredPrefetchKeepsTheReplenishRatioOfTheDecoratedConfiguration() {
+        MediatorConfiguration decorated = new PrefetchingConfiguration(8, 2);
+        MediatorConfiguration configuration = ConfiguredMediatorConfiguration.decorate(decorated,
+                config(PREFIX + "prefetch", 16));
+        assertThat(configuration.getPrefetch()).isEqualTo(16);
+        assertThat(configuration.getPrefetchReplenish()).isEqualTo(4);
+    }
+
+    @Test
+    public void testConfiguredPrefetchWithoutDecoratedPrefetch() {
+        MediatorConfiguration configuration = ConfiguredMediatorConfiguration.decorate(
+                new PrefetchingConfiguration(0, 0), config(PREFIX + "prefetch", 16));
+        assertThat(configuration.getPrefetchReplenish()).isEqualTo(12);
+    }
+
+    @Test
+    public void testDecoratedReplenishKeptWithoutConfiguredPrefetch() {
+        MediatorConfiguration configuration = ConfiguredMediatorConfiguration.decorate(
+                new PrefetchingConfiguration(8, 2), config(PREFIX + "prefetch-max-bytes", 1024L));
+        assertThat(configuration.getPrefetch()).isEqualTo(8);
+        assertThat(configuration.getPrefetchReplenish()).isEqualTo(2);
+    }
+
+    @Test
+    public void testConfiguredReplenish() {
+        Map<String, Object> values = new HashMap<>();
+        values.put(PREFIX + "prefetch", 16);
+        values.put(PREFIX + "prefetch-replenish", 10);
+        MediatorConfiguration configuration = ConfiguredMediatorConfiguration.decorate(
+                new PrefetchingConfiguration(8, 2), new MapConfig(values));
+        assertThat(configuration.getPrefetchReplenish()).isEqualTo(10);
+    }
+
+    private static Config config(String key, Object value) {
+        return new MapConfig(Collections.singletonMap(key, value));
+    }
+
+    private static class MapConfig implements Config {
+
+        private final Map<String, Object> backend;
+
+        private MapConfig(Map<String, Object> backend) {
+            this.backend = backend;
+        }
+
+        @Override
+        public <T> T getValue(String s, Class<T> aClass) {
+            return getOptionalValue(s, aClass).orElseThrow(() -> new NoSuchElementException("Key not found: " + s));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> Optional<T> getOptionalValue(String s, Class<T> aClass) {
+            return Optional.ofNullable((T) backend.get(s));
+        }
+
+        @Override
+        public Iterable<String> getPropertyNames() {
+            return backend.keySet();
+        }
+
+        @Override
+        public Iterable<ConfigSource> getConfigSources() {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * A subscriber consuming payloads from the {@code data} channel with the given prefetch.
+     */
+    private static class PrefetchingConfiguration implements MediatorConfiguration {
+
+        private final int prefetch;
+        private final int replenish;
+
+        private PrefetchingConfiguration(int prefetch, int replenish) {
+            this.prefetch = prefetch;
+            this.replenish = replenish;
+        }
+
+        @Override
+        public int getPrefetch() {
+            return prefetch;
+        }
+
+        @Override
+        public int getPrefetchReplenish() {
+            return replenish;
+        }
+
+        @Override
+        public Shape shape() {
+            return Shape.SUBSCRIBER;
+        }
+
+        @Override
+        public String getOutgoing() {
+            return null;
+        }
+
+        @Override
+        public String getIncoming() {
+            return "data";
+        }
+
+        @Override
+        public String methodAsString() {
+            return "PrefetchingConfiguration#consume";
+        }
+
+        @Override
+        public Method getMethod() {
+            return null;
+        }
+
+        @Override
+        public Class<?> getReturnType() {
+            return void.class;
+        }
+
+        @Override
+        public Class<?>[] getParameterTypes() {
+            return new Class<?>[] { String.class };
+        }
+
+        @Override
+        public Consumption consumption() {
+            return Consumption.PAYLOAD;
+        }
+
+        @Override
+        public Production production() {
+            return Production.NONE;
+        }
+
+        @Override
+        public boolean usesBuilderTypes() {
+            return false;
+        }
+
+        @Override
+        public Acknowledgment.Strategy getAcknowledgment() {
+            return Acknowledgment.Strategy.POST_PROCESSING;
+        }
+
+        @Override
+        public Merge.Mode getMerge() {
+            return null;
+        }
+
+        @Override
+        public boolean getBroadcast() {
+            return false;
+        }
+
+        @Override
+        public Bean<?> getBean() {
+            return null;
+        }
+
+        @Override
+        public int getNumberOfSubscriberBeforeConnecting() {
+            return 0;
+        }
+
+        @Override
+        public Class<? extends Invoker> getInvokerClass() {
+            return null;
+        }
+    }
+}
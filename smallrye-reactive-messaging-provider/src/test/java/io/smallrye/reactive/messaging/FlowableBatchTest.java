@@ -0,0 +1,68 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subscribers.TestSubscriber;
+
+public class FlowableBatchTest {
+
+    @Test
+    public void testBatchesAreEmittedWhenFull() {
+        TestSubscriber<List<Integer>> subscriber = new FlowableBatch<>(Flowable.range(0, 7), 3, 0, new TestScheduler())
+                .test();
+        subscriber.assertValues(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5), Arrays.asList(6)).assertComplete();
+    }
+
+    @Test
+    public void testBatchesAreEmittedAfterTheMaxWait() {
+        TestScheduler scheduler = new TestScheduler();
+        PublishProcessor<Integer> source = PublishProcessor.create();
+        TestSubscriber<List<Integer>> subscriber = new FlowableBatch<>(source, 10, 100, scheduler).test();
+
+        source.onNext(1);
+        scheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS);
+        source.onNext(2);
+        subscriber.assertNoValues();
+        scheduler.advanceTimeBy(50, TimeUnit.MILLISECONDS);
+        subscriber.assertValues(Arrays.asList(1, 2));
+
+        // The timer starts with the first item of the batch.
+        scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+        source.onNext(3);
+        scheduler.advanceTimeBy(99, TimeUnit.MILLISECONDS);
+        subscriber.assertValueCount(1);
+        scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        subscriber.assertValueCount(2);
+    }
+
+    @Test
+    public void testUpstreamRequestsAreBounded() {
+        AtomicLong requested = new AtomicLong();
+        Flowable<Integer> source = Flowable.range(0, 1000).doOnRequest(requested::addAndGet);
+        TestSubscriber<List<Integer>> subscriber = new FlowableBatch<>(source, 10, 0, new TestScheduler()).test(0);
+
+        assertThat(requested.get()).isEqualTo(10);
+        subscriber.assertNoValues();
+
+        subscriber.request(2);
+        subscriber.assertValueCount(2);
+        assertThat(requested.get()).isEqualTo(30);
+    }
+
+    @Test
+    public void testFailureIsPropagated() {
+        new FlowableBatch<>(Flowable.<Integer> error(new IllegalStateException("boom")), 10, 0, new TestScheduler())
+                .test()
+                .assertError(IllegalStateException.class);
+    }
+}
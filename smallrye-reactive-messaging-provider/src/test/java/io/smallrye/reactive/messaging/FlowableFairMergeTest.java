@@ -0,0 +1,102 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subscribers.TestSubscriber;
+
+public class FlowableFairMergeTest {
+
+    @Test
+    public void testRoundRobin() {
+        List<Flowable<String>> sources = Arrays.asList(
+                Flowable.just("a1", "a2", "a3", "a4"),
+                Flowable.just("b1", "b2"),
+                Flowable.just("c1", "c2", "c3"));
+        new FlowableFairMerge<>(sources, Integer.MAX_VALUE, 16).test()
+                .assertValues("a1", "b1", "c1", "a2", "b2", "c2", "a3", "c3", "a4")
+                .assertComplete();
+    }
+
+    @Test
+    public void testAFastSourceDoesNotStarveTheOthers() {
+        PublishProcessor<String> slow = PublishProcessor.create();
+        TestSubscriber<String> subscriber = new FlowableFairMerge<>(
+                Arrays.asList(Flowable.range(0, 1000).map(i -> "fast"), slow), Integer.MAX_VALUE, 4)
+                        .test(0);
+
+        subscriber.request(2);
+        slow.onNext("slow");
+        subscriber.request(2);
+        subscriber.assertValues("fast", "fast", "slow", "fast");
+    }
+
+    @Test
+    public void testPrefetchBoundsTheUpstreamRequests() {
+        AtomicLong requested = new AtomicLong();
+        Flowable<Integer> source = Flowable.range(0, 100).doOnRequest(requested::addAndGet);
+        TestSubscriber<Integer> subscriber = new FlowableFairMerge<>(Arrays.asList(source, Flowable.<Integer> never()),
+                Integer.MAX_VALUE, 8).test(0);
+
+        assertThat(requested).hasValue(8);
+        subscriber.request(6);
+        // 6 items consumed, the queue is replenished by 6 (3/4 of the prefetch)
+        assertThat(requested).hasValue(14);
+        subscriber.request(100);
+        subscriber.assertValueCount(100).assertNotComplete();
+    }
+
+    @Test
+    public void testMaxConcurrency() {
+        AtomicInteger subscribed = new AtomicInteger();
+        PublishProcessor<String> first = PublishProcessor.create();
+        PublishProcessor<String> second = PublishProcessor.create();
+        Flowable<String> third = Flowable.just("c").doOnSubscribe(s -> subscribed.incrementAndGet());
+        TestSubscriber<String> subscriber = new FlowableFairMerge<>(Arrays.asList(first, second, third), 2, 8)
+                .test();
+
+        assertThat(first.hasSubscribers()).isTrue();
+        assertThat(second.hasSubscribers()).isTrue();
+        assertThat(subscribed).hasValue(0);
+
+        first.onNext("a");
+        first.onComplete();
+        assertThat(subscribed).hasValue(1);
+        second.onComplete();
+        subscriber.assertValues("a", "c").assertComplete();
+    }
+
+    @Test
+    public void testFailureCancelsTheOtherSources() {
+        PublishProcessor<String> first = PublishProcessor.create();
+        PublishProcessor<String> second = PublishProcessor.create();
+        TestSubscriber<String> subscriber = new FlowableFairMerge<>(Arrays.asList(first, second), Integer.MAX_VALUE, 8)
+                .test();
+
+        first.onError(new IOException("boom"));
+        subscriber.assertError(IOException.class);
+        assertThat(second.hasSubscribers()).isFalse();
+    }
+
+    @Test
+    public void testCancellation() {
+        PublishProcessor<String> first = PublishProcessor.create();
+        PublishProcessor<String> second = PublishProcessor.create();
+        TestSubscriber<String> subscriber = new FlowableFairMerge<>(Arrays.asList(first, second), Integer.MAX_VALUE, 8)
+                .test();
+
+        subscriber.cancel();
+        assertThat(first.hasSubscribers()).isFalse();
+        assertThat(second.hasSubscribers()).isFalse();
+    }
+
+}
@@ -0,0 +1,106 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.Test;
+
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+
+@SuppressWarnings("rawtypes")
+public class FlowableInvocationTest {
+
+    @Test
+    public void testSynchronousInvocation() {
+        AtomicInteger acks = new AtomicInteger();
+        Flowable<Message> source = Flowable.range(0, 5).map(i -> Message.of(i, () -> {
+            acks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }));
+
+        TestSubscriber<Message> subscriber = new FlowableInvocation(source,
+                m -> Message.of((Integer) m.getPayload() * 2), true).test();
+
+        subscriber.assertValueCount(5).assertComplete();
+        assertThat(payloads(subscriber)).containsExactly(0, 2, 4, 6, 8);
+        assertThat(acks).hasValue(5);
+    }
+
+    @Test
+    public void testMessagesAreNotAcknowledgedIfNotRequested() {
+        AtomicInteger acks = new AtomicInteger();
+        Flowable<Message> source = Flowable.range(0, 5).map(i -> Message.of(i, () -> {
+            acks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }));
+
+        TestSubscriber<Message> subscriber = new FlowableInvocation(source, m -> m, false).test(2);
+
+        subscriber.assertValueCount(2).assertNotComplete();
+        assertThat(acks).hasValue(0);
+        subscriber.requestMore(3);
+        subscriber.assertValueCount(5).assertComplete();
+    }
+
+    @Test
+    public void testPendingAcknowledgementKeepsTheOrder() {
+        List<CompletableFuture<Void>> acks = new ArrayList<>();
+        Flowable<Message> source = Flowable.range(0, 4).map(i -> Message.of(i, () -> {
+            // The second message is acknowledged asynchronously.
+            CompletableFuture<Void> future = i == 1 ? new CompletableFuture<>() : CompletableFuture.completedFuture(null);
+            acks.add(future);
+            return future;
+        }));
+
+        TestSubscriber<Message> subscriber = new FlowableInvocation(source, m -> m, true).test();
+
+        assertThat(payloads(subscriber)).containsExactly(0);
+        subscriber.assertNotComplete();
+
+        acks.get(1).complete(null);
+        subscriber.assertComplete();
+        assertThat(payloads(subscriber)).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    public void testFailedAcknowledgement() {
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("boom"));
+        Flowable<Message> source = Flowable.just(Message.of(1, () -> failed));
+
+        new FlowableInvocation(source, m -> m, true).test()
+                .assertError(IllegalStateException.class);
+    }
+
+    @Test
+    public void testFailingFunction() {
+        Flowable<Message> source = Flowable.range(0, 5).map(Message::of);
+
+        TestSubscriber<Message> subscriber = new FlowableInvocation(source, m -> {
+            if ((Integer) m.getPayload() == 2) {
+                throw new IllegalArgumentException("boom");
+            }
+            return m;
+        }, false).test();
+
+        subscriber.assertValueCount(2).assertError(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testNullResult() {
+        new FlowableInvocation(Flowable.just(Message.of(1)), m -> null, false).test()
+                .assertError(NullPointerException.class);
+    }
+
+    private static List<Object> payloads(TestSubscriber<Message> subscriber) {
+        List<Object> payloads = new ArrayList<>();
+        subscriber.values().forEach(m -> payloads.add(m.getPayload()));
+        return payloads;
+    }
+}
@@ -0,0 +1,96 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.Test;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.PublishProcessor;
+import io.reactivex.subscribers.TestSubscriber;
+
+public class FlowablePrefetchTest {
+
+    private final List<Long> requests = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void testRequestsInBatches() {
+        Flowable<Integer> source = Flowable.range(0, 100).doOnRequest(requests::add);
+        TestSubscriber<Integer> subscriber = new FlowablePrefetch<>(source, 16, 12, 0, i -> 0).test(0);
+
+        assertThat(requests).containsExactly(16L);
+        subscriber.request(11);
+        assertThat(requests).containsExactly(16L);
+        subscriber.request(1);
+        assertThat(requests).containsExactly(16L, 12L);
+        subscriber.request(100);
+        subscriber.assertValueCount(100).assertComplete();
+        assertThat(requests.subList(1, requests.size())).containsOnly(12L);
+    }
+
+    @Test
+    public void testSizeLimitDelaysTheReplenishment() {
+        PublishProcessor<String> source = PublishProcessor.create();
+        TestSubscriber<String> subscriber = new FlowablePrefetch<>(source.doOnRequest(requests::add), 4, 1, 5,
+                String::length).test(0);
+
+        source.onNext("aaaaaa");
+        source.onNext("bbbbbb");
+        source.onNext("c");
+        // 7 bytes still buffered once the first item is emitted, more than the limit
+        subscriber.request(1);
+        assertThat(requests).containsExactly(4L);
+        // 1 byte buffered
+        subscriber.request(1);
+        assertThat(requests).containsExactly(4L, 2L);
+        subscriber.request(1);
+        assertThat(requests).containsExactly(4L, 2L, 1L);
+        subscriber.assertValues("aaaaaa", "bbbbbb", "c");
+    }
+
+    @Test
+    public void testTerminalSignalsAfterTheBufferedItems() {
+        PublishProcessor<Integer> source = PublishProcessor.create();
+        TestSubscriber<Integer> subscriber = new FlowablePrefetch<>(source, 4, 3, 0, i -> 0).test(0);
+        source.onNext(1);
+        source.onNext(2);
+        source.onError(new IOException("boom"));
+        subscriber.assertNoErrors();
+        subscriber.request(1);
+        subscriber.assertValues(1).assertNoErrors();
+        subscriber.request(1);
+        subscriber.assertValues(1, 2).assertError(IOException.class);
+
+        TestSubscriber<Integer> completed = new FlowablePrefetch<>(Flowable.just(1, 2), 4, 3, 0, i -> 0).test(0);
+        completed.assertNotComplete();
+        completed.request(2);
+        completed.assertValues(1, 2).assertComplete();
+    }
+
+    @Test
+    public void testCancellation() {
+        PublishProcessor<Integer> source = PublishProcessor.create();
+        TestSubscriber<Integer> subscriber = new FlowablePrefetch<>(source, 4, 3, 0, i -> 0).test(0);
+        assertThat(source.hasSubscribers()).isTrue();
+        subscriber.cancel();
+        assertThat(source.hasSubscribers()).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReplenishGreaterThanPrefetch() {
+        new FlowablePrefetch<>(Flowable.just(1), 4, 5, 0, i -> 0);
+    }
+
+    @Test
+    public void testSizeOf() {
+        assertThat(FlowablePrefetch.sizeOf(Message.of(new byte[12]))).isEqualTo(12);
+        assertThat(FlowablePrefetch.sizeOf(Message.of("hello"))).isEqualTo(5);
+        assertThat(FlowablePrefetch.sizeOf(Message.of(ByteBuffer.allocate(7)))).isEqualTo(7);
+        assertThat(FlowablePrefetch.sizeOf(Message.of(42))).isEqualTo(0);
+    }
+}
@@ -0,0 +1,126 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class GeneratedInvokerTest {
+
+    private final Bean bean = new Bean();
+
+    @Test
+    public void testMethodWithoutParameter() {
+        Invoker invoker = create("produce");
+        assertThat(invoker.invoke()).isEqualTo("hello");
+        assertThat(invoker.invoke(new Object[0])).isEqualTo("hello");
+    }
+
+    @Test
+    public void testMethodWithParameter() {
+        Invoker invoker = create("process");
+        assertThat(invoker.invoke("hello")).isEqualTo("HELLO");
+        assertThat(invoker.invoke(new Object[] { "hello" })).isEqualTo("HELLO");
+    }
+
+    @Test
+    public void testVoidMethods() {
+        assertThat(create("consume").invoke("a")).isNull();
+        assertThat(create("tick").invoke()).isNull();
+        assertThat(bean.list).containsExactly("a", "tick");
+    }
+
+    @Test
+    public void testPrimitiveTypes() {
+        assertThat(create("increment").invoke(1)).isEqualTo(2);
+    }
+
+    @Test
+    public void testStaticMethod() {
+        assertThat(create("twice").invoke("a")).isEqualTo("aa");
+    }
+
+    @Test
+    public void testBeanSubclass() {
+        Bean subclass = new Bean() {
+            @Override
+            public String produce() {
+                return "overridden";
+            }
+        };
+        Invoker invoker = GeneratedInvoker.create(method("produce"), "Bean#produce", subclass);
+        assertThat(invoker.invoke()).isEqualTo("overridden");
+    }
+
+    @Test
+    public void testExceptionsAreWrapped() {
+        Invoker invoker = create("fail");
+        assertThatThrownBy(() -> invoker.invoke("boom"))
+                .isInstanceOf(ProcessingException.class)
+                .hasMessageContaining("Bean#fail")
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testInaccessibleMethodIsNotGenerated() throws NoSuchMethodException {
+        Method method = Bean.class.getDeclaredMethod("hidden");
+        assertThat(GeneratedInvoker.create(method, "Bean#hidden", bean)).isNull();
+    }
+
+    private Invoker create(String name) {
+        Invoker invoker = GeneratedInvoker.create(method(name), "Bean#" + name, bean);
+        assertThat(invoker).isNotNull();
+        return invoker;
+    }
+
+    private static Method method(String name) {
+        for (Method method : Bean.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    public static class Bean {
+
+        final List<String> list = new ArrayList<>();
+
+        public String produce() {
+            return "hello";
+        }
+
+        public String process(String s) {
+            return s.toUpperCase();
+        }
+
+        public void consume(String s) {
+            list.add(s);
+        }
+
+        public void tick() {
+            list.add("tick");
+        }
+
+        public int increment(int i) {
+            return i + 1;
+        }
+
+        public static String twice(String s) {
+            return s + s;
+        }
+
+        public String fail(String s) {
+            throw new IllegalStateException(s);
+        }
+
+        private String hidden() {
+            return "hidden";
+        }
+    }
+
+}
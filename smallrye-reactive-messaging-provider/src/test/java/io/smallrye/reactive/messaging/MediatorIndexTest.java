@@ -0,0 +1,119 @@
+package io.smallrye.reactive.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+
+public class MediatorIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndLoad() throws Exception {
+        Method method = Mediators.class.getMethod("process", String.class);
+        MediatorIndex.Entry entry = analyze(method);
+        File first = index(Collections.singletonMap(key(method), entry));
+
+        Method source = Mediators.class.getMethod("source");
+        File second = index(Collections.singletonMap(key(source), analyze(source)));
+
+        MediatorIndex index = MediatorIndex.load(loader(first, second));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.get(method)).isEqualTo(entry);
+        assertThat(index.get(method).getIncoming()).isEqualTo("in");
+        assertThat(index.get(method).getOutgoing()).isEqualTo("out");
+        assertThat(index.get(method).getConsumption()).isEqualTo(MediatorConfiguration.Consumption.PAYLOAD);
+        assertThat(index.get(source).getBroadcast()).isEqualTo(2);
+        assertThat(index.get(source).getBroadcastReplay()).isEqualTo(1);
+        assertThat(index.get(Mediators.class.getMethod("toString"))).isNull();
+    }
+
+    @Test
+    public void testInvalidIndexesAreIgnored() throws Exception {
+        Method method = Mediators.class.getMethod("process", String.class);
+        File valid = index(Collections.singletonMap(key(method), analyze(method)));
+        File invalid = folder.newFolder();
+        File resource = new File(invalid, MediatorIndex.LOCATION);
+        assertThat(resource.getParentFile().mkdirs()).isTrue();
+        Files.write(resource.toPath(), "not an index\n".getBytes(StandardCharsets.UTF_8));
+
+        MediatorIndex index = MediatorIndex.load(loader(invalid, valid));
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.get(method)).isNotNull();
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        assertThat(MediatorIndex.load(loader(folder.newFolder())).size()).isZero();
+    }
+
+    private static MediatorIndex.Entry analyze(Method method) {
+        MediatorConfigurationSupport support = new MediatorConfigurationSupport(method.getName(),
+                method.getReturnType(), method.getParameterTypes(),
+                new DefaultMediatorConfiguration.ReflectionGenericTypeAssignable(method.getGenericReturnType()),
+                new DefaultMediatorConfiguration.ReflectionGenericTypeAssignable(
+                        method.getParameterCount() == 0 ? Object.class : method.getGenericParameterTypes()[0]));
+        return support.analyze(method.getAnnotation(Incoming.class), method.getAnnotation(Outgoing.class),
+                method::getAnnotation);
+    }
+
+    private static String key(Method method) {
+        return MediatorIndex.key(Mediators.class.getName(), method.getName(), Arrays.stream(method.getParameterTypes())
+                .map(Class::getName)
+                .collect(Collectors.toList()));
+    }
+
+    private File index(Map<String, MediatorIndex.Entry> entries) throws IOException {
+        File root = folder.newFolder();
+        File resource = new File(root, MediatorIndex.LOCATION);
+        assertThat(resource.getParentFile().mkdirs()).isTrue();
+        try (Writer writer = new OutputStreamWriter(Files.newOutputStream(resource.toPath()), StandardCharsets.UTF_8)) {
+            MediatorIndex.write(writer, entries);
+        }
+        return root;
+    }
+
+    private static ClassLoader loader(File... roots) throws IOException {
+        URL[] urls = new URL[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            urls[i] = roots[i].toURI().toURL();
+        }
+        return new URLClassLoader(urls, null);
+    }
+
+    public static class Mediators {
+
+        @Incoming("in")
+        @Outgoing("out")
+        public String process(String payload) {
+            return payload;
+        }
+
+        @Outgoing("source")
+        @Broadcast(value = 2, replay = 1)
+        public String source() {
+            return "hello";
+        }
+    }
+}
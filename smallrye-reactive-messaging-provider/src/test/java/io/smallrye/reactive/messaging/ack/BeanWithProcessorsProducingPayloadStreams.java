@@ -27,6 +27,9 @@ public class BeanWithProcessorsProducingPayloadStreams extends SpiedBeanHelper {
     static final String DEFAULT_ACKNOWLEDGMENT = "def-acknowledgment";
     static final String DEFAULT_ACKNOWLEDGMENT_BUILDER = "def-acknowledgment-builder";
 
+    static final String POST_ACKNOWLEDGMENT = "post-acknowledgment";
+    static final String POST_ACKNOWLEDGMENT_BUILDER = "post-acknowledgment-builder";
+
     @Incoming("sink-" + DEFAULT_ACKNOWLEDGMENT)
     @Acknowledgment(Acknowledgment.Strategy.NONE)
     public CompletionStage<Void> sinkDefault(Message<String> ignored) {
@@ -177,4 +180,55 @@ public class BeanWithProcessorsProducingPayloadStreams extends SpiedBeanHelper {
                     return CompletableFuture.completedFuture(null);
                 }));
     }
+
+    @Incoming("sink-" + POST_ACKNOWLEDGMENT)
+    @Acknowledgment(Acknowledgment.Strategy.NONE)
+    public CompletionStage<Void> sinkPost(Message<String> message) {
+        return message.ack();
+    }
+
+    @Incoming("sink-" + POST_ACKNOWLEDGMENT_BUILDER)
+    @Acknowledgment(Acknowledgment.Strategy.NONE)
+    public CompletionStage<Void> sinkPostBuilder(Message<String> message) {
+        return message.ack();
+    }
+
+    @Incoming(POST_ACKNOWLEDGMENT)
+    @Acknowledgment(Acknowledgment.Strategy.POST_PROCESSING)
+    @Outgoing("sink-" + POST_ACKNOWLEDGMENT)
+    public Publisher<String> processorWithPostAck(String input) {
+        return ReactiveStreams.of(input)
+                .flatMap(m -> ReactiveStreams.of(m, m))
+                .peek(m -> processed(POST_ACKNOWLEDGMENT, m))
+                .buildRs();
+    }
+
+    @Outgoing(POST_ACKNOWLEDGMENT)
+    public Publisher<Message<String>> sourceToPostAck() {
+        return Flowable.fromArray("a", "b", "c", "d", "e")
+                .map(payload -> Message.of(payload, () -> {
+                    nap();
+                    acknowledged(POST_ACKNOWLEDGMENT, payload);
+                    return CompletableFuture.completedFuture(null);
+                }));
+    }
+
+    @Incoming(POST_ACKNOWLEDGMENT_BUILDER)
+    @Acknowledgment(Acknowledgment.Strategy.POST_PROCESSING)
+    @Outgoing("sink-" + POST_ACKNOWLEDGMENT_BUILDER)
+    public PublisherBuilder<String> processorWithPostAckBuilder(String input) {
+        return ReactiveStreams.of(input)
+                .flatMap(m -> ReactiveStreams.of(m, m))
+                .peek(m -> processed(POST_ACKNOWLEDGMENT_BUILDER, m));
+    }
+
+    @Outgoing(POST_ACKNOWLEDGMENT_BUILDER)
+    public Publisher<Message<String>> sourceToPostAckBuilder() {
+        return Flowable.fromArray("a", "b", "c", "d", "e")
+                .map(payload -> Message.of(payload, () -> {
+                    nap();
+                    acknowledged(POST_ACKNOWLEDGMENT_BUILDER, payload);
+                    return CompletableFuture.completedFuture(null);
+                }));
+    }
 }
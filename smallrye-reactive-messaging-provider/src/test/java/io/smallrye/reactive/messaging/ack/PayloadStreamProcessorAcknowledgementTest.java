@@ -6,6 +6,8 @@ import static io.smallrye.reactive.messaging.ack.BeanWithProcessorsProducingMess
 import static io.smallrye.reactive.messaging.ack.BeanWithProcessorsProducingMessageStreams.NO_ACKNOWLEDGMENT_BUILDER;
 import static io.smallrye.reactive.messaging.ack.BeanWithProcessorsProducingMessageStreams.PRE_ACKNOWLEDGMENT;
 import static io.smallrye.reactive.messaging.ack.BeanWithProcessorsProducingMessageStreams.PRE_ACKNOWLEDGMENT_BUILDER;
+import static io.smallrye.reactive.messaging.ack.BeanWithProcessorsProducingPayloadStreams.POST_ACKNOWLEDGMENT;
+import static io.smallrye.reactive.messaging.ack.BeanWithProcessorsProducingPayloadStreams.POST_ACKNOWLEDGMENT_BUILDER;
 
 import java.util.Arrays;
 
@@ -58,4 +60,15 @@ public class PayloadStreamProcessorAcknowledgementTest extends AcknowledgmentTes
         assertPreAcknowledgment(bean, DEFAULT_ACKNOWLEDGMENT_BUILDER);
     }
 
+    @Test
+    public void testPostAck() {
+        SpiedBeanHelper bean = installInitializeAndGet(beanClass);
+        assertPostAcknowledgment(bean, POST_ACKNOWLEDGMENT);
+    }
+
+    @Test
+    public void testPostAckBuilder() {
+        SpiedBeanHelper bean = installInitializeAndGet(beanClass);
+        assertPostAcknowledgment(bean, POST_ACKNOWLEDGMENT_BUILDER);
+    }
 }
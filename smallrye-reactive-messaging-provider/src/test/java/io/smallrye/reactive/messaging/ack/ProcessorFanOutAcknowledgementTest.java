@@ -0,0 +1,109 @@
+package io.smallrye.reactive.messaging.ack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Channel;
+
+public class ProcessorFanOutAcknowledgementTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testCancelledResultsAcknowledgeTheIncomingMessage() {
+        addBeanClass(ResultConsumer.class);
+        BeanProducingUnboundedResults bean = installInitializeAndGet(BeanProducingUnboundedResults.class);
+        List<Message<String>> received = get(ResultConsumer.class).results().take(2).toList().blockingGet();
+        assertThat(received).extracting(Message::getPayload).containsExactly("a-1", "a-2");
+        assertThat(bean.acks()).isZero();
+
+        received.forEach(Message::ack);
+        await().until(() -> bean.acks() == 1);
+    }
+
+    @Test
+    public void testFailedResultsDoNotAcknowledgeTheIncomingMessage() {
+        addBeanClass(ResultConsumer.class);
+        BeanProducingFailingResults bean = installInitializeAndGet(BeanProducingFailingResults.class);
+        List<Message<String>> received = get(ResultConsumer.class).results().onErrorResumeNext(Flowable.empty())
+                .toList().blockingGet();
+        assertThat(received).extracting(Message::getPayload).containsExactly("a-1");
+
+        received.forEach(Message::ack);
+        assertThat(bean.acks()).isZero();
+    }
+
+    @ApplicationScoped
+    public static class BeanProducingUnboundedResults {
+        private final AtomicInteger acks = new AtomicInteger();
+
+        @Outgoing("source")
+        public Publisher<Message<String>> source() {
+            return Flowable.just(Message.of("a", () -> {
+                acks.incrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }));
+        }
+
+        @Incoming("source")
+        @Outgoing("results")
+        @Acknowledgment(Acknowledgment.Strategy.POST_PROCESSING)
+        public Publisher<String> process(String payload) {
+            // Never completes, the results are only terminated by the cancellation
+            return Flowable.just(payload + "-1", payload + "-2").concatWith(Flowable.never());
+        }
+
+        public int acks() {
+            return acks.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class BeanProducingFailingResults {
+        private final AtomicInteger acks = new AtomicInteger();
+
+        @Outgoing("source")
+        public Publisher<Message<String>> source() {
+            return Flowable.just(Message.of("a", () -> {
+                acks.incrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }));
+        }
+
+        @Incoming("source")
+        @Outgoing("results")
+        @Acknowledgment(Acknowledgment.Strategy.POST_PROCESSING)
+        public Publisher<String> process(String payload) {
+            return Flowable.just(payload + "-1").concatWith(Flowable.error(new IllegalStateException("boom")));
+        }
+
+        public int acks() {
+            return acks.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class ResultConsumer {
+        @Inject
+        @Channel("results")
+        Flowable<Message<String>> results;
+
+        public Flowable<Message<String>> results() {
+            return results;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package io.smallrye.reactive.messaging.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.BatchMessage;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Batch;
+
+public class BatchTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testSubscriberConsumingBatchesOfPayloads() {
+        PayloadBatchSubscriber subscriber = installInitializeAndGet(PayloadBatchSubscriber.class);
+
+        await().until(() -> subscriber.acked() == 25);
+        assertThat(subscriber.sizes()).containsExactly(10, 10, 5);
+        assertThat(subscriber.items()).hasSize(25).isSorted();
+    }
+
+    @Test
+    public void testIncompleteBatchIsEmittedAfterTheMaxWait() {
+        MessageBatchSubscriber subscriber = installInitializeAndGet(MessageBatchSubscriber.class);
+
+        await().until(() -> subscriber.acked() == 3);
+        assertThat(subscriber.batches()).containsExactly(3);
+    }
+
+    @Test
+    public void testProcessorConsumingBatches() {
+        addBeanClass(SumCollector.class);
+        installInitializeAndGet(BatchProcessor.class);
+        SumCollector collector = get(SumCollector.class);
+
+        await().until(() -> collector.sums().size() == 2);
+        assertThat(collector.sums()).containsExactly(1 + 2 + 3 + 4 + 5, 6 + 7 + 8 + 9 + 10);
+    }
+
+    @Test
+    public void testBatchesEmittedByTheUpstreamAreNotSplit() {
+        NativeBatchSubscriber subscriber = installInitializeAndGet(NativeBatchSubscriber.class);
+
+        await().until(() -> subscriber.acked() == 50);
+        assertThat(subscriber.sizes()).containsExactly(20, 30);
+    }
+
+    @Test
+    public void testBatchSizeFromConfiguration() {
+        ConfiguredBatchSubscriber subscriber = installInitializeAndGet(ConfiguredBatchSubscriber.class);
+
+        await().until(() -> subscriber.sizes().size() == 3);
+        assertThat(subscriber.sizes()).containsExactly(4, 4, 2);
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testBatchOfNonListIsRejected() {
+        addBeanClass(InvalidBatchSubscriber.class);
+        initialize();
+    }
+
+    private static Publisher<Message<Integer>> messages(int count, AtomicInteger acks) {
+        return Flowable.range(0, count).map(i -> Message.of(i, () -> {
+            acks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }));
+    }
+
+    @ApplicationScoped
+    public static class PayloadBatchSubscriber {
+        private final List<Integer> sizes = new CopyOnWriteArrayList<>();
+        private final List<Integer> items = new CopyOnWriteArrayList<>();
+        private final AtomicInteger acks = new AtomicInteger();
+
+        @Outgoing("numbers")
+        public Publisher<Message<Integer>> source() {
+            return messages(25, acks);
+        }
+
+        @Incoming("numbers")
+        @Batch(maxSize = 10, maxWait = 0)
+        public void consume(List<Integer> batch) {
+            sizes.add(batch.size());
+            items.addAll(batch);
+        }
+
+        List<Integer> sizes() {
+            return sizes;
+        }
+
+        List<Integer> items() {
+            return items;
+        }
+
+        int acked() {
+            return acks.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class MessageBatchSubscriber {
+        private final List<Integer> batches = new CopyOnWriteArrayList<>();
+        private final AtomicInteger acks = new AtomicInteger();
+
+        @Outgoing("numbers")
+        public Publisher<Message<Integer>> source() {
+            return Flowable.fromPublisher(messages(3, acks)).concatWith(Flowable.never());
+        }
+
+        @Incoming("numbers")
+        @Batch(maxSize = 10, maxWait = 50)
+        public CompletionStage<Void> consume(Message<List<Integer>> batch) {
+            batches.add(batch.getPayload().size());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<Integer> batches() {
+            return batches;
+        }
+
+        int acked() {
+            return acks.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class BatchProcessor {
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Flowable.range(1, 10);
+        }
+
+        @Incoming("numbers")
+        @Outgoing("sums")
+        @Batch(maxSize = 5)
+        public int sum(List<Integer> batch) {
+            return batch.stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    @ApplicationScoped
+    public static class SumCollector {
+        private final List<Integer> sums = new CopyOnWriteArrayList<>();
+
+        @Incoming("sums")
+        public void collect(int sum) {
+            sums.add(sum);
+        }
+
+        List<Integer> sums() {
+            return sums;
+        }
+    }
+
+    @ApplicationScoped
+    public static class NativeBatchSubscriber {
+        private final List<Integer> sizes = new CopyOnWriteArrayList<>();
+        private final AtomicInteger acks = new AtomicInteger();
+
+        @Outgoing("batches")
+        public Publisher<Message<List<Integer>>> source() {
+            return Flowable.just(20, 30)
+                    .map(size -> Flowable.fromPublisher(messages(size, acks)).toList().blockingGet())
+                    .map(BatchMessage::of);
+        }
+
+        @Incoming("batches")
+        @Batch(maxSize = 10)
+        public void consume(List<Integer> batch) {
+            sizes.add(batch.size());
+        }
+
+        List<Integer> sizes() {
+            return sizes;
+        }
+
+        int acked() {
+            return acks.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class ConfiguredBatchSubscriber {
+        private final List<Integer> sizes = new CopyOnWriteArrayList<>();
+
+        @Outgoing("configured-batch")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, 10);
+        }
+
+        // The batch size is set in microprofile-config.properties
+        @Incoming("configured-batch")
+        @Batch(maxSize = 100)
+        public void consume(List<Integer> batch) {
+            sizes.add(batch.size());
+        }
+
+        List<Integer> sizes() {
+            return sizes;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidBatchSubscriber {
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, 10);
+        }
+
+        @Incoming("numbers")
+        @Batch
+        public void consume(Integer value) {
+            // Do nothing.
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package io.smallrye.reactive.messaging.blocking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.After;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.UnicastProcessor;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+import io.vertx.core.Vertx;
+
+public class BlockingTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 20;
+    private static Vertx vertx;
+
+    @After
+    public void closeVertx() {
+        if (vertx != null) {
+            vertx.close();
+            vertx = null;
+        }
+    }
+
+    @Test
+    public void testBlockingProcessorRunsOnTheChannelPool() {
+        addBeanClass(Collector.class);
+        BlockingProcessor processor = installInitializeAndGet(BlockingProcessor.class);
+        Collector collector = get(Collector.class);
+
+        await().until(() -> collector.list().size() == COUNT);
+        assertThat(collector.list()).containsExactlyElementsOf(expected());
+        assertThat(processor.threads()).isNotEmpty().allMatch(name -> name.startsWith("numbers-worker-"));
+    }
+
+    @Test
+    public void testBlockingSubscriberUsesTheConfiguredPool() {
+        BlockingSubscriber subscriber = installInitializeAndGet(BlockingSubscriber.class);
+
+        await().until(() -> subscriber.list().size() == COUNT);
+        assertThat(subscriber.list()).containsExactlyInAnyOrderElementsOf(expected());
+        assertThat(subscriber.threads()).hasSize(2).allMatch(name -> name.startsWith("limited-pool-worker-"));
+        assertThat(subscriber.maxConcurrency()).isEqualTo(2);
+    }
+
+    @Test
+    public void testResultsAreEmittedOnTheVertxContext() {
+        vertx = Vertx.vertx();
+        addBeanClass(Collector.class);
+        BlockingProcessorOnEventLoop processor = installInitializeAndGet(BlockingProcessorOnEventLoop.class);
+        Collector collector = get(Collector.class);
+
+        // Emits the items on the event loop, once the streams are connected.
+        vertx.runOnContext(x -> {
+            for (int i = 0; i < COUNT; i++) {
+                processor.emitter().onNext(i);
+            }
+            processor.emitter().onComplete();
+        });
+
+        await().until(() -> collector.list().size() == COUNT);
+        assertThat(collector.list()).containsExactlyElementsOf(expected());
+        assertThat(processor.threads()).allMatch(name -> name.startsWith("numbers-worker-"));
+        assertThat(collector.threads()).allMatch(name -> name.startsWith("vert.x-eventloop-thread"));
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testBlockingStreamProcessorIsRejected() {
+        addBeanClass(InvalidBlockingProcessor.class);
+        initialize();
+    }
+
+    private static List<String> expected() {
+        return Flowable.range(0, COUNT).map(i -> Integer.toString(i)).toList().blockingGet();
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @ApplicationScoped
+    public static class Collector {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        @Incoming("results")
+        public void collect(String s) {
+            threads.add(Thread.currentThread().getName());
+            list.add(s);
+        }
+
+        List<String> list() {
+            return list;
+        }
+
+        Set<String> threads() {
+            return threads;
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingProcessor {
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        @Incoming("numbers")
+        @Outgoing("results")
+        @Blocking
+        public String process(int i) {
+            threads.add(Thread.currentThread().getName());
+            // The first items take longer, the order must be kept anyway.
+            sleep(COUNT - i);
+            return Integer.toString(i);
+        }
+
+        Set<String> threads() {
+            return threads;
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingSubscriber {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        // The size of the pool is set in microprofile-config.properties
+        @Incoming("numbers")
+        @Blocking(value = "limited-pool", ordered = false)
+        public void consume(int i) {
+            int current = concurrency.incrementAndGet();
+            maxConcurrency.accumulateAndGet(current, Math::max);
+            threads.add(Thread.currentThread().getName());
+            sleep(10);
+            list.add(Integer.toString(i));
+            concurrency.decrementAndGet();
+        }
+
+        List<String> list() {
+            return list;
+        }
+
+        Set<String> threads() {
+            return threads;
+        }
+
+        int maxConcurrency() {
+            return maxConcurrency.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class BlockingProcessorOnEventLoop {
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private final UnicastProcessor<Integer> emitter = UnicastProcessor.create();
+
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return emitter;
+        }
+
+        @Incoming("numbers")
+        @Outgoing("results")
+        @Blocking
+        public String process(int i) {
+            threads.add(Thread.currentThread().getName());
+            sleep(1);
+            return Integer.toString(i);
+        }
+
+        Set<String> threads() {
+            return threads;
+        }
+
+        UnicastProcessor<Integer> emitter() {
+            return emitter;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidBlockingProcessor {
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        @Incoming("numbers")
+        @Outgoing("results")
+        @Blocking
+        public Publisher<String> process(int i) {
+            return Flowable.just(Integer.toString(i));
+        }
+
+        @Incoming("results")
+        public void sink(String s) {
+            // Do nothing.
+        }
+    }
+}
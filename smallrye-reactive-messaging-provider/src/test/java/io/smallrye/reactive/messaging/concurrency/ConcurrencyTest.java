@@ -0,0 +1,283 @@
+package io.smallrye.reactive.messaging.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Concurrency;
+
+public class ConcurrencyTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 20;
+
+    @Test
+    public void testOrderedConcurrentProcessor() {
+        addBeanClass(Collector.class);
+        OrderedProcessor processor = installInitializeAndGet(OrderedProcessor.class);
+        Collector collector = get(Collector.class);
+
+        await().until(() -> collector.list().size() == COUNT);
+        assertThat(collector.list()).containsExactlyElementsOf(Flowable.range(1, COUNT).toList().blockingGet());
+        assertThat(processor.max()).isGreaterThan(1).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    public void testUnorderedConcurrentProcessor() {
+        addBeanClass(Collector.class);
+        UnorderedProcessor processor = installInitializeAndGet(UnorderedProcessor.class);
+        Collector collector = get(Collector.class);
+
+        await().until(() -> collector.list().size() == COUNT);
+        assertThat(collector.list()).containsExactlyInAnyOrderElementsOf(Flowable.range(1, COUNT).toList().blockingGet());
+        assertThat(processor.max()).isGreaterThan(1).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    public void testConcurrentSubscriberAcknowledgesEveryMessage() {
+        ConcurrentSubscriber subscriber = installInitializeAndGet(ConcurrentSubscriber.class);
+
+        await().until(() -> subscriber.acked() == COUNT);
+        assertThat(subscriber.received()).hasSize(COUNT);
+        assertThat(subscriber.max()).isGreaterThan(1).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void testConcurrencyFromConfiguration() {
+        ConfiguredSubscriber subscriber = installInitializeAndGet(ConfiguredSubscriber.class);
+
+        await().until(() -> subscriber.received().size() == COUNT);
+        assertThat(subscriber.max()).isGreaterThan(1).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    public void testConfiguredConcurrencyIgnoredBySynchronousMethod() {
+        SynchronousConfiguredSubscriber subscriber = installInitializeAndGet(SynchronousConfiguredSubscriber.class);
+
+        await().until(() -> subscriber.received().size() == COUNT);
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testConcurrencyOnSynchronousMethod() {
+        addBeanClass(InvalidConcurrency.class);
+        initialize();
+    }
+
+    /**
+     * Completes the returned stages asynchronously, and records the maximum number of in-flight stages.
+     */
+    static class Tracker {
+        private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+        private final AtomicInteger inflight = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        <T> CompletionStage<T> complete(T value, long delay) {
+            int current = inflight.incrementAndGet();
+            max.accumulateAndGet(current, Math::max);
+            CompletableFuture<T> future = new CompletableFuture<>();
+            executor.schedule(() -> {
+                inflight.decrementAndGet();
+                future.complete(value);
+            }, delay, TimeUnit.MILLISECONDS);
+            return future;
+        }
+
+        int max() {
+            return max.get();
+        }
+
+        void shutdown() {
+            executor.shutdownNow();
+        }
+    }
+
+    @ApplicationScoped
+    public static class Collector {
+        private final List<Integer> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("results")
+        public void collect(int i) {
+            list.add(i);
+        }
+
+        List<Integer> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class OrderedProcessor {
+        final Tracker tracker = new Tracker();
+
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        @Incoming("numbers")
+        @Outgoing("results")
+        @Concurrency(4)
+        public CompletionStage<Integer> process(int i) {
+            // The first items complete last, so the order must be restored.
+            return tracker.complete(i + 1, 5 * (COUNT - i));
+        }
+
+        int max() {
+            return tracker.max();
+        }
+
+        @PreDestroy
+        void shutdown() {
+            tracker.shutdown();
+        }
+    }
+
+    @ApplicationScoped
+    public static class UnorderedProcessor {
+        final Tracker tracker = new Tracker();
+
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        @Incoming("numbers")
+        @Outgoing("results")
+        @Concurrency(value = 4, ordered = false)
+        public CompletionStage<Message<Integer>> process(Message<Integer> message) {
+            return tracker.complete(Message.of(message.getPayload() + 1), 5 * (COUNT - message.getPayload()));
+        }
+
+        int max() {
+            return tracker.max();
+        }
+
+        @PreDestroy
+        void shutdown() {
+            tracker.shutdown();
+        }
+    }
+
+    @ApplicationScoped
+    public static class ConcurrentSubscriber {
+        final Tracker tracker = new Tracker();
+        final AtomicInteger acked = new AtomicInteger();
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        List<Integer> received() {
+            return received;
+        }
+
+        int acked() {
+            return acked.get();
+        }
+
+        @Outgoing("numbers")
+        public Publisher<Message<Integer>> source() {
+            return Flowable.range(0, COUNT).map(i -> Message.of(i, () -> {
+                acked.incrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }));
+        }
+
+        @Incoming("numbers")
+        @Concurrency(3)
+        public CompletionStage<Void> consume(int i) {
+            received.add(i);
+            return tracker.complete(null, 10).thenApply(x -> null);
+        }
+
+        int max() {
+            return tracker.max();
+        }
+
+        @PreDestroy
+        void shutdown() {
+            tracker.shutdown();
+        }
+    }
+
+    @ApplicationScoped
+    public static class ConfiguredSubscriber {
+        final Tracker tracker = new Tracker();
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        List<Integer> received() {
+            return received;
+        }
+
+        @Outgoing("configured-concurrency")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        // The concurrency is set in microprofile-config.properties
+        @Incoming("configured-concurrency")
+        public CompletionStage<Void> consume(Message<Integer> message) {
+            received.add(message.getPayload());
+            return tracker.complete(message, 10).thenCompose(Message::ack);
+        }
+
+        int max() {
+            return tracker.max();
+        }
+
+        @PreDestroy
+        void shutdown() {
+            tracker.shutdown();
+        }
+    }
+
+    @ApplicationScoped
+    public static class SynchronousConfiguredSubscriber {
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        List<Integer> received() {
+            return received;
+        }
+
+        @Outgoing("configured-concurrency")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        // The concurrency configured for the channel does not apply to this method
+        @Incoming("configured-concurrency")
+        public void consume(int i) {
+            received.add(i);
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidConcurrency {
+        @Outgoing("numbers")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        @Incoming("numbers")
+        @Concurrency(2)
+        public void consume(int i) {
+            // Do nothing.
+        }
+    }
+}
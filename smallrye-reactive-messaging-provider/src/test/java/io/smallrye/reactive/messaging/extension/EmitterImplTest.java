@@ -0,0 +1,46 @@
+package io.smallrye.reactive.messaging.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletionStage;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.Test;
+
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+import io.smallrye.reactive.messaging.metrics.ChannelMetrics;
+
+public class EmitterImplTest {
+
+    @Test
+    public void testQueuedMessagesAreRejectedOnCancellation() {
+        EmitterImpl<String> emitter = new EmitterImpl<>("test", "WAIT", 0, 128, ChannelMetrics.NOOP);
+        TestSubscriber<Message<? extends String>> subscriber = Flowable.fromPublisher(emitter.getPublisher()).test(1);
+        CompletionStage<Void> first = emitter.sendWithAck("a");
+        CompletionStage<Void> queued = emitter.sendWithAck("b");
+
+        subscriber.assertValueCount(1);
+        subscriber.values().get(0).ack();
+        assertThat(first.toCompletableFuture()).isCompleted();
+        assertThat(queued.toCompletableFuture()).isNotDone();
+
+        // Nothing is sent anymore, the cancellation alone releases the queued message
+        subscriber.cancel();
+        assertThat(queued.toCompletableFuture()).isCompletedExceptionally();
+    }
+
+    @Test
+    public void testQueuedMessagesAreDispatchedBeforeCompletion() {
+        EmitterImpl<String> emitter = new EmitterImpl<>("test", "WAIT", 0, 128, ChannelMetrics.NOOP);
+        TestSubscriber<Message<? extends String>> subscriber = Flowable.fromPublisher(emitter.getPublisher()).test(0);
+        CompletionStage<Void> stage = emitter.sendWithAck("a");
+        emitter.complete();
+
+        subscriber.assertNoValues().assertNotComplete();
+        subscriber.request(1);
+        subscriber.assertValueCount(1).assertComplete();
+        subscriber.values().get(0).ack();
+        assertThat(stage.toCompletableFuture()).isCompleted();
+    }
+}
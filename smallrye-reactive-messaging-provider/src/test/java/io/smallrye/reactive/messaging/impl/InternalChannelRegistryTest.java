@@ -0,0 +1,211 @@
+package io.smallrye.reactive.messaging.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.junit.Test;
+
+import io.smallrye.reactive.messaging.ChannelRegistry;
+import io.smallrye.reactive.messaging.annotations.Emitter;
+
+public class InternalChannelRegistryTest {
+
+    @Test
+    public void testSnapshotsAreNotAffectedByLaterRegistrations() {
+        InternalChannelRegistry registry = new InternalChannelRegistry();
+        PublisherBuilder<Message<String>> p1 = ReactiveStreams.of(Message.of("a"));
+        PublisherBuilder<Message<String>> p2 = ReactiveStreams.of(Message.of("b"));
+        registry.register("a", p1);
+
+        Set<String> names = registry.getIncomingNames();
+        List<PublisherBuilder<? extends Message>> publishers = registry.getPublishers("a");
+        registry.register("a", p2);
+        registry.register("b", p2);
+
+        assertThat(names).containsExactly("a");
+        assertThat(publishers).containsExactly(p1);
+        assertThat(registry.getIncomingNames()).containsExactlyInAnyOrder("a", "b");
+        assertThat(registry.getPublishers("a")).containsExactly(p1, p2);
+        assertThatThrownBy(() -> registry.getIncomingNames().add("c"))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> registry.getPublishers("a").clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testUnregister() {
+        InternalChannelRegistry registry = new InternalChannelRegistry();
+        PublisherBuilder<Message<String>> p1 = ReactiveStreams.of(Message.of("a"));
+        PublisherBuilder<Message<String>> p2 = ReactiveStreams.of(Message.of("b"));
+        SubscriberBuilder<Message<String>, Void> subscriber = ReactiveStreams.<Message<String>> builder().ignore();
+        registry.register("a", p1);
+        registry.register("a", p2);
+        registry.register("a", subscriber);
+
+        assertThat(registry.unregister("a", p1)).isTrue();
+        assertThat(registry.unregister("a", p1)).isFalse();
+        assertThat(registry.getPublishers("a")).containsExactly(p2);
+        assertThat(registry.unregister("a", p2)).isTrue();
+        assertThat(registry.getPublishers("a")).isEmpty();
+        assertThat(registry.getIncomingNames()).isEmpty();
+
+        assertThat(registry.unregister("b", subscriber)).isFalse();
+        assertThat(registry.unregister("a", subscriber)).isTrue();
+        assertThat(registry.getSubscribers("a")).isEmpty();
+        assertThat(registry.getOutgoingNames()).isEmpty();
+    }
+
+    @Test
+    public void testListeners() {
+        InternalChannelRegistry registry = new InternalChannelRegistry();
+        List<String> events = new ArrayList<>();
+        ChannelRegistry.Listener failing = new ChannelRegistry.Listener() {
+            @Override
+            public void onPublisherRegistered(String name, PublisherBuilder<? extends Message> stream) {
+                throw new IllegalStateException("expected");
+            }
+        };
+        ChannelRegistry.Listener listener = new ChannelRegistry.Listener() {
+            @Override
+            public void onPublisherRegistered(String name, PublisherBuilder<? extends Message> stream) {
+                // The registration is visible to the listener
+                assertThat(registry.getPublishers(name)).contains(stream);
+                events.add("+publisher " + name);
+            }
+
+            @Override
+            public void onPublisherUnregistered(String name, PublisherBuilder<? extends Message> stream) {
+                events.add("-publisher " + name);
+            }
+
+            @Override
+            public void onSubscriberRegistered(String name, SubscriberBuilder<? extends Message, Void> subscriber) {
+                events.add("+subscriber " + name);
+            }
+        };
+        registry.addListener(failing);
+        registry.addListener(listener);
+
+        PublisherBuilder<Message<String>> publisher = ReactiveStreams.of(Message.of("a"));
+        registry.register("a", publisher);
+        registry.register("b", ReactiveStreams.<Message<String>> builder().ignore());
+        registry.unregister("a", publisher);
+        registry.unregister("a", publisher);
+        registry.removeListener(listener);
+        registry.register("c", publisher);
+
+        assertThat(events).containsExactly("+publisher a", "+subscriber b", "-publisher a");
+    }
+
+    @Test
+    public void testConcurrentRegistrations() throws InterruptedException {
+        InternalChannelRegistry registry = new InternalChannelRegistry();
+        int threads = 4;
+        int registrations = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<PublisherBuilder<Message<String>>> kept = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < registrations; i++) {
+                    PublisherBuilder<Message<String>> publisher = ReactiveStreams.empty();
+                    registry.register("shared", publisher);
+                    registry.register("channel-" + thread + "-" + i, publisher);
+                    if (i % 2 == 0) {
+                        registry.unregister("shared", publisher);
+                    } else {
+                        kept.add(publisher);
+                    }
+                    registry.getIncomingNames().forEach(registry::getPublishers);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(registry.getPublishers("shared")).hasSize(threads * registrations / 2)
+                .containsExactlyInAnyOrderElementsOf(kept);
+        assertThat(registry.getIncomingNames()).hasSize(threads * registrations + 1);
+    }
+
+
+    @Test
+    public void testRegistriesDoNotHaveToSupportChanges() {
+        ChannelRegistry registry = new ChannelRegistry() {
+            @Override
+            public PublisherBuilder<? extends Message> register(String name,
+                    PublisherBuilder<? extends Message> stream) {
+                return stream;
+            }
+
+            @Override
+            public SubscriberBuilder<? extends Message, Void> register(String name,
+                    SubscriberBuilder<? extends Message, Void> subscriber) {
+                return subscriber;
+            }
+
+            @Override
+            public void register(String name, Emitter<?> emitter) {
+                // Not used
+            }
+
+            @Override
+            public List<PublisherBuilder<? extends Message>> getPublishers(String name) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Emitter<?> getEmitter(String name) {
+                return null;
+            }
+
+            @Override
+            public List<SubscriberBuilder<? extends Message, Void>> getSubscribers(String name) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public Set<String> getIncomingNames() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<String> getOutgoingNames() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public Set<String> getEmitterNames() {
+                return Collections.emptySet();
+            }
+        };
+        ChannelRegistry.Listener listener = new ChannelRegistry.Listener() {
+        };
+
+        // The weaving registers listeners whatever the registry
+        registry.addListener(listener);
+        registry.removeListener(listener);
+        assertThat(registry.unregister("a", ReactiveStreams.of(Message.of("a")))).isFalse();
+    }
+}
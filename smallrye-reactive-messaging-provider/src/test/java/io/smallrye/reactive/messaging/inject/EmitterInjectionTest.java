@@ -1,9 +1,19 @@
 package io.smallrye.reactive.messaging.inject;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.spi.DeploymentException;
@@ -12,7 +22,9 @@ import javax.inject.Inject;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
 import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 import org.junit.Test;
+import org.reactivestreams.Subscriber;
 
 import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
 import io.smallrye.reactive.messaging.annotations.Channel;
@@ -121,6 +133,36 @@ public class EmitterInjectionTest extends WeldTestBaseWithoutTails {
         assertThat(bean.list()).containsExactly("A", "B", "C");
     }
 
+    @Test
+    public void testSendAll() {
+        MyBeanEmittingCollections bean = installInitializeAndGet(MyBeanEmittingCollections.class);
+        bean.run();
+        assertThat(bean.list()).containsExactly("a", "b", "c", "d");
+        assertThat(bean.isCaught()).isTrue();
+        assertThat(bean.emitter().isCancelled()).isTrue();
+    }
+
+    @Test
+    public void testConcurrentProducersAndCompletion() throws InterruptedException {
+        MyBeanCompletingWhileEmitting bean = installInitializeAndGet(MyBeanCompletingWhileEmitting.class);
+        int accepted = bean.run(4);
+        await().until(bean::completed);
+        // The sends either go through, or are rejected, none is lost
+        assertThat(bean.list()).hasSize(accepted).doesNotHaveDuplicates();
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        MyBeanEmittingConcurrently bean = installInitializeAndGet(MyBeanEmittingConcurrently.class);
+        bean.run(8, 1000);
+        await().until(() -> bean.list().size() == 8 * 1000);
+        assertThat(bean.list()).doesNotHaveDuplicates();
+        // Each producer sends its items in order.
+        Map<Integer, List<Integer>> perProducer = bean.list().stream()
+                .collect(Collectors.groupingBy(i -> i / 1000));
+        perProducer.values().forEach(items -> assertThat(items).isSorted());
+    }
+
     @ApplicationScoped
     public static class MyBeanEmittingPayloads {
         @Inject
@@ -419,4 +461,126 @@ public class EmitterInjectionTest extends WeldTestBaseWithoutTails {
         }
     }
 
+    @ApplicationScoped
+    public static class MyBeanEmittingCollections {
+        @Inject
+        @Channel("foo")
+        Emitter<String> emitter;
+        private List<String> list = new CopyOnWriteArrayList<>();
+        private boolean caught;
+
+        public Emitter<String> emitter() {
+            return emitter;
+        }
+
+        public List<String> list() {
+            return list;
+        }
+
+        public boolean isCaught() {
+            return caught;
+        }
+
+        public void run() {
+            emitter.sendAll(Arrays.asList("a", "b"));
+            try {
+                emitter.sendAll(Arrays.asList("x", null));
+            } catch (IllegalArgumentException e) {
+                caught = true;
+            }
+            emitter.sendAll(Arrays.asList("c", "d")).complete();
+        }
+
+        @Incoming("foo")
+        public void consume(String s) {
+            list.add(s);
+        }
+    }
+
+    @ApplicationScoped
+    public static class MyBeanCompletingWhileEmitting {
+        @Inject
+        @Channel("foo")
+        Emitter<Integer> emitter;
+        private final List<Integer> list = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        public List<Integer> list() {
+            return list;
+        }
+
+        public boolean completed() {
+            return completed.get();
+        }
+
+        public int run(int producers) throws InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicInteger counter = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(producers);
+            for (int p = 0; p < producers; p++) {
+                executor.submit(() -> {
+                    started.countDown();
+                    try {
+                        for (;;) {
+                            emitter.send(counter.getAndIncrement());
+                            accepted.incrementAndGet();
+                        }
+                    } catch (IllegalStateException e) {
+                        // Terminated
+                    }
+                });
+            }
+            started.await();
+            Thread.sleep(10);
+            emitter.complete();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+            return accepted.get();
+        }
+
+        @Incoming("foo")
+        public Subscriber<Integer> consume() {
+            return ReactiveStreams.<Integer> builder()
+                    .peek(list::add)
+                    .onComplete(() -> completed.set(true))
+                    .ignore()
+                    .build();
+        }
+    }
+
+    @ApplicationScoped
+    public static class MyBeanEmittingConcurrently {
+        @Inject
+        @Channel("foo")
+        Emitter<Integer> emitter;
+        private List<Integer> list = new CopyOnWriteArrayList<>();
+
+        public List<Integer> list() {
+            return list;
+        }
+
+        public void run(int producers, int count) throws InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int p = 0; p < producers; p++) {
+                int base = p * count;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < count; i++) {
+                        emitter.send(base + i);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        @Incoming("foo")
+        public void consume(int i) {
+            list.add(i);
+        }
+    }
 }
@@ -0,0 +1,213 @@
+package io.smallrye.reactive.messaging.inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.processors.PublishProcessor;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Channel;
+import io.smallrye.reactive.messaging.annotations.Merge;
+
+public class SharedChannelInjectionTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testInjectionPointsShareTheUpstreamSubscription() {
+        addBeanClass(HotSource.class);
+        BeanInjectedTwiceWithTheSameChannel bean = installInitializeAndGet(BeanInjectedTwiceWithTheSameChannel.class);
+        HotSource source = get(HotSource.class);
+
+        bean.subscribe();
+        source.send("a", "b", "c");
+
+        await().until(() -> bean.first().size() == 3 && bean.second().size() == 3);
+        assertThat(bean.first()).containsExactly("a", "b", "c");
+        assertThat(bean.second()).containsExactly("a", "b", "c");
+        assertThat(source.subscriptions()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLastCancellationReleasesTheUpstreamSubscription() {
+        addBeanClass(HotSource.class);
+        BeanInjectedTwiceWithTheSameChannel bean = installInitializeAndGet(BeanInjectedTwiceWithTheSameChannel.class);
+        HotSource source = get(HotSource.class);
+
+        Disposable first = bean.flowable().subscribe();
+        Disposable second = bean.flowable().subscribe();
+        assertThat(source.subscriptions()).isEqualTo(1);
+        first.dispose();
+        assertThat(source.cancellations()).isEqualTo(0);
+        second.dispose();
+        assertThat(source.cancellations()).isEqualTo(1);
+
+        // The injected publisher subscribes again
+        List<String> items = new CopyOnWriteArrayList<>();
+        bean.flowable().subscribe(items::add);
+        assertThat(source.subscriptions()).isEqualTo(2);
+        source.send("a", "b");
+        await().until(() -> items.size() == 2);
+        assertThat(items).containsExactly("a", "b");
+    }
+
+    @Test
+    public void testInjectionHonorsMerge() {
+        addBeanClass(TwoSources.class);
+        BeanInjectedWithMerge bean = installInitializeAndGet(BeanInjectedWithMerge.class);
+        assertThat(bean.merged().toList().blockingGet()).containsExactlyInAnyOrder("a", "b", "c", "d");
+        List<String> concatenated = bean.concatenated().toList().blockingGet();
+        if (concatenated.get(0).equals("a")) {
+            assertThat(concatenated).containsExactly("a", "b", "c", "d");
+        } else {
+            assertThat(concatenated).containsExactly("c", "d", "a", "b");
+        }
+    }
+
+    @Test
+    public void testInjectionPointsWithDifferentMergeAttributesDoNotShare() {
+        addBeanClass(HotSource.class);
+        BeanInjectedWithDifferentPrefetches bean = installInitializeAndGet(BeanInjectedWithDifferentPrefetches.class);
+        HotSource source = get(HotSource.class);
+
+        bean.first().subscribe();
+        bean.second().subscribe();
+        bean.third().subscribe();
+        assertThat(source.subscriptions()).isEqualTo(2);
+    }
+
+    @ApplicationScoped
+    public static class HotSource {
+        private final PublishProcessor<String> processor = PublishProcessor.create();
+        private final AtomicInteger subscriptions = new AtomicInteger();
+        private final AtomicInteger cancellations = new AtomicInteger();
+
+        @Outgoing("hot")
+        public Publisher<String> hot() {
+            return processor.doOnSubscribe(s -> subscriptions.incrementAndGet())
+                    .doOnCancel(cancellations::incrementAndGet);
+        }
+
+        public void send(String... items) {
+            for (String item : items) {
+                processor.onNext(item);
+            }
+        }
+
+        public int subscriptions() {
+            return subscriptions.get();
+        }
+
+        public int cancellations() {
+            return cancellations.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class BeanInjectedTwiceWithTheSameChannel {
+        @Inject
+        @Channel("hot")
+        private Flowable<String> field1;
+
+        @Inject
+        @Channel("hot")
+        private PublisherBuilder<Message<String>> field2;
+
+        private final List<String> first = new CopyOnWriteArrayList<>();
+        private final List<String> second = new CopyOnWriteArrayList<>();
+
+        public void subscribe() {
+            field1.subscribe(first::add);
+            field2.forEach(m -> second.add(m.getPayload())).run();
+        }
+
+        public Flowable<String> flowable() {
+            return field1;
+        }
+
+        public List<String> first() {
+            return first;
+        }
+
+        public List<String> second() {
+            return second;
+        }
+    }
+
+    @ApplicationScoped
+    public static class TwoSources {
+        @Outgoing("many")
+        public Publisher<String> first() {
+            return Flowable.just("a", "b");
+        }
+
+        @Outgoing("many")
+        public Publisher<String> second() {
+            return Flowable.just("c", "d");
+        }
+    }
+
+    @ApplicationScoped
+    public static class BeanInjectedWithMerge {
+        @Inject
+        @Channel("many")
+        @Merge
+        private Flowable<String> merged;
+
+        @Inject
+        @Channel("many")
+        @Merge(Merge.Mode.CONCAT)
+        private Flowable<String> concatenated;
+
+        public Flowable<String> merged() {
+            return merged;
+        }
+
+        public Flowable<String> concatenated() {
+            return concatenated;
+        }
+    }
+
+    @ApplicationScoped
+    public static class BeanInjectedWithDifferentPrefetches {
+        @Inject
+        @Channel("hot")
+        @Merge(prefetch = 1)
+        private Flowable<String> first;
+
+        @Inject
+        @Channel("hot")
+        @Merge(prefetch = 2)
+        private Flowable<String> second;
+
+        @Inject
+        @Channel("hot")
+        @Merge(prefetch = 2)
+        private Flowable<String> third;
+
+        public Flowable<String> first() {
+            return first;
+        }
+
+        public Flowable<String> second() {
+            return second;
+        }
+
+        public Flowable<String> third() {
+            return third;
+        }
+    }
+
+}
@@ -0,0 +1,285 @@
+package io.smallrye.reactive.messaging.inject.overflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Channel;
+import io.smallrye.reactive.messaging.annotations.Emitter;
+import io.smallrye.reactive.messaging.annotations.OnOverflow;
+
+public class WaitOverflowStrategyTest extends WeldTestBaseWithoutTails {
+
+    private static ExecutorService executor;
+
+    @BeforeClass
+    public static void init() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterClass
+    public static void cleanup() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testNormal() {
+        BeanUsingWaitOverflowStrategy bean = installInitializeAndGet(BeanUsingWaitOverflowStrategy.class);
+        bean.emitThree();
+
+        await().until(() -> bean.output().size() == 3);
+        assertThat(bean.output()).containsExactly("1", "2", "3");
+        assertThat(bean.exception()).isNull();
+    }
+
+    @Test
+    public void testOverflow() {
+        BeanUsingWaitOverflowStrategy bean = installInitializeAndGet(BeanUsingWaitOverflowStrategy.class);
+        bean.emitALotOfItems();
+
+        await().until(bean::isDone);
+        await().until(() -> bean.output().size() == 999);
+        assertThat(bean.output()).startsWith("1", "2", "3").endsWith("999");
+        assertThat(bean.failure()).isNull();
+        assertThat(bean.exception()).isNull();
+    }
+
+    @Test
+    public void testSendWithAck() throws Exception {
+        BeanSendingWithAck bean = installInitializeAndGet(BeanSendingWithAck.class);
+        List<CompletionStage<Void>> stages = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stages.add(bean.emitter().sendWithAck("" + i));
+        }
+        CompletableFuture.allOf(stages.stream().map(CompletionStage::toCompletableFuture)
+                .toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        assertThat(bean.output()).containsExactly("0", "1", "2", "3", "4");
+    }
+
+    @Test
+    public void testSendWithAckFailure() throws Exception {
+        BeanSendingMessagesWithAck bean = installInitializeAndGet(BeanSendingMessagesWithAck.class);
+        CompletableFuture<Void> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new IllegalStateException("boom"));
+        CompletionStage<Void> stage = bean.emitter().sendWithAck(Message.of("a", () -> failure));
+
+        await().until(() -> stage.toCompletableFuture().isDone());
+        assertThat(stage.toCompletableFuture()).isCompletedExceptionally();
+        try {
+            stage.toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        }
+        assertThat(bean.output()).containsExactly("a");
+    }
+
+    @Test
+    public void testDefaultSendWithAck() throws Exception {
+        // The default implementation sends a message, so the emitter must accept them
+        List<Object> sent = new ArrayList<>();
+        Emitter<Object> emitter = new Emitter<Object>() {
+            @Override
+            public Emitter<Object> send(Object msg) {
+                sent.add(msg);
+                return this;
+            }
+
+            @Override
+            public void complete() {
+                // Not used
+            }
+
+            @Override
+            public void error(Exception e) {
+                // Not used
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+
+            @Override
+            public boolean isRequested() {
+                return true;
+            }
+        };
+
+        CompletionStage<Void> stage = emitter.sendWithAck("a");
+        assertThat(sent).hasSize(1);
+        Message<?> message = (Message<?>) sent.get(0);
+        assertThat(message.getPayload()).isEqualTo("a");
+        assertThat(stage.toCompletableFuture()).isNotDone();
+        message.ack().toCompletableFuture().get(10, TimeUnit.SECONDS);
+        assertThat(stage.toCompletableFuture()).isCompleted();
+    }
+
+    @Test
+    public void testBoundedInFlightWindow() {
+        BeanUsingWaitOverflowStrategy bean = installInitializeAndGet(BeanUsingWaitOverflowStrategy.class);
+        bean.emitWithWindow(1000, 16);
+
+        await().until(bean::isDone);
+        await().until(() -> bean.output().size() == 1000);
+        assertThat(bean.failure()).isNull();
+        assertThat(bean.exception()).isNull();
+    }
+
+    @ApplicationScoped
+    public static class BeanUsingWaitOverflowStrategy {
+
+        @Inject
+        @Channel("hello")
+        @OnOverflow(value = OnOverflow.Strategy.WAIT)
+        Emitter<String> emitter;
+
+        private List<String> output = new CopyOnWriteArrayList<>();
+
+        private volatile Throwable downstreamFailure;
+        private volatile boolean done;
+        private volatile Exception callerException;
+
+        public boolean isDone() {
+            return done;
+        }
+
+        public List<String> output() {
+            return output;
+        }
+
+        public Throwable failure() {
+            return downstreamFailure;
+        }
+
+        public Exception exception() {
+            return callerException;
+        }
+
+        public void emitThree() {
+            try {
+                emitter.send("1").send("2").send("3").complete();
+            } catch (Exception e) {
+                callerException = e;
+            }
+        }
+
+        public void emitALotOfItems() {
+            new Thread(() -> {
+                try {
+                    for (int i = 1; i < 1000; i++) {
+                        emitter.send("" + i);
+                    }
+                } catch (Exception e) {
+                    callerException = e;
+                } finally {
+                    done = true;
+                }
+            }).start();
+        }
+
+        public void emitWithWindow(int count, int window) {
+            new Thread(() -> {
+                Semaphore permits = new Semaphore(window);
+                try {
+                    for (int i = 0; i < count; i++) {
+                        permits.acquire();
+                        emitter.sendWithAck("" + i).whenComplete((x, f) -> permits.release());
+                    }
+                } catch (Exception e) {
+                    callerException = e;
+                } finally {
+                    done = true;
+                }
+            }).start();
+        }
+
+        @Incoming("hello")
+        @Outgoing("out")
+        public Flowable<String> consume(Flowable<String> values) {
+            Scheduler scheduler = Schedulers.from(executor);
+            return values
+                    .observeOn(scheduler)
+                    .delay(1, TimeUnit.MILLISECONDS, scheduler)
+                    .doOnError(err -> {
+                        downstreamFailure = err;
+                    });
+        }
+
+        @Incoming("out")
+        public void out(String s) {
+            output.add(s);
+        }
+
+    }
+
+    @ApplicationScoped
+    public static class BeanSendingWithAck {
+
+        @Inject
+        @Channel("hello")
+        Emitter<String> emitter;
+
+        private List<String> output = new CopyOnWriteArrayList<>();
+
+        public Emitter<String> emitter() {
+            return emitter;
+        }
+
+        public List<String> output() {
+            return output;
+        }
+
+        @Incoming("hello")
+        public void consume(String s) {
+            output.add(s);
+        }
+    }
+
+    @ApplicationScoped
+    public static class BeanSendingMessagesWithAck {
+
+        @Inject
+        @Channel("hello")
+        Emitter<Message<String>> emitter;
+
+        private List<String> output = new CopyOnWriteArrayList<>();
+
+        public Emitter<Message<String>> emitter() {
+            return emitter;
+        }
+
+        public List<String> output() {
+            return output;
+        }
+
+        @Incoming("hello")
+        public CompletionStage<Void> consume(Message<String> message) {
+            output.add(message.getPayload());
+            return message.ack();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.smallrye.reactive.messaging.invalid;
 
 import static io.smallrye.reactive.messaging.extension.MediatorManager.STRICT_MODE_PROPERTY;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.spi.DeploymentException;
@@ -48,6 +49,37 @@ public class InvalidConfigurationTest extends WeldTestBaseWithoutTails {
         initialize();
     }
 
+    @Test
+    public void testUnsatisfiedChannelIsReported() {
+        tearDown();
+        System.setProperty(STRICT_MODE_PROPERTY, "true");
+        setUp();
+        addBeanClass(IncompleteGraphBean.class);
+        assertThatThrownBy(this::initialize)
+                .isInstanceOf(DeploymentException.class)
+                .hasStackTraceContaining("(no publisher for `foo`)");
+    }
+
+    @Test
+    public void testCycleWithoutStrictMode() {
+        addBeanClass(CyclicGraphBean.class);
+        initialize();
+    }
+
+    @Test
+    public void testCycleIsReportedWithStrictMode() {
+        tearDown();
+        System.setProperty(STRICT_MODE_PROPERTY, "true");
+        setUp();
+        addBeanClass(CyclicGraphBean.class);
+        assertThatThrownBy(this::initialize)
+                .isInstanceOf(DeploymentException.class)
+                .hasStackTraceContaining("CyclicGraphBean#first -> `b`")
+                .hasStackTraceContaining("CyclicGraphBean#second -> `a`")
+                .hasStackTraceContaining("part of or downstream of a cycle")
+                .hasStackTraceContaining("CyclicGraphBean#sink (waiting for `b`");
+    }
+
     @Test
     public void testEmptyGraphWithStrictMode() {
         tearDown();
@@ -74,6 +106,26 @@ public class InvalidConfigurationTest extends WeldTestBaseWithoutTails {
         }
     }
 
+    @ApplicationScoped
+    public static class CyclicGraphBean {
+        @Incoming("a")
+        @Outgoing("b")
+        public String first(String x) {
+            return x;
+        }
+
+        @Incoming("b")
+        @Outgoing("a")
+        public String second(String x) {
+            return x;
+        }
+
+        @Incoming("b")
+        public void sink(String x) {
+            // Do nothing.
+        }
+    }
+
     @ApplicationScoped
     public static class IncompleteGraphBean {
         @Incoming("foo")
@@ -0,0 +1,61 @@
+package io.smallrye.reactive.messaging.merge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Merge;
+
+public class FairMergeTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testFairMerge() {
+        addBeanClass(BeanUsingFairMerge.class);
+        initialize();
+        BeanUsingFairMerge bean = get(BeanUsingFairMerge.class);
+        await().until(() -> bean.list().size() == 8);
+        // Whatever the order of the sources, they alternate until the shortest one completes
+        List<String> list = bean.list();
+        for (int i = 0; i < 6; i += 2) {
+            assertThat(list.get(i).charAt(0)).isNotEqualTo(list.get(i + 1).charAt(0));
+        }
+        assertThat(list).containsExactlyInAnyOrder("a0", "a1", "a2", "a3", "a4", "b0", "b1", "b2");
+    }
+
+    @ApplicationScoped
+    public static class BeanUsingFairMerge {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Outgoing("fair")
+        public Publisher<String> a() {
+            return Flowable.range(0, 5).map(i -> "a" + i);
+        }
+
+        @Outgoing("fair")
+        public Publisher<String> b() {
+            return Flowable.range(0, 3).map(i -> "b" + i);
+        }
+
+        @Incoming("fair")
+        @Merge(fair = true, prefetch = 2)
+        public void sink(String payload) {
+            list.add(payload);
+        }
+
+        public List<String> list() {
+            return list;
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import io.reactivex.Flowable;
+import io.reactivex.subscribers.TestSubscriber;
+
+public class BackpressureMonitorTest {
+
+    private final List<String> spans = new CopyOnWriteArrayList<>();
+
+    private final ChannelMetrics metrics = new ChannelMetrics() {
+        @Override
+        public boolean isTraced(Operation operation) {
+            return operation == Operation.BACKPRESSURE;
+        }
+
+        @Override
+        public Object startSpan(Operation operation, String detail) {
+            spans.add("start");
+            return operation;
+        }
+
+        @Override
+        public void endSpan(Object span, Throwable failure) {
+            spans.add("end");
+        }
+    };
+
+    @Test
+    public void testWaitsBetweenRequests() {
+        TestSubscriber<Integer> subscriber = BackpressureMonitor.monitor(Flowable.range(1, 10), metrics)
+                .test(0);
+        assertThat(spans).isEmpty();
+
+        subscriber.request(3);
+        subscriber.assertValues(1, 2, 3);
+        assertThat(spans).containsExactly("start");
+
+        subscriber.request(2);
+        subscriber.assertValues(1, 2, 3, 4, 5);
+        assertThat(spans).containsExactly("start", "end", "start");
+
+        subscriber.cancel();
+        assertThat(spans).containsExactly("start", "end", "start", "end");
+    }
+
+    @Test
+    public void testUnboundedRequests() {
+        BackpressureMonitor.monitor(Flowable.range(1, 10), metrics).test()
+                .assertValueCount(10)
+                .assertComplete();
+        assertThat(spans).isEmpty();
+    }
+
+    @Test
+    public void testNotTraced() {
+        Flowable<Integer> flowable = Flowable.range(1, 10);
+        assertThat(BackpressureMonitor.monitor(flowable, ChannelMetrics.NOOP)).isSameAs(flowable);
+        assertThat(BackpressureMonitor.monitor(flowable, new ChannelMetrics() {
+        })).isSameAs(flowable);
+    }
+}
@@ -0,0 +1,243 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Channel;
+import io.smallrye.reactive.messaging.annotations.Emitter;
+
+public class ChannelMetricsTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testMediatorMetrics() {
+        addBeanClass(StatisticsProvider.class);
+        addBeanClass(Pipeline.class);
+        initialize();
+        Pipeline pipeline = get(Pipeline.class);
+        await().until(() -> pipeline.list().size() == 5);
+
+        StatisticsProvider provider = get(StatisticsProvider.class);
+        ChannelStatistics source = provider.forChannel("source");
+        assertThat(source.getProduced()).isEqualTo(5);
+        assertThat(source.getConsumed()).isEqualTo(5);
+        assertThat(source.getInvocationTime().getCount()).isEqualTo(5);
+
+        ChannelStatistics sink = provider.forChannel("sink");
+        assertThat(sink.getProduced()).isEqualTo(5);
+        assertThat(sink.getConsumed()).isEqualTo(5);
+        assertThat(sink.getInvocationTime().getCount()).isEqualTo(5);
+        await().until(() -> sink.getAcked() == 5);
+        assertThat(sink.getAckTime().getCount()).isEqualTo(5);
+        assertThat(sink.getNacked()).isZero();
+        assertThat(sink.getInFlight()).isZero();
+    }
+
+    @Test
+    public void testGeneratorMetrics() {
+        addBeanClass(StatisticsProvider.class);
+        addBeanClass(Generator.class);
+        initialize();
+        Generator generator = get(Generator.class);
+        await().until(() -> generator.list().size() == 5);
+
+        // The generator and the consumer are both invoked for each message, the last generation never completing
+        ChannelStatistics generated = get(StatisticsProvider.class).forChannel("generated");
+        assertThat(generated.getInvocationTime().getCount()).isEqualTo(10);
+        assertThat(generated.getProduced()).isEqualTo(5);
+    }
+
+    @Test
+    public void testEmitterMetrics() {
+        addBeanClass(StatisticsProvider.class);
+        addBeanClass(EmittingBean.class);
+        initialize();
+        EmittingBean bean = get(EmittingBean.class);
+        bean.emitter().send("a").send("b").send("c");
+        await().until(() -> bean.list().size() == 3);
+
+        ChannelStatistics emitted = get(StatisticsProvider.class).forChannel("emitted");
+        assertThat(emitted.getProduced()).isEqualTo(3);
+        assertThat(emitted.getConsumed()).isEqualTo(3);
+        assertThat(emitted.getQueueDepth()).isZero();
+    }
+
+    @Test
+    public void testSpans() {
+        addBeanClass(StatisticsProvider.class);
+        addBeanClass(TracingProvider.class);
+        addBeanClass(Pipeline.class);
+        initialize();
+        Pipeline pipeline = get(Pipeline.class);
+        await().until(() -> pipeline.list().size() == 5);
+
+        // The statistics are still recorded next to the spans
+        assertThat(get(StatisticsProvider.class).forChannel("source").getConsumed()).isEqualTo(5);
+        TracingProvider provider = get(TracingProvider.class);
+        await().until(() -> provider.ended().size() == 15);
+        assertThat(provider.ended()).containsOnly(
+                "source:INVOCATION:" + Pipeline.class.getName() + "#process",
+                "sink:INVOCATION:" + Pipeline.class.getName() + "#sink",
+                "sink:ACK:null");
+        assertThat(provider.ended()).filteredOn(span -> span.startsWith("sink:ACK")).hasSize(5);
+    }
+
+    @Test
+    public void testLineage() {
+        addBeanClass(LineageProvider.class);
+        addBeanClass(Pipeline.class);
+        addBeanClass(EmittingBean.class);
+        initialize();
+        Pipeline pipeline = get(Pipeline.class);
+        await().until(() -> pipeline.list().size() == 5);
+        EmittingBean bean = get(EmittingBean.class);
+        bean.emitter().send("a").send("b").send("c");
+        await().until(() -> bean.list().size() == 3);
+
+        // One message out of 2, starting with the first one
+        LineageProvider provider = get(LineageProvider.class);
+        ChannelStatistics.LineageStatistics fromSource = provider.forChannel("sink").getLineages().get("source");
+        assertThat(fromSource.getEgressTime().getCount()).isEqualTo(3);
+        await().until(() -> fromSource.getAckTime().getCount() == 3);
+        assertThat(provider.forChannel("sink").getLineages()).containsOnlyKeys("source");
+        assertThat(provider.forChannel("source").getLineages()).isEmpty();
+
+        ChannelStatistics.LineageStatistics fromEmitter = provider.forChannel("emitted").getLineages().get("emitted");
+        assertThat(fromEmitter.getEgressTime().getCount()).isEqualTo(2);
+        await().until(() -> fromEmitter.getAckTime().getCount() == 2);
+    }
+
+    @ApplicationScoped
+    public static class LineageProvider implements MetricsProvider {
+        private final Map<String, ChannelStatistics> statistics = new ConcurrentHashMap<>();
+
+        @Override
+        public ChannelStatistics forChannel(String channel) {
+            return statistics.computeIfAbsent(channel, name -> new ChannelStatistics(name, 1, 2));
+        }
+    }
+
+    @ApplicationScoped
+    public static class TracingProvider implements MetricsProvider {
+        private final List<String> ended = new CopyOnWriteArrayList<>();
+
+        @Override
+        public ChannelMetrics forChannel(String channel) {
+            return new ChannelMetrics() {
+                @Override
+                public boolean isTraced(Operation operation) {
+                    return true;
+                }
+
+                @Override
+                public Object startSpan(Operation operation, String detail) {
+                    return channel + ":" + operation + ":" + detail;
+                }
+
+                @Override
+                public void endSpan(Object span, Throwable failure) {
+                    ended.add((String) span);
+                }
+            };
+        }
+
+        public List<String> ended() {
+            return ended;
+        }
+    }
+
+    @ApplicationScoped
+    public static class StatisticsProvider implements MetricsProvider {
+        private final Map<String, ChannelStatistics> statistics = new ConcurrentHashMap<>();
+
+        @Override
+        public ChannelStatistics forChannel(String channel) {
+            return statistics.computeIfAbsent(channel, name -> new ChannelStatistics(name, 1));
+        }
+    }
+
+    @ApplicationScoped
+    public static class Pipeline {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Outgoing("source")
+        public Publisher<Integer> source() {
+            return Flowable.range(1, 5);
+        }
+
+        @Incoming("source")
+        @Outgoing("sink")
+        public String process(int i) {
+            return Integer.toString(i);
+        }
+
+        @Incoming("sink")
+        public void sink(String payload) {
+            list.add(payload);
+        }
+
+        public List<String> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class Generator {
+        private final AtomicInteger counter = new AtomicInteger();
+        private final List<Integer> list = new CopyOnWriteArrayList<>();
+
+        @Outgoing("generated")
+        public CompletionStage<Integer> generate() {
+            int i = counter.getAndIncrement();
+            return i < 5 ? CompletableFuture.completedFuture(i) : new CompletableFuture<>();
+        }
+
+        @Incoming("generated")
+        public void consume(int payload) {
+            list.add(payload);
+        }
+
+        public List<Integer> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class EmittingBean {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Inject
+        @Channel("emitted")
+        Emitter<String> emitter;
+
+        @Incoming("emitted")
+        public void consume(String payload) {
+            list.add(payload);
+        }
+
+        public Emitter<String> emitter() {
+            return emitter;
+        }
+
+        public List<String> list() {
+            return list;
+        }
+    }
+}
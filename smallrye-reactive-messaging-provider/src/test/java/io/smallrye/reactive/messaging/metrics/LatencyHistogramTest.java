@@ -0,0 +1,61 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        long previous = -1;
+        for (int i = 0; i < (64 - LatencyHistogram.SUB_BUCKET_BITS) * LatencyHistogram.SUB_BUCKETS; i++) {
+            long upper = LatencyHistogram.upperBound(i);
+            assertThat(upper).isGreaterThan(previous);
+            assertThat(LatencyHistogram.index(previous + 1)).isEqualTo(i);
+            assertThat(LatencyHistogram.index(upper)).isEqualTo(i);
+            previous = upper;
+        }
+        assertThat(previous).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testQuantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getValueAtQuantile(0.5)).isEqualTo(0);
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000);
+        }
+        assertThat(histogram.getCount()).isEqualTo(10_000);
+        assertThat(histogram.getMax()).isEqualTo(10_000_000);
+        assertThat(histogram.getMean()).isEqualTo(5_000_500.0);
+        // The values are reported with a relative precision of 1/16
+        assertThat(histogram.getValueAtQuantile(0.5)).isBetween(5_000_000L, 5_000_000L + 5_000_000L / 16);
+        assertThat(histogram.getValueAtQuantile(0.99)).isBetween(9_900_000L, 9_900_000L + 9_900_000L / 16);
+        assertThat(histogram.getValueAtQuantile(1)).isEqualTo(10_000_000);
+        assertThatThrownBy(() -> histogram.getValueAtQuantile(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(histogram.getCount()).isEqualTo(400_000);
+        assertThat(histogram.getMax()).isEqualTo(99_999);
+        assertThat(histogram.getValueAtQuantile(0.5)).isBetween(50_000L, 50_000L + 50_000L / 16);
+    }
+}
@@ -0,0 +1,104 @@
+package io.smallrye.reactive.messaging.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.Test;
+
+import io.smallrye.reactive.messaging.Lineage;
+import io.smallrye.reactive.messaging.LineageMessage;
+import io.smallrye.reactive.messaging.TracedMessage;
+
+public class LineageTrackerTest {
+
+    @Test
+    public void testSampling() {
+        LineageTracker tracker = LineageTracker.forIngress("in", new ChannelStatistics("in", 1, 3));
+        List<TracedMessage<Integer>> messages = IntStream.range(0, 7).mapToObj(TracedMessage::of)
+                .collect(Collectors.toList());
+        for (TracedMessage<Integer> message : messages) {
+            // Untraceable messages do not count
+            tracker.sample(Message.of(-1));
+            tracker.sample(message);
+        }
+        assertThat(messages).extracting(m -> m.getLineage() != null)
+                .containsExactly(true, false, false, true, false, false, true);
+        assertThat(messages.get(0).getLineage().getOrigin()).isEqualTo("in");
+        assertThat(messages.get(0).getLineage().getAge()).isNotNegative();
+    }
+
+    @Test
+    public void testNotTraced() {
+        assertThat(LineageTracker.forIngress("in", new ChannelStatistics("in", 1))).isNull();
+        assertThat(LineageTracker.forIngress("in", new ChannelStatistics("in", 1, 1) {
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        })).isNull();
+        assertThat(LineageTracker.forIngress("in", ChannelMetrics.NOOP)).isNull();
+    }
+
+    @Test
+    public void testEgressToConnector() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        ChannelMetrics metrics = new ChannelMetrics() {
+            @Override
+            public void onEgress(Lineage lineage, long latencyNanos) {
+                events.add("egress:" + lineage.getOrigin());
+            }
+
+            @Override
+            public void onLineageAck(Lineage lineage, long latencyNanos) {
+                events.add("ack:" + lineage.getOrigin());
+            }
+        };
+        AtomicInteger acks = new AtomicInteger();
+        TracedMessage<String> message = TracedMessage.of("hello", () -> {
+            acks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // Not traced
+        assertThat(LineageTracker.egressToConnector(message, metrics)).isSameAs(message);
+
+        message.setLineage(Lineage.start("in"));
+        Message<?> sent = LineageTracker.egressToConnector(message, metrics);
+        assertThat(sent).isInstanceOf(LineageMessage.class).isNotSameAs(message);
+        assertThat(sent.getPayload()).isEqualTo("hello");
+        assertThat(Lineage.of(sent)).isSameAs(message.getLineage());
+        assertThat(events).containsExactly("egress:in");
+        sent.ack().toCompletableFuture().join();
+        assertThat(acks).hasValue(1);
+        assertThat(events).containsExactly("egress:in", "ack:in");
+
+        // Messages of other types are sent as they are
+        TracedMessage<String> other = new TracedMessage<String>() {
+            private Lineage lineage = Lineage.start("other");
+
+            @Override
+            public Lineage getLineage() {
+                return lineage;
+            }
+
+            @Override
+            public void setLineage(Lineage lineage) {
+                this.lineage = lineage;
+            }
+
+            @Override
+            public String getPayload() {
+                return "other";
+            }
+        };
+        assertThat(LineageTracker.egressToConnector(other, metrics)).isSameAs(other);
+        assertThat(events).containsExactly("egress:in", "ack:in", "egress:other");
+    }
+}
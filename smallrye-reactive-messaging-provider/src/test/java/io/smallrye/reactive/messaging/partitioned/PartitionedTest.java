@@ -0,0 +1,307 @@
+package io.smallrye.reactive.messaging.partitioned;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.ProcessorBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.KeyedMessage;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.smallrye.reactive.messaging.annotations.Partitioned;
+
+public class PartitionedTest extends WeldTestBaseWithoutTails {
+
+    private static final int COUNT = 100;
+    private static final String[] KEYS = { "a", "b", "c", "d", "e", "f", "g", "h" };
+
+    @Test
+    public void testPartitionedProcessorKeepsTheOrderPerKey() {
+        addBeanClass(Collector.class);
+        PartitionedProcessor processor = installInitializeAndGet(PartitionedProcessor.class);
+        Collector collector = get(Collector.class);
+
+        await().until(() -> collector.list().size() == COUNT);
+        assertOrderedPerKey(collector.list());
+        assertThat(processor.threads()).hasSizeGreaterThan(1).hasSizeLessThanOrEqualTo(4);
+        // A key is always processed by the same lane.
+        processor.threadsPerKey().values().forEach(threads -> assertThat(threads).hasSize(1));
+        assertThat(processor.acked()).isEqualTo(COUNT);
+    }
+
+    @Test
+    public void testLanesAreStoppedWithTheContainer() {
+        addBeanClass(Collector.class);
+        PartitionedProcessor processor = installInitializeAndGet(PartitionedProcessor.class);
+        Collector collector = get(Collector.class);
+
+        await().until(() -> collector.list().size() == COUNT);
+        Set<String> lanes = processor.threads();
+        assertThat(lanes).allMatch(name -> name.startsWith("keyed-lane-"));
+
+        container.close();
+        container = null;
+        await().until(() -> Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(thread -> lanes.contains(thread.getName())));
+    }
+
+    @Test
+    public void testPartitionedSubscriber() {
+        PartitionedSubscriber subscriber = installInitializeAndGet(PartitionedSubscriber.class);
+
+        await().until(() -> subscriber.acked() == COUNT);
+        assertOrderedPerKey(subscriber.list());
+        assertThat(subscriber.threads()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    public void testMessagesWithoutKeyAreDispatched() {
+        addBeanClass(Collector.class);
+        ConfiguredProcessor processor = installInitializeAndGet(ConfiguredProcessor.class);
+        Collector collector = get(Collector.class);
+
+        await().until(() -> collector.list().size() == COUNT);
+        assertThat(collector.list()).hasSize(COUNT).doesNotHaveDuplicates();
+        assertThat(processor.threads()).hasSize(2);
+    }
+
+    @Test
+    public void testConfiguredPartitionsIgnoredByStreamConsumer() {
+        addBeanClass(Collector.class);
+        ConfiguredProcessorAndStreamConsumer bean = installInitializeAndGet(ConfiguredProcessorAndStreamConsumer.class);
+        Collector collector = get(Collector.class);
+
+        await().until(() -> collector.list().size() == COUNT && bean.all().size() == COUNT);
+        assertThat(bean.threads()).hasSize(2);
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testPartitionedProcessorBuilderIsRejected() {
+        addBeanClass(InvalidPartitionedProcessor.class);
+        initialize();
+    }
+
+    private static void assertOrderedPerKey(List<String> list) {
+        Map<String, List<Integer>> perKey = list.stream()
+                .collect(Collectors.groupingBy(s -> s.substring(0, 1),
+                        Collectors.mapping(s -> Integer.parseInt(s.substring(2)), Collectors.toList())));
+        assertThat(perKey).hasSize(KEYS.length);
+        perKey.values().forEach(values -> assertThat(values).isSorted());
+    }
+
+    private static Publisher<Message<String>> keyedMessages(AtomicInteger acks) {
+        return Flowable.range(0, COUNT).map(i -> new SimpleKeyedMessage(KEYS[i % KEYS.length], i, acks));
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class SimpleKeyedMessage implements KeyedMessage<String> {
+        private final String key;
+        private final String payload;
+        private final AtomicInteger acks;
+
+        SimpleKeyedMessage(String key, int index, AtomicInteger acks) {
+            this.key = key;
+            this.payload = key + "-" + index;
+            this.acks = acks;
+        }
+
+        @Override
+        public Object getPartitionKey() {
+            return key;
+        }
+
+        @Override
+        public String getPayload() {
+            return payload;
+        }
+
+        @Override
+        public CompletionStage<Void> ack() {
+            acks.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @ApplicationScoped
+    public static class Collector {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("results")
+        public void collect(String s) {
+            list.add(s);
+        }
+
+        List<String> list() {
+            return list;
+        }
+    }
+
+    @ApplicationScoped
+    public static class PartitionedProcessor {
+        private final Map<String, Set<String>> threadsPerKey = new ConcurrentHashMap<>();
+        private final AtomicInteger acks = new AtomicInteger();
+
+        @Outgoing("keyed")
+        public Publisher<Message<String>> source() {
+            return keyedMessages(acks);
+        }
+
+        @Incoming("keyed")
+        @Outgoing("results")
+        @Partitioned(4)
+        public String process(String payload) {
+            threadsPerKey.computeIfAbsent(payload.substring(0, 1), k -> ConcurrentHashMap.newKeySet())
+                    .add(Thread.currentThread().getName());
+            sleep();
+            return payload;
+        }
+
+        Map<String, Set<String>> threadsPerKey() {
+            return threadsPerKey;
+        }
+
+        Set<String> threads() {
+            return threadsPerKey.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+        }
+
+        int acked() {
+            return acks.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class PartitionedSubscriber {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger acks = new AtomicInteger();
+
+        @Outgoing("keyed")
+        public Publisher<Message<String>> source() {
+            return keyedMessages(acks);
+        }
+
+        @Incoming("keyed")
+        @Partitioned(3)
+        public void consume(String payload) {
+            threads.add(Thread.currentThread().getName());
+            sleep();
+            list.add(payload);
+        }
+
+        List<String> list() {
+            return list;
+        }
+
+        Set<String> threads() {
+            return threads;
+        }
+
+        int acked() {
+            return acks.get();
+        }
+    }
+
+    @ApplicationScoped
+    public static class ConfiguredProcessor {
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        @Outgoing("not-keyed")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        // The number of partitions is set in microprofile-config.properties
+        @Incoming("not-keyed")
+        @Outgoing("results")
+        public String process(int i) {
+            threads.add(Thread.currentThread().getName());
+            return Integer.toString(i);
+        }
+
+        Set<String> threads() {
+            return threads;
+        }
+    }
+
+    @ApplicationScoped
+    public static class ConfiguredProcessorAndStreamConsumer {
+        private final Set<String> threads = ConcurrentHashMap.newKeySet();
+        private final List<Integer> all = new CopyOnWriteArrayList<>();
+
+        @Outgoing("not-keyed")
+        @Broadcast(2)
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        // The number of partitions is set in microprofile-config.properties
+        @Incoming("not-keyed")
+        @Outgoing("results")
+        public String process(int i) {
+            threads.add(Thread.currentThread().getName());
+            return Integer.toString(i);
+        }
+
+        // The partitions configured for the channel do not apply to this method
+        @Incoming("not-keyed")
+        public Subscriber<Integer> consumeAll() {
+            return ReactiveStreams.<Integer> builder().forEach(all::add).build();
+        }
+
+        Set<String> threads() {
+            return threads;
+        }
+
+        List<Integer> all() {
+            return all;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidPartitionedProcessor {
+        @Outgoing("keyed")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, COUNT);
+        }
+
+        @Incoming("keyed")
+        @Outgoing("results")
+        @Partitioned(2)
+        public ProcessorBuilder<Integer, String> process() {
+            return ReactiveStreams.<Integer> builder().map(i -> Integer.toString(i));
+        }
+
+        @Incoming("results")
+        public void sink(String s) {
+            // Do nothing.
+        }
+    }
+}
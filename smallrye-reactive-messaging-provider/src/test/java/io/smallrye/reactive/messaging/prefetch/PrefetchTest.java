@@ -0,0 +1,77 @@
+package io.smallrye.reactive.messaging.prefetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.spi.DeploymentException;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+
+import io.reactivex.Flowable;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+
+public class PrefetchTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testPrefetchFromConfiguration() {
+        PrefetchingSubscriber subscriber = installInitializeAndGet(PrefetchingSubscriber.class);
+
+        await().until(() -> subscriber.received().size() == 100);
+        // The prefetch and the replenish threshold are set in microprofile-config.properties
+        assertThat(subscriber.requests().get(0)).isEqualTo(8);
+        assertThat(subscriber.requests().subList(1, subscriber.requests().size())).containsOnly(4L);
+    }
+
+    @Test(expected = DeploymentException.class)
+    public void testReplenishGreaterThanPrefetchIsRejected() {
+        addBeanClass(InvalidPrefetchSubscriber.class);
+        initialize();
+    }
+
+    @ApplicationScoped
+    public static class PrefetchingSubscriber {
+        private final List<Long> requests = new CopyOnWriteArrayList<>();
+        private final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        @Outgoing("configured-prefetch")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, 100).doOnRequest(requests::add);
+        }
+
+        @Incoming("configured-prefetch")
+        public CompletionStage<Void> consume(Integer value) {
+            received.add(value);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<Long> requests() {
+            return requests;
+        }
+
+        List<Integer> received() {
+            return received;
+        }
+    }
+
+    @ApplicationScoped
+    public static class InvalidPrefetchSubscriber {
+        @Outgoing("invalid-prefetch")
+        public Publisher<Integer> source() {
+            return Flowable.range(0, 10);
+        }
+
+        @Incoming("invalid-prefetch")
+        public void consume(Integer value) {
+            // Do nothing.
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.smallrye.reactive.messaging.registry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
+import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
+import org.eclipse.microprofile.reactive.streams.operators.SubscriberBuilder;
+import org.junit.Test;
+
+import io.smallrye.reactive.messaging.ChannelRegistry;
+import io.smallrye.reactive.messaging.WeldTestBaseWithoutTails;
+
+/**
+ * Checks that the channels registered after the deployment are connected.
+ */
+public class RuntimeRegistrationTest extends WeldTestBaseWithoutTails {
+
+    @Test
+    public void testLatePublisherFeedsWaitingMediators() {
+        addBeanClass(PendingBean.class);
+        initialize();
+        PendingBean bean = get(PendingBean.class);
+        assertThat(bean.list()).isEmpty();
+
+        registry(container).register("late", ReactiveStreams.of("a", "b", "c").map(Message::of));
+
+        await().until(() -> bean.list().size() == 3);
+        assertThat(bean.list()).containsExactly("A", "B", "C");
+    }
+
+    @Test
+    public void testLateSubscriberReceivesExistingPublisher() {
+        addBeanClass(SourceBean.class);
+        initialize();
+        ChannelRegistry registry = registry(container);
+        List<String> received = new CopyOnWriteArrayList<>();
+        SubscriberBuilder<Message<String>, Void> sink = ReactiveStreams.<Message<String>> builder()
+                .forEach(m -> received.add(m.getPayload()));
+
+        registry.register("source", sink);
+
+        await().until(() -> received.size() == 3);
+        assertThat(received).containsExactly("x", "y", "z");
+    }
+
+    @Test
+    public void testLatePublisherFeedsLateSubscriber() {
+        initialize();
+        ChannelRegistry registry = registry(container);
+        List<String> received = new CopyOnWriteArrayList<>();
+        registry.register("dynamic", ReactiveStreams.<Message<String>> builder()
+                .forEach(m -> received.add(m.getPayload())));
+        PublisherBuilder<Message<String>> publisher = ReactiveStreams.of("1", "2").map(Message::of);
+
+        registry.register("dynamic", publisher);
+
+        await().until(() -> received.size() == 2);
+        assertThat(received).containsExactly("1", "2");
+        assertThat(registry.unregister("dynamic", publisher)).isTrue();
+        assertThat(registry.getIncomingNames()).doesNotContain("dynamic");
+    }
+
+    @Test
+    public void testConcurrentRegistrationsAreConnectedOnce() throws Exception {
+        initialize();
+        ChannelRegistry registry = registry(container);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<List<String>> lists = new ArrayList<>();
+        try {
+            for (int i = 0; i < 100; i++) {
+                String name = "concurrent-" + i;
+                List<String> received = new CopyOnWriteArrayList<>();
+                lists.add(received);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                Future<?> publisher = executor.submit(() -> {
+                    barrier.await();
+                    return registry.register(name, ReactiveStreams.of("a", "b").map(Message::of));
+                });
+                Future<?> subscriber = executor.submit(() -> {
+                    barrier.await();
+                    return registry.register(name, ReactiveStreams.<Message<String>> builder()
+                            .forEach(m -> received.add(m.getPayload())));
+                });
+                publisher.get(10, TimeUnit.SECONDS);
+                subscriber.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        await().until(() -> lists.stream().allMatch(l -> l.size() >= 2));
+        assertThat(lists).allSatisfy(l -> assertThat(l).containsExactly("a", "b"));
+    }
+
+    @ApplicationScoped
+    public static class PendingBean {
+        private final List<String> list = new CopyOnWriteArrayList<>();
+
+        @Incoming("late")
+        @Outgoing("upper")
+        public String process(String payload) {
+            return payload.toUpperCase();
+        }
+
+        @Incoming("upper")
+        public void consume(String payload) {
+            list.add(payload);
+        }
+
+        public List<String> list() {
+            return new ArrayList<>(list);
+        }
+    }
+
+    @ApplicationScoped
+    public static class SourceBean {
+        @Outgoing("source")
+        public PublisherBuilder<String> source() {
+            return ReactiveStreams.of("x", "y", "z");
+        }
+    }
+
+}
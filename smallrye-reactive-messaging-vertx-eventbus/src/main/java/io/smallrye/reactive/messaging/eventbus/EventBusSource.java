@@ -8,6 +8,7 @@ import org.eclipse.microprofile.reactive.messaging.Message;
 import org.eclipse.microprofile.reactive.streams.operators.PublisherBuilder;
 import org.eclipse.microprofile.reactive.streams.operators.ReactiveStreams;
 
+import io.smallrye.reactive.messaging.BroadcastHub;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.core.eventbus.MessageConsumer;
 
@@ -17,12 +18,14 @@ class EventBusSource {
     private final boolean ack;
     private final Vertx vertx;
     private final boolean broadcast;
+    private final Config config;
 
     EventBusSource(Vertx vertx, Config config) {
         this.vertx = Objects.requireNonNull(vertx, "The vert.x instance must not be `null`");
         this.address = config.getOptionalValue("address", String.class)
                 .orElseThrow(() -> new IllegalArgumentException("`address` must be set"));
         this.broadcast = config.getOptionalValue("broadcast", Boolean.class).orElse(false);
+        this.config = config;
         this.ack = config.getOptionalValue("use-reply-as-ack", Boolean.class).orElse(false);
     }
 
@@ -31,7 +34,7 @@ class EventBusSource {
         return ReactiveStreams.fromPublisher(consumer.toFlowable()
                 .compose(flow -> {
                     if (broadcast) {
-                        return flow.publish().autoConnect();
+                        return BroadcastHub.create(flow, config);
                     } else {
                         return flow;
                     }